@@ -58,6 +58,10 @@ public class TimingHistory {
     public static long entityTicks;
     public static long tileEntityTicks;
     public static long activatedEntityTicks;
+    // Sync scheduler tasks postponed because the tick budget was used up
+    public static long deferredTasks;
+    // The most ticks a deferred sync scheduler task had to wait
+    public static long maxDeferredTaskDelay;
     static int worldIdPool = 1;
     static Map<String, Integer> worldMap = LoadingMap.newHashMap((input) -> worldIdPool++);
     final long endTime;
@@ -146,6 +150,8 @@ public static void resetTicks(boolean fullReset) {
         tileEntityTicks = 0;
         entityTicks = 0;
         activatedEntityTicks = 0;
+        deferredTasks = 0;
+        maxDeferredTaskDelay = 0;
     }
 
     JsonObject export() {
@@ -185,7 +191,9 @@ public JsonArray export() {
                             this.ticksRecord.tileEntity),
                     this.usedMemory,
                     this.freeMemory,
-                    this.loadAvg);
+                    this.loadAvg,
+                    JSONUtil.arrayOf(this.ticksRecord.deferredTasks,
+                            this.ticksRecord.maxDeferredTaskDelay));
         }
     }
 
@@ -196,6 +204,8 @@ static class TicksRecord {
         final long entity;
         final long tileEntity;
         final long activatedEntity;
+        final long deferredTasks;
+        final long maxDeferredTaskDelay;
 
         TicksRecord() {
             this.timed = timedTicks - (TimingsManager.MINUTE_REPORTS.size() * 1200);
@@ -203,6 +213,8 @@ static class TicksRecord {
             this.entity = entityTicks;
             this.tileEntity = tileEntityTicks;
             this.activatedEntity = activatedEntityTicks;
+            this.deferredTasks = deferredTasks;
+            this.maxDeferredTaskDelay = maxDeferredTaskDelay;
         }
 
     }
@@ -255,7 +255,7 @@ public DataContainer toContainer() {
             container.set(DataQueries.BLOCK_EXTENDED_STATE, this.extendedState);
         }
         if (this.compound != null) {
-            container.set(DataQueries.UNSAFE_NBT, NbtTranslator.getInstance().translateFrom(this.compound));
+            container.set(DataQueries.UNSAFE_NBT, NbtTranslator.getInstance().translateLazily(this.compound));
         }
         final List<DataView> dataList = DataUtil.getSerializedImmutableManipulatorList(this.extraData);
         if (!dataList.isEmpty()) {
@@ -537,7 +537,7 @@ public Optional<TileEntityArchetype> createArchetype() {
         final TileEntityArchetype archetype = TileEntityArchetype.builder()
                 .tile(tileType)
                 .state(this.blockState)
-                .tileData(NbtTranslator.getInstance().translate(this.compound))
+                .tileData(NbtTranslator.getInstance().translateLazily(this.compound))
                 .build();
         return Optional.of(archetype);
     }
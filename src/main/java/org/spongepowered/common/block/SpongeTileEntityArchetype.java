@@ -71,7 +71,7 @@ public TileEntityType getTileEntityType() {
 
     @Override
     public DataContainer getTileData() {
-        return NbtTranslator.getInstance().translateFrom(this.data);
+        return NbtTranslator.getInstance().translateLazily(this.data.copy());
     }
 
     @Override
@@ -137,7 +137,8 @@ protected ValidationType getValidationType() {
     public TileEntityArchetype copy() {
         final SpongeTileEntityArchetypeBuilder builder = new SpongeTileEntityArchetypeBuilder();
         builder.tileEntityType = this.type;
-        builder.tileData = NbtTranslator.getInstance().translate(this.data);
+        // The data is copied again when the archetype is built
+        builder.tileData = NbtTranslator.getInstance().translateLazily(this.data);
         builder.blockState = this.blockState;
         return builder.build();
     }
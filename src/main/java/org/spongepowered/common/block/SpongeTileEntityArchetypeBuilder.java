@@ -117,7 +117,7 @@ public TileEntityArchetype.Builder tile(TileEntity tileEntity) {
         nbttagcompound.removeTag("x");
         nbttagcompound.removeTag("y");
         nbttagcompound.removeTag("z");
-        this.tileData = NbtTranslator.getInstance().translate(nbttagcompound);
+        this.tileData = NbtTranslator.getInstance().translateLazily(nbttagcompound);
         this.blockState = tileEntity.getBlock();
         this.tileEntityType = tileEntity.getType();
         return this;
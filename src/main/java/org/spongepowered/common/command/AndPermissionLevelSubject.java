@@ -30,6 +30,7 @@
 import org.spongepowered.api.service.context.Context;
 import org.spongepowered.api.service.permission.MemorySubjectData;
 import org.spongepowered.api.service.permission.PermissionService;
+import org.spongepowered.api.service.permission.Subject;
 import org.spongepowered.api.service.permission.SubjectCollection;
 import org.spongepowered.api.service.permission.SubjectData;
 import org.spongepowered.api.util.Tristate;
@@ -41,16 +42,26 @@
 import java.util.Optional;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 public final class AndPermissionLevelSubject extends SpongeBaseSubject {
 
     private final PermissionService service;
     private final CommandSource delegate;
     private final MemorySubjectData opLevelData;
+    @Nullable private Subject delegateSubject;
 
     public AndPermissionLevelSubject(ICommandSender opLevelSubject, CommandSource delegate) {
         this.delegate = delegate;
         this.service = SpongeImpl.getGame().getServiceManager().provideUnchecked(PermissionService.class);
-        this.opLevelData = new FixedParentMemorySubjectData(this.service, delegate.asSubjectReference());
+        this.opLevelData = new FixedParentMemorySubjectData(this.service, delegate.asSubjectReference()) {
+
+            @Override
+            protected boolean isShared() {
+                // Only used by this subject
+                return false;
+            }
+        };
         CommandPermissions.populateMinecraftPermissions(opLevelSubject, this.opLevelData);
         for (Map.Entry<String, Boolean> permission : ImmutableSet.copyOf(this.opLevelData.getPermissions(SubjectData.GLOBAL_CONTEXT).entrySet())) {
             if (permission.getValue()) {
@@ -93,4 +104,15 @@ public SubjectData getSubjectData() {
     public MemorySubjectData getTransientSubjectData() {
         return this.opLevelData;
     }
+
+    @Override
+    protected long getPermissionState() {
+        // The delegate is the parent of this subject, its data and op level aren't tracked by the service
+        Subject delegateSubject = this.delegateSubject;
+        if (delegateSubject == null) {
+            delegateSubject = this.delegate.asSubjectReference().resolve().join();
+            this.delegateSubject = delegateSubject;
+        }
+        return getPermissionState(delegateSubject);
+    }
 }
@@ -48,6 +48,7 @@
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.IChunkLoader;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.command.CommandCallable;
@@ -66,6 +67,7 @@
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.service.pagination.PaginationList;
 import org.spongepowered.api.service.pagination.PaginationService;
+import org.spongepowered.api.service.permission.PermissionService;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.action.ClickAction;
 import org.spongepowered.api.text.action.TextActions;
@@ -87,11 +89,17 @@
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.IMixinMinecraftServer;
 import org.spongepowered.common.interfaces.entity.IMixinEntity;
+import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
 import org.spongepowered.common.interfaces.world.IMixinDimensionType;
 import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.scheduler.AsyncTaskExecutor;
+import org.spongepowered.common.service.permission.SpongePermissionService;
 import org.spongepowered.common.util.SpongeHooks;
+import org.spongepowered.common.world.AsyncLightingEngine;
 import org.spongepowered.common.world.WorldManager;
+import org.spongepowered.common.world.pregen.SpongeChunkPreGenerateTask;
+import org.spongepowered.common.world.storage.ChunkSaveQueue;
 
 import java.io.File;
 import java.net.MalformedURLException;
@@ -135,6 +143,7 @@ public static CommandSpec createSpongeCommand() {
         nonFlagChildren.register(createSpongeAuditCommand(), "audit");
         nonFlagChildren.register(createSpongeHeapCommand(), "heap");
         nonFlagChildren.register(createSpongePluginsCommand(), "plugins");
+        nonFlagChildren.register(createSpongeSchedulerCommand(), "scheduler");
         nonFlagChildren.register(createSpongeTimingsCommand(), "timings");
         nonFlagChildren.register(createSpongeWhichCommand(), "which");
         flagChildren.register(createSpongeChunksCommand(), "chunks");
@@ -685,6 +694,29 @@ private static CommandSpec createSpongeWhichCommand() {
                 .build();
     }
 
+    private static CommandSpec createSpongeSchedulerCommand() {
+        return CommandSpec.builder()
+                .permission("sponge.command.scheduler")
+                .description(Text.of("Provides metrics of the async task executor per plugin."))
+                .executor((src, args) -> {
+                    final AsyncTaskExecutor executor = SpongeImpl.getScheduler().getAsyncExecutor();
+                    src.sendMessage(Text.of("Async threads: ", TextColors.LIGHT_PURPLE, executor.getActiveThreads(), TextColors.RESET,
+                            " active, ", TextColors.LIGHT_PURPLE, executor.getPoolSize(), TextColors.RESET, " pooled, ",
+                            TextColors.LIGHT_PURPLE, executor.getMaxThreads(), TextColors.RESET, " max"));
+                    executor.getPluginQueues().stream()
+                            .sorted(Comparator.comparing(AsyncTaskExecutor.PluginQueue::getId))
+                            .forEachOrdered(queue -> src.sendMessage(Text.of(LIST_ITEM_TEXT, TextColors.GREEN, queue.getId(), TextColors.RESET,
+                                    ": Queued: ", TextColors.LIGHT_PURPLE, queue.getQueuedTasks(),
+                                    TextColors.RESET, ", Active: ", TextColors.LIGHT_PURPLE, queue.getActiveTasks(),
+                                    TextColors.RESET, ", Latency p50/p95/p99: ", TextColors.RED,
+                                    THREE_DECIMAL_DIGITS_FORMATTER.format(queue.getLatency(0.5) * 1.0e-6d), "/",
+                                    THREE_DECIMAL_DIGITS_FORMATTER.format(queue.getLatency(0.95) * 1.0e-6d), "/",
+                                    THREE_DECIMAL_DIGITS_FORMATTER.format(queue.getLatency(0.99) * 1.0e-6d), "ms")));
+                    return CommandResult.success();
+                })
+                .build();
+    }
+
     private static CommandSpec createSpongeTpsCommand() {
         return CommandSpec.builder()
                 .permission("sponge.command.tps")
@@ -708,6 +740,13 @@ private static CommandSpec createSpongeTpsCommand() {
                             THREE_DECIMAL_DIGITS_FORMATTER.format(Math.min(1000.0 / (serverMeanTickTime), 20)),
                             TextColors.RESET, ", Mean: ", TextColors.RED, THREE_DECIMAL_DIGITS_FORMATTER.
                                     format(serverMeanTickTime), "ms"));
+                    final PermissionService permissionService = Sponge.getServiceManager().provideUnchecked(PermissionService.class);
+                    if (permissionService instanceof SpongePermissionService) {
+                        final SpongePermissionService service = (SpongePermissionService) permissionService;
+                        src.sendMessage(Text.of(LIST_ITEM_TEXT, "Permission cache: ", TextColors.LIGHT_PURPLE, service.getPermissionCacheHits(),
+                                TextColors.RESET, " hits, ", TextColors.LIGHT_PURPLE, service.getPermissionCacheMisses(), TextColors.RESET,
+                                " misses"));
+                    }
                     return CommandResult.success();
                 })
                 .build();
@@ -722,6 +761,34 @@ private static void printWorldTickTime(CommandSource src, World world) {
                 ((IMixinWorldServer) world).getDimensionId(), ") TPS: ", TextColors.LIGHT_PURPLE,
                 THREE_DECIMAL_DIGITS_FORMATTER.format(worldTps), TextColors.RESET,  ", Mean: ", TextColors.RED,
                 THREE_DECIMAL_DIGITS_FORMATTER.format(worldMeanTickTime), "ms"));
+        if (SpongeImpl.getGlobalConfig().getConfig().getModules().useOptimizations() &&
+                SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useAsyncLighting()) {
+            final AsyncLightingEngine engine = ((IMixinWorldServer) world).getLightingEngine();
+            final long batches = engine.getCompletedBatches();
+            src.sendMessage(Text.of(LIST_ITEM_TEXT, "Async lighting: ", TextColors.LIGHT_PURPLE, engine.getCompletedUpdates(),
+                    TextColors.RESET, " updates, ", TextColors.LIGHT_PURPLE, engine.getCompletedJobs(), TextColors.RESET, " jobs in ",
+                    TextColors.LIGHT_PURPLE, batches, TextColors.RESET, " batches, Mean: ", TextColors.RED,
+                    THREE_DECIMAL_DIGITS_FORMATTER.format(batches == 0 ? 0 : engine.getBatchTime() * 1.0e-6d / batches), "ms",
+                    TextColors.RESET, ", Queued: ", TextColors.LIGHT_PURPLE, engine.getQueuedJobs()));
+        }
+        final IChunkLoader chunkLoader = ((WorldServer) world).getChunkProvider().chunkLoader;
+        final ChunkSaveQueue saveQueue = chunkLoader instanceof IMixinAnvilChunkLoader ? ((IMixinAnvilChunkLoader) chunkLoader).getSaveQueue() : null;
+        if (saveQueue != null) {
+            final long writes = saveQueue.getWrites();
+            src.sendMessage(Text.of(LIST_ITEM_TEXT, "Chunk saves: ", TextColors.LIGHT_PURPLE, writes, TextColors.RESET, " writes, ",
+                    TextColors.LIGHT_PURPLE, saveQueue.getCoalescedSaves(), TextColors.RESET, " merged, Mean: ", TextColors.RED,
+                    THREE_DECIMAL_DIGITS_FORMATTER.format(writes == 0 ? 0 : saveQueue.getWriteTime() * 1.0e-6d / writes), "ms",
+                    TextColors.RESET, ", Latency: ", TextColors.RED,
+                    THREE_DECIMAL_DIGITS_FORMATTER.format(writes == 0 ? 0 : saveQueue.getLatency() * 1.0e-6d / writes), "ms",
+                    TextColors.RESET, " (max ", TextColors.RED, THREE_DECIMAL_DIGITS_FORMATTER.format(saveQueue.getMaxLatency() * 1.0e-6d), "ms",
+                    TextColors.RESET, "), Queued: ", TextColors.LIGHT_PURPLE, saveQueue.getDepth()));
+        }
+        for (SpongeChunkPreGenerateTask task : SpongeChunkPreGenerateTask.getActiveTasks(world)) {
+            src.sendMessage(Text.of(LIST_ITEM_TEXT, "Chunk pre-generation: ", TextColors.LIGHT_PURPLE, task.getTotalGeneratedChunks(),
+                    TextColors.RESET, " generated, ", TextColors.LIGHT_PURPLE, task.getTotalSkippedChunks(), TextColors.RESET, " skipped of ",
+                    TextColors.LIGHT_PURPLE, task.getTargetTotalChunks(), TextColors.RESET, ", ", TextColors.LIGHT_PURPLE,
+                    THREE_DECIMAL_DIGITS_FORMATTER.format(task.getChunksPerSecond()), TextColors.RESET, " chunks/s"));
+        }
     }
 
     private static Long mean(long[] values) {
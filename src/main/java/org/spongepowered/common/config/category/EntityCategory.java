@@ -54,6 +54,11 @@ public class EntityCategory extends ConfigCategory {
     private int hardDespawnRange = 128;
     @Setting(value = "living-soft-despawn-minimum-life", comment = "The amount of seconds before a living entity between the soft and hard despawn ranges from a player to be considered for despawning")
     private int minimumLife = 30;
+    @Setting(value = "player-move-event-min-distance", comment = "The distance a player has to move before a move event is fired for them.\n"
+            + "Smaller movements add up until they reach this distance.")
+    private double playerMoveEventMinDistance = 1.0 / 16;
+    @Setting(value = "player-move-event-min-rotation", comment = "The amount of degrees a player has to turn before a move event is fired for them.")
+    private double playerMoveEventMinRotation = 0.15;
 
     public int getMaxSpeed() {
         return this.maxSpeed;
@@ -134,4 +139,12 @@ public int getMinimumLife() {
     public void setMinimumLife(int minimumLife) {
         this.minimumLife = Math.min(minimumLife, 20);
     }
-}
\ No newline at end of file
+
+    public double getPlayerMoveEventMinDistance() {
+        return this.playerMoveEventMinDistance;
+    }
+
+    public double getPlayerMoveEventMinRotation() {
+        return this.playerMoveEventMinRotation;
+    }
+}
@@ -56,11 +56,29 @@ public class OptimizationCategory extends ConfigCategory {
     @Setting(value = "async-lighting", comment = "Runs lighting updates async.")
     private AsyncLightingCategory asyncLightingCategory = new AsyncLightingCategory();
 
+    @Setting(value = "async-chunk-loading", comment = "If enabled, chunks loaded for players are read and decoded on the async scheduler.\n"
+            + "Only their entities and tile entities are loaded on the main thread, which is done the tick after\n"
+            + "the chunk was read. Has no effect on SpongeForge, which loads these chunks through Forge's chunk IO.")
+    private boolean asyncChunkLoading = false;
+
+    @Setting(value = "chunk-save", comment = "Handles how chunks are written to the region files.")
+    private ChunkSaveCategory chunkSaveCategory = new ChunkSaveCategory();
+
     @Setting(value = "panda-redstone", comment = "If enabled, uses Panda4494's Redstone implementation which improves performance.\n"
             + "See https://bugs.mojang.com/browse/MC-11193 for more information.\n"
             + "Note: This optimization has a few issues which is explained in the bug report. We are not responsible for any issues this may cause.")
     private boolean pandaRedstone = false;
 
+    @Setting(value = "compiled-event-dispatch", comment = "If enabled, generates a dispatcher class per event type which calls all of its\n"
+            + "listeners directly, instead of invoking the listeners one by one. This reduces the overhead\n"
+            + "of posting events that are fired very often.")
+    private boolean compiledEventDispatch = false;
+
+    @Setting(value = "flat-data-containers", comment = "If enabled, new data containers store all of their values in a single table keyed\n"
+            + "by the full path of the value, instead of one map per nested view. This makes reading\n"
+            + "and writing deeply nested data cheaper.")
+    private boolean flatDataContainers = false;
+
     public OptimizationCategory() {  
         try {  
             // Enabled by default on SpongeVanilla, disabled by default on SpongeForge.  
@@ -96,7 +114,27 @@ public boolean useAsyncLighting() {
         return this.asyncLightingCategory.isEnabled();
     }
 
+    public boolean useAsyncChunkLoading() {
+        return this.asyncChunkLoading;
+    }
+
+    public ChunkSaveCategory getChunkSaveCategory() {
+        return this.chunkSaveCategory;
+    }
+
+    public boolean useChunkSavePipeline() {
+        return this.chunkSaveCategory.isEnabled();
+    }
+
     public boolean usePandaRedstone() {
         return this.pandaRedstone;
     }
+
+    public boolean useCompiledEventDispatch() {
+        return this.compiledEventDispatch;
+    }
+
+    public boolean useFlatDataContainers() {
+        return this.flatDataContainers;
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.config.category;
+
+import ninja.leaping.configurate.objectmapping.Setting;
+import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
+
+@ConfigSerializable
+public class SchedulerCategory extends ConfigCategory {
+
+    @Setting(value = "async-task-queue", comment = "If enabled, the async scheduler keeps its tasks ordered by their next execution time\n"
+            + "and only looks at the tasks which are due when it wakes up, instead of scanning every\n"
+            + "scheduled task. Recommended if plugins schedule many repeating async tasks.")
+    private boolean asyncTaskQueue = false;
+
+    @Setting(value = "async-max-threads", comment = "The maximum amount of threads running async tasks of plugins at the same time. Internal\n"
+            + "work like chunk IO and profile lookups runs on threads of its own, at most as many per kind. (Default: 32)")
+    private int asyncMaxThreads = 32;
+
+    @Setting(value = "async-plugin-thread-limit", comment = "The maximum amount of async tasks of a single plugin which may run at the same time.\n"
+            + "Further tasks of that plugin wait in a queue of the plugin, so a plugin flooding the scheduler\n"
+            + "with blocking tasks does not starve the tasks of other plugins. Set to 0 to only limit by\n"
+            + "'async-max-threads'. (Default: 8)")
+    private int asyncPluginThreadLimit = 8;
+
+    @Setting(value = "sync-tick-budget", comment = "The time in milliseconds the sync scheduler may spend on tasks per tick. Tasks which\n"
+            + "plugins marked as deferrable and which are due once the budget is used up are postponed to the\n"
+            + "next tick, the longest postponed tasks run first. Set to 0 to run every due task. (Default: 0)")
+    private int syncTickBudget = 0;
+
+    public boolean useAsyncTaskQueue() {
+        return this.asyncTaskQueue;
+    }
+
+    public int getAsyncMaxThreads() {
+        return this.asyncMaxThreads;
+    }
+
+    public int getAsyncPluginThreadLimit() {
+        return this.asyncPluginThreadLimit;
+    }
+
+    public int getSyncTickBudget() {
+        return this.syncTickBudget;
+    }
+
+}
@@ -38,9 +38,11 @@
 import org.spongepowered.common.config.category.GlobalWorldCategory;
 import org.spongepowered.common.config.category.ModuleCategory;
 import org.spongepowered.common.config.category.OptimizationCategory;
+import org.spongepowered.common.config.category.SchedulerCategory;
 import org.spongepowered.common.config.category.SqlCategory;
 import org.spongepowered.common.config.category.TeleportHelperCategory;
 import org.spongepowered.common.util.IpSet;
+import org.spongepowered.common.util.IpSetTrie;
 
 import java.net.InetAddress;
 import java.util.HashMap;
@@ -62,6 +64,7 @@ public class GlobalConfig extends ConfigBase {
 
     @Setting("ip-sets")
     private Map<String, List<IpSet>> ipSets = new HashMap<>();
+    @Nullable private volatile CompiledIpSets compiledIpSets;
 
     @Setting(value = "bungeecord")
     private BungeeCordCategory bungeeCord = new BungeeCordCategory();
@@ -84,6 +87,9 @@ public class GlobalConfig extends ConfigBase {
     @Setting(value = "teleport-helper", comment = "Blocks to blacklist for safe teleportation.")
     private TeleportHelperCategory teleportHelper = new TeleportHelperCategory();
 
+    @Setting(value = "scheduler", comment = "Configuration options related to the plugin task scheduler.")
+    private SchedulerCategory scheduler = new SchedulerCategory();
+
     public GlobalConfig() {
         super();
     }
@@ -123,6 +129,23 @@ public OptimizationCategory getOptimizations() {
         return this.optimizations;
     }
 
+    /**
+     * Gets the ip sets compiled into a trie, it is rebuilt when the ip sets
+     * are reloaded.
+     *
+     * @return The ip set trie
+     */
+    public IpSetTrie getIpSetTrie() {
+        final Map<String, List<IpSet>> ipSets = this.ipSets;
+        final CompiledIpSets compiled = this.compiledIpSets;
+        if (compiled != null && compiled.source == ipSets) {
+            return compiled.trie;
+        }
+        final IpSetTrie trie = IpSetTrie.compile(ipSets);
+        this.compiledIpSets = new CompiledIpSets(ipSets, trie);
+        return trie;
+    }
+
     public Predicate<InetAddress> getIpSet(String name) {
         return this.ipSets.containsKey(name) ? Predicates.and(this.ipSets.get(name)) : null;
     }
@@ -151,4 +174,22 @@ public TeleportHelperCategory getTeleportHelper() {
         return this.teleportHelper;
     }
 
+    public SchedulerCategory getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * The ip sets and the trie compiled from them, they are published
+     * together so the trie always matches its source.
+     */
+    private static final class CompiledIpSets {
+
+        final Map<String, List<IpSet>> source;
+        final IpSetTrie trie;
+
+        CompiledIpSets(Map<String, List<IpSet>> source, IpSetTrie trie) {
+            this.source = source;
+            this.trie = trie;
+        }
+    }
 }
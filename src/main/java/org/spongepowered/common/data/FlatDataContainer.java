@@ -0,0 +1,194 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.value.BaseValue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link DataContainer} which stores all of its values, including the
+ * values of nested views, in one hash table keyed by the full path of the
+ * value. Can be used instead of the {@link MemoryDataContainer} by enabling
+ * the {@code flat-data-containers} optimization.
+ */
+public class FlatDataContainer extends FlatDataView implements DataContainer {
+
+    /**
+     * Every value and every view of this container by its full path, views
+     * are stored as {@link Node}s.
+     */
+    final Map<Path, Object> entries = new HashMap<>();
+
+    /**
+     * Creates a new {@link FlatDataContainer} with a default
+     * {@link org.spongepowered.api.data.DataView.SafetyMode} of
+     * {@link org.spongepowered.api.data.DataView.SafetyMode#ALL_DATA_CLONED}.
+     */
+    public FlatDataContainer() {
+        this(DataView.SafetyMode.ALL_DATA_CLONED);
+    }
+
+    /**
+     * Creates a new {@link FlatDataContainer} with the provided
+     * {@link org.spongepowered.api.data.DataView.SafetyMode}.
+     *
+     * @param safety The safety mode to use
+     */
+    public FlatDataContainer(DataView.SafetyMode safety) {
+        super(safety);
+        final Node root = new Node();
+        root.view = this;
+        this.entries.put(Path.ROOT, root);
+    }
+
+    @Nullable
+    Node getNode(Path path) {
+        final Object object = this.entries.get(path);
+        return object instanceof Node ? (Node) object : null;
+    }
+
+    FlatDataView getView(Path path) {
+        final Node node = getNode(path);
+        if (node == null) {
+            // The view was removed, it stays usable and is created again once written to
+            return new FlatDataView(this, path);
+        }
+        if (node.view == null) {
+            node.view = new FlatDataView(this, path);
+        }
+        return node.view;
+    }
+
+    /**
+     * Sets the value at the given path, replacing a view at that path and
+     * creating the views of its parents if needed.
+     */
+    void put(Path path, Object value) {
+        final Node parent = ensureNode(path.parent);
+        final Object previous = this.entries.put(path, value);
+        if (previous instanceof Node) {
+            removeChildren((Node) previous);
+        } else if (previous == null) {
+            parent.children.put(path.key, path);
+        }
+    }
+
+    /**
+     * Creates a new empty view at the given path, replacing anything which
+     * was stored there before.
+     */
+    void createNode(Path path) {
+        final Node parent = ensureNode(path.parent);
+        final Object previous = this.entries.put(path, new Node());
+        if (previous instanceof Node) {
+            removeChildren((Node) previous);
+        } else if (previous == null) {
+            parent.children.put(path.key, path);
+        }
+    }
+
+    private Node ensureNode(Path path) {
+        final Object object = this.entries.get(path);
+        if (object instanceof Node) {
+            return (Node) object;
+        }
+        final Node parent = ensureNode(path.parent);
+        final Node node = new Node();
+        if (this.entries.put(path, node) == null) {
+            parent.children.put(path.key, path);
+        }
+        return node;
+    }
+
+    void remove(Path path) {
+        final Object previous = this.entries.remove(path);
+        if (previous == null) {
+            return;
+        }
+        if (previous instanceof Node) {
+            removeChildren((Node) previous);
+        }
+        final Node parent = getNode(path.parent);
+        if (parent != null) {
+            parent.children.remove(path.key);
+        }
+    }
+
+    private void removeChildren(Node node) {
+        for (Path child : node.children.values()) {
+            final Object previous = this.entries.remove(child);
+            if (previous instanceof Node) {
+                removeChildren((Node) previous);
+            }
+        }
+    }
+
+    @Override
+    public Optional<DataView> getParent() {
+        return Optional.empty();
+    }
+
+    @Override
+    public final DataContainer getContainer() {
+        return this;
+    }
+
+    @Override
+    public DataContainer set(DataQuery path, Object value) {
+        return (DataContainer) super.set(path, value);
+    }
+
+    @Override
+    public <E> DataContainer set(Key<? extends BaseValue<E>> key, E value) {
+        return set(checkNotNull(key).getQuery(), value);
+    }
+
+    @Override
+    public DataContainer remove(DataQuery path) {
+        return (DataContainer) super.remove(path);
+    }
+
+    /**
+     * A view within the container, which keeps the paths of its direct
+     * children in insertion order.
+     */
+    static final class Node {
+
+        final Map<String, Path> children = new LinkedHashMap<>();
+        @Nullable FlatDataView view;
+    }
+}
@@ -0,0 +1,450 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.lang3.ArrayUtils;
+import org.spongepowered.api.CatalogType;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataManager;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataSerializable;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.persistence.DataTranslator;
+import org.spongepowered.api.data.value.BaseValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link DataView} over a part of a {@link FlatDataContainer}.
+ *
+ * <p>A view stores nothing itself, all values live in a single hash table of
+ * the container keyed by their full path. Looking up a nested value is a
+ * single hash lookup instead of one lookup per path element.</p>
+ */
+public class FlatDataView extends AbstractDataView {
+
+    // The amount of resolved queries which are kept per view
+    private static final int MAX_RESOLVED_PATHS = 256;
+
+    final FlatDataContainer container;
+    final Path path;
+    private final DataQuery query;
+    private final DataView.SafetyMode safety;
+    // The paths of the queries resolved against this view, queries are mostly
+    // constants so the same paths would be created again on every lookup
+    private final Map<DataQuery, Path> resolvedPaths = new HashMap<>();
+
+    FlatDataView(DataView.SafetyMode safety) {
+        checkState(this instanceof FlatDataContainer, "Cannot construct a root FlatDataView without a container!");
+        this.container = (FlatDataContainer) this;
+        this.path = Path.ROOT;
+        this.query = of();
+        this.safety = checkNotNull(safety, "Safety mode");
+    }
+
+    FlatDataView(FlatDataContainer container, Path path) {
+        this.container = container;
+        this.path = path;
+        this.query = path.toQuery();
+        this.safety = container.getSafetyMode();
+    }
+
+    @Override
+    public DataContainer getContainer() {
+        return this.container;
+    }
+
+    /**
+     * Gets the full path of the query relative to this view. Paths which are
+     * already stored in the container are reused, so the lookup of the
+     * entry compares the paths by identity.
+     */
+    private Path resolve(DataQuery query) {
+        Path path = this.resolvedPaths.get(query);
+        if (path != null) {
+            return path;
+        }
+        path = this.path;
+        for (String part : query.getParts()) {
+            final FlatDataContainer.Node node = this.container.getNode(path);
+            final Path child = node == null ? null : node.children.get(part);
+            path = child == null ? path.child(part) : child;
+        }
+        if (this.resolvedPaths.size() >= MAX_RESOLVED_PATHS) {
+            this.resolvedPaths.clear();
+        }
+        this.resolvedPaths.put(query, path);
+        return path;
+    }
+
+    @Override
+    public DataQuery getCurrentPath() {
+        return this.query;
+    }
+
+    @Override
+    public String getName() {
+        return this.path.key == null ? "" : this.path.key;
+    }
+
+    @Override
+    public Optional<DataView> getParent() {
+        return Optional.of(this.container.getView(this.path.parent));
+    }
+
+    @Override
+    public Set<DataQuery> getKeys(boolean deep) {
+        final FlatDataContainer.Node node = this.container.getNode(this.path);
+        if (node == null) {
+            return ImmutableSet.of();
+        }
+        final ImmutableSet.Builder<DataQuery> builder = ImmutableSet.builder();
+        collectKeys(node, Collections.emptyList(), deep, builder);
+        return builder.build();
+    }
+
+    private void collectKeys(FlatDataContainer.Node node, List<String> prefix, boolean deep, ImmutableSet.Builder<DataQuery> builder) {
+        for (Map.Entry<String, Path> entry : node.children.entrySet()) {
+            final List<String> parts = new ArrayList<>(prefix.size() + 1);
+            parts.addAll(prefix);
+            parts.add(entry.getKey());
+            builder.add(DataQuery.of(parts));
+            if (deep) {
+                final FlatDataContainer.Node child = this.container.getNode(entry.getValue());
+                if (child != null) {
+                    collectKeys(child, parts, true, builder);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<DataQuery, Object> getValues(boolean deep) {
+        ImmutableMap.Builder<DataQuery, Object> builder = ImmutableMap.builder();
+        for (DataQuery query : getKeys(deep)) {
+            Object value = get(query).get();
+            if (value instanceof DataView) {
+                builder.put(query, ((DataView) value).getValues(deep));
+            } else {
+                builder.put(query, value);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean contains(DataQuery path) {
+        checkNotNull(path, "path");
+        return this.container.entries.containsKey(resolve(path));
+    }
+
+    @Override
+    public Optional<Object> get(DataQuery path) {
+        checkNotNull(path, "path");
+        if (path.getParts().isEmpty()) {
+            return Optional.of(this);
+        }
+        final Path fullPath = resolve(path);
+        final Object object = this.container.entries.get(fullPath);
+        if (object == null) {
+            return Optional.empty();
+        }
+        if (object instanceof FlatDataContainer.Node) {
+            return Optional.of(this.container.getView(fullPath));
+        }
+        if (this.safety == SafetyMode.ALL_DATA_CLONED && object.getClass().isArray()) {
+            return Optional.of(cloneArray(object));
+        }
+        return Optional.of(object);
+    }
+
+    @Override
+    public DataView set(DataQuery path, Object value) {
+        checkNotNull(path, "path");
+        checkNotNull(value, "value");
+        checkArgument(!path.getParts().isEmpty(), "The size of the query must be at least 1");
+
+        @Nullable DataManager manager;
+
+        try {
+            manager = Sponge.getDataManager();
+        } catch (Exception e) {
+            manager = null;
+        }
+        set(resolve(path), value, manager);
+        return this;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void set(Path path, Object value, @Nullable DataManager manager) {
+        if (value instanceof DataView) {
+            checkArgument(value != this, "Cannot set a DataView to itself.");
+            copyDataView(path, (DataView) value, manager);
+        } else if (value instanceof DataSerializable) {
+            DataContainer valueContainer = ((DataSerializable) value).toContainer();
+            checkArgument(!valueContainer.equals(this), "Cannot insert self-referencing DataSerializable");
+            copyDataView(path, valueContainer, manager);
+        } else if (value instanceof CatalogType) {
+            this.container.put(path, ((CatalogType) value).getId());
+        } else if (manager != null && manager.getTranslator(value.getClass()).isPresent()) {
+            DataTranslator serializer = manager.getTranslator(value.getClass()).get();
+            final DataContainer container = serializer.translate(value);
+            checkArgument(!container.equals(this), "Cannot insert self-referencing Objects!");
+            copyDataView(path, container, manager);
+        } else if (value instanceof Collection) {
+            this.container.put(path, serializeCollection((Collection) value));
+        } else if (value instanceof Map) {
+            this.container.createNode(path);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                set(path.child(entry.getKey().toString()), entry.getValue(), manager);
+            }
+        } else if (value.getClass().isArray() && (this.safety == SafetyMode.ALL_DATA_CLONED || this.safety == SafetyMode.CLONED_ON_SET)) {
+            this.container.put(path, cloneArray(value));
+        } else {
+            this.container.put(path, value);
+        }
+    }
+
+    private void copyDataView(Path path, DataView value, @Nullable DataManager manager) {
+        // Values are always copied, a view of another container can't be shared
+        for (DataQuery key : value.getKeys(false)) {
+            set(path.resolve(key), value.get(key).get(), manager);
+        }
+    }
+
+    @Override
+    public <E> DataView set(Key<? extends BaseValue<E>> key, E value) {
+        return set(checkNotNull(key, "Key was null!").getQuery(), value);
+    }
+
+    @Override
+    public DataView remove(DataQuery path) {
+        checkNotNull(path, "path");
+        if (!path.getParts().isEmpty()) {
+            this.container.remove(resolve(path));
+        }
+        return this;
+    }
+
+    @Override
+    public DataView createView(DataQuery path) {
+        checkNotNull(path, "path");
+        checkArgument(!path.getParts().isEmpty(), "The size of the query must be at least 1");
+        final Path fullPath = resolve(path);
+        this.container.createNode(fullPath);
+        return this.container.getView(fullPath);
+    }
+
+    @Override
+    public DataView createView(DataQuery path, Map<?, ?> map) {
+        checkNotNull(path, "path");
+        DataView section = createView(path);
+
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getValue() instanceof Map) {
+                section.createView(of('.', entry.getKey().toString()), (Map<?, ?>) entry.getValue());
+            } else {
+                section.set(of('.', entry.getKey().toString()), entry.getValue());
+            }
+        }
+        return section;
+    }
+
+    @Override
+    protected DataContainer createContainer(SafetyMode safety) {
+        return new FlatDataContainer(safety);
+    }
+
+    @Override
+    public DataContainer copy() {
+        return copy(this.safety);
+    }
+
+    @Override
+    public DataContainer copy(SafetyMode safety) {
+        final DataContainer container = new FlatDataContainer(safety);
+        getKeys(false)
+            .forEach(query ->
+                get(query).ifPresent(obj ->
+                        container.set(query, obj)
+                )
+        );
+        return container;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        final FlatDataContainer.Node node = this.container.getNode(this.path);
+        return node == null || node.children.isEmpty();
+    }
+
+    @Override
+    public SafetyMode getSafetyMode() {
+        return this.safety;
+    }
+
+    @Override
+    public final int hashCode() {
+        // Hashed like a MemoryDataView with a map of the same values, as both
+        // are equal: the hash of the map and the hash of the path combined
+        int mapHash = 0;
+        final FlatDataContainer.Node node = this.container.getNode(this.path);
+        if (node != null) {
+            for (Map.Entry<String, Path> entry : node.children.entrySet()) {
+                final Object value = this.container.entries.get(entry.getValue());
+                final int valueHash = value instanceof FlatDataContainer.Node
+                        ? this.container.getView(entry.getValue()).hashCode() : value.hashCode();
+                mapHash += entry.getKey().hashCode() ^ valueHash;
+            }
+        }
+        return 31 * (31 + mapHash) + this.query.hashCode();
+    }
+
+    @Override
+    public final boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        // Equal to views of any implementation with the same values
+        return obj instanceof DataView && equalValues(this, (DataView) obj);
+    }
+
+    @Override
+    public String toString() {
+        final MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this);
+        if (!this.query.toString().isEmpty()) {
+            helper.add("path", this.query);
+        }
+        helper.add("safety", this.safety.name());
+        return helper.add("values", getValues(false)).toString();
+    }
+
+    private static Object cloneArray(Object object) {
+        if (object instanceof byte[]) {
+            return ArrayUtils.clone((byte[]) object);
+        } else if (object instanceof short[]) {
+            return ArrayUtils.clone((short[]) object);
+        } else if (object instanceof int[]) {
+            return ArrayUtils.clone((int[]) object);
+        } else if (object instanceof long[]) {
+            return ArrayUtils.clone((long[]) object);
+        } else if (object instanceof float[]) {
+            return ArrayUtils.clone((float[]) object);
+        } else if (object instanceof double[]) {
+            return ArrayUtils.clone((double[]) object);
+        } else if (object instanceof boolean[]) {
+            return ArrayUtils.clone((boolean[]) object);
+        } else {
+            return ArrayUtils.clone((Object[]) object);
+        }
+    }
+
+    /**
+     * The full path of an entry within a container. Paths are linked to the
+     * path of their parent and compute their hash from it, so resolving a
+     * query never hashes the whole path again.
+     */
+    static final class Path {
+
+        static final Path ROOT = new Path(null, null, 1);
+
+        @Nullable final Path parent;
+        @Nullable final String key;
+        private final int hash;
+
+        private Path(@Nullable Path parent, @Nullable String key, int hash) {
+            this.parent = parent;
+            this.key = key;
+            this.hash = hash;
+        }
+
+        Path child(String key) {
+            return new Path(this, key, 31 * this.hash + key.hashCode());
+        }
+
+        Path resolve(DataQuery query) {
+            Path path = this;
+            for (String part : query.getParts()) {
+                path = path.child(part);
+            }
+            return path;
+        }
+
+        DataQuery toQuery() {
+            final List<String> parts = new ArrayList<>();
+            for (Path path = this; path.key != null; path = path.parent) {
+                parts.add(path.key);
+            }
+            Collections.reverse(parts);
+            return DataQuery.of(parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof Path) || ((Path) obj).hash != this.hash) {
+                return false;
+            }
+            Path path = this;
+            Path other = (Path) obj;
+            while (path != other) {
+                if (path.key == null || other.key == null || !path.key.equals(other.key)) {
+                    return false;
+                }
+                path = path.parent;
+                other = other.parent;
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return toQuery().toString();
+        }
+    }
+}
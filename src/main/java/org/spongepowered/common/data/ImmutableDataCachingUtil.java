@@ -28,18 +28,24 @@
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import org.spongepowered.api.CatalogType;
 import org.spongepowered.api.data.key.Key;
 import org.spongepowered.api.data.manipulator.ImmutableDataManipulator;
 import org.spongepowered.api.data.value.BaseValue;
 import org.spongepowered.api.data.value.immutable.ImmutableValue;
+import org.spongepowered.api.text.Text;
 import org.spongepowered.common.SpongeImpl;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
+import javax.annotation.Nullable;
+
 public final class ImmutableDataCachingUtil {
 
     private ImmutableDataCachingUtil() {}
@@ -48,15 +54,16 @@ private ImmutableDataCachingUtil() {}
     public static final int MANIPULATOR_CACHE_LIMIT = 100000;
     public static final int VALUE_CACHE_LIMIT = 100000;
 
-    private static final Cache<String, ImmutableDataManipulator<?, ?>> manipulatorCache = CacheBuilder.newBuilder()
-        .maximumSize(MANIPULATOR_CACHE_LIMIT)
-        .concurrencyLevel(4)
-        .build();
-
-    private static final Cache<String, ImmutableValue<?>> valueCache = CacheBuilder.newBuilder()
-        .concurrencyLevel(4)
-        .maximumSize(VALUE_CACHE_LIMIT)
-        .build();
+    // Interning tables shared by all manipulator and value classes, keyed by
+    // the class and the constructor arguments
+    private static final Cache<ArgumentsKey, ImmutableDataManipulator<?, ?>> manipulatorCache = CacheBuilder.newBuilder()
+            .concurrencyLevel(4)
+            .maximumSize(MANIPULATOR_CACHE_LIMIT)
+            .build();
+    private static final Cache<ArgumentsKey, ImmutableValue<?>> valueCache = CacheBuilder.newBuilder()
+            .concurrencyLevel(4)
+            .maximumSize(VALUE_CACHE_LIMIT)
+            .build();
 
     /**
      * Retrieves a basic manipulator from {@link Cache}. If the {@link Cache}
@@ -75,11 +82,21 @@ private ImmutableDataCachingUtil() {}
      */
     @SuppressWarnings("unchecked")
     public static <T extends ImmutableDataManipulator<?, ?>> T getManipulator(final Class<T> immutableClass, final Object... args) {
-        final String key = getKey(immutableClass, args);
+        final Probe probe = probe().set(immutableClass, 0, null, null, null, args);
+        final ImmutableDataManipulator<?, ?> cached;
+        try {
+            cached = manipulatorCache.getIfPresent(probe);
+        } finally {
+            probe.clear();
+        }
+        if (cached != null) {
+            return (T) cached;
+        }
         // We can't really use the generic typing here because it's complicated...
         try {
             // Let's get the key
-            return (T) ImmutableDataCachingUtil.manipulatorCache.get(key, (Callable<ImmutableDataManipulator<?, ?>>) () -> {
+            return (T) manipulatorCache.get(new ArgumentsKey(immutableClass, 0, null, null, null, args),
+                    (Callable<ImmutableDataManipulator<?, ?>>) () -> {
                     try {
                         return createUnsafeInstance(immutableClass, args);
                     } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
@@ -97,9 +114,19 @@ private ImmutableDataCachingUtil() {}
     @SuppressWarnings("unchecked")
     public static <E, V extends ImmutableValue<?>, T extends ImmutableValue<E>> T getValue(final Class<V> valueClass,
             final Key<? extends BaseValue<E>> usedKey, final E defaultArg, final E arg, final Object... extraArgs) {
-        final String key = getKey(valueClass, usedKey.getQuery().asString('.'), arg.getClass(), arg);
+        final Object[] args = extraArgs == null ? NO_ARGS : extraArgs;
+        final Probe probe = probe().set(valueClass, 3, usedKey, defaultArg, arg, args);
+        final ImmutableValue<?> cached;
+        try {
+            cached = valueCache.getIfPresent(probe);
+        } finally {
+            probe.clear();
+        }
+        if (cached != null) {
+            return (T) cached;
+        }
         try {
-            return (T) ImmutableDataCachingUtil.valueCache.get(key, (Callable<ImmutableValue<?>>) () -> {
+            return (T) valueCache.get(new ArgumentsKey(valueClass, 3, usedKey, defaultArg, arg, args), (Callable<ImmutableValue<?>>) () -> {
                     try {
                         if (extraArgs == null || extraArgs.length == 0) {
                             return createUnsafeInstance(valueClass, usedKey, defaultArg, arg);
@@ -115,15 +142,203 @@ public static <E, V extends ImmutableValue<?>, T extends ImmutableValue<E>> T ge
         }
     }
 
-    private static String getKey(final Class<?> immutableClass, final Object... args) {
-        final StringBuilder builder = new StringBuilder(immutableClass.getCanonicalName() + ":");
-        for (Object object : args) {
-            if (object instanceof CatalogType) {
-                builder.append("{").append(((CatalogType) object).getId()).append("}");
-            } else {
-                builder.append("{").append(object.toString()).append("}");
+    /**
+     * Gets whether an argument is used as it is within a cache key. Anything
+     * else is represented by its type and {@link Object#toString()} at the
+     * time of the lookup, as its equality may change after it was cached.
+     */
+    private static boolean isKeyValue(final Object arg) {
+        return arg instanceof CatalogType || arg instanceof Enum || arg instanceof Key || arg instanceof Text || arg instanceof UUID
+                || VALUE_TYPES.contains(arg.getClass());
+    }
+
+    private static Object getKeyArg(@Nullable final Object arg) {
+        if (arg == null) {
+            return NULL_ARG;
+        }
+        return isKeyValue(arg) ? arg : new StringArg(arg.getClass(), arg.toString());
+    }
+
+    private static final Object NULL_ARG = new Object();
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final Set<Class<?>> VALUE_TYPES = ImmutableSet.of(Boolean.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, Character.class, String.class);
+
+    // Lookups go through a reusable key per thread, keys are only allocated
+    // for new entries
+    private static final ThreadLocal<Probe> probes = ThreadLocal.withInitial(Probe::new);
+
+    private static Probe probe() {
+        final Probe probe = probes.get();
+        // A lookup from within toString or equals of an argument can't reuse the key
+        return probe.type == null ? probe : new Probe();
+    }
+
+    /**
+     * A cache key, the arguments are up to three leading arguments followed
+     * by the remaining arguments, stored as they are represented within a key.
+     */
+    private static final class ArgumentsKey {
+
+        private final Class<?> type;
+        private final Object[] args;
+        private final int hash;
+
+        ArgumentsKey(Class<?> type, int leading, @Nullable Object first, @Nullable Object second, @Nullable Object third, Object[] args) {
+            this.type = type;
+            this.args = new Object[leading + args.length];
+            int hash = type.hashCode();
+            for (int i = 0; i < this.args.length; i++) {
+                final Object arg = getKeyArg(i == 0 && leading > 0 ? first : i == 1 && leading > 1 ? second : i == 2 && leading > 2 ? third
+                        : args[i - leading]);
+                this.args[i] = arg;
+                hash = 31 * hash + arg.hashCode();
+            }
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof Probe) {
+                return obj.equals(this);
+            }
+            if (!(obj instanceof ArgumentsKey)) {
+                return false;
+            }
+            final ArgumentsKey other = (ArgumentsKey) obj;
+            return this.hash == other.hash
+                    && this.type == other.type
+                    && Arrays.equals(this.args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * A reusable key to look up the arguments as they were passed. It equals
+     * the {@link ArgumentsKey} of the same arguments, without wrapping them.
+     */
+    private static final class Probe {
+
+        private final Object[] leadingArgs = new Object[3];
+        private String[] strings = new String[8];
+        @Nullable private Class<?> type;
+        private int leading;
+        private Object[] args = NO_ARGS;
+        private int hash;
+
+        Probe set(Class<?> type, int leading, @Nullable Object first, @Nullable Object second, @Nullable Object third, Object[] args) {
+            this.type = type;
+            this.leading = leading;
+            this.leadingArgs[0] = first;
+            this.leadingArgs[1] = second;
+            this.leadingArgs[2] = third;
+            this.args = args;
+            final int size = leading + args.length;
+            if (this.strings.length < size) {
+                this.strings = new String[Math.max(size, this.strings.length * 2)];
+            }
+            int hash = type.hashCode();
+            for (int i = 0; i < size; i++) {
+                final Object arg = get(i);
+                final int argHash;
+                if (arg == null) {
+                    this.strings[i] = null;
+                    argHash = NULL_ARG.hashCode();
+                } else if (isKeyValue(arg)) {
+                    this.strings[i] = null;
+                    argHash = arg.hashCode();
+                } else {
+                    // Same as the hash of the StringArg
+                    final String string = arg.toString();
+                    this.strings[i] = string;
+                    argHash = 31 * arg.getClass().hashCode() + string.hashCode();
+                }
+                hash = 31 * hash + argHash;
+            }
+            this.hash = hash;
+            return this;
+        }
+
+        @Nullable
+        private Object get(int index) {
+            return index < this.leading ? this.leadingArgs[index] : this.args[index - this.leading];
+        }
+
+        /**
+         * Drops the references to the arguments, so they are not kept alive
+         * by the thread.
+         */
+        void clear() {
+            final int size = this.leading + this.args.length;
+            Arrays.fill(this.leadingArgs, null);
+            Arrays.fill(this.strings, 0, Math.min(size, this.strings.length), null);
+            this.args = NO_ARGS;
+            this.type = null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ArgumentsKey)) {
+                return false;
+            }
+            final ArgumentsKey other = (ArgumentsKey) obj;
+            if (this.hash != other.hash || this.type != other.type || this.leading + this.args.length != other.args.length) {
+                return false;
             }
+            for (int i = 0; i < other.args.length; i++) {
+                final Object arg = get(i);
+                final Object keyArg = other.args[i];
+                final String string = this.strings[i];
+                if (arg == null) {
+                    if (keyArg != NULL_ARG) {
+                        return false;
+                    }
+                } else if (string != null) {
+                    if (!(keyArg instanceof StringArg) || ((StringArg) keyArg).type != arg.getClass() || !((StringArg) keyArg).value.equals(string)) {
+                        return false;
+                    }
+                } else if (!arg.equals(keyArg)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class StringArg {
+
+        private final Class<?> type;
+        private final String value;
+
+        StringArg(Class<?> type, String value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof StringArg)) {
+                return false;
+            }
+            final StringArg other = (StringArg) obj;
+            return this.type == other.type && this.value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.type.hashCode() + this.value.hashCode();
         }
-        return builder.toString();
     }
 }
@@ -32,6 +32,7 @@
 import org.spongepowered.api.data.key.Key;
 import org.spongepowered.api.data.value.BaseValue;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -62,6 +63,10 @@ public MemoryDataContainer(DataView.SafetyMode safety) {
         super(safety);
     }
 
+    protected MemoryDataContainer(DataView.SafetyMode safety, Map<String, Object> map) {
+        super(safety, map);
+    }
+
     @Override
     public Optional<DataView> getParent() {
         return Optional.empty();
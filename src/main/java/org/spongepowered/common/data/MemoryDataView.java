@@ -31,10 +31,8 @@
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.commons.lang3.ArrayUtils;
 import org.spongepowered.api.CatalogType;
@@ -47,34 +45,40 @@
 import org.spongepowered.api.data.key.Key;
 import org.spongepowered.api.data.persistence.DataTranslator;
 import org.spongepowered.api.data.value.BaseValue;
-import org.spongepowered.api.util.Coerce;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
 /**
  * Default implementation of a {@link DataView} being used in memory.
  */
-public class MemoryDataView implements DataView {
+public class MemoryDataView extends AbstractDataView {
 
-    protected final Map<String, Object> map = Maps.newLinkedHashMap();
+    protected final Map<String, Object> map;
     private final DataContainer container;
     private final DataView parent;
     private final DataQuery path;
     private final DataView.SafetyMode safety;
 
     MemoryDataView(DataView.SafetyMode safety) {
+        this(safety, Maps.newLinkedHashMap());
+    }
+
+    /**
+     * Creates a root view which stores its values in the given map, used by
+     * views which convert their values on demand.
+     *
+     * @param safety The safety mode
+     * @param map The backing map
+     */
+    protected MemoryDataView(DataView.SafetyMode safety, Map<String, Object> map) {
         checkState(this instanceof DataContainer, "Cannot construct a root MemoryDataView without a container!");
+        this.map = checkNotNull(map, "map");
         this.path = of();
         this.parent = this;
         this.container = (DataContainer) this;
@@ -82,7 +86,12 @@ public class MemoryDataView implements DataView {
     }
 
     private MemoryDataView(DataView parent, DataQuery path, DataView.SafetyMode safety) {
+        this(parent, path, safety, Maps.newLinkedHashMap());
+    }
+
+    protected MemoryDataView(DataView parent, DataQuery path, DataView.SafetyMode safety, Map<String, Object> map) {
         checkArgument(path.getParts().size() >= 1, "Path must have at least one part");
+        this.map = checkNotNull(map, "map");
         this.parent = parent;
         this.container = parent.getContainer();
         this.path = parent.getCurrentPath().then(path);
@@ -114,8 +123,8 @@ public Optional<DataView> getParent() {
     public Set<DataQuery> getKeys(boolean deep) {
         ImmutableSet.Builder<DataQuery> builder = ImmutableSet.builder();
 
-        for (Map.Entry<String, Object> entry : this.map.entrySet()) {
-            builder.add(of(entry.getKey()));
+        for (String key : this.map.keySet()) {
+            builder.add(of(key));
         }
         if (deep) {
             for (Map.Entry<String, Object> entry : this.map.entrySet()) {
@@ -156,26 +165,6 @@ public final boolean contains(DataQuery path) {
         return subViewOptional.isPresent() && subViewOptional.get().contains(path.popFirst());
     }
 
-    @Override
-    public boolean contains(DataQuery path, DataQuery... paths) {
-        checkNotNull(path, "DataQuery cannot be null!");
-        checkNotNull(paths, "DataQuery varargs cannot be null!");
-        if (paths.length == 0) {
-            return contains(path);
-        }
-        List<DataQuery> queries = new ArrayList<>();
-        queries.add(path);
-        for (DataQuery query : paths) {
-            queries.add(checkNotNull(query, "No null queries!"));
-        }
-        for (DataQuery query : queries) {
-            if (!contains(query)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     @Override
     public Optional<Object> get(DataQuery path) {
         checkNotNull(path, "path");
@@ -258,9 +247,15 @@ public DataView set(DataQuery path, Object value) {
         }
         if (value instanceof DataView) {
             checkArgument(value != this, "Cannot set a DataView to itself.");
-            // always have to copy a data view to avoid overwriting existing
-            // views and to set the interior path correctly.
-            copyDataView(path, (DataView) value);
+            final DataView sharedView = value instanceof MemoryDataView && !this.map.containsKey(key)
+                    ? ((MemoryDataView) value).createSharedView(this, path) : null;
+            if (sharedView != null) {
+                this.map.put(key, sharedView);
+            } else {
+                // always have to copy a data view to avoid overwriting existing
+                // views and to set the interior path correctly.
+                copyDataView(path, (DataView) value);
+            }
         } else if (value instanceof DataSerializable) {
             DataContainer valueContainer = ((DataSerializable) value).toContainer();
             checkArgument(!(valueContainer).equals(this), "Cannot insert self-referencing DataSerializable");
@@ -275,7 +270,7 @@ public DataView set(DataQuery path, Object value) {
             // see above for why this is copied
             copyDataView(path, container);
         } else if (value instanceof Collection) {
-            setCollection(key, (Collection) value);
+            this.map.put(key, serializeCollection((Collection) value));
         } else if (value instanceof Map) {
             setMap(key, (Map) value);
         } else if (value.getClass().isArray()) {
@@ -311,90 +306,6 @@ public <E> DataView set(Key<? extends BaseValue<E>> key, E value) {
         return set(checkNotNull(key, "Key was null!").getQuery(), value);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private void setCollection(String key, Collection<?> value) {
-        ImmutableList.Builder<Object> builder = ImmutableList.builder();
-        @Nullable DataManager manager;
-
-        try {
-            manager = Sponge.getDataManager();
-        } catch (Exception e) {
-            manager = null;
-        }
-
-        for (Object object : value) {
-            if (object instanceof DataSerializable) {
-                builder.add(((DataSerializable) object).toContainer());
-            } else if (object instanceof DataView) {
-                if (this.safety == SafetyMode.ALL_DATA_CLONED || this.safety == SafetyMode.CLONED_ON_SET) {
-                    MemoryDataView view = new MemoryDataContainer(this.safety);
-                    DataView internalView = (DataView) object;
-                    for (Map.Entry<DataQuery, Object> entry : internalView.getValues(false).entrySet()) {
-                        view.set(entry.getKey(), entry.getValue());
-                    }
-                    builder.add(view);
-                } else {
-                    builder.add(object);
-                }
-            } else if (object instanceof CatalogType) {
-                builder.add(((CatalogType) object).getId());
-            } else if (object instanceof Map) {
-                builder.add(ensureSerialization((Map) object));
-            } else if (object instanceof Collection) {
-                builder.add(ensureSerialization((Collection) object));
-            } else {
-                if (manager != null) {
-                    final Optional<? extends DataTranslator<?>> translatorOptional = manager.getTranslator(object.getClass());
-                    if (translatorOptional.isPresent()) {
-                        DataTranslator translator = translatorOptional.get();
-                        final DataContainer container = translator.translate(object);
-                        checkArgument(!container.equals(this), "Cannot insert self-referencing Objects!");
-                        builder.add(container);
-                    } else {
-                        builder.add(object);
-                    }
-                } else {
-                    builder.add(object);
-                }
-
-            }
-        }
-        this.map.put(key, builder.build());
-    }
-
-    @SuppressWarnings("rawtypes")
-    private ImmutableList<Object> ensureSerialization(Collection<?> collection) {
-        ImmutableList.Builder<Object> objectBuilder = ImmutableList.builder();
-        collection.forEach(element -> {
-            if (element instanceof Collection) {
-                objectBuilder.add(ensureSerialization((Collection) element));
-            } else if (element instanceof DataSerializable) {
-                objectBuilder.add(((DataSerializable) element).toContainer());
-            } else {
-                objectBuilder.add(element);
-            }
-        });
-        return objectBuilder.build();
-
-    }
-
-    @SuppressWarnings("rawtypes")
-    private ImmutableMap<?, ?> ensureSerialization(Map<?, ?> map) {
-        ImmutableMap.Builder<Object, Object> builder = ImmutableMap.builder();
-        map.entrySet().forEach(entry -> {
-            if (entry.getValue() instanceof Map) {
-                builder.put(entry.getKey(), ensureSerialization((Map) entry.getValue()));
-            } else if (entry.getValue() instanceof DataSerializable) {
-                builder.put(entry.getKey(), ((DataSerializable) entry.getValue()).toContainer());
-            } else if (entry.getValue() instanceof Collection) {
-                builder.put(entry.getKey(), ensureSerialization((Collection) entry.getValue()));
-            } else {
-                builder.put(entry.getKey(), entry.getValue());
-            }
-        });
-        return builder.build();
-    }
-
     private void setMap(String key, Map<?, ?> value) {
         DataView view = createView(of(key));
         for (Map.Entry<?, ?> entry : value.entrySet()) {
@@ -469,53 +380,6 @@ public DataView createView(DataQuery path, Map<?, ?> map) {
         return section;
     }
 
-    @Override
-    public Optional<DataView> getView(DataQuery path) {
-        return get(path).filter(obj -> obj instanceof DataView).map(obj -> (DataView) obj);
-    }
-
-    @Override
-    public Optional<? extends Map<?, ?>> getMap(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            if (val.get() instanceof DataView) {
-                ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
-                for (Map.Entry<DataQuery, Object> entry : ((DataView) val.get()).getValues(false).entrySet()) {
-                    builder.put(entry.getKey().asString('.'), ensureMappingOf(entry.getValue()));
-                }
-                return Optional.of(builder.build());
-            } else if (val.get() instanceof Map) {
-                return Optional.of((Map<?, ?>) ensureMappingOf(val.get()));
-            }
-        }
-        return Optional.empty();
-    }
-
-    @SuppressWarnings("rawtypes")
-    private Object ensureMappingOf(Object object) {
-        if (object instanceof DataView) {
-            final ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
-            for (Map.Entry<DataQuery, Object> entry : ((DataView) object).getValues(false).entrySet()) {
-                builder.put(entry.getKey().asString('.'), ensureMappingOf(entry.getValue()));
-            }
-            return builder.build();
-        } else if (object instanceof Map) {
-            final ImmutableMap.Builder<Object, Object> builder = ImmutableMap.builder();
-            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
-                builder.put(entry.getKey().toString(), ensureMappingOf(entry.getValue()));
-            }
-            return builder.build();
-        } else if (object instanceof Collection) {
-            final ImmutableList.Builder<Object> builder = ImmutableList.builder();
-            for (Object entry : (Collection) object) {
-                builder.add(ensureMappingOf(entry));
-            }
-            return builder.build();
-        } else {
-            return object;
-        }
-    }
-
     private Optional<DataView> getUnsafeView(DataQuery path) {
         return get(path).filter(obj -> obj instanceof DataView).map(obj -> (DataView) obj);
     }
@@ -530,272 +394,8 @@ private Optional<DataView> getUnsafeView(String path) {
 
 
     @Override
-    public Optional<Boolean> getBoolean(DataQuery path) {
-        return get(path).flatMap(Coerce::asBoolean);
-    }
-
-    @Override
-    public Optional<Byte> getByte(DataQuery path) {
-        return get(path).flatMap(Coerce::asByte);
-    }
-
-    @Override
-    public Optional<Short> getShort(DataQuery path) {
-        return get(path).flatMap(Coerce::asShort);
-    }
-
-    @Override
-    public Optional<Integer> getInt(DataQuery path) {
-        return get(path).flatMap(Coerce::asInteger);
-    }
-
-    @Override
-    public Optional<Long> getLong(DataQuery path) {
-        return get(path).flatMap(Coerce::asLong);
-    }
-
-    @Override
-    public Optional<Float> getFloat(DataQuery path) {
-        return get(path).flatMap(Coerce::asFloat);
-    }
-
-    @Override
-    public Optional<Double> getDouble(DataQuery path) {
-        return get(path).flatMap(Coerce::asDouble);
-    }
-
-    @Override
-    public Optional<String> getString(DataQuery path) {
-        return get(path).flatMap(Coerce::asString);
-    }
-
-    @Override
-    public Optional<List<?>> getList(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            if (val.get() instanceof List<?>) {
-                return Optional.<List<?>>of(Lists.newArrayList((List<?>) val.get()));
-            }
-            if (val.get() instanceof Object[]) {
-                return Optional.<List<?>>of(Lists.newArrayList((Object[]) val.get()));
-            }
-        }
-        return Optional.empty();
-    }
-
-    @Override
-    public Optional<List<String>> getStringList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asString)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    private Optional<List<?>> getUnsafeList(DataQuery path) {
-        return get(path)
-                .filter(obj -> obj instanceof List<?> || obj instanceof Object[])
-                .map(obj -> {
-                    if (obj instanceof List<?>) {
-                        return (List<?>) obj;
-                    }
-                    return Arrays.asList((Object[]) obj);
-                }
-        );
-    }
-
-    @Override
-    public Optional<List<Character>> getCharacterList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asChar)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<Boolean>> getBooleanList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asBoolean)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<Byte>> getByteList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asByte)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<Short>> getShortList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asShort)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<Integer>> getIntegerList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asInteger)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<Long>> getLongList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asLong)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<Float>> getFloatList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asFloat)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<Double>> getDoubleList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .map(Coerce::asDouble)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<Map<?, ?>>> getMapList(DataQuery path) {
-        return getUnsafeList(path).<List<Map<?, ?>>>map(list ->
-                list.stream()
-                        .filter(obj -> obj instanceof Map<?, ?>)
-                        .map(obj -> (Map<?, ?>) obj)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public Optional<List<DataView>> getViewList(DataQuery path) {
-        return getUnsafeList(path).map(list ->
-                list.stream()
-                        .filter(obj -> obj instanceof DataView)
-                        .map(obj -> (DataView) obj)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @SuppressWarnings("unchecked")
-    @Override
-    public <T extends DataSerializable> Optional<T> getSerializable(DataQuery path, Class<T> clazz) {
-        checkNotNull(path, "path");
-        checkNotNull(clazz, "clazz");
-        if (clazz.isAssignableFrom(CatalogType.class)) {
-            final Optional<T> catalog = (Optional<T>) getCatalogType(path, ((Class<? extends CatalogType>) clazz));
-            if (catalog.isPresent()) {
-                return catalog;
-            }
-        }
-
-        return getUnsafeView(path).flatMap(view -> Sponge.getDataManager().getBuilder(clazz)
-                .flatMap(builder -> builder.build(view))
-        );
-    }
-
-    @SuppressWarnings("unchecked")
-    @Override
-    public <T extends DataSerializable> Optional<List<T>> getSerializableList(DataQuery path, Class<T> clazz) {
-        checkNotNull(path, "path");
-        checkNotNull(clazz, "clazz");
-        return Stream.<Supplier<Optional<List<T>>>>of(
-            () -> {
-                if (clazz.isAssignableFrom(CatalogType.class)) {
-                    return (Optional<List<T>>) (Optional<?>) getCatalogTypeList(path, (Class<? extends CatalogType>) clazz);
-                }
-                return Optional.empty();
-            },
-            () -> getViewList(path).flatMap(list ->
-                    Sponge.getDataManager().getBuilder(clazz).map(builder ->
-                            list.stream()
-                                    .map(builder::build)
-                                    .filter(Optional::isPresent)
-                                    .map(Optional::get)
-                                    .collect(Collectors.toList())
-                    )
-                )
-            )
-            .map(Supplier::get)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .findFirst();
-    }
-
-    @Override
-    public <T extends CatalogType> Optional<T> getCatalogType(DataQuery path, Class<T> catalogType) {
-        checkNotNull(path, "path");
-        checkNotNull(catalogType, "dummy type");
-        return getString(path).flatMap(string -> Sponge.getRegistry().getType(catalogType, string));
-    }
-
-    @Override
-    public <T extends CatalogType> Optional<List<T>> getCatalogTypeList(DataQuery path, Class<T> catalogType) {
-        checkNotNull(path, "path");
-        checkNotNull(catalogType, "catalogType");
-        return getStringList(path).map(list ->
-                list.stream()
-                        .map(string -> Sponge.getRegistry().getType(catalogType, string))
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    @Override
-    public <T> Optional<T> getObject(DataQuery path, Class<T> objectClass) {
-        return getView(path).flatMap(view ->
-                Sponge.getDataManager().getTranslator(objectClass)
-                        .flatMap(serializer -> Optional.of(serializer.translate(view)))
-        );
-    }
-
-    @Override
-    public <T> Optional<List<T>> getObjectList(DataQuery path, Class<T> objectClass) {
-        return getViewList(path).flatMap(viewList ->
-                Sponge.getDataManager().getTranslator(objectClass).map(serializer ->
-                        viewList.stream()
-                                .map(serializer::translate)
-                                .collect(Collectors.toList())
-                )
-        );
+    protected DataContainer createContainer(SafetyMode safety) {
+        return new MemoryDataContainer(safety);
     }
 
     @Override
@@ -832,23 +432,41 @@ public SafetyMode getSafetyMode() {
         return this.safety;
     }
 
+    /**
+     * Creates a view at the given path of the parent which shares the data
+     * of this view instead of copying it. This is only possible for views
+     * whose data can not be changed through the new view, such as the views
+     * backed by nbt which are never written through.
+     *
+     * @param parent The parent of the new view
+     * @param path The path of the new view relative to the parent
+     * @return The new view, or null if the data has to be copied
+     */
+    @Nullable
+    protected DataView createSharedView(DataView parent, DataQuery path) {
+        return null;
+    }
+
     @Override
-    public int hashCode() {
+    public final int hashCode() {
         return Objects.hashCode(this.map, this.path);
     }
 
     @Override
-    public boolean equals(@Nullable Object obj) {
+    public final boolean equals(@Nullable Object obj) {
         if (this == obj) {
             return true;
         }
-        if (obj == null || getClass() != obj.getClass()) {
-            return false;
+        // Views which only differ in how their values are stored, like the
+        // lazily converted nbt backed views or the flat views, hold the same
+        // data as any other view with the same values. Equality stays
+        // symmetric since it can't be overridden.
+        if (obj instanceof MemoryDataView) {
+            final MemoryDataView other = (MemoryDataView) obj;
+            return Objects.equal(this.map.entrySet(), other.map.entrySet())
+                   && Objects.equal(this.path, other.path);
         }
-        final MemoryDataView other = (MemoryDataView) obj;
-
-        return Objects.equal(this.map.entrySet(), other.map.entrySet())
-               && Objects.equal(this.path, other.path);
+        return obj instanceof DataView && equalValues(this, (DataView) obj);
     }
 
     @Override
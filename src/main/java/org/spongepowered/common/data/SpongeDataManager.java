@@ -67,6 +67,8 @@
 import java.util.Map;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 @Singleton
 public final class SpongeDataManager implements DataManager {
 
@@ -102,6 +104,7 @@ public final class SpongeDataManager implements DataManager {
 
 
     static boolean allowRegistrations = true;
+    @Nullable private static Boolean flatContainers;
 
 
     public static SpongeDataManager getInstance() {
@@ -279,12 +282,26 @@ public <T> Optional<DataTranslator<T>> getTranslator(Class<T> objectclass) {
 
     @Override
     public DataContainer createContainer() {
-        return new MemoryDataContainer();
+        return newContainer(DataView.SafetyMode.ALL_DATA_CLONED);
     }
 
     @Override
     public DataContainer createContainer(DataView.SafetyMode safety) {
-        return new MemoryDataContainer(safety);
+        return newContainer(safety);
+    }
+
+    /**
+     * Creates a new empty container of the implementation selected in the
+     * global config.
+     *
+     * @param safety The safety mode to use
+     * @return The new container
+     */
+    public static DataContainer newContainer(DataView.SafetyMode safety) {
+        if (flatContainers == null) {
+            flatContainers = SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useFlatDataContainers();
+        }
+        return flatContainers ? new FlatDataContainer(safety) : new MemoryDataContainer(safety);
     }
 
     public Optional<DataManipulatorBuilder<?, ?>> getWildManipulatorBuilder(Class<? extends DataManipulator<?, ?>> manipulatorClass) {
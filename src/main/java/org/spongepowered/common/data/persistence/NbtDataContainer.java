@@ -0,0 +1,72 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import net.minecraft.nbt.NBTTagCompound;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.common.data.MemoryDataContainer;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link DataContainer} backed by a {@link NBTTagCompound} which converts
+ * the values of the compound when they are accessed. Snapshots and
+ * archetypes hand out their data this way since most of the time only a few
+ * values or none at all are looked at before the container is translated
+ * back to nbt, which is a plain copy of the compound as long as the
+ * container wasn't modified.
+ */
+public final class NbtDataContainer extends MemoryDataContainer {
+
+    final NbtValueMap values;
+
+    /**
+     * Creates a new container. The compound is never written to, but it
+     * must not be modified by anything else either while the container is
+     * in use.
+     *
+     * @param compound The compound
+     */
+    public NbtDataContainer(NBTTagCompound compound) {
+        super(DataView.SafetyMode.NO_DATA_CLONED, new NbtValueMap(compound));
+        this.values = (NbtValueMap) this.map;
+        this.values.setOwner(this);
+    }
+
+    @Override
+    public DataContainer copy() {
+        final NBTTagCompound compound = this.values.getUnmodifiedCompound();
+        return compound != null ? new NbtDataContainer(compound) : super.copy();
+    }
+
+    @Nullable
+    @Override
+    protected DataView createSharedView(DataView parent, DataQuery path) {
+        final NBTTagCompound compound = this.values.getUnmodifiedCompound();
+        return compound == null ? null : new NbtDataView(parent, path, compound);
+    }
+}
@@ -55,7 +55,7 @@ public DataContainer readFrom(InputStream input) throws InvalidDataFormatExcepti
         }
         try {
             NBTTagCompound tag = CompressedStreamTools.read(dis);
-            return NbtTranslator.getInstance().translateFrom(tag);
+            return NbtTranslator.getInstance().translateLazily(tag);
         } finally {
             dis.close();
         }
@@ -64,7 +64,6 @@ public DataContainer readFrom(InputStream input) throws InvalidDataFormatExcepti
     @Override
     @SuppressWarnings("resource")
     public void writeTo(OutputStream output, DataView data) throws IOException {
-        NBTTagCompound tag = NbtTranslator.getInstance().translateData(data);
         DataOutputStream dos;
         if (output instanceof DataOutputStream) {
             dos = (DataOutputStream) output;
@@ -72,7 +71,7 @@ public void writeTo(OutputStream output, DataView data) throws IOException {
             dos = new DataOutputStream(output);
         }
         try {
-            CompressedStreamTools.write(tag, dos);
+            NbtStreamWriter.write(data, dos);
         } finally {
             dos.close();
         }
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import net.minecraft.nbt.NBTTagCompound;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.common.data.MemoryDataView;
+
+import javax.annotation.Nullable;
+
+/**
+ * The nested counterpart of {@link NbtDataContainer}, a {@link DataView}
+ * backed by a {@link NBTTagCompound} which converts its values when they
+ * are accessed instead of copying the whole compound up front.
+ */
+public final class NbtDataView extends MemoryDataView {
+
+    /**
+     * Gets the compound backing the given view if it is an nbt backed view
+     * which hasn't been modified, the compound then holds exactly the data
+     * of the view and can be used instead of translating the view.
+     *
+     * @param view The view
+     * @return The compound, or null if not available
+     */
+    @Nullable
+    public static NBTTagCompound getUnmodifiedCompound(DataView view) {
+        if (view instanceof NbtDataView) {
+            return ((NbtDataView) view).values.getUnmodifiedCompound();
+        } else if (view instanceof NbtDataContainer) {
+            return ((NbtDataContainer) view).values.getUnmodifiedCompound();
+        }
+        return null;
+    }
+
+    private final NbtValueMap values;
+
+    /**
+     * Creates a new view. The compound is never written to, but it must not
+     * be modified by anything else either while the view is in use.
+     *
+     * @param parent The parent view
+     * @param path The path relative to the parent
+     * @param compound The compound
+     */
+    public NbtDataView(DataView parent, DataQuery path, NBTTagCompound compound) {
+        super(parent, path, parent.getSafetyMode(), new NbtValueMap(compound));
+        this.values = (NbtValueMap) this.map;
+        this.values.setOwner(this);
+    }
+
+    @Nullable
+    @Override
+    protected DataView createSharedView(DataView parent, DataQuery path) {
+        // Nbt backed views are never written through, so a view over the same compound can be shared
+        final NBTTagCompound compound = this.values.getUnmodifiedCompound();
+        return compound == null ? null : new NbtDataView(parent, path, compound);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataSerializable;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.common.data.util.NbtDataUtil;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link DataView} in the binary nbt format without building a
+ * {@link NBTTagCompound} first. The output is the same as writing the
+ * compound created by {@link NbtTranslator#translateData(DataView)}, apart
+ * from the order of the keys.
+ */
+public final class NbtStreamWriter {
+
+    /**
+     * Writes the view as a named root compound, the way
+     * {@link CompressedStreamTools#write(NBTTagCompound, DataOutput)} does.
+     *
+     * @param view The view to write
+     * @param output The output
+     * @throws IOException If the output fails
+     */
+    public static void write(DataView view, DataOutput output) throws IOException {
+        checkNotNull(view, "view");
+        checkNotNull(output, "output");
+        final NBTTagCompound compound = NbtDataView.getUnmodifiedCompound(view);
+        if (compound != null) {
+            CompressedStreamTools.write(compound, output);
+            return;
+        }
+        output.writeByte(NbtDataUtil.TAG_COMPOUND);
+        output.writeUTF("");
+        writeView(view, output);
+    }
+
+    private static void writeView(DataView view, DataOutput output) throws IOException {
+        for (DataQuery query : view.getKeys(false)) {
+            final Object value = view.get(query).get();
+            final String key = query.asString('.');
+            if (value instanceof Boolean) {
+                writeEntry(key + NbtTranslator.BOOLEAN_IDENTIFER, value, output);
+            } else {
+                writeEntry(key, value, output);
+            }
+        }
+        output.writeByte(NbtDataUtil.TAG_END);
+    }
+
+    static void writeEntry(String key, Object value, DataOutput output) throws IOException {
+        output.writeByte(getType(value));
+        output.writeUTF(key);
+        writeValue(value, output);
+    }
+
+    private static byte getType(Object value) {
+        checkNotNull(value);
+        if (value instanceof Boolean || value instanceof Byte) {
+            return NbtDataUtil.TAG_BYTE;
+        } else if (value instanceof Short) {
+            return NbtDataUtil.TAG_SHORT;
+        } else if (value instanceof Integer) {
+            return NbtDataUtil.TAG_INT;
+        } else if (value instanceof Long) {
+            return NbtDataUtil.TAG_LONG;
+        } else if (value instanceof Float) {
+            return NbtDataUtil.TAG_FLOAT;
+        } else if (value instanceof Double) {
+            return NbtDataUtil.TAG_DOUBLE;
+        } else if (value instanceof String) {
+            return NbtDataUtil.TAG_STRING;
+        } else if (value instanceof byte[] || value instanceof Byte[]) {
+            return NbtDataUtil.TAG_BYTE_ARRAY;
+        } else if (value instanceof int[] || value instanceof Integer[]) {
+            return NbtDataUtil.TAG_INT_ARRAY;
+        } else if (value instanceof List) {
+            return NbtDataUtil.TAG_LIST;
+        } else if (value instanceof Map || value instanceof DataSerializable || value instanceof DataView) {
+            return NbtDataUtil.TAG_COMPOUND;
+        }
+        throw new IllegalArgumentException("Unable to translate object to NBTBase: " + value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(Object value, DataOutput output) throws IOException {
+        if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? 1 : 0);
+        } else if (value instanceof Byte) {
+            output.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            output.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            output.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            output.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            output.writeUTF((String) value);
+        } else if (value instanceof byte[]) {
+            output.writeInt(((byte[]) value).length);
+            output.write((byte[]) value);
+        } else if (value instanceof Byte[]) {
+            output.writeInt(((Byte[]) value).length);
+            for (Byte data : (Byte[]) value) {
+                output.writeByte(data);
+            }
+        } else if (value instanceof int[]) {
+            output.writeInt(((int[]) value).length);
+            for (int data : (int[]) value) {
+                output.writeInt(data);
+            }
+        } else if (value instanceof Integer[]) {
+            output.writeInt(((Integer[]) value).length);
+            for (Integer data : (Integer[]) value) {
+                output.writeInt(data);
+            }
+        } else if (value instanceof List) {
+            writeList((List<Object>) value, output);
+        } else if (value instanceof Map) {
+            writeMap((Map<Object, Object>) value, output);
+        } else if (value instanceof DataSerializable) {
+            writeView(((DataSerializable) value).toContainer(), output);
+        } else if (value instanceof DataView) {
+            writeView((DataView) value, output);
+        } else {
+            throw new IllegalArgumentException("Unable to translate object to NBTBase: " + value);
+        }
+    }
+
+    private static void writeList(List<Object> list, DataOutput output) throws IOException {
+        // Like NBTTagList#appendTag, elements which don't match the type of the first one are dropped
+        final byte type = list.isEmpty() ? NbtDataUtil.TAG_END : getType(list.get(0));
+        int size = 0;
+        for (Object element : list) {
+            if (getType(element) == type) {
+                size++;
+            }
+        }
+        output.writeByte(type);
+        output.writeInt(size);
+        for (Object element : list) {
+            if (getType(element) == type) {
+                writeValue(element, output);
+            }
+        }
+    }
+
+    private static void writeMap(Map<Object, Object> map, DataOutput output) throws IOException {
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            if (entry.getKey() instanceof DataQuery) {
+                final String key = ((DataQuery) entry.getKey()).asString('.');
+                writeEntry(entry.getValue() instanceof Boolean ? key + NbtTranslator.BOOLEAN_IDENTIFER : key, entry.getValue(), output);
+            } else {
+                writeEntry(entry.getKey().toString(), entry.getValue(), output);
+            }
+        }
+        output.writeByte(NbtDataUtil.TAG_END);
+    }
+
+    private NbtStreamWriter() {
+    }
+}
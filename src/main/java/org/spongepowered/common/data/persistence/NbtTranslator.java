@@ -68,6 +68,10 @@ private NbtTranslator() { } // #NOPE
 
     private static NBTTagCompound containerToCompound(final DataView container) {
         checkNotNull(container);
+        final NBTTagCompound unmodified = NbtDataView.getUnmodifiedCompound(container);
+        if (unmodified != null) {
+            return unmodified.copy();
+        }
         NBTTagCompound compound = new NBTTagCompound();
         containerToCompound(container, compound);
         return compound;
@@ -213,7 +217,7 @@ private static void setInternal(NBTBase base, byte type, DataView view, String k
                 int count = list.tagCount();
                 List objectList = Lists.newArrayListWithCapacity(count);
                 for (int i = 0; i < count; i++) {
-                    objectList.add(fromTagBase(list.get(i), listType));
+                    objectList.add(fromTagBase(list.get(i), listType, false));
                 }
                 view.set(of(key), objectList);
                 break;
@@ -238,8 +242,12 @@ private static void setInternal(NBTBase base, byte type, DataView view, String k
         }
     }
 
+    static Object fromTagLazily(NBTBase base) {
+        return fromTagBase(base, base.getId(), true);
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private static Object fromTagBase(NBTBase base, byte type) {
+    private static Object fromTagBase(NBTBase base, byte type, boolean lazy) {
         switch (type) {
             case NbtDataUtil.TAG_BYTE:
                 return ((NBTTagByte) base).getByte();
@@ -254,7 +262,8 @@ private static Object fromTagBase(NBTBase base, byte type) {
             case NbtDataUtil.TAG_DOUBLE:
                 return ((NBTTagDouble) base).getDouble();
             case NbtDataUtil.TAG_BYTE_ARRAY:
-                return ((NBTTagByteArray) base).getByteArray();
+                // Lazy views share the compound, its arrays must not leak out
+                return lazy ? ((NBTTagByteArray) base).getByteArray().clone() : ((NBTTagByteArray) base).getByteArray();
             case NbtDataUtil.TAG_STRING:
                 return ((NBTTagString) base).getString();
             case NbtDataUtil.TAG_LIST:
@@ -263,13 +272,13 @@ private static Object fromTagBase(NBTBase base, byte type) {
                 int count = list.tagCount();
                 List objectList = Lists.newArrayListWithCapacity(count);
                 for (int i = 0; i < list.tagCount(); i++) {
-                    objectList.add(fromTagBase(list.get(i), listType));
+                    objectList.add(fromTagBase(list.get(i), listType, lazy));
                 }
                 return objectList;
             case NbtDataUtil.TAG_COMPOUND:
-                return getViewFromCompound((NBTTagCompound) base);
+                return lazy ? new NbtDataContainer((NBTTagCompound) base) : getViewFromCompound((NBTTagCompound) base);
             case NbtDataUtil.TAG_INT_ARRAY:
-                return ((NBTTagIntArray) base).getIntArray();
+                return lazy ? ((NBTTagIntArray) base).getIntArray().clone() : ((NBTTagIntArray) base).getIntArray();
             default :
                 return null;
         }
@@ -287,6 +296,19 @@ public DataContainer translateFrom(NBTTagCompound node) {
         return NbtTranslator.getViewFromCompound(node);
     }
 
+    /**
+     * Creates a container which converts the values of the compound when
+     * they are accessed rather than copying all of them at once. The
+     * compound is not copied, it must not be modified after being passed
+     * in.
+     *
+     * @param node The compound
+     * @return The container backed by the compound
+     */
+    public DataContainer translateLazily(NBTTagCompound node) {
+        return new NbtDataContainer(checkNotNull(node));
+    }
+
     @Override
     public TypeToken<NBTTagCompound> getToken() {
         return TOKEN;
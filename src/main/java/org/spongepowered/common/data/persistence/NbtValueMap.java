@@ -0,0 +1,232 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.collect.Iterators;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagByte;
+import net.minecraft.nbt.NBTTagCompound;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.common.data.util.NbtDataUtil;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * The backing map of the nbt backed views. Values are converted from the
+ * compound when they are first requested, nested compounds become nbt
+ * backed views themselves and are kept so that changes made through them
+ * stick. The first write or iteration converts the remaining values, the
+ * compound itself is never modified.
+ *
+ * <p>Unlike a plain map, reads fill in the converted values. Immutable
+ * snapshots may hand out their views to several threads which only read
+ * them, so all access to the converted values is synchronized.</p>
+ */
+final class NbtValueMap extends AbstractMap<String, Object> {
+
+    private final NBTTagCompound compound;
+    private final Map<String, Object> values = new LinkedHashMap<>();
+    private final Map<String, Object> unmodifiableValues = Collections.unmodifiableMap(this.values);
+    @Nullable private DataView owner;
+    private boolean inflated;
+    private boolean modified;
+
+    NbtValueMap(NBTTagCompound compound) {
+        this.compound = compound;
+    }
+
+    void setOwner(DataView owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Gets the compound if none of the values have been changed since the
+     * map was created, including the values of nested views.
+     *
+     * @return The compound, or null if the map was modified
+     */
+    @Nullable
+    synchronized NBTTagCompound getUnmodifiedCompound() {
+        if (this.modified) {
+            return null;
+        }
+        for (Object value : this.values.values()) {
+            if (!isUnmodified(value)) {
+                return null;
+            }
+        }
+        return this.compound;
+    }
+
+    private static boolean isUnmodified(Object value) {
+        if (value instanceof DataView) {
+            return NbtDataView.getUnmodifiedCompound((DataView) value) != null;
+        } else if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                if (!isUnmodified(element)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBoolean(String name, NBTBase tag) {
+        return tag.getId() == NbtDataUtil.TAG_BYTE && name.contains(NbtTranslator.BOOLEAN_IDENTIFER);
+    }
+
+    private static String keyOf(String name, NBTBase tag) {
+        return isBoolean(name, tag) ? name.replace(NbtTranslator.BOOLEAN_IDENTIFER, "") : name;
+    }
+
+    @Nullable
+    private String findName(String key) {
+        final NBTBase tag = this.compound.getTag(key);
+        if (tag != null && !isBoolean(key, tag)) {
+            return key;
+        }
+        final String booleanName = key + NbtTranslator.BOOLEAN_IDENTIFER;
+        final NBTBase booleanTag = this.compound.getTag(booleanName);
+        return booleanTag != null && booleanTag.getId() == NbtDataUtil.TAG_BYTE ? booleanName : null;
+    }
+
+    private Object convert(String key, String name, NBTBase tag) {
+        if (tag.getId() == NbtDataUtil.TAG_COMPOUND) {
+            final NbtDataView view = new NbtDataView(this.owner, of(key), (NBTTagCompound) tag);
+            this.values.put(key, view);
+            return view;
+        } else if (isBoolean(name, tag)) {
+            return ((NBTTagByte) tag).getByte() != 0;
+        }
+        return NbtTranslator.fromTagLazily(tag);
+    }
+
+    private synchronized void inflate() {
+        if (this.inflated) {
+            return;
+        }
+        this.inflated = true;
+        for (String name : this.compound.getKeySet()) {
+            final NBTBase tag = this.compound.getTag(name);
+            final String key = keyOf(name, tag);
+            if (!this.values.containsKey(key)) {
+                this.values.put(key, convert(key, name, tag));
+            }
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return this.inflated ? this.values.size() : this.compound.getSize();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        if (this.inflated) {
+            return this.values.containsKey(key);
+        }
+        return key instanceof String && findName((String) key) != null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Object get(Object key) {
+        if (this.inflated) {
+            return this.values.get(key);
+        }
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final Object value = this.values.get(key);
+        if (value != null) {
+            return value;
+        }
+        final String name = findName((String) key);
+        return name == null ? null : convert((String) key, name, this.compound.getTag(name));
+    }
+
+    @Override
+    public synchronized Object put(String key, Object value) {
+        inflate();
+        this.modified = true;
+        return this.values.put(key, value);
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        inflate();
+        this.modified = true;
+        return this.values.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.inflated = true;
+        this.modified = true;
+        this.values.clear();
+    }
+
+    @Override
+    public synchronized Set<String> keySet() {
+        if (this.inflated) {
+            return this.unmodifiableValues.keySet();
+        }
+        return new AbstractSet<String>() {
+
+            @Override
+            public Iterator<String> iterator() {
+                return Iterators.unmodifiableIterator(Iterators.transform(NbtValueMap.this.compound.getKeySet().iterator(),
+                        name -> keyOf(name, NbtValueMap.this.compound.getTag(name))));
+            }
+
+            @Override
+            public int size() {
+                return NbtValueMap.this.compound.getSize();
+            }
+        };
+    }
+
+    @Override
+    public synchronized Set<Entry<String, Object>> entrySet() {
+        inflate();
+        return this.unmodifiableValues.entrySet();
+    }
+}
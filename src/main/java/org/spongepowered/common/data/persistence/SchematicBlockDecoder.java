@@ -0,0 +1,174 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import com.flowpowered.math.vector.Vector3i;
+import org.spongepowered.api.data.persistence.InvalidDataException;
+import org.spongepowered.api.world.schematic.BlockPalette;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Decodes the varint block data of a Sponge schematic straight into the
+ * packed storage of {@link ArrayMutableBlockBuffer}s. The blocks are handed
+ * out in regions which span the whole width and length of the schematic
+ * and the given amount of layers, from the bottom up.
+ *
+ * <p>Shared by the {@link SchematicTranslator} and the
+ * {@link SchematicStreamReader}. The block data may be passed in any amount
+ * of parts, the decoding state is kept between them.</p>
+ */
+final class SchematicBlockDecoder {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final BlockPalette palette;
+    private final int[] offset;
+    private final int width;
+    private final int height;
+    private final int length;
+    private final int layers;
+    private final Consumer<? super ArrayMutableBlockBuffer> consumer;
+
+    @Nullable private ArrayMutableBlockBuffer region;
+    private int regionY;
+    private int x;
+    private int y;
+    private int z;
+    private int value;
+    private int shift;
+
+    SchematicBlockDecoder(BlockPalette palette, int[] offset, int width, int height, int length, int layers,
+            Consumer<? super ArrayMutableBlockBuffer> consumer) {
+        this.palette = palette;
+        this.offset = offset;
+        this.width = width;
+        this.height = height;
+        this.length = length;
+        this.layers = layers;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Decodes the whole block data of a schematic into a single volume.
+     *
+     * @return The volume
+     */
+    static ArrayMutableBlockBuffer decodeAll(BlockPalette palette, int[] offset, int width, int height, int length, byte[] blockData) {
+        final ArrayMutableBlockBuffer[] buffer = new ArrayMutableBlockBuffer[1];
+        final SchematicBlockDecoder decoder = new SchematicBlockDecoder(palette, offset, width, height, length, Integer.MAX_VALUE,
+                region -> buffer[0] = region);
+        decoder.decode(blockData, 0, blockData.length);
+        decoder.finish();
+        return buffer[0] == null ? decoder.createEmptyVolume() : buffer[0];
+    }
+
+    /**
+     * Creates a volume of the full size of the schematic with only air, for
+     * schematics without any blocks.
+     *
+     * @return The volume
+     */
+    ArrayMutableBlockBuffer createEmptyVolume() {
+        return new ArrayMutableBlockBuffer(this.palette, new Vector3i(-this.offset[0], -this.offset[1], -this.offset[2]),
+                new Vector3i(this.width, this.height, this.length));
+    }
+
+    void decode(InputStream in, int size) throws IOException {
+        final byte[] chunk = new byte[Math.min(CHUNK_SIZE, size)];
+        int remaining = size;
+        while (remaining > 0) {
+            final int read = in.read(chunk, 0, Math.min(chunk.length, remaining));
+            if (read < 0) {
+                throw new InvalidDataException("Schematic block data ended early");
+            }
+            remaining -= read;
+            decode(chunk, 0, read);
+        }
+    }
+
+    void decode(byte[] data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            final byte b = data[i];
+            this.value |= (b & 127) << this.shift;
+            this.shift += 7;
+            if ((b & 128) != 128) {
+                setNextBlock(this.value);
+                this.value = 0;
+                this.shift = 0;
+            } else if (this.shift >= 35) {
+                throw new InvalidDataException("VarInt too big (probably corrupted data)");
+            }
+        }
+    }
+
+    /**
+     * Checks that the block data covered the whole schematic.
+     */
+    void finish() {
+        if (this.width == 0 || this.length == 0) {
+            // There are no blocks at all, whatever the height
+            return;
+        }
+        if (this.shift != 0 || this.region != null || this.regionY != this.height) {
+            throw new InvalidDataException("Schematic block data does not match the size of the schematic");
+        }
+    }
+
+    private void setNextBlock(int id) {
+        if (this.region == null) {
+            if (this.regionY >= this.height) {
+                throw new InvalidDataException("Schematic block data does not match the size of the schematic");
+            }
+            final int regionHeight = Math.min(this.layers, this.height - this.regionY);
+            this.region = new ArrayMutableBlockBuffer(this.palette,
+                    new Vector3i(-this.offset[0], this.regionY - this.offset[1], -this.offset[2]),
+                    new Vector3i(this.width, regionHeight, this.length));
+        }
+        if (id < 0 || id > this.palette.getHighestId()) {
+            throw new InvalidDataException("Schematic block data uses palette id " + id + " which is not in the palette");
+        }
+        // index = (y * length + z) * width + x
+        this.region.setBlockId(this.x - this.offset[0], this.regionY + this.y - this.offset[1], this.z - this.offset[2], id);
+        if (++this.x == this.width) {
+            this.x = 0;
+            if (++this.z == this.length) {
+                this.z = 0;
+                if (++this.y == this.region.getBlockSize().getY()) {
+                    this.y = 0;
+                    this.regionY += this.region.getBlockSize().getY();
+                    final ArrayMutableBlockBuffer region = this.region;
+                    this.region = null;
+                    this.consumer.accept(region);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.Maps;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagByte;
+import net.minecraft.nbt.NBTTagByteArray;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagDouble;
+import net.minecraft.nbt.NBTTagFloat;
+import net.minecraft.nbt.NBTTagInt;
+import net.minecraft.nbt.NBTTagIntArray;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagLong;
+import net.minecraft.nbt.NBTTagShort;
+import net.minecraft.nbt.NBTTagString;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ResourceLocation;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.tileentity.TileEntityArchetype;
+import org.spongepowered.api.block.tileentity.TileEntityType;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.persistence.InvalidDataException;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.schematic.BlockPalette;
+import org.spongepowered.api.world.schematic.Schematic;
+import org.spongepowered.common.block.SpongeTileEntityArchetypeBuilder;
+import org.spongepowered.common.data.util.DataQueries;
+import org.spongepowered.common.data.util.NbtDataUtil;
+import org.spongepowered.common.registry.type.block.TileEntityTypeRegistryModule;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+import org.spongepowered.common.world.schematic.BimapPalette;
+import org.spongepowered.common.world.schematic.GlobalPalette;
+import org.spongepowered.common.world.schematic.SpongeSchematic;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reads a compressed Sponge schematic directly from the nbt stream, without
+ * reading the whole file into a {@link DataView} first.
+ *
+ * <p>The block data is decoded in chunks straight into the packed storage of
+ * {@link ArrayMutableBlockBuffer}s. Either the whole schematic is read, or
+ * the blocks are handed out in regions of a few layers each so that only one
+ * region is in memory at a time.</p>
+ *
+ * <p>Decoding the blocks while reading requires the size, offset and palette
+ * to come before the block data in the file, which is the order both the
+ * {@link SchematicStreamWriter} and the {@link SchematicTranslator} write
+ * them in. The palette is known once the palette max was read.</p>
+ *
+ * <p>Files in a different order, such as those written before the
+ * translator put the palette first, are still read, but not streamed: the
+ * block data is kept as a whole byte array, about one byte per block for
+ * small palettes, and only decoded once the whole file was read. Region
+ * mode then still hands out separate regions, but only after that point
+ * and with the full block data in memory.</p>
+ */
+public final class SchematicStreamReader implements Closeable {
+
+    private static final int VERSION = 1;
+    private static final int CHUNK_SIZE = 8192;
+    private static final int MAX_DEPTH = 512;
+
+    private final DataInputStream input;
+    private boolean read;
+
+    private int version = -1;
+    private int width = -1;
+    private int height = -1;
+    private int length = -1;
+    @Nullable private int[] offset;
+    @Nullable private Map<String, Integer> paletteIds;
+    @Nullable private BlockPalette palette;
+    @Nullable private DataView metadata;
+    private final List<DataView> tileEntityData = new ArrayList<>();
+
+    @Nullable private SchematicBlockDecoder decoder;
+
+    /**
+     * Creates a reader for a gzip compressed schematic.
+     *
+     * @param input The compressed input, closed together with this reader
+     * @throws IOException If the input is not in the gzip format
+     */
+    public SchematicStreamReader(InputStream input) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(checkNotNull(input, "input"), CHUNK_SIZE), CHUNK_SIZE));
+    }
+
+    /**
+     * Reads the whole schematic.
+     *
+     * @return The schematic
+     * @throws IOException If the input fails
+     * @throws InvalidDataException If the schematic is invalid
+     */
+    public Schematic read() throws IOException, InvalidDataException {
+        final ArrayMutableBlockBuffer[] buffer = new ArrayMutableBlockBuffer[1];
+        readRegions(Integer.MAX_VALUE, region -> buffer[0] = (ArrayMutableBlockBuffer) region);
+        if (buffer[0] == null) {
+            // A schematic without any blocks
+            buffer[0] = this.decoder.createEmptyVolume();
+        }
+        final Map<Vector3i, TileEntityArchetype> tiles = Maps.newHashMap();
+        for (DataView tile : this.tileEntityData) {
+            final int[] pos = (int[]) tile.get(DataQueries.Schematic.TILEENTITY_POS).get();
+            final Vector3i position = new Vector3i(pos[0] - this.offset[0], pos[1] - this.offset[1], pos[2] - this.offset[2]);
+            final TileEntityType type = TileEntityTypeRegistryModule.getInstance()
+                    .getForClass(TileEntity.REGISTRY.getObject(new ResourceLocation(tile.getString(DataQuery.of("id")).get())));
+            final TileEntityArchetype archetype = new SpongeTileEntityArchetypeBuilder()
+                    .state(buffer[0].getBlock(position.getX(), position.getY(), position.getZ()))
+                    .tileData(tile)
+                    .tile(type)
+                    .build();
+            tiles.put(position, archetype);
+        }
+        return new SpongeSchematic(buffer[0], tiles, this.metadata);
+    }
+
+    /**
+     * Reads the blocks of the schematic in regions which span the whole
+     * width and length of the schematic and the given amount of layers. The
+     * regions are passed to the consumer from the bottom up, every region is
+     * a new volume which is no longer referenced by the reader afterwards.
+     *
+     * <p>The metadata and the tile entity data are available once all
+     * regions have been read. If the block data comes before the size, offset
+     * or palette in the file, it is buffered as a whole and all regions are
+     * only passed on at the end of the file.</p>
+     *
+     * @param layers The maximum height of a region
+     * @param consumer The consumer of the regions
+     * @throws IOException If the input fails
+     * @throws InvalidDataException If the schematic is invalid
+     */
+    public void readRegions(int layers, Consumer<? super MutableBlockVolume> consumer) throws IOException, InvalidDataException {
+        checkArgument(layers > 0, "layers must be positive");
+        checkNotNull(consumer, "consumer");
+        checkState(!this.read, "The schematic was already read");
+        this.read = true;
+
+        if (this.input.readByte() != NbtDataUtil.TAG_COMPOUND) {
+            throw new InvalidDataException("Schematic does not start with a compound");
+        }
+        this.input.readUTF();
+        byte[] blockData = null;
+        byte type;
+        while ((type = this.input.readByte()) != NbtDataUtil.TAG_END) {
+            final String name = this.input.readUTF();
+            switch (name) {
+                case "Version":
+                    this.version = readNumber(type, name);
+                    break;
+                case "Width":
+                    this.width = readNumber(type, name);
+                    break;
+                case "Height":
+                    this.height = readNumber(type, name);
+                    break;
+                case "Length":
+                    this.length = readNumber(type, name);
+                    break;
+                case "Offset":
+                    this.offset = ((NBTTagIntArray) readTag(type, name, NbtDataUtil.TAG_INT_ARRAY)).getIntArray();
+                    if (this.offset.length != 3) {
+                        throw new InvalidDataException("Schematic offset was not of length 3");
+                    }
+                    break;
+                case "Palette":
+                    final NBTTagCompound paletteTag = (NBTTagCompound) readTag(type, name, NbtDataUtil.TAG_COMPOUND);
+                    this.paletteIds = new LinkedHashMap<>();
+                    for (String key : paletteTag.getKeySet()) {
+                        this.paletteIds.put(key, paletteTag.getInteger(key));
+                    }
+                    if (this.decoder != null) {
+                        throw new InvalidDataException("Schematic palette comes after the block data which uses it");
+                    }
+                    if (this.palette != null) {
+                        // The palette max came first
+                        this.palette = createPalette();
+                    }
+                    break;
+                case "PaletteMax":
+                    readNumber(type, name);
+                    this.palette = createPalette();
+                    break;
+                case "Metadata":
+                    this.metadata = NbtTranslator.getInstance().translateLazily((NBTTagCompound) readTag(type, name, NbtDataUtil.TAG_COMPOUND));
+                    break;
+                case "TileEntities":
+                    final NBTTagList tiles = (NBTTagList) readTag(type, name, NbtDataUtil.TAG_LIST);
+                    for (int i = 0; i < tiles.tagCount(); i++) {
+                        this.tileEntityData.add(NbtTranslator.getInstance().translateLazily(tiles.getCompoundTagAt(i)));
+                    }
+                    break;
+                case "BlockData":
+                    if (type != NbtDataUtil.TAG_BYTE_ARRAY) {
+                        throw new InvalidDataException("Schematic block data is not a byte array");
+                    }
+                    if (this.width >= 0 && this.height >= 0 && this.length >= 0 && this.offset != null && this.palette != null) {
+                        this.decoder = new SchematicBlockDecoder(this.palette, this.offset, this.width, this.height, this.length, layers, consumer);
+                        this.decoder.decode(this.input, readLength());
+                    } else {
+                        // Not everything needed to decode the blocks is known yet, so the whole
+                        // block data has to be kept until the end of the file
+                        blockData = ((NBTTagByteArray) readTag(type, name, NbtDataUtil.TAG_BYTE_ARRAY)).getByteArray();
+                    }
+                    break;
+                default:
+                    readTag(type, name, type);
+            }
+        }
+        if (this.version != VERSION) {
+            throw new InvalidDataException(String.format("Unknown schematic version %d (current version is %d)", this.version, VERSION));
+        }
+        if (this.width < 0 || this.height < 0 || this.length < 0) {
+            throw new InvalidDataException("Schematic is missing its size");
+        }
+        if (this.offset == null) {
+            this.offset = new int[3];
+        }
+        if (this.palette == null) {
+            this.palette = createPalette();
+        }
+        if (this.decoder == null) {
+            this.decoder = new SchematicBlockDecoder(this.palette, this.offset, this.width, this.height, this.length, layers, consumer);
+            if (blockData != null) {
+                this.decoder.decode(blockData, 0, blockData.length);
+            }
+        }
+        this.decoder.finish();
+    }
+
+    private BlockPalette createPalette() {
+        if (this.paletteIds == null) {
+            return GlobalPalette.instance;
+        }
+        final BimapPalette palette = new BimapPalette(this.paletteIds.size());
+        for (Map.Entry<String, Integer> entry : this.paletteIds.entrySet()) {
+            final BlockState state = Sponge.getRegistry().getType(BlockState.class, entry.getKey())
+                    .orElseThrow(() -> new InvalidDataException("Unknown block state in schematic palette: " + entry.getKey()));
+            palette.assign(state, entry.getValue());
+        }
+        return palette;
+    }
+
+    private int readNumber(byte type, String name) throws IOException {
+        switch (type) {
+            case NbtDataUtil.TAG_BYTE:
+                return this.input.readByte();
+            case NbtDataUtil.TAG_SHORT:
+                return this.input.readUnsignedShort();
+            case NbtDataUtil.TAG_INT:
+                return this.input.readInt();
+            default:
+                throw new InvalidDataException("Schematic " + name + " is not a number");
+        }
+    }
+
+    private NBTBase readTag(byte type, String name, byte expected) throws IOException {
+        if (type != expected) {
+            throw new InvalidDataException("Schematic " + name + " has the wrong nbt type " + type);
+        }
+        return readTag(type, 0);
+    }
+
+    private NBTBase readTag(byte type, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new InvalidDataException("Tried to read NBT tag with too high complexity, depth > " + MAX_DEPTH);
+        }
+        switch (type) {
+            case NbtDataUtil.TAG_BYTE:
+                return new NBTTagByte(this.input.readByte());
+            case NbtDataUtil.TAG_SHORT:
+                return new NBTTagShort(this.input.readShort());
+            case NbtDataUtil.TAG_INT:
+                return new NBTTagInt(this.input.readInt());
+            case NbtDataUtil.TAG_LONG:
+                return new NBTTagLong(this.input.readLong());
+            case NbtDataUtil.TAG_FLOAT:
+                return new NBTTagFloat(this.input.readFloat());
+            case NbtDataUtil.TAG_DOUBLE:
+                return new NBTTagDouble(this.input.readDouble());
+            case NbtDataUtil.TAG_BYTE_ARRAY: {
+                final byte[] array = new byte[readLength()];
+                this.input.readFully(array);
+                return new NBTTagByteArray(array);
+            }
+            case NbtDataUtil.TAG_STRING:
+                return new NBTTagString(this.input.readUTF());
+            case NbtDataUtil.TAG_LIST: {
+                final byte elementType = this.input.readByte();
+                final int size = readLength();
+                final NBTTagList list = new NBTTagList();
+                for (int i = 0; i < size; i++) {
+                    list.appendTag(readTag(elementType, depth + 1));
+                }
+                return list;
+            }
+            case NbtDataUtil.TAG_COMPOUND: {
+                final NBTTagCompound compound = new NBTTagCompound();
+                byte childType;
+                while ((childType = this.input.readByte()) != NbtDataUtil.TAG_END) {
+                    final String key = this.input.readUTF();
+                    compound.setTag(key, readTag(childType, depth + 1));
+                }
+                return compound;
+            }
+            case NbtDataUtil.TAG_INT_ARRAY: {
+                final int[] array = new int[readLength()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = this.input.readInt();
+                }
+                return new NBTTagIntArray(array);
+            }
+            default:
+                throw new InvalidDataException("Unknown nbt type " + type + " in schematic");
+        }
+    }
+
+    private int readLength() throws IOException {
+        final int size = this.input.readInt();
+        if (size < 0) {
+            throw new InvalidDataException("Negative nbt array or list length in schematic");
+        }
+        return size;
+    }
+
+    /**
+     * Gets the metadata of the schematic, available once the schematic has
+     * been read.
+     *
+     * @return The metadata
+     */
+    public DataView getMetadata() {
+        checkState(this.read, "The schematic was not read yet");
+        return this.metadata == null ? DataContainer.createNew() : this.metadata;
+    }
+
+    /**
+     * Gets the data of the tile entities of the schematic, available once the
+     * schematic has been read. The positions are relative to the minimum of
+     * the schematic, before the offset is applied.
+     *
+     * @return The tile entity data
+     */
+    public List<DataView> getTileEntityData() {
+        checkState(this.read, "The schematic was not read yet");
+        return this.tileEntityData;
+    }
+
+    /**
+     * Gets the offset of the schematic, available once the schematic has
+     * been read.
+     *
+     * @return The offset
+     */
+    public Vector3i getOffset() {
+        checkState(this.read && this.offset != null, "The schematic was not read yet");
+        return new Vector3i(this.offset[0], this.offset[1], this.offset[2]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.input.close();
+    }
+}
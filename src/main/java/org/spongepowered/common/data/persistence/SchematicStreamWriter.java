@@ -0,0 +1,214 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.Lists;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.tileentity.TileEntityArchetype;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.world.schematic.BlockPalette;
+import org.spongepowered.api.world.schematic.BlockPaletteTypes;
+import org.spongepowered.api.world.schematic.Schematic;
+import org.spongepowered.common.data.util.DataQueries;
+import org.spongepowered.common.data.util.NbtDataUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a compressed Sponge schematic directly to a stream, producing the
+ * same data as the {@link SchematicTranslator} without collecting the block
+ * data in memory first.
+ *
+ * <p>The blocks are visited twice, once to assign the palette ids and to
+ * compute the size of the block data, and once to write the block data.
+ * The block data is written last, so the file can be read by the
+ * {@link SchematicStreamReader} without buffering.</p>
+ */
+public final class SchematicStreamWriter {
+
+    private static final int VERSION = 1;
+    private static final int MAX_SIZE = 65535;
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Writes the schematic gzip compressed to the output. The output is not
+     * closed.
+     *
+     * @param schematic The schematic
+     * @param output The output
+     * @throws IOException If the output fails
+     */
+    public static void write(Schematic schematic, OutputStream output) throws IOException {
+        checkNotNull(schematic, "schematic");
+        checkNotNull(output, "output");
+        final int xMin = schematic.getBlockMin().getX();
+        final int yMin = schematic.getBlockMin().getY();
+        final int zMin = schematic.getBlockMin().getZ();
+        final int width = schematic.getBlockSize().getX();
+        final int height = schematic.getBlockSize().getY();
+        final int length = schematic.getBlockSize().getZ();
+        if (width > MAX_SIZE || height > MAX_SIZE || length > MAX_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                "Schematic is larger than maximum allowable size (found: (%d, %d, %d) max: (%d, %<d, %<d)", width, height, length, MAX_SIZE));
+        }
+
+        final BlockPalette palette = schematic.getPalette();
+        final int blockDataSize = getBlockDataSize(schematic, palette);
+
+        final GZIPOutputStream gzip = new GZIPOutputStream(output, CHUNK_SIZE);
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip, CHUNK_SIZE));
+        data.writeByte(NbtDataUtil.TAG_COMPOUND);
+        data.writeUTF("");
+        NbtStreamWriter.writeEntry("Version", VERSION, data);
+        NbtStreamWriter.writeEntry("Width", width, data);
+        NbtStreamWriter.writeEntry("Height", height, data);
+        NbtStreamWriter.writeEntry("Length", length, data);
+        if (!schematic.getMetadata().isEmpty()) {
+            NbtStreamWriter.writeEntry("Metadata", schematic.getMetadata(), data);
+        }
+        NbtStreamWriter.writeEntry("Offset", new int[] {-xMin, -yMin, -zMin}, data);
+
+        if (palette.getType() == BlockPaletteTypes.LOCAL) {
+            data.writeByte(NbtDataUtil.TAG_COMPOUND);
+            data.writeUTF("Palette");
+            for (BlockState state : palette.getEntries()) {
+                // getOrAssign to skip the optional, it will never assign
+                NbtStreamWriter.writeEntry(state.getId(), palette.getOrAssign(state), data);
+            }
+            data.writeByte(NbtDataUtil.TAG_END);
+        }
+        // Always written after the palette, to tell readers that the palette is known
+        NbtStreamWriter.writeEntry("PaletteMax", palette.getHighestId(), data);
+
+        final List<DataView> tileEntities = Lists.newArrayList();
+        for (Map.Entry<Vector3i, TileEntityArchetype> entry : schematic.getTileEntityArchetypes().entrySet()) {
+            final Vector3i pos = entry.getKey();
+            final DataContainer tiledata = entry.getValue().getTileData();
+            tiledata.set(DataQueries.Schematic.TILEENTITY_POS, new int[] {pos.getX() - xMin, pos.getY() - yMin, pos.getZ() - zMin});
+            if (!tiledata.contains(DataQueries.CONTENT_VERSION)) {
+                // Set a default content version of 1
+                tiledata.set(DataQueries.CONTENT_VERSION, 1);
+            }
+            tileEntities.add(tiledata);
+        }
+        NbtStreamWriter.writeEntry("TileEntities", tileEntities, data);
+
+        data.writeByte(NbtDataUtil.TAG_BYTE_ARRAY);
+        data.writeUTF("BlockData");
+        data.writeInt(blockDataSize);
+        writeBlockData(schematic, palette, data);
+        data.writeByte(NbtDataUtil.TAG_END);
+        data.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Assigns the palette ids of all blocks of the schematic and computes the
+     * size of the varint encoded block data.
+     *
+     * @param schematic The schematic
+     * @param palette The palette of the schematic
+     * @return The size of the block data in bytes
+     */
+    static int getBlockDataSize(Schematic schematic, BlockPalette palette) {
+        final int xMin = schematic.getBlockMin().getX();
+        final int yMin = schematic.getBlockMin().getY();
+        final int zMin = schematic.getBlockMin().getZ();
+        final int width = schematic.getBlockSize().getX();
+        final int height = schematic.getBlockSize().getY();
+        final int length = schematic.getBlockSize().getZ();
+        long size = 0;
+        for (int y = 0; y < height; y++) {
+            for (int z = 0; z < length; z++) {
+                for (int x = 0; x < width; x++) {
+                    size += getVarIntSize(palette.getOrAssign(schematic.getBlock(xMin + x, yMin + y, zMin + z)));
+                }
+            }
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Schematic block data is larger than the maximum size of a byte array");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Writes the varint encoded block data of the schematic in chunks, in
+     * the order x, z, y from the minimum of the schematic.
+     *
+     * @param schematic The schematic
+     * @param palette The palette of the schematic
+     * @param output The output
+     * @throws IOException If the output fails
+     */
+    static void writeBlockData(Schematic schematic, BlockPalette palette, OutputStream output) throws IOException {
+        final int xMin = schematic.getBlockMin().getX();
+        final int yMin = schematic.getBlockMin().getY();
+        final int zMin = schematic.getBlockMin().getZ();
+        final int width = schematic.getBlockSize().getX();
+        final int height = schematic.getBlockSize().getY();
+        final int length = schematic.getBlockSize().getZ();
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        int pos = 0;
+        for (int y = 0; y < height; y++) {
+            for (int z = 0; z < length; z++) {
+                for (int x = 0; x < width; x++) {
+                    if (pos > CHUNK_SIZE - 5) {
+                        output.write(chunk, 0, pos);
+                        pos = 0;
+                    }
+                    int id = palette.getOrAssign(schematic.getBlock(xMin + x, yMin + y, zMin + z));
+                    while ((id & -128) != 0) {
+                        chunk[pos++] = (byte) (id & 127 | 128);
+                        id >>>= 7;
+                    }
+                    chunk[pos++] = (byte) id;
+                }
+            }
+        }
+        output.write(chunk, 0, pos);
+    }
+
+    private static int getVarIntSize(int value) {
+        int size = 1;
+        while ((value & -128) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private SchematicStreamWriter() {
+    }
+}
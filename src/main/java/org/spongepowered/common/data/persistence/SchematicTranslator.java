@@ -37,6 +37,7 @@
 import org.spongepowered.api.data.DataContainer;
 import org.spongepowered.api.data.DataQuery;
 import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.persistence.DataFormats;
 import org.spongepowered.api.data.persistence.DataTranslator;
 import org.spongepowered.api.data.persistence.InvalidDataException;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
@@ -46,12 +47,14 @@
 import org.spongepowered.common.block.SpongeTileEntityArchetypeBuilder;
 import org.spongepowered.common.data.util.DataQueries;
 import org.spongepowered.common.registry.type.block.TileEntityTypeRegistryModule;
-import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
 import org.spongepowered.common.world.schematic.BimapPalette;
 import org.spongepowered.common.world.schematic.GlobalPalette;
 import org.spongepowered.common.world.schematic.SpongeSchematic;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -87,6 +90,39 @@ public TypeToken<Schematic> getToken() {
         return TYPE_TOKEN;
     }
 
+    /**
+     * Reads a gzip compressed schematic file. This reads the same files as
+     * {@link DataFormats#NBT} together with {@link #translate(DataView)}, but
+     * decodes the blocks while reading instead of building a {@link DataView}
+     * of the whole file first.
+     *
+     * @param input The compressed input, which is closed afterwards
+     * @return The schematic
+     * @throws IOException If the input fails
+     * @throws InvalidDataException If the schematic is invalid
+     * @see SchematicStreamReader
+     */
+    public Schematic read(InputStream input) throws IOException, InvalidDataException {
+        try (SchematicStreamReader reader = new SchematicStreamReader(input)) {
+            return reader.read();
+        }
+    }
+
+    /**
+     * Writes a schematic gzip compressed. This writes the same data as
+     * {@link #translate(Schematic)} together with {@link DataFormats#NBT},
+     * but without collecting the block data in memory first. The output is
+     * not closed.
+     *
+     * @param schematic The schematic
+     * @param output The output
+     * @throws IOException If the output fails
+     * @see SchematicStreamWriter
+     */
+    public void write(Schematic schematic, OutputStream output) throws IOException {
+        SchematicStreamWriter.write(schematic, output);
+    }
+
     @Override
     public Schematic translate(DataView view) throws InvalidDataException {
         int version = view.getInt(DataQueries.Schematic.VERSION).get();
@@ -129,38 +165,9 @@ public Schematic translate(DataView view) throws InvalidDataException {
             palette = GlobalPalette.instance;
         }
 
-        MutableBlockVolume buffer =
-                new ArrayMutableBlockBuffer(palette, new Vector3i(-offset[0], -offset[1], -offset[2]), new Vector3i(width, height, length));
-
         byte[] blockdata = (byte[]) view.get(DataQueries.Schematic.BLOCK_DATA).get();
-        int index = 0;
-        int i = 0;
-        int value = 0;
-        int varint_length = 0;
-        while (i < blockdata.length) {
-            value = 0;
-            varint_length = 0;
+        MutableBlockVolume buffer = SchematicBlockDecoder.decodeAll(palette, offset, width, height, length, blockdata);
 
-            while (true) {
-                value |= (blockdata[i] & 127) << (varint_length++ * 7);
-                if (varint_length > 5) {
-                    throw new RuntimeException("VarInt too big (probably corrupted data)");
-                }
-                if ((blockdata[i] & 128) != 128) {
-                    i++;
-                    break;
-                }
-                i++;
-            }
-            // index = (y * length + z) * width + x
-            int y = index / (width * length);
-            int z = (index % (width * length)) / width;
-            int x = (index % (width * length)) % width;
-            BlockState state = palette.get(value).get();
-            buffer.setBlock(x - offset[0], y - offset[1], z - offset[2], state);
-
-            index++;
-        }
         Map<Vector3i, TileEntityArchetype> tiles = Maps.newHashMap();
         List<DataView> tiledata = view.getViewList(DataQueries.Schematic.TILEENTITY_DATA).orElse(null);
         if (tiledata != null) {
@@ -203,11 +210,13 @@ public DataView addTo(Schematic schematic, DataView data) {
             throw new IllegalArgumentException(String.format(
                 "Schematic is larger than maximum allowable size (found: (%d, %d, %d) max: (%d, %<d, %<d)", width, height, length, MAX_SIZE));
         }
+        // The same order as the SchematicStreamWriter, the palette has to come
+        // before the block data for the SchematicStreamReader to stream it
+        data.set(DataQueries.Schematic.VERSION, VERSION);
         data.set(DataQueries.Schematic.WIDTH, width);
         data.set(DataQueries.Schematic.HEIGHT, height);
         data.set(DataQueries.Schematic.LENGTH, length);
 
-        data.set(DataQueries.Schematic.VERSION, VERSION);
         for (DataQuery metaKey : schematic.getMetadata().getKeys(false)) {
             data.set(DataQueries.Schematic.METADATA.then(metaKey), schematic.getMetadata().get(metaKey).get());
         }
@@ -216,27 +225,8 @@ public DataView addTo(Schematic schematic, DataView data) {
         data.set(DataQueries.Schematic.OFFSET, offset);
 
         BlockPalette palette = schematic.getPalette();
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream(width * height * length);
-
-        for (int y = 0; y < height; y++) {
-            int y0 = yMin + y;
-            for (int z = 0; z < length; z++) {
-                int z0 = zMin + z;
-                for (int x = 0; x < width; x++) {
-                    int x0 = xMin + x;
-                    BlockState state = schematic.getBlock(x0, y0, z0);
-                    int id = palette.getOrAssign(state);
-
-                    while ((id & -128) != 0) {
-                        buffer.write(id & 127 | 128);
-                        id >>>= 7;
-                    }
-                    buffer.write(id);
-                }
-            }
-        }
-
-        data.set(DataQueries.Schematic.BLOCK_DATA, buffer.toByteArray());
+        // Assigns the ids of all blocks before the palette is written
+        int blockDataSize = SchematicStreamWriter.getBlockDataSize(schematic, palette);
 
         if (palette.getType() == BlockPaletteTypes.LOCAL) {
             DataQuery paletteQuery = DataQueries.Schematic.PALETTE;
@@ -244,8 +234,9 @@ public DataView addTo(Schematic schematic, DataView data) {
                 // getOrAssign to skip the optional, it will never assign
                 data.set(paletteQuery.then(state.getId()), palette.getOrAssign(state));
             }
-            data.set(DataQueries.Schematic.PALETTE_MAX, palette.getHighestId());
         }
+        data.set(DataQueries.Schematic.PALETTE_MAX, palette.getHighestId());
+
         List<DataView> tileEntities = Lists.newArrayList();
         for (Map.Entry<Vector3i, TileEntityArchetype> entry : schematic.getTileEntityArchetypes().entrySet()) {
             Vector3i pos = entry.getKey();
@@ -260,6 +251,15 @@ public DataView addTo(Schematic schematic, DataView data) {
         }
         data.set(DataQueries.Schematic.TILEENTITY_DATA, tileEntities);
 
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(blockDataSize);
+        try {
+            SchematicStreamWriter.writeBlockData(schematic, palette, buffer);
+        } catch (IOException e) {
+            // A ByteArrayOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+        data.set(DataQueries.Schematic.BLOCK_DATA, buffer.toByteArray());
+
         return data;
     }
 
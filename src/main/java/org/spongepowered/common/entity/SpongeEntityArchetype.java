@@ -69,7 +69,7 @@ public EntityType getType() {
 
     @Override
     public DataContainer getEntityData() {
-        return NbtTranslator.getInstance().translateFrom(this.data);
+        return NbtTranslator.getInstance().translateLazily(this.data.copy());
     }
 
     @SuppressWarnings("unchecked")
@@ -164,7 +164,8 @@ protected ValidationType getValidationType() {
     public EntityArchetype copy() {
         final SpongeEntityArchetypeBuilder builder = new SpongeEntityArchetypeBuilder();
         builder.entityType = this.type;
-        builder.entityData = NbtTranslator.getInstance().translate(this.data);
+        // The data is copied again when the archetype is built
+        builder.entityData = NbtTranslator.getInstance().translateLazily(this.data);
         return builder.build();
     }
 }
@@ -112,7 +112,7 @@ public EntityArchetype.Builder from(Entity entity) {
         final NBTTagCompound compound = new NBTTagCompound();
         minecraftEntity.writeToNBT(compound);
         compound.removeTag(NbtDataUtil.UUID);
-        this.entityData = NbtTranslator.getInstance().translate(compound);
+        this.entityData = NbtTranslator.getInstance().translateLazily(compound);
         return this;
     }
 
@@ -203,7 +203,7 @@ public DataContainer toContainer() {
             container.set(DataQueries.ENTITY_ID, this.entityUuid.toString());
         }
         if (this.compound != null) {
-            container.set(DataQueries.UNSAFE_NBT, NbtTranslator.getInstance().translateFrom(this.compound));
+            container.set(DataQueries.UNSAFE_NBT, NbtTranslator.getInstance().translateLazily(this.compound));
         }
 
         return container;
@@ -460,7 +460,7 @@ public EntityArchetype createArchetype() {
         EntityArchetype.Builder builder = new SpongeEntityArchetypeBuilder();
         builder.type(this.entityType);
         if (this.compound != null) {
-            builder.entityData(NbtTranslator.getInstance().translate(this.compound));
+            builder.entityData(NbtTranslator.getInstance().translateLazily(this.compound));
         }
         return builder.build();
     }
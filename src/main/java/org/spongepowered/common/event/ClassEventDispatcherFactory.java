@@ -0,0 +1,295 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PROTECTED;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_6;
+
+import co.aikar.timings.Timing;
+import co.aikar.timings.TimingsManager;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.event.CauseStackManager;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.impl.AbstractEvent;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.event.gen.DefineableClassLoader;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Generates an {@link EventDispatcher} per event type which calls every
+ * listener in order from a single method. Every listener gets its own call
+ * site in the generated code, keeping them monomorphic.
+ *
+ * <p>The generated code only depends on the number of listeners and whether
+ * the event is an {@link AbstractEvent}, the listeners themselves are passed
+ * to the constructor. The classes are shared between all dispatchers of the
+ * same shape, so baking the handlers again after listeners changed doesn't
+ * define a new class in the never unloaded class loader.</p>
+ */
+public final class ClassEventDispatcherFactory {
+
+    /**
+     * Listener chains longer than this are not compiled, to stay well below
+     * the maximum method size of the class file format.
+     */
+    public static final int MAX_LISTENERS = 512;
+
+    private static final String BASE_DISPATCHER = Type.getInternalName(EventDispatcher.class);
+    private static final String REGISTERED_LISTENER = Type.getInternalName(RegisteredListener.class);
+    private static final String CAUSE_STACK_MANAGER = Type.getInternalName(CauseStackManager.class);
+    private static final String STACK_FRAME = Type.getInternalName(CauseStackManager.StackFrame.class);
+    private static final String TIMING = Type.getInternalName(Timing.class);
+    private static final String TIMINGS_MANAGER = Type.getInternalName(TimingsManager.class);
+    private static final String ABSTRACT_EVENT = Type.getInternalName(AbstractEvent.class);
+
+    private static final String EVENT_DESCRIPTOR = Type.getDescriptor(Event.class);
+    private static final String LISTENER_DESCRIPTOR = Type.getDescriptor(EventListener.class);
+    private static final String PLUGIN_DESCRIPTOR = Type.getDescriptor(PluginContainer.class);
+    private static final String TIMING_DESCRIPTOR = Type.getDescriptor(Timing.class);
+    private static final String ORDER_DESCRIPTOR = Type.getDescriptor(Order.class);
+    private static final String STACK_DESCRIPTOR = Type.getDescriptor(CauseStackManager.class);
+
+    private static final String CONSTRUCTOR_DESCRIPTOR = "([" + Type.getDescriptor(RegisteredListener.class) + ")V";
+    private static final String DISPATCH_DESCRIPTOR = '(' + EVENT_DESCRIPTOR + ")V";
+    private static final String HANDLE_EXCEPTION_DESCRIPTOR = '(' + EVENT_DESCRIPTOR + "ILjava/lang/Throwable;)V";
+
+    // Local variable slots of the generated dispatch methods
+    private static final int LOCAL_THIS = 0;
+    private static final int LOCAL_EVENT = 1;
+    private static final int LOCAL_STACK = 2;
+    private static final int LOCAL_FRAME = 3;
+    private static final int LOCAL_THROWABLE = 4;
+
+    private final ConcurrentMap<Integer, Class<? extends EventDispatcher>> dispatcherClasses = new ConcurrentHashMap<>();
+    private final DefineableClassLoader classLoader;
+    private final String targetPackage;
+
+    public ClassEventDispatcherFactory(String targetPackage, DefineableClassLoader classLoader) {
+        checkNotNull(targetPackage, "targetPackage");
+        checkArgument(!targetPackage.isEmpty(), "targetPackage cannot be empty");
+        this.targetPackage = targetPackage + '.';
+        this.classLoader = checkNotNull(classLoader, "classLoader");
+    }
+
+    public EventDispatcher create(Class<? extends Event> eventClass, List<RegisteredListener<?>> listeners) throws Exception {
+        checkNotNull(eventClass, "eventClass");
+        checkArgument(listeners.size() <= MAX_LISTENERS, "Too many listeners to compile a dispatcher: %s", listeners.size());
+        if (listeners.isEmpty()) {
+            return EventDispatcher.EMPTY;
+        }
+
+        final RegisteredListener<?>[] array = listeners.toArray(new RegisteredListener<?>[listeners.size()]);
+        final boolean abstractEvent = AbstractEvent.class.isAssignableFrom(eventClass);
+        final int size = array.length;
+        final Class<? extends EventDispatcher> dispatcherClass = this.dispatcherClasses.computeIfAbsent(size << 1 | (abstractEvent ? 1 : 0), key -> {
+            final String name = this.targetPackage + (abstractEvent ? "AbstractEventDispatcher_" : "EventDispatcher_") + size;
+            return this.classLoader.defineClass(name, generateClass(name, size, abstractEvent));
+        });
+        return dispatcherClass.getConstructor(RegisteredListener[].class).newInstance((Object) array);
+    }
+
+    /**
+     * Gets the number of dispatcher classes which were defined by this
+     * factory so far.
+     *
+     * @return The number of defined classes
+     */
+    int getDefinedClassCount() {
+        return this.dispatcherClasses.size();
+    }
+
+    private static byte[] generateClass(String name, int size, boolean abstractEvent) {
+        name = name.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        MethodVisitor mv;
+
+        cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, name, null, BASE_DISPATCHER, null);
+        for (int i = 0; i < size; i++) {
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "listener" + i, LISTENER_DESCRIPTOR, null, null).visitEnd();
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "plugin" + i, PLUGIN_DESCRIPTOR, null, null).visitEnd();
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "timing" + i, TIMING_DESCRIPTOR, null, null).visitEnd();
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "order" + i, ORDER_DESCRIPTOR, null, null).visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, BASE_DISPATCHER, "<init>", CONSTRUCTOR_DESCRIPTOR, false);
+            for (int i = 0; i < size; i++) {
+                visitListenerField(mv, name, i, "listener", "getListener", LISTENER_DESCRIPTOR);
+                visitListenerField(mv, name, i, "plugin", "getPlugin", PLUGIN_DESCRIPTOR);
+                visitListenerField(mv, name, i, "timing", "getTimingsHandler", TIMING_DESCRIPTOR);
+                visitListenerField(mv, name, i, "order", "getOrder", ORDER_DESCRIPTOR);
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        generateDispatch(cw, name, "dispatchTimed", size, abstractEvent, true);
+        generateDispatch(cw, name, "dispatchUntimed", size, abstractEvent, false);
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    private static void visitListenerField(MethodVisitor mv, String name, int index, String field, String getter, String descriptor) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitLdcInsn(index);
+        mv.visitInsn(AALOAD);
+        mv.visitMethodInsn(INVOKEVIRTUAL, REGISTERED_LISTENER, getter, "()" + descriptor, false);
+        mv.visitFieldInsn(PUTFIELD, name, field + index, descriptor);
+    }
+
+    /**
+     * Generates the equivalent of the following for each listener, in order:
+     *
+     * <pre>
+     * stack.pushCause(this.pluginN);
+     * frame = stack.pushCauseFrame();
+     * TimingsManager.PLUGIN_EVENT_HANDLER.startTimingIfSync();
+     * this.timingN.startTimingIfSync();
+     * ((AbstractEvent) event).currentOrder = this.orderN;
+     * try {
+     *     this.listenerN.handle(event);
+     * } catch (Throwable t) {
+     *     handleException(event, N, t);
+     * }
+     * this.timingN.stopTimingIfSync();
+     * TimingsManager.PLUGIN_EVENT_HANDLER.stopTimingIfSync();
+     * frame.close();
+     * stack.popCause();
+     * </pre>
+     *
+     * <p>The timings calls are only present in the timed variant, and the
+     * order is only tracked for {@link AbstractEvent}s.</p>
+     */
+    private static void generateDispatch(ClassWriter cw, String name, String methodName, int size, boolean abstractEvent, boolean timed) {
+        MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, methodName, DISPATCH_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(Sponge.class), "getCauseStackManager", "()" + STACK_DESCRIPTOR, false);
+        mv.visitVarInsn(ASTORE, LOCAL_STACK);
+        for (int i = 0; i < size; i++) {
+            mv.visitVarInsn(ALOAD, LOCAL_STACK);
+            mv.visitVarInsn(ALOAD, LOCAL_THIS);
+            mv.visitFieldInsn(GETFIELD, name, "plugin" + i, PLUGIN_DESCRIPTOR);
+            mv.visitMethodInsn(INVOKEINTERFACE, CAUSE_STACK_MANAGER, "pushCause", "(Ljava/lang/Object;)" + STACK_DESCRIPTOR, true);
+            mv.visitInsn(POP);
+            mv.visitVarInsn(ALOAD, LOCAL_STACK);
+            mv.visitMethodInsn(INVOKEINTERFACE, CAUSE_STACK_MANAGER, "pushCauseFrame", "()L" + STACK_FRAME + ';', true);
+            mv.visitVarInsn(ASTORE, LOCAL_FRAME);
+            if (timed) {
+                mv.visitFieldInsn(GETSTATIC, TIMINGS_MANAGER, "PLUGIN_EVENT_HANDLER", TIMING_DESCRIPTOR);
+                mv.visitMethodInsn(INVOKEINTERFACE, TIMING, "startTimingIfSync", "()V", true);
+                mv.visitVarInsn(ALOAD, LOCAL_THIS);
+                mv.visitFieldInsn(GETFIELD, name, "timing" + i, TIMING_DESCRIPTOR);
+                mv.visitMethodInsn(INVOKEINTERFACE, TIMING, "startTimingIfSync", "()V", true);
+            }
+            if (abstractEvent) {
+                mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+                mv.visitTypeInsn(CHECKCAST, ABSTRACT_EVENT);
+                mv.visitVarInsn(ALOAD, LOCAL_THIS);
+                mv.visitFieldInsn(GETFIELD, name, "order" + i, ORDER_DESCRIPTOR);
+                mv.visitFieldInsn(PUTFIELD, ABSTRACT_EVENT, "currentOrder", ORDER_DESCRIPTOR);
+            }
+
+            Label tryStart = new Label();
+            Label tryEnd = new Label();
+            Label catchHandler = new Label();
+            Label after = new Label();
+            mv.visitTryCatchBlock(tryStart, tryEnd, catchHandler, "java/lang/Throwable");
+            mv.visitLabel(tryStart);
+            mv.visitVarInsn(ALOAD, LOCAL_THIS);
+            mv.visitFieldInsn(GETFIELD, name, "listener" + i, LISTENER_DESCRIPTOR);
+            mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+            mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(EventListener.class), "handle", DISPATCH_DESCRIPTOR, true);
+            mv.visitLabel(tryEnd);
+            mv.visitJumpInsn(GOTO, after);
+            mv.visitLabel(catchHandler);
+            mv.visitVarInsn(ASTORE, LOCAL_THROWABLE);
+            mv.visitVarInsn(ALOAD, LOCAL_THIS);
+            mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+            mv.visitLdcInsn(i);
+            mv.visitVarInsn(ALOAD, LOCAL_THROWABLE);
+            mv.visitMethodInsn(INVOKEVIRTUAL, BASE_DISPATCHER, "handleException", HANDLE_EXCEPTION_DESCRIPTOR, false);
+            mv.visitLabel(after);
+
+            if (timed) {
+                mv.visitVarInsn(ALOAD, LOCAL_THIS);
+                mv.visitFieldInsn(GETFIELD, name, "timing" + i, TIMING_DESCRIPTOR);
+                mv.visitMethodInsn(INVOKEINTERFACE, TIMING, "stopTimingIfSync", "()V", true);
+                mv.visitFieldInsn(GETSTATIC, TIMINGS_MANAGER, "PLUGIN_EVENT_HANDLER", TIMING_DESCRIPTOR);
+                mv.visitMethodInsn(INVOKEINTERFACE, TIMING, "stopTimingIfSync", "()V", true);
+            }
+            mv.visitVarInsn(ALOAD, LOCAL_FRAME);
+            mv.visitMethodInsn(INVOKEINTERFACE, STACK_FRAME, "close", "()V", true);
+            mv.visitVarInsn(ALOAD, LOCAL_STACK);
+            mv.visitMethodInsn(INVOKEINTERFACE, CAUSE_STACK_MANAGER, "popCause", "()Ljava/lang/Object;", true);
+            mv.visitInsn(POP);
+        }
+        if (abstractEvent) {
+            mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+            mv.visitTypeInsn(CHECKCAST, ABSTRACT_EVENT);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitFieldInsn(PUTFIELD, ABSTRACT_EVENT, "currentOrder", ORDER_DESCRIPTOR);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+}
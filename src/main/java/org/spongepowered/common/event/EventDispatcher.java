@@ -0,0 +1,89 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import co.aikar.timings.Timings;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.common.SpongeImpl;
+
+/**
+ * A baked invoker for every {@link RegisteredListener} of a single event
+ * type. Implementations are generated by {@link ClassEventDispatcherFactory}
+ * and call each listener directly, with the cause stack and timings calls
+ * folded into the generated code.
+ */
+public abstract class EventDispatcher {
+
+    /**
+     * The dispatcher used for event types without any listeners, posting to
+     * it does not touch the cause stack or timings at all.
+     */
+    public static final EventDispatcher EMPTY = new EventDispatcher(new RegisteredListener<?>[0]) {
+
+        @Override
+        protected void dispatchTimed(Event event) {
+        }
+
+        @Override
+        protected void dispatchUntimed(Event event) {
+        }
+    };
+
+    protected final RegisteredListener<?>[] listeners;
+
+    protected EventDispatcher(RegisteredListener<?>[] listeners) {
+        this.listeners = checkNotNull(listeners, "listeners");
+    }
+
+    /**
+     * Passes the event to every listener of this dispatcher. Must only be
+     * called from the main thread.
+     *
+     * @param event The event
+     */
+    public final void dispatch(Event event) {
+        if (Timings.isTimingsEnabled()) {
+            dispatchTimed(event);
+        } else {
+            dispatchUntimed(event);
+        }
+    }
+
+    protected abstract void dispatchTimed(Event event);
+
+    protected abstract void dispatchUntimed(Event event);
+
+    // Called by the generated code when a listener throws
+    protected final void handleException(Event event, int index, Throwable throwable) {
+        SpongeImpl.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), this.listeners[index].getPlugin(), throwable);
+    }
+
+    public final int size() {
+        return this.listeners.length;
+    }
+
+}
@@ -37,6 +37,9 @@
 
 import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
 
 public final class RegisteredListener<T extends Event> implements SpongeEventListener<T>, Comparable<RegisteredListener<?>> {
 
@@ -70,6 +73,10 @@ public Order getOrder() {
         return this.order;
     }
 
+    public EventListener<? super T> getListener() {
+        return this.listener;
+    }
+
     public boolean isBeforeModifications() {
         return this.beforeModifications;
     }
@@ -104,11 +111,23 @@ public static final class Cache {
 
         private final List<RegisteredListener<?>> listeners;
         private final EnumMap<Order, List<RegisteredListener<?>>> listenersByOrder;
+        @Nullable private final EventDispatcher dispatcher;
+        // The listener snapshots of each event type this cache was baked from,
+        // null if the type had no listeners
+        private final Class<?>[] sourceTypes;
+        private final List<?>[] sources;
 
         private static final Order[] ORDERS = Order.values();
 
         Cache(List<RegisteredListener<?>> listeners) {
+            this(listeners, null, new Class<?>[0], new List<?>[0]);
+        }
+
+        Cache(List<RegisteredListener<?>> listeners, @Nullable EventDispatcher dispatcher, Class<?>[] sourceTypes, List<?>[] sources) {
             this.listeners = listeners;
+            this.dispatcher = dispatcher;
+            this.sourceTypes = sourceTypes;
+            this.sources = sources;
 
             this.listenersByOrder = Maps.newEnumMap(Order.class);
             for (Order order : ORDERS) {
@@ -127,6 +146,33 @@ public List<RegisteredListener<?>> getListenersByOrder(Order order) {
             return this.listenersByOrder.get(checkNotNull(order, "order"));
         }
 
+        /**
+         * Gets the compiled dispatcher for the listeners of this cache, if
+         * compiled event dispatch is enabled.
+         *
+         * @return The dispatcher, or null if the listeners are invoked one by one
+         */
+        @Nullable
+        public EventDispatcher getDispatcher() {
+            return this.dispatcher;
+        }
+
+        /**
+         * Gets whether the listeners of any of the event types this cache
+         * was baked from were changed since.
+         *
+         * @param listenersByEvent The current listener snapshots
+         * @return Whether this cache is outdated
+         */
+        boolean isStale(Map<Class<?>, ? extends List<?>> listenersByEvent) {
+            for (int i = 0; i < this.sourceTypes.length; i++) {
+                if (listenersByEvent.get(this.sourceTypes[i]) != this.sources[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
     }
 
 }
@@ -39,25 +39,48 @@
 import org.spongepowered.asm.util.PrettyPrinter;
 import org.spongepowered.common.SpongeImpl;
 
+import java.util.Arrays;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+
+import javax.annotation.Nullable;
 
 @Singleton
 public class SpongeCauseStackManager implements CauseStackManager {
 
     public static final boolean DEBUG_CAUSE_FRAMES = Boolean.valueOf(System.getProperty("sponge.debugcauseframes", "false"));
+    // The popped frames which are kept before the oldest one is reused
+    private static final int SPARE_FRAMES = 16;
+    private static final int MAX_POOLED_FRAMES = 64;
 
     private final Deque<Object> cause = Queues.newArrayDeque();
-    private final Deque<CauseStackFrameImpl> frames = Queues.newArrayDeque();
     private Map<EventContextKey<?>, Object> ctx = Maps.newHashMap();
 
+    /*
+     * The frames are kept in an array stack. Popped frames are reset and
+     * reused by later pushes, unless the cause frames are being debugged.
+     * Frames are handed out to callers which may keep them after they were
+     * popped, so a popped frame must never be mistaken for a later one. Each
+     * frame is stamped with its depth while it is on the stack, and popped
+     * frames are only reused after the spare frames queued before them, so a
+     * stale frame is detected as such until many frames were pushed since.
+     */
+    private CauseStackFrameImpl[] frames = new CauseStackFrameImpl[16];
+    private int frame_depth = 0;
+    private final Deque<CauseStackFrameImpl> frame_pool = Queues.newArrayDeque();
+
     private int min_depth = 0;
-    private Cause cached_cause;
     private EventContext cached_ctx;
+    /*
+     * The causes built for each depth of the cause stack. The objects below
+     * the top of the stack never change while it is higher, so the cause of a
+     * lower depth is still valid once the stack gets back to it, as long as
+     * the context did not change in the meantime.
+     */
+    private Cause[] cached_causes = new Cause[16];
+    private int[] cached_cause_ctx_versions = new int[16];
+    private int ctx_version = 0;
 
     @Inject
     private SpongeCauseStackManager() { }
@@ -72,14 +95,28 @@ private void enforceMainThread() {
     @Override
     public Cause getCurrentCause() {
         enforceMainThread();
-        if (this.cached_cause == null || this.cached_ctx == null) {
-            if (this.cause.isEmpty()) {
-                this.cached_cause = Cause.of(getCurrentContext(), SpongeImpl.getGame());
+        final int depth = this.cause.size();
+        if (depth >= this.cached_causes.length) {
+            final int length = Math.max(this.cached_causes.length * 2, depth + 1);
+            this.cached_causes = Arrays.copyOf(this.cached_causes, length);
+            this.cached_cause_ctx_versions = Arrays.copyOf(this.cached_cause_ctx_versions, length);
+        }
+        Cause cause = this.cached_causes[depth];
+        if (cause == null || this.cached_cause_ctx_versions[depth] != this.ctx_version) {
+            if (depth == 0) {
+                cause = Cause.of(getCurrentContext(), SpongeImpl.getGame());
             } else {
-                this.cached_cause = Cause.of(getCurrentContext(), this.cause);
+                cause = Cause.of(getCurrentContext(), this.cause);
             }
+            this.cached_causes[depth] = cause;
+            this.cached_cause_ctx_versions[depth] = this.ctx_version;
         }
-        return this.cached_cause;
+        return cause;
+    }
+
+    private void invalidateContext() {
+        this.cached_ctx = null;
+        this.ctx_version++;
     }
 
     @Override
@@ -95,8 +132,12 @@ public EventContext getCurrentContext() {
     public CauseStackManager pushCause(Object obj) {
         enforceMainThread();
         checkNotNull(obj, "obj");
-        this.cached_cause = null;
         this.cause.push(obj);
+        // The new top of the stack has not been seen at this depth yet
+        final int depth = this.cause.size();
+        if (depth < this.cached_causes.length) {
+            this.cached_causes[depth] = null;
+        }
         return this;
     }
 
@@ -107,7 +148,6 @@ public Object popCause() {
             throw new IllegalStateException("Cause stack corruption, tried to pop more objects off than were pushed since last frame (Size was "
                     + this.cause.size() + " but mid depth is " + this.min_depth + ")");
         }
-        this.cached_cause = null;
         return this.cause.pop();
     }
 
@@ -128,8 +168,19 @@ public Object peekCause() {
     @Override
     public StackFrame pushCauseFrame() {
         enforceMainThread();
-        CauseStackFrameImpl frame = new CauseStackFrameImpl(this.min_depth);
-        this.frames.push(frame);
+        if (this.frame_depth == this.frames.length) {
+            this.frames = Arrays.copyOf(this.frames, this.frames.length * 2);
+        }
+        final CauseStackFrameImpl frame;
+        if (this.frame_pool.size() > SPARE_FRAMES) {
+            frame = this.frame_pool.pollFirst();
+            frame.old_min_depth = this.min_depth;
+        } else {
+            frame = new CauseStackFrameImpl(this.min_depth);
+        }
+        frame.depth = this.frame_depth;
+        this.frames[this.frame_depth] = frame;
+        this.frame_depth++;
         this.min_depth = this.cause.size();
         if (DEBUG_CAUSE_FRAMES) {
             // Attach an exception to the frame so that if there is any frame
@@ -140,11 +191,16 @@ public StackFrame pushCauseFrame() {
         return frame;
     }
 
+    @Nullable
+    private CauseStackFrameImpl peekFrame() {
+        return this.frame_depth == 0 ? null : this.frames[this.frame_depth - 1];
+    }
+
     @Override
     public void popCauseFrame(StackFrame oldFrame) {
         enforceMainThread();
         checkNotNull(oldFrame, "oldFrame");
-        CauseStackFrameImpl frame = this.frames.peek();
+        CauseStackFrameImpl frame = peekFrame();
         if (frame != oldFrame) {
             // If the given frame is not the top frame then some form of
             // corruption of the stack has occured and we do our best to correct
@@ -154,13 +210,11 @@ public void popCauseFrame(StackFrame oldFrame) {
             // off the stack until we reach it, otherwise we have no choice but
             // to simply throw an error.
             int offset = -1;
-            int i = 0;
-            for (CauseStackFrameImpl f : this.frames) {
-                if (f == oldFrame) {
-                    offset = i;
-                    break;
+            if (oldFrame instanceof CauseStackFrameImpl) {
+                final int depth = ((CauseStackFrameImpl) oldFrame).depth;
+                if (depth >= 0 && depth < this.frame_depth && this.frames[depth] == oldFrame) {
+                    offset = this.frame_depth - 1 - depth;
                 }
-                i++;
             }
             if (!DEBUG_CAUSE_FRAMES && offset == -1) {
                 // if we're not debugging the cause frames then throw an error
@@ -184,7 +238,7 @@ public void popCauseFrame(StackFrame oldFrame) {
             }
 
             while (offset >= 0) {
-                CauseStackFrameImpl f = this.frames.peek();
+                CauseStackFrameImpl f = peekFrame();
                 if (DEBUG_CAUSE_FRAMES && offset > 0) {
                     printer.add("   Stack frame in position %n:", offset);
                     printer.add(f.stack_debug);
@@ -200,33 +254,30 @@ public void popCauseFrame(StackFrame oldFrame) {
             }
             return;
         }
-        this.frames.pop();
-        // Remove new values
-        boolean ctx_invalid = false;
-        if (frame.hasNew()) {
-            for (EventContextKey<?> key : frame.getNew()) {
-                this.ctx.remove(key);
-            }
-            ctx_invalid = true;
-        }
-        // Restore old values
-        if (frame.hasStoredValues()) {
-            for (Map.Entry<EventContextKey<?>, Object> e : frame.getStoredValues()) {
-                this.ctx.put(e.getKey(), e.getValue());
+        this.frame_depth--;
+        this.frames[this.frame_depth] = null;
+        // Remove new values and restore old values
+        if (frame.size > 0) {
+            for (int i = 0; i < frame.size; i++) {
+                if (frame.stored_values[i] == CauseStackFrameImpl.NEW) {
+                    this.ctx.remove(frame.keys[i]);
+                } else {
+                    this.ctx.put(frame.keys[i], frame.stored_values[i]);
+                }
             }
-            ctx_invalid = true;
-        }
-        if (ctx_invalid) {
-            this.cached_ctx = null;
+            invalidateContext();
         }
         // If there were any objects left on the stack then we pop them off
         while (this.cause.size() > this.min_depth) {
             this.cause.pop();
-
-            // and clear the cached causes
-            this.cached_cause = null;
         }
         this.min_depth = frame.old_min_depth;
+        frame.depth = -1;
+        if (!DEBUG_CAUSE_FRAMES && this.frame_pool.size() < MAX_POOLED_FRAMES) {
+            // Debugged frames keep their stack trace, and aren't reused
+            frame.clear();
+            this.frame_pool.addLast(frame);
+        }
     }
 
     @Override
@@ -234,15 +285,15 @@ public <T> CauseStackManager addContext(EventContextKey<T> key, T value) {
         enforceMainThread();
         checkNotNull(key, "key");
         checkNotNull(value, "value");
-        this.cached_ctx = null;
         Object existing = this.ctx.put(key, value);
-        if (!this.frames.isEmpty()) {
-            CauseStackFrameImpl frame = this.frames.peek();
-            if (existing == null) {
-                frame.markNew(key);
-            } else if (!frame.isNew(key) && !frame.isStored(key)) {
-                frame.store(key, existing);
-            }
+        if (existing == value) {
+            // Nothing changed
+            return this;
+        }
+        invalidateContext();
+        CauseStackFrameImpl frame = peekFrame();
+        if (frame != null) {
+            frame.track(key, existing);
         }
         return this;
     }
@@ -260,24 +311,35 @@ public <T> Optional<T> getContext(EventContextKey<T> key) {
     public <T> Optional<T> removeContext(EventContextKey<T> key) {
         enforceMainThread();
         checkNotNull(key, "key");
-        this.cached_ctx = null;
         Object existing = this.ctx.remove(key);
-        if (existing != null && !this.frames.isEmpty()) {
-            CauseStackFrameImpl frame = this.frames.peek();
-            if (!frame.isNew(key)) {
-                frame.store(key, existing);
+        if (existing != null) {
+            invalidateContext();
+            CauseStackFrameImpl frame = peekFrame();
+            if (frame != null) {
+                frame.track(key, existing);
             }
         }
         return Optional.ofNullable((T) existing);
     }
 
-    // TODO could pool these for more fasts
     public static class CauseStackFrameImpl implements StackFrame {
 
-        // lazy loaded
-        private Map<EventContextKey<?>, Object> stored_ctx_values;
-        private Set<EventContextKey<?>> new_ctx_values;
+        // Marks a key which was not present in the context before this frame
+        static final Object NEW = new Object();
+        private static final int[] EMPTY_POSITIONS = new int[0];
+        private static final EventContextKey<?>[] EMPTY_KEYS = new EventContextKey<?>[0];
+        private static final Object[] EMPTY_VALUES = new Object[0];
+
+        // Parallel arrays of the context keys changed in this frame and the
+        // value each of them had before, or NEW
+        EventContextKey<?>[] keys = EMPTY_KEYS;
+        Object[] stored_values = EMPTY_VALUES;
+        int size;
+        // The position + 1 in the arrays above, indexed by the key index
+        private int[] positions = EMPTY_POSITIONS;
         public int old_min_depth;
+        // The position of this frame in the frame stack, or -1 once popped
+        int depth = -1;
 
         public Exception stack_debug = null;
 
@@ -285,42 +347,53 @@ public CauseStackFrameImpl(int old_depth) {
             this.old_min_depth = old_depth;
         }
 
-        public boolean isStored(EventContextKey<?> key) {
-            return this.stored_ctx_values != null && this.stored_ctx_values.containsKey(key);
-        }
-
-        public Set<Map.Entry<EventContextKey<?>, Object>> getStoredValues() {
-            return this.stored_ctx_values.entrySet();
-        }
-
-        public boolean hasStoredValues() {
-            return this.stored_ctx_values != null && !this.stored_ctx_values.isEmpty();
-        }
-
-        public void store(EventContextKey<?> key, Object existing) {
-            if (this.stored_ctx_values == null) {
-                this.stored_ctx_values = new HashMap<>();
+        /**
+         * Records the value the given key had before it was first changed in
+         * this frame. Later changes of the same key are ignored, as popping
+         * the frame has to restore the original value.
+         *
+         * @param key The key
+         * @param existing The previous value, or null if there was none
+         */
+        void track(EventContextKey<?> key, @Nullable Object existing) {
+            final int index = SpongeEventContextKey.getIndex(key);
+            if (index >= this.positions.length) {
+                this.positions = Arrays.copyOf(this.positions, Math.max(index + 1, this.positions.length * 2));
+            } else if (this.positions[index] != 0) {
+                return;
+            }
+            if (this.size == this.keys.length) {
+                final int length = Math.max(4, this.size * 2);
+                this.keys = Arrays.copyOf(this.keys, length);
+                this.stored_values = Arrays.copyOf(this.stored_values, length);
             }
-            this.stored_ctx_values.put(key, existing);
+            this.keys[this.size] = key;
+            this.stored_values[this.size] = existing == null ? NEW : existing;
+            this.positions[index] = ++this.size;
         }
 
         public boolean isNew(EventContextKey<?> key) {
-            return this.new_ctx_values != null && this.new_ctx_values.contains(key);
+            final int position = getPosition(key);
+            return position != 0 && this.stored_values[position - 1] == NEW;
         }
 
-        public Set<EventContextKey<?>> getNew() {
-            return this.new_ctx_values;
+        public boolean isStored(EventContextKey<?> key) {
+            final int position = getPosition(key);
+            return position != 0 && this.stored_values[position - 1] != NEW;
         }
 
-        public boolean hasNew() {
-            return this.new_ctx_values != null && !this.new_ctx_values.isEmpty();
+        private int getPosition(EventContextKey<?> key) {
+            final int index = SpongeEventContextKey.getIndex(key);
+            return index < this.positions.length ? this.positions[index] : 0;
         }
 
-        public void markNew(EventContextKey<?> key) {
-            if (this.new_ctx_values == null) {
-                this.new_ctx_values = new HashSet<>();
+        void clear() {
+            for (int i = 0; i < this.size; i++) {
+                this.positions[SpongeEventContextKey.getIndex(this.keys[i])] = 0;
+                this.keys[i] = null;
+                this.stored_values[i] = null;
             }
-            this.new_ctx_values.add(key);
+            this.size = 0;
         }
 
         @Override
@@ -29,22 +29,56 @@
 import com.google.common.base.MoreObjects;
 import org.spongepowered.api.event.cause.EventContextKey;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public final class SpongeEventContextKey<T> implements EventContextKey<T> {
 
+    // Keys are equal by id, so equal keys have to share the same index
+    private static final Map<String, Integer> indices = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
     private final String id;
     private final Class<T> allowed;
     private final String name;
+    private final int index;
 
     SpongeEventContextKey(SpongeEventContextKeyBuilder<T> builder) {
         this.id = builder.id;
         this.allowed = builder.typeClass;
         this.name = builder.name;
+        this.index = indexOf(this.id);
     }
 
     public SpongeEventContextKey(String id, String name, Class<T> allowed) {
         this.id = checkNotNull(id, "Id");
         this.allowed = checkNotNull(allowed, "Allowed");
         this.name = checkNotNull(name, "Name");
+        this.index = indexOf(this.id);
+    }
+
+    private static int indexOf(String id) {
+        final Integer index = indices.get(id);
+        if (index != null) {
+            return index;
+        }
+        return indices.computeIfAbsent(id, k -> nextIndex.getAndIncrement());
+    }
+
+    /**
+     * Gets the small, dense index which is assigned to the id of the given
+     * key. Used to index the context arrays of the cause stack. The index of
+     * other key implementations is assigned when they are registered.
+     *
+     * @param key The key
+     * @return The index of the key
+     */
+    public static int getIndex(EventContextKey<?> key) {
+        if (key instanceof SpongeEventContextKey) {
+            return ((SpongeEventContextKey<?>) key).index;
+        }
+        return indexOf(key.getId());
     }
 
     @Override
@@ -30,9 +30,8 @@
 import co.aikar.timings.TimingsManager;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import com.google.common.reflect.TypeToken;
 import org.apache.logging.log4j.Logger;
@@ -55,14 +54,16 @@
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 
 import javax.annotation.Nullable;
@@ -78,15 +79,27 @@ public class SpongeEventManager implements EventManager {
     private final DefineableClassLoader classLoader = new DefineableClassLoader(getClass().getClassLoader());
     private final AnnotatedEventListener.Factory handlerFactory = new ClassEventListenerFactory("org.spongepowered.common.event.listener",
             new FilterFactory("org.spongepowered.common.event.filters", this.classLoader), this.classLoader);
-    private final Multimap<Class<?>, RegisteredListener<?>> handlersByEvent = HashMultimap.create();
-    private final Set<Object> registeredListeners = Sets.newHashSet();
+    private final ClassEventDispatcherFactory dispatcherFactory =
+            new ClassEventDispatcherFactory("org.spongepowered.common.event.dispatcher", this.classLoader);
+    // Resolved lazily, the global config may not be loaded when the manager is created
+    @Nullable private Boolean compileDispatchers;
+    private final Set<Object> registeredListeners = Sets.newConcurrentHashSet();
+
+    /**
+     * The listeners registered directly for each event type. Every value is an
+     * immutable snapshot which is replaced as a whole when listeners are added
+     * or removed, so baking the handlers never has to take the lock. The baked
+     * handlers remember the snapshots they were built from to detect changes
+     * which raced with baking.
+     */
+    private final ConcurrentMap<Class<?>, List<RegisteredListener<?>>> handlersByEvent = new ConcurrentHashMap<>();
 
     public final ListenerChecker checker = new ListenerChecker(ShouldFire.class);
 
     /**
      * A cache of all the handlers for an event type for quick event posting.
-     * <p>The cache is currently entirely invalidated if handlers are added or
-     * removed.</p>
+     * <p>Only the entries for the event types which are affected by added or
+     * removed handlers are invalidated.</p>
      */
     private final LoadingCache<Class<? extends Event>, RegisteredListener.Cache> handlersCache =
             Caffeine.newBuilder().initialCapacity(150).build((eventClass) -> bakeHandlers(eventClass));
@@ -123,17 +136,39 @@ public SpongeEventManager(Logger logger, PluginManager pluginManager) {
     <T extends Event> RegisteredListener.Cache bakeHandlers(Class<T> rootEvent) {
         List<RegisteredListener<?>> handlers = Lists.newArrayList();
         Set<Class<? super T>> types = TypeToken.of(rootEvent).getTypes().rawTypes();
-
-        synchronized (this.lock) {
-            for (Class<? super T> type : types) {
-                if (Event.class.isAssignableFrom(type)) {
-                    handlers.addAll(this.handlersByEvent.get(type));
+        List<Class<?>> sourceTypes = new ArrayList<>(types.size());
+        List<List<RegisteredListener<?>>> sources = new ArrayList<>(types.size());
+
+        for (Class<? super T> type : types) {
+            if (Event.class.isAssignableFrom(type)) {
+                List<RegisteredListener<?>> snapshot = this.handlersByEvent.get(type);
+                sourceTypes.add(type);
+                sources.add(snapshot);
+                if (snapshot != null) {
+                    handlers.addAll(snapshot);
                 }
             }
         }
 
         Collections.sort(handlers);
-        return new RegisteredListener.Cache(handlers);
+        return new RegisteredListener.Cache(handlers, createDispatcher(rootEvent, handlers),
+                sourceTypes.toArray(new Class<?>[sourceTypes.size()]), sources.toArray(new List<?>[sources.size()]));
+    }
+
+    @Nullable
+    private EventDispatcher createDispatcher(Class<? extends Event> eventClass, List<RegisteredListener<?>> handlers) {
+        if (this.compileDispatchers == null) {
+            this.compileDispatchers = SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useCompiledEventDispatch();
+        }
+        if (!this.compileDispatchers || handlers.size() > ClassEventDispatcherFactory.MAX_LISTENERS) {
+            return null;
+        }
+        try {
+            return this.dispatcherFactory.create(eventClass, handlers);
+        } catch (Exception e) {
+            this.logger.error("Failed to compile event dispatcher for {}, falling back to invoking listeners one by one", eventClass, e);
+            return null;
+        }
     }
 
     @Nullable
@@ -171,20 +206,49 @@ private void register(RegisteredListener<? extends Event> handler) {
     }
 
     private void register(List<RegisteredListener<? extends Event>> handlers) {
-        boolean changed = false;
+        if (handlers.isEmpty()) {
+            return;
+        }
+
+        final Map<Class<?>, List<RegisteredListener<?>>> added = new HashMap<>();
+        for (RegisteredListener<?> handler : handlers) {
+            added.computeIfAbsent(handler.getEventClass(), k -> new ArrayList<>()).add(handler);
+        }
 
         synchronized (this.lock) {
-            for (RegisteredListener<?> handler : handlers) {
-                if (this.handlersByEvent.put(handler.getEventClass(), handler)) {
-                    changed = true;
+            for (Map.Entry<Class<?>, List<RegisteredListener<?>>> entry : added.entrySet()) {
+                final List<RegisteredListener<?>> current = this.handlersByEvent.get(entry.getKey());
+                final ImmutableList.Builder<RegisteredListener<?>> snapshot = ImmutableList.builder();
+                if (current != null) {
+                    snapshot.addAll(current);
+                }
+                this.handlersByEvent.put(entry.getKey(), snapshot.addAll(entry.getValue()).build());
+                for (RegisteredListener<?> handler : entry.getValue()) {
                     this.checker.registerListenerFor(handler.getEventClass());
                 }
             }
         }
 
-        if (changed) {
-            this.handlersCache.invalidateAll();
+        invalidateHandlers(added.keySet());
+    }
+
+    /**
+     * Invalidates the baked handlers of every cached event type which is a
+     * subtype of one of the changed event types.
+     *
+     * @param changed The event types whose listeners were changed
+     */
+    private void invalidateHandlers(Collection<Class<?>> changed) {
+        final List<Class<? extends Event>> invalid = new ArrayList<>();
+        for (Class<? extends Event> eventClass : this.handlersCache.asMap().keySet()) {
+            for (Class<?> changedClass : changed) {
+                if (changedClass.isAssignableFrom(eventClass)) {
+                    invalid.add(eventClass);
+                    break;
+                }
+            }
         }
+        this.handlersCache.invalidateAll(invalid);
     }
 
     /*private void enableFields(Collection<RegisteredListener<? extends Event>> handlers) {
@@ -204,7 +268,7 @@ private void disableFields(Collection<RegisteredListener<? extends Event>> handl
 
     // Override in SpongeModEventManager
     protected boolean hasAnyListeners(Class<? extends Event> clazz) {
-        return !this.handlersCache.get(clazz).getListeners().isEmpty();
+        return !getHandlerCache(clazz).getListeners().isEmpty();
     }
 
     public void registerListener(PluginContainer plugin, Object listenerObject) {
@@ -304,23 +368,35 @@ public <T extends Event> void registerListener(Object plugin, Class<T> eventClas
     }
 
     private void unregister(Predicate<RegisteredListener<?>> unregister) {
-        boolean changed = false;
+        final Set<Class<?>> changed = new HashSet<>();
 
         synchronized (this.lock) {
-            Iterator<RegisteredListener<?>> itr = this.handlersByEvent.values().iterator();
-            while (itr.hasNext()) {
-                RegisteredListener<?> handler = itr.next();
-                if (unregister.test(handler)) {
-                    itr.remove();
-                    changed = true;
-                    this.checker.unregisterListenerFor(handler.getEventClass());
-                    this.registeredListeners.remove(handler.getHandle());
+            for (Map.Entry<Class<?>, List<RegisteredListener<?>>> entry : this.handlersByEvent.entrySet()) {
+                final ImmutableList.Builder<RegisteredListener<?>> remaining = ImmutableList.builder();
+                boolean removed = false;
+                for (RegisteredListener<?> handler : entry.getValue()) {
+                    if (unregister.test(handler)) {
+                        removed = true;
+                        this.checker.unregisterListenerFor(handler.getEventClass());
+                        this.registeredListeners.remove(handler.getHandle());
+                    } else {
+                        remaining.add(handler);
+                    }
+                }
+                if (removed) {
+                    changed.add(entry.getKey());
+                    final List<RegisteredListener<?>> snapshot = remaining.build();
+                    if (snapshot.isEmpty()) {
+                        this.handlersByEvent.remove(entry.getKey());
+                    } else {
+                        this.handlersByEvent.put(entry.getKey(), snapshot);
+                    }
                 }
             }
         }
 
-        if (changed) {
-            this.handlersCache.invalidateAll();
+        if (!changed.isEmpty()) {
+            invalidateHandlers(changed);
         }
     }
 
@@ -337,7 +413,25 @@ public void unregisterPluginListeners(Object pluginObj) {
     }
 
     protected RegisteredListener.Cache getHandlerCache(Event event) {
-        return this.handlersCache.get(checkNotNull(event, "event").getClass());
+        return getHandlerCache(checkNotNull(event, "event").getClass());
+    }
+
+    protected RegisteredListener.Cache getHandlerCache(Class<? extends Event> eventClass) {
+        RegisteredListener.Cache cache = this.handlersCache.getIfPresent(eventClass);
+        if (cache != null) {
+            return cache;
+        }
+        cache = this.handlersCache.get(eventClass);
+        // Listeners may have been changed while the handlers were baked, after
+        // the invalidation already ran. Every change publishes a new snapshot
+        // before invalidating, so any stale entry is either caught here or
+        // removed by that invalidation. Changes to unrelated event types don't
+        // affect the snapshots this event type was baked from.
+        while (cache.isStale(this.handlersByEvent)) {
+            this.handlersCache.invalidate(eventClass);
+            cache = this.handlersCache.get(eventClass);
+        }
+        return cache;
     }
 
     @SuppressWarnings("unchecked")
@@ -356,10 +450,10 @@ protected boolean post(Event event, List<RegisteredListener<?>> handlers) {
             ((AbstractEvent) event).currentOrder = null;
             return event instanceof Cancellable && ((Cancellable) event).isCancelled();
         }
-        TimingsManager.PLUGIN_EVENT_HANDLER.startTimingIfSync();
         for (@SuppressWarnings("rawtypes") RegisteredListener handler : handlers) {
             Sponge.getCauseStackManager().pushCause(handler.getPlugin());
             try (CauseStackManager.StackFrame frame = Sponge.getCauseStackManager().pushCauseFrame()) {
+                TimingsManager.PLUGIN_EVENT_HANDLER.startTimingIfSync();
                 handler.getTimingsHandler().startTimingIfSync();
                 if (event instanceof AbstractEvent) {
                     ((AbstractEvent) event).currentOrder = handler.getOrder();
@@ -369,6 +463,7 @@ protected boolean post(Event event, List<RegisteredListener<?>> handlers) {
                 this.logger.error("Could not pass {} to {}", event.getClass().getSimpleName(), handler.getPlugin(), e);
             } finally {
                 handler.getTimingsHandler().stopTimingIfSync();
+                TimingsManager.PLUGIN_EVENT_HANDLER.stopTimingIfSync();
             }
             Sponge.getCauseStackManager().popCause();
         }
@@ -381,7 +476,13 @@ protected boolean post(Event event, List<RegisteredListener<?>> handlers) {
 
     @Override
     public boolean post(Event event) {
-        return post(event, getHandlerCache(event).getListeners());
+        final RegisteredListener.Cache cache = getHandlerCache(event);
+        final EventDispatcher dispatcher = cache.getDispatcher();
+        if (dispatcher != null && Sponge.getServer().isMainThread()) {
+            dispatcher.dispatch(event);
+            return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+        }
+        return post(event, cache.getListeners());
     }
 
     public boolean post(Event event, boolean allowClientThread) {
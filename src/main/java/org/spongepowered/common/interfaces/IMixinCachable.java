@@ -28,4 +28,13 @@ public interface IMixinCachable {
 
     long getCacheKey();
 
+    /**
+     * Gets whether a cached reference to this object may still be used. A
+     * map can't notice every removal, for example through its iterators, so
+     * cached objects are checked on every hit.
+     *
+     * @return True if the object is valid
+     */
+    boolean isCacheValid();
+
 }
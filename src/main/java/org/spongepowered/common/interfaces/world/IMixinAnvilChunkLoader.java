@@ -24,10 +24,17 @@
  */
 package org.spongepowered.common.interfaces.world;
 
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.common.world.storage.AsyncChunkData;
+import org.spongepowered.common.world.storage.ChunkSaveQueue;
 
+import java.io.IOException;
 import java.nio.file.Path;
 
+import javax.annotation.Nullable;
+
 public interface IMixinAnvilChunkLoader {
 
     // Forge method
@@ -35,4 +42,36 @@ public interface IMixinAnvilChunkLoader {
 
     Path getWorldDir();
 
+    /**
+     * Reads and decodes the terrain of a chunk, safe to call off the main
+     * thread. Entities, tile entities and scheduled updates are not loaded.
+     *
+     * @param world The world of the chunk
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The chunk data, or null if the chunk doesn't exist
+     * @throws IOException If the region file couldn't be read
+     */
+    @Nullable
+    AsyncChunkData readChunkAsync(World world, int x, int z) throws IOException;
+
+    /**
+     * Loads the entities, tile entities and scheduled updates of a chunk
+     * which was read by {@link #readChunkAsync(World, int, int)}.
+     *
+     * @param world The world of the chunk
+     * @param level The level data of the chunk
+     * @param chunk The chunk
+     */
+    void loadChunkEntities(World world, NBTTagCompound level, Chunk chunk);
+
+    /**
+     * Gets the queue writing the chunks of this loader, if the chunk save
+     * pipeline is enabled.
+     *
+     * @return The save queue, or null
+     */
+    @Nullable
+    ChunkSaveQueue getSaveQueue();
+
 }
@@ -42,6 +42,7 @@
 import org.spongepowered.common.config.SpongeConfig;
 import org.spongepowered.common.config.type.WorldConfig;
 import org.spongepowered.common.entity.EntityUtil;
+import org.spongepowered.common.world.AsyncLightingEngine;
 import org.spongepowered.common.world.gen.SpongeChunkGenerator;
 import org.spongepowered.common.world.gen.SpongeWorldGenerator;
 
@@ -100,6 +101,8 @@ default boolean forceSpawnEntity(Entity entity) {
 
     ExecutorService getLightingExecutor();
 
+    AsyncLightingEngine getLightingEngine();
+
     WorldTimingsHandler getTimingsHandler();
 
     int getChunkGCTickInterval();
@@ -29,6 +29,8 @@
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface IMixinChunkProviderServer {
 
     boolean getForceChunkRequests();
@@ -43,5 +45,16 @@ public interface IMixinChunkProviderServer {
 
     long getChunkUnloadDelay();
 
+    /**
+     * Loads a chunk from disk without blocking the main thread if async
+     * chunk loading is enabled. Requests for a chunk which is already being
+     * loaded share the same future.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The future of the chunk, completing with null if it doesn't exist
+     */
+    CompletableFuture<Chunk> loadChunkAsync(int x, int z);
+
     WorldServer getWorld();
 }
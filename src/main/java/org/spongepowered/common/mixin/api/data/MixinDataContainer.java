@@ -28,7 +28,7 @@
 import org.spongepowered.api.data.DataView;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Overwrite;
-import org.spongepowered.common.data.MemoryDataContainer;
+import org.spongepowered.common.data.SpongeDataManager;
 
 @Mixin(value = DataContainer.class, remap = false)
 public interface MixinDataContainer {
@@ -41,7 +41,7 @@ public interface MixinDataContainer {
      */
     @Overwrite
     static DataContainer createNew() {
-        return new MemoryDataContainer();
+        return SpongeDataManager.newContainer(DataView.SafetyMode.ALL_DATA_CLONED);
     }
 
     /**
@@ -53,6 +53,6 @@ static DataContainer createNew() {
      */
     @Overwrite
     static DataContainer createNew(DataView.SafetyMode safety) {
-        return new MemoryDataContainer(safety);
+        return SpongeDataManager.newContainer(safety);
     }
 }
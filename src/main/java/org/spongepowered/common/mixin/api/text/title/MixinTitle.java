@@ -31,6 +31,7 @@
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.common.interfaces.network.play.server.IMixinSharedPacket;
 import org.spongepowered.common.interfaces.text.IMixinText;
 import org.spongepowered.common.interfaces.text.IMixinTitle;
 
@@ -80,6 +81,10 @@ private List<SPacketTitle> getPackets() {
             if (this.title.isPresent()) {
                 this.packets.add(new SPacketTitle(SPacketTitle.Type.TITLE, ((IMixinText) this.title.get()).toComponent()));
             }
+            // The packets are sent to every viewer of the title, encode them only once
+            for (SPacketTitle packet : this.packets) {
+                ((IMixinSharedPacket) packet).shareEncoding();
+            }
         }
 
         return this.packets;
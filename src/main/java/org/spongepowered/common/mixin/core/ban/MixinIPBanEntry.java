@@ -34,19 +34,21 @@
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.interfaces.IMixinIPBanEntry;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Date;
 
 @Mixin(UserListIPBansEntry.class)
-public abstract class MixinIPBanEntry extends UserListEntryBan<String> implements Ban.Ip {
+public abstract class MixinIPBanEntry extends UserListEntryBan<String> implements Ban.Ip, IMixinIPBanEntry {
 
     public MixinIPBanEntry(String valueIn, Date startDate, String banner, Date endDate, String banReason) {
         super(valueIn, startDate, banner, endDate, banReason);
     }
 
     private InetAddress address;
+    private int prefixLength;
 
     @Inject(method = "<init>(Ljava/lang/String;Ljava/util/Date;Ljava/lang/String;Ljava/util/Date;Ljava/lang/String;)V", at = @At("RETURN"))
     public void onInit(CallbackInfo ci) {
@@ -59,11 +61,26 @@ public void onInit(JsonObject object, CallbackInfo ci) {
     }
 
     private void setAddress() {
+        // Range bans are stored in the CIDR notation, e.g. 10.0.0.0/8
+        final int slashIndex = this.value.lastIndexOf('/');
         try {
-            this.address = InetAddress.getByName(this.value);
+            this.address = InetAddress.getByName(slashIndex == -1 ? this.value : this.value.substring(0, slashIndex));
         } catch (UnknownHostException e) {
             throw new IllegalStateException("Error parsing Ban IP address!", e);
         }
+        final int maxPrefixLength = this.address.getAddress().length * 8;
+        if (slashIndex == -1) {
+            this.prefixLength = maxPrefixLength;
+        } else {
+            try {
+                this.prefixLength = Integer.parseInt(this.value.substring(slashIndex + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Error parsing Ban IP prefix length!", e);
+            }
+            if (this.prefixLength < 0 || this.prefixLength > maxPrefixLength) {
+                throw new IllegalStateException("Invalid Ban IP prefix length " + this.prefixLength + " for " + this.value);
+            }
+        }
     }
 
     @Override
@@ -75,4 +92,9 @@ public BanType getType() {
     public InetAddress getAddress() {
         return this.address;
     }
+
+    @Override
+    public int getPrefixLength() {
+        return this.prefixLength;
+    }
 }
@@ -53,7 +53,6 @@
 import net.minecraft.network.Packet;
 import net.minecraft.network.play.client.CPacketClientSettings;
 import net.minecraft.network.play.server.SPacketBlockChange;
-import net.minecraft.network.play.server.SPacketChat;
 import net.minecraft.network.play.server.SPacketCombatEvent;
 import net.minecraft.network.play.server.SPacketCustomSound;
 import net.minecraft.network.play.server.SPacketEntityProperties;
@@ -242,6 +241,11 @@ public abstract class MixinEntityPlayerMP extends MixinEntityPlayer implements P
     private Scoreboard spongeScoreboard = Sponge.getGame().getServer().getServerScoreboard().get();
 
     @Nullable private Vector3d velocityOverride = null;
+    // Set for every movement packet, only turned into a vector when requested
+    private boolean hasRawVelocityOverride = false;
+    private double velocityOverrideX;
+    private double velocityOverrideY;
+    private double velocityOverrideZ;
     private boolean healthScaling = false;
     private double healthScale = 20;
 
@@ -462,12 +466,7 @@ public void sendMessage(ChatType type, Text message) {
         checkNotNull(type, "type");
         checkNotNull(message, "message");
 
-        ITextComponent component = SpongeTexts.toComponent(message);
-        if (type == ChatTypes.ACTION_BAR) {
-            component = SpongeTexts.fixActionBarFormatting(component);
-        }
-
-        this.connection.sendPacket(new SPacketChat(component, (net.minecraft.util.text.ChatType) (Object) type));
+        this.connection.sendPacket(ChatUtil.getChatPacket(type, message));
     }
 
     /**
@@ -739,6 +738,10 @@ public void setSleepingIgnored(boolean sleepingIgnored) {
 
     @Override
     public Vector3d getVelocity() {
+        if (this.hasRawVelocityOverride) {
+            this.velocityOverride = new Vector3d(this.velocityOverrideX, this.velocityOverrideY, this.velocityOverrideZ);
+            this.hasRawVelocityOverride = false;
+        }
         if (this.velocityOverride != null) {
             return this.velocityOverride;
         }
@@ -749,11 +752,21 @@ public Vector3d getVelocity() {
     public void setImplVelocity(Vector3d velocity) {
         super.setImplVelocity(velocity);
         this.velocityOverride = null;
+        this.hasRawVelocityOverride = false;
     }
 
     @Override
     public void setVelocityOverride(@Nullable Vector3d velocity) {
         this.velocityOverride = velocity;
+        this.hasRawVelocityOverride = false;
+    }
+
+    @Override
+    public void setVelocityOverride(double x, double y, double z) {
+        this.velocityOverrideX = x;
+        this.velocityOverrideY = y;
+        this.velocityOverrideZ = z;
+        this.hasRawVelocityOverride = true;
     }
 
     @SuppressWarnings("unchecked")
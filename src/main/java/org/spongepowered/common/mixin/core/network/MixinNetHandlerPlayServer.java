@@ -108,8 +108,10 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.category.EntityCategory;
 import org.spongepowered.common.entity.player.tab.SpongeTabList;
 import org.spongepowered.common.event.InternalNamedCauses;
+import org.spongepowered.common.event.ShouldFire;
 import org.spongepowered.common.event.SpongeCommonEventFactory;
 import org.spongepowered.common.event.tracking.CauseTracker;
 import org.spongepowered.common.event.tracking.PhaseContext;
@@ -121,6 +123,7 @@
 import org.spongepowered.common.interfaces.entity.player.IMixinEntityPlayerMP;
 import org.spongepowered.common.interfaces.entity.player.IMixinInventoryPlayer;
 import org.spongepowered.common.interfaces.network.IMixinNetHandlerPlayServer;
+import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 import org.spongepowered.common.item.inventory.util.ItemStackUtil;
 import org.spongepowered.common.text.SpongeTexts;
 import org.spongepowered.common.util.VecHelper;
@@ -166,7 +169,12 @@ public abstract class MixinNetHandlerPlayServer implements PlayerConnection, IMi
     @Shadow private static boolean isMovePlayerPacketInvalid(CPacketPlayer packetIn) { return false; } // Shadowed
 
     private boolean justTeleported = false;
-    @Nullable private Location<World> lastMoveLocation = null;
+    // The position of the last move event, kept as plain values so that
+    // movement which isn't passed to any listener doesn't allocate
+    @Nullable private World lastMoveWorld = null;
+    private double lastMoveX;
+    private double lastMoveY;
+    private double lastMoveZ;
 
     private final Deque<SPacketResourcePackSend> resourcePackRequests = new LinkedList<>();
 
@@ -429,75 +437,97 @@ private boolean throwMoveEvent(EntityPlayerMP playerMP, CPacketPlayer packetIn)
             }
 
             // Sponge Start - Movement event
+            // The movement is checked on the plain coordinates, the event objects are only
+            // created if the movement is large enough and there are listeners for it.
             Player player = (Player) this.player;
             IMixinEntityPlayerMP mixinPlayer = (IMixinEntityPlayerMP) this.player;
-            Vector3d fromrot = player.getRotation();
-
-            // If Sponge used the player's current location, the delta might never be triggered which could be exploited
-            Location<World> from = player.getLocation();
-            if (this.lastMoveLocation != null) {
-                from = this.lastMoveLocation;
-            }
-
-            Vector3d torot = new Vector3d(packetIn.pitch, packetIn.yaw, 0);
-            Location<World> to = new Location<>(player.getWorld(), packetIn.x, packetIn.y, packetIn.z);
+            final World world = (World) this.player.world;
 
             // Minecraft sends a 0, 0, 0 position when rotation only update occurs, this needs to be recognized and corrected
             boolean rotationOnly = !packetIn.moving && packetIn.rotating;
+            // Minecraft does the same with rotation when it's only a positional update
+            boolean positionOnly = packetIn.moving && !packetIn.rotating;
 
+            // If Sponge used the player's current location, the delta might never be triggered which could be exploited
+            World fromWorld = world;
+            double fromX = this.player.posX;
+            double fromY = this.player.posY;
+            double fromZ = this.player.posZ;
+            if (this.lastMoveWorld != null && !rotationOnly) {
+                fromWorld = this.lastMoveWorld;
+                fromX = this.lastMoveX;
+                fromY = this.lastMoveY;
+                fromZ = this.lastMoveZ;
+            }
+            final double fromPitch = this.player.rotationPitch;
+            final double fromYaw = this.player.rotationYaw;
+
+            double toX = packetIn.x;
+            double toY = packetIn.y;
+            double toZ = packetIn.z;
             if (rotationOnly) {
                 // Correct the to location so it's not misrepresented to plugins, only when player rotates without moving
                 // In this case it's only a rotation update, which isn't related to the to location
-                from = player.getLocation();
-                to = from;
-            }
-
-            // Minecraft does the same with rotation when it's only a positional update
-            boolean positionOnly = packetIn.moving && !packetIn.rotating;
-            if (positionOnly) {
-                // Correct the new rotation to match the old rotation
-                torot = fromrot;
+                toX = fromX;
+                toY = fromY;
+                toZ = fromZ;
             }
-
-            ((IMixinEntityPlayerMP) this.player).setVelocityOverride(to.getPosition().sub(from.getPosition()));
-
-            double deltaSquared = to.getPosition().distanceSquared(from.getPosition());
-            double deltaAngleSquared = fromrot.distanceSquared(torot);
-
-            // These magic numbers are sad but help prevent excessive lag from this event.
-            // eventually it would be nice to not have them
-            if (deltaSquared > ((1f / 16) * (1f / 16)) || deltaAngleSquared > (.15f * .15f)) {
-                Transform<World> fromTransform = player.getTransform().setLocation(from).setRotation(fromrot);
-                Transform<World> toTransform = player.getTransform().setLocation(to).setRotation(torot);
-                Sponge.getCauseStackManager().pushCause(player);
-                MoveEntityEvent event = SpongeEventFactory.createMoveEntityEvent(Sponge.getCauseStackManager().getCurrentCause(), fromTransform, toTransform, player);
-                SpongeImpl.postEvent(event);
-                Sponge.getCauseStackManager().popCause();
-                if (event.isCancelled()) {
-                    mixinPlayer.setLocationAndAngles(fromTransform);
-                    this.lastMoveLocation = from;
-                    ((IMixinEntityPlayerMP) this.player).setVelocityOverride(null);
-                    return true;
-                } else if (!event.getToTransform().equals(toTransform)) {
-                    mixinPlayer.setLocationAndAngles(event.getToTransform());
-                    this.lastMoveLocation = event.getToTransform().getLocation();
-                    ((IMixinEntityPlayerMP) this.player).setVelocityOverride(null);
-                    return true;
-                } else if (!from.equals(player.getLocation()) && this.justTeleported) {
-                    this.lastMoveLocation = player.getLocation();
+            // Correct the new rotation to match the old rotation
+            final double toPitch = positionOnly ? fromPitch : packetIn.pitch;
+            final double toYaw = positionOnly ? fromYaw : packetIn.yaw;
+
+            mixinPlayer.setVelocityOverride(toX - fromX, toY - fromY, toZ - fromZ);
+
+            final double deltaSquared = (toX - fromX) * (toX - fromX) + (toY - fromY) * (toY - fromY) + (toZ - fromZ) * (toZ - fromZ);
+            final double deltaAngleSquared = (toPitch - fromPitch) * (toPitch - fromPitch) + (toYaw - fromYaw) * (toYaw - fromYaw);
+
+            final EntityCategory entityCategory = ((IMixinWorldServer) this.player.world).getWorldConfig().getConfig().getEntity();
+            final double minDistance = entityCategory.getPlayerMoveEventMinDistance();
+            final double minRotation = entityCategory.getPlayerMoveEventMinRotation();
+            if (deltaSquared > minDistance * minDistance || deltaAngleSquared > minRotation * minRotation) {
+                if (ShouldFire.MOVE_ENTITY_EVENT) {
+                    final Vector3d scale = player.getScale();
+                    Transform<World> fromTransform = new Transform<>(fromWorld, new Vector3d(fromX, fromY, fromZ),
+                            new Vector3d(fromPitch, fromYaw, 0), scale);
+                    Transform<World> toTransform = new Transform<>(world, new Vector3d(toX, toY, toZ), new Vector3d(toPitch, toYaw, 0), scale);
+                    Sponge.getCauseStackManager().pushCause(player);
+                    MoveEntityEvent event = SpongeEventFactory.createMoveEntityEvent(Sponge.getCauseStackManager().getCurrentCause(), fromTransform, toTransform, player);
+                    SpongeImpl.postEvent(event);
+                    Sponge.getCauseStackManager().popCause();
+                    if (event.isCancelled()) {
+                        mixinPlayer.setLocationAndAngles(fromTransform);
+                        setLastMove(fromWorld, fromX, fromY, fromZ);
+                        mixinPlayer.setVelocityOverride(null);
+                        return true;
+                    } else if (!event.getToTransform().equals(toTransform)) {
+                        mixinPlayer.setLocationAndAngles(event.getToTransform());
+                        setLastMoveLocation(event.getToTransform().getLocation());
+                        mixinPlayer.setVelocityOverride(null);
+                        return true;
+                    }
+                }
+                if (this.justTeleported
+                        && (fromWorld != world || fromX != this.player.posX || fromY != this.player.posY || fromZ != this.player.posZ)) {
+                    setLastMove(world, this.player.posX, this.player.posY, this.player.posZ);
                     // Prevent teleports during the move event from causing odd behaviors
                     this.justTeleported = false;
-                    ((IMixinEntityPlayerMP) this.player).setVelocityOverride(null);
+                    mixinPlayer.setVelocityOverride(null);
                     return true;
-                } else {
-                    this.lastMoveLocation = event.getToTransform().getLocation();
                 }
+                setLastMove(world, toX, toY, toZ);
                 this.resendLatestResourcePackRequest();
             }
         }
         return playerMP.queuedEndExit;
     }
 
+    private void setLastMove(World world, double x, double y, double z) {
+        this.lastMoveWorld = world;
+        this.lastMoveX = x;
+        this.lastMoveY = y;
+        this.lastMoveZ = z;
+    }
+
     /**
      * @author gabizou - June 22nd, 2016
      * @author blood - May 6th, 2017
@@ -778,8 +808,12 @@ public void processUseEntity(CPacketUseEntity packetIn) {
     }
 
     @Override
-    public void setLastMoveLocation(Location<World> location) {
-        this.lastMoveLocation = location;
+    public void setLastMoveLocation(@Nullable Location<World> location) {
+        if (location == null) {
+            this.lastMoveWorld = null;
+        } else {
+            setLastMove(location.getExtent(), location.getX(), location.getY(), location.getZ());
+        }
     }
 
     @Inject(method = "handleResourcePackStatus(Lnet/minecraft/network/play/client/CPacketResourcePackStatus;)V", at = @At("HEAD"))
@@ -28,6 +28,7 @@
 
 import com.google.common.base.Charsets;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.handler.codec.DecoderException;
 import io.netty.handler.codec.EncoderException;
 import net.minecraft.nbt.NBTTagCompound;
@@ -39,6 +40,7 @@
 import org.spongepowered.asm.mixin.Intrinsic;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.common.data.persistence.NbtStreamWriter;
 import org.spongepowered.common.data.persistence.NbtTranslator;
 import org.spongepowered.common.network.SpongeNetworkManager;
 
@@ -493,8 +495,11 @@ public UUID getUniqueId(int index) {
     }
 
     public ChannelBuf cbuf$writeDataView(DataView data) {
-        final NBTTagCompound compound = NbtTranslator.getInstance().translateData(checkNotNull(data, "data"));
-        this.writeCompoundTag(compound);
+        try {
+            NbtStreamWriter.write(checkNotNull(data, "data"), new ByteBufOutputStream(this));
+        } catch (IOException e) {
+            throw new EncoderException(e);
+        }
         return (ChannelBuf) this;
     }
 
@@ -509,7 +514,7 @@ public UUID getUniqueId(int index) {
 
     public DataView cbuf$readDataView() {
         try {
-            return NbtTranslator.getInstance().translateFrom(this.readCompoundTag());
+            return NbtTranslator.getInstance().translateLazily(this.readCompoundTag());
         } catch (IOException e) {
             throw new DecoderException(e);
         }
@@ -30,13 +30,16 @@
 import net.minecraft.server.management.PlayerChunkMapEntry;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.ChunkProviderServer;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.interfaces.server.management.IMixinPlayerChunkMapEntry;
+import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 
 @Mixin(PlayerChunkMapEntry.class)
 public abstract class MixinPlayerChunkMapEntry implements IMixinPlayerChunkMapEntry {
@@ -47,8 +50,20 @@ public abstract class MixinPlayerChunkMapEntry implements IMixinPlayerChunkMapEn
     @Shadow public int changedSectionFilter;
     @Shadow public abstract void sendPacket(Packet<?> packetIn);
 
+    private static final String LOAD_CHUNK = "Lnet/minecraft/world/gen/ChunkProviderServer;loadChunk(II)Lnet/minecraft/world/chunk/Chunk;";
+
     private boolean updateBiomes;
 
+    /**
+     * Loads chunks without generating them asynchronously, the entry checks
+     * again for the chunk every tick until it was loaded. Forge replaces
+     * these calls with its own async chunk loading.
+     */
+    @Redirect(method = {"<init>", "providePlayerChunk"}, at = @At(value = "INVOKE", target = LOAD_CHUNK), require = 0, expect = 0)
+    private Chunk onLoadChunk(ChunkProviderServer chunkProvider, int x, int z) {
+        return ((IMixinChunkProviderServer) chunkProvider).loadChunkAsync(x, z).getNow(null);
+    }
+
     @Inject(method = "update", at = @At("HEAD"), cancellable = true)
     public void resendUpdatedBiomes(CallbackInfo ci) {
         final Chunk chunk = this.playerChunkMap.getWorldServer().getChunkFromChunkCoords(this.pos.x, this.pos.z);
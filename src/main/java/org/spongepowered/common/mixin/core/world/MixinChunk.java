@@ -108,6 +108,7 @@
 import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.common.world.BlockTrackerTable;
 import org.spongepowered.common.world.extent.ExtentViewDownsize;
 import org.spongepowered.common.world.extent.worker.SpongeMutableBiomeVolumeWorker;
 import org.spongepowered.common.world.extent.worker.SpongeMutableBlockVolumeWorker;
@@ -142,6 +143,8 @@ public abstract class MixinChunk implements Chunk, IMixinChunk, IMixinCachable {
     private long cacheKey;
     private static final Direction[] CARDINAL_DIRECTIONS = new Direction[] {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
 
+    // Returned while block tracking is disabled, never written to
+    private static final BlockTrackerTable EMPTY_TRACKER_TABLE = new BlockTrackerTable();
     private static final Vector3i BIOME_SIZE = new Vector3i(SpongeChunkLayout.CHUNK_SIZE.getX(), 1, SpongeChunkLayout.CHUNK_SIZE.getZ());
     private Vector3i chunkPos;
     private Vector3i blockMin;
@@ -200,6 +203,12 @@ public long getCacheKey() {
         return this.cacheKey;
     }
 
+    @Override
+    public boolean isCacheValid() {
+        // Chunks are unloaded before they are removed from the chunk map
+        return this.loaded;
+    }
+
     @Override
     public boolean isChunkLoaded() {
         return this.loaded;
@@ -731,13 +740,8 @@ public void addTrackedBlockPosition(Block block, BlockPos pos, User user, Player
     }
 
     @Override
-    public Map<Integer, PlayerTracker> getTrackedIntPlayerPositions() {
-        return Collections.emptyMap();
-    }
-
-    @Override
-    public Map<Short, PlayerTracker> getTrackedShortPlayerPositions() {
-        return Collections.emptyMap();
+    public BlockTrackerTable getTrackedPlayerPositions() {
+        return EMPTY_TRACKER_TABLE;
     }
 
     @Override
@@ -771,11 +775,7 @@ public void setBlockCreator(BlockPos pos, @Nullable UUID uuid) {
     }
 
     @Override
-    public void setTrackedIntPlayerPositions(Map<Integer, PlayerTracker> trackedPositions) {
-    }
-
-    @Override
-    public void setTrackedShortPlayerPositions(Map<Short, PlayerTracker> trackedPositions) {
+    public void setTrackedPlayerPositions(BlockTrackerTable trackedPositions) {
     }
 
     // Continuing the rest of the implementation
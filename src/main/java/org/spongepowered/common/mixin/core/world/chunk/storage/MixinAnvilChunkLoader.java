@@ -25,13 +25,18 @@
 package org.spongepowered.common.mixin.core.world.chunk.storage;
 
 import com.flowpowered.math.vector.Vector3d;
-import com.google.common.collect.Maps;
+import net.minecraft.block.Block;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.datafix.DataFixer;
+import net.minecraft.util.datafix.FixTypes;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
@@ -63,24 +68,35 @@
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.SpongeImplHooks;
 import org.spongepowered.common.data.util.NbtDataUtil;
-import org.spongepowered.common.entity.PlayerTracker;
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
 import org.spongepowered.common.registry.type.entity.EntityTypeRegistryModule;
 import org.spongepowered.common.util.QueuedChunk;
+import org.spongepowered.common.world.BlockTrackerTable;
+import org.spongepowered.common.world.storage.AsyncChunkData;
+import org.spongepowered.common.world.storage.ChunkSaveQueue;
+import org.spongepowered.common.world.storage.RegionFileIndex;
 
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import javax.annotation.Nullable;
+
 @Mixin(AnvilChunkLoader.class)
 @Implements(@Interface(iface = IMixinAnvilChunkLoader.class, prefix = "loader$"))
 public abstract class MixinAnvilChunkLoader implements IMixinAnvilChunkLoader {
 
     private ConcurrentLinkedQueue<QueuedChunk> queue = new ConcurrentLinkedQueue<>();
     private final Object lock = new Object();
+    @Nullable private ChunkSaveQueue saveQueue;
 
+    private static final String ENTITIES = "Entities";
+    private static final String TILE_ENTITIES = "TileEntities";
+    private static final String TILE_TICKS = "TileTicks";
     private static final String ENTITY_LIST_CREATE_FROM_NBT =
             "Lnet/minecraft/entity/EntityList;createEntityFromNBT(Lnet/minecraft/nbt/NBTTagCompound;Lnet/minecraft/world/World;)Lnet/minecraft/entity/Entity;";
 
@@ -89,41 +105,48 @@ public abstract class MixinAnvilChunkLoader implements IMixinAnvilChunkLoader {
     @Shadow @Final private File chunkSaveLocation;
     @Shadow private boolean flushing;
 
+    @Shadow @Final private DataFixer fixer;
+
     @Shadow
     public abstract void writeChunkData(ChunkPos pos, NBTTagCompound compound);
+    @Shadow private Chunk readChunkFromNBT(World worldIn, NBTTagCompound compound) {
+        return null; // Shadowed
+    }
+
+    @Inject(method = "<init>", at = @At("RETURN"))
+    private void onConstruct(CallbackInfo ci) {
+        if (SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useChunkSavePipeline()) {
+            this.saveQueue = new ChunkSaveQueue(this.chunkSaveLocation, this.chunksToSave, (pos, compound) -> this.writeChunkData(pos, compound));
+        }
+    }
 
     @Inject(method = "writeChunkToNBT", at = @At(value = "RETURN"))
     public void onWriteChunkToNBT(net.minecraft.world.chunk.Chunk chunkIn, World worldIn, NBTTagCompound compound, CallbackInfo ci) {
         IMixinChunk chunk = (IMixinChunk) chunkIn;
 
         // Add tracked block positions
-        if (chunk.getTrackedShortPlayerPositions().size() > 0 || chunk.getTrackedIntPlayerPositions().size() > 0) {
+        final BlockTrackerTable trackedPositions = chunk.getTrackedPlayerPositions();
+        if (!trackedPositions.isEmpty()) {
             NBTTagCompound trackedNbt = new NBTTagCompound();
             NBTTagList positions = new NBTTagList();
             trackedNbt.setTag(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, positions);
             compound.setTag(NbtDataUtil.SPONGE_DATA, trackedNbt);
 
-            for (Map.Entry<Short, PlayerTracker> mapEntry : chunk.getTrackedShortPlayerPositions().entrySet()) {
-                Short pos = mapEntry.getKey();
-                Integer ownerUniqueIdIndex = mapEntry.getValue().ownerIndex;
-                Integer notifierUniqueIdIndex = mapEntry.getValue().notifierIndex;
+            trackedPositions.forEachShort((pos, entry) -> {
                 NBTTagCompound valueNbt = new NBTTagCompound();
-                valueNbt.setInteger("owner", ownerUniqueIdIndex);
-                valueNbt.setInteger("notifier", notifierUniqueIdIndex);
+                valueNbt.setInteger("owner", BlockTrackerTable.getOwnerIndex(entry));
+                valueNbt.setInteger("notifier", BlockTrackerTable.getNotifierIndex(entry));
                 valueNbt.setShort("pos", pos);
                 positions.appendTag(valueNbt);
-            }
+            });
 
-            for (Map.Entry<Integer, PlayerTracker> mapEntry : chunk.getTrackedIntPlayerPositions().entrySet()) {
-                Integer pos = mapEntry.getKey();
-                Integer ownerUniqueIdIndex = mapEntry.getValue().ownerIndex;
-                Integer notifierUniqueIdIndex = mapEntry.getValue().notifierIndex;
+            trackedPositions.forEachInt((pos, entry) -> {
                 NBTTagCompound valueNbt = new NBTTagCompound();
-                valueNbt.setInteger("owner", ownerUniqueIdIndex);
-                valueNbt.setInteger("notifier", notifierUniqueIdIndex);
+                valueNbt.setInteger("owner", BlockTrackerTable.getOwnerIndex(entry));
+                valueNbt.setInteger("notifier", BlockTrackerTable.getNotifierIndex(entry));
                 valueNbt.setInteger("ipos", pos);
                 positions.appendTag(valueNbt);
-            }
+            });
         }
     }
 
@@ -131,33 +154,32 @@ public void onWriteChunkToNBT(net.minecraft.world.chunk.Chunk chunkIn, World wor
     public void onReadChunkFromNBT(World worldIn, NBTTagCompound compound, CallbackInfoReturnable<net.minecraft.world.chunk.Chunk> ci, int chunkX,
             int chunkZ, net.minecraft.world.chunk.Chunk chunkIn) {
         if (compound.hasKey(NbtDataUtil.SPONGE_DATA)) {
-            Map<Integer, PlayerTracker> trackedIntPlayerPositions = Maps.newHashMap();
-            Map<Short, PlayerTracker> trackedShortPlayerPositions = Maps.newHashMap();
+            final BlockTrackerTable trackedPositions = new BlockTrackerTable();
             NBTTagList positions = compound.getCompoundTag(NbtDataUtil.SPONGE_DATA).getTagList(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, 10);
             IMixinChunk chunk = (IMixinChunk) chunkIn;
             for (int i = 0; i < positions.tagCount(); i++) {
                 NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
                 boolean isShortPos = valueNbt.hasKey("pos");
-                PlayerTracker tracker = new PlayerTracker();
+                int ownerIndex = -1;
+                int notifierIndex = -1;
                 if (valueNbt.hasKey("owner")) {
-                    tracker.ownerIndex = valueNbt.getInteger("owner");
+                    ownerIndex = valueNbt.getInteger("owner");
                 } else if (valueNbt.hasKey("uuid")) { // Migrate old data, remove in future
-                    tracker.ownerIndex = valueNbt.getInteger("uuid");
+                    ownerIndex = valueNbt.getInteger("uuid");
                 }
                 if (valueNbt.hasKey("notifier")) {
-                    tracker.notifierIndex = valueNbt.getInteger("notifier");
+                    notifierIndex = valueNbt.getInteger("notifier");
                 }
 
-                if (tracker.notifierIndex != -1 || tracker.ownerIndex != -1) {
+                if (notifierIndex != -1 || ownerIndex != -1) {
                     if (isShortPos) {
-                        trackedShortPlayerPositions.put(valueNbt.getShort("pos"), tracker);
+                        trackedPositions.put(valueNbt.getShort("pos"), BlockTrackerTable.pack(ownerIndex, notifierIndex));
                     } else {
-                        trackedIntPlayerPositions.put(valueNbt.getInteger("ipos"), tracker);
+                        trackedPositions.put(valueNbt.getInteger("ipos"), BlockTrackerTable.pack(ownerIndex, notifierIndex));
                     }
                 }
             }
-            chunk.setTrackedIntPlayerPositions(trackedIntPlayerPositions);
-            chunk.setTrackedShortPlayerPositions(trackedShortPlayerPositions);
+            chunk.setTrackedPlayerPositions(trackedPositions);
         }
     }
 
@@ -220,7 +242,8 @@ private static Entity onReadChunkEntity(NBTTagCompound compound, World world, Ch
         }
         // Sponge end
 
-        return RegionFileCache.getChunkInputStream(this.chunkSaveLocation, x, z) != null;
+        // Sponge - Answer from the cached region header instead of reading the chunk
+        return RegionFileIndex.chunkExists(this.chunkSaveLocation, x, z);
     }
 
     /**
@@ -232,6 +255,10 @@ private static Entity onReadChunkEntity(NBTTagCompound compound, World world, Ch
      */
     @Overwrite
     protected void addChunkToPending(ChunkPos pos, NBTTagCompound compound) {
+        if (this.saveQueue != null) {
+            this.saveQueue.add(pos, compound);
+            return;
+        }
         synchronized (this.lock) {
             this.chunksToSave.put(pos, compound);
         }
@@ -247,6 +274,18 @@ protected void addChunkToPending(ChunkPos pos, NBTTagCompound compound) {
      */
     @Overwrite
     public boolean writeNextIO() {
+        if (this.saveQueue != null) {
+            // Chunks are written by the save queue, only wait for them when flushing
+            try {
+                this.saveQueue.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (this.flushing) {
+                LOGGER.info("ThreadedAnvilChunkStorage ({}): All chunks are saved", new Object[] {this.chunkSaveLocation.getName()});
+            }
+            return false;
+        }
         QueuedChunk chunk = this.queue.poll();
         if (chunk == null) {
             if (this.flushing) {
@@ -307,4 +346,66 @@ public Path getWorldDir() {
         return this.chunkSaveLocation.toPath();
     }
 
+    @Nullable
+    @Override
+    public AsyncChunkData readChunkAsync(World world, int x, int z) throws IOException {
+        NBTTagCompound compound = this.chunksToSave.get(new ChunkPos(x, z));
+        if (compound == null) {
+            final DataInputStream stream = RegionFileCache.getChunkInputStream(this.chunkSaveLocation, x, z);
+            if (stream == null) {
+                return null;
+            }
+            compound = this.fixer.process(FixTypes.CHUNK, CompressedStreamTools.read(stream));
+        }
+        final NBTTagCompound level = compound.getCompoundTag(NbtDataUtil.CHUNK_DATA_LEVEL);
+        // Broken chunks are logged and handled by the synchronous load
+        if (!compound.hasKey(NbtDataUtil.CHUNK_DATA_LEVEL, NbtDataUtil.TAG_COMPOUND)
+                || !level.hasKey(NbtDataUtil.CHUNK_DATA_SECTIONS, NbtDataUtil.TAG_LIST)) {
+            return new AsyncChunkData(null, level);
+        }
+        // Decode the terrain from a shallow copy without the entities, the
+        // compound may still be pending to be saved and can't be modified
+        final NBTTagCompound terrain = new NBTTagCompound();
+        for (String key : level.getKeySet()) {
+            if (!key.equals(ENTITIES) && !key.equals(TILE_ENTITIES) && !key.equals(TILE_TICKS)) {
+                terrain.setTag(key, level.getTag(key));
+            }
+        }
+        final Chunk chunk = this.readChunkFromNBT(world, terrain);
+        return new AsyncChunkData(chunk.isAtLocation(x, z) ? chunk : null, level);
+    }
+
+    @Override
+    public void loadChunkEntities(World world, NBTTagCompound level, Chunk chunk) {
+        // Same as the end of readChunkFromNBT
+        final NBTTagList entities = level.getTagList(ENTITIES, NbtDataUtil.TAG_COMPOUND);
+        for (int i = 0; i < entities.tagCount(); i++) {
+            AnvilChunkLoader.readChunkEntity(entities.getCompoundTagAt(i), world, chunk);
+            chunk.setHasEntities(true);
+        }
+        final NBTTagList tileEntities = level.getTagList(TILE_ENTITIES, NbtDataUtil.TAG_COMPOUND);
+        for (int i = 0; i < tileEntities.tagCount(); i++) {
+            final TileEntity tileEntity = TileEntity.create(world, tileEntities.getCompoundTagAt(i));
+            if (tileEntity != null) {
+                chunk.addTileEntity(tileEntity);
+            }
+        }
+        if (level.hasKey(TILE_TICKS, NbtDataUtil.TAG_LIST)) {
+            final NBTTagList tileTicks = level.getTagList(TILE_TICKS, NbtDataUtil.TAG_COMPOUND);
+            for (int i = 0; i < tileTicks.tagCount(); i++) {
+                final NBTTagCompound tick = tileTicks.getCompoundTagAt(i);
+                final Block block = tick.hasKey("i", NbtDataUtil.TAG_STRING) ? Block.getBlockFromName(tick.getString("i"))
+                        : Block.getBlockById(tick.getInteger("i"));
+                world.scheduleBlockUpdate(new BlockPos(tick.getInteger("x"), tick.getInteger("y"), tick.getInteger("z")), block,
+                        tick.getInteger("t"), tick.getInteger("p"));
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public ChunkSaveQueue getSaveQueue() {
+        return this.saveQueue;
+    }
+
 }
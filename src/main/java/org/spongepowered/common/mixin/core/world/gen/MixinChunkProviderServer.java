@@ -66,6 +66,7 @@
 import org.spongepowered.common.util.CachedLong2ObjectMap;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.SpongeEmptyChunk;
+import org.spongepowered.common.world.storage.AsyncChunkLoader;
 import org.spongepowered.common.world.storage.SpongeChunkDataStream;
 import org.spongepowered.common.world.storage.WorldStorageUtil;
 
@@ -73,6 +74,8 @@
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import javax.annotation.Nullable;
+
 @Mixin(ChunkProviderServer.class)
 public abstract class MixinChunkProviderServer implements WorldStorage, IMixinChunkProviderServer {
 
@@ -81,6 +84,7 @@ public abstract class MixinChunkProviderServer implements WorldStorage, IMixinCh
     private boolean forceChunkRequests = false;
     private long chunkUnloadDelay = 15000;
     private int maxChunkUnloads = 100;
+    @Nullable private AsyncChunkLoader asyncChunkLoader;
 
     @Shadow @Final public WorldServer world;
     @Shadow @Final private IChunkLoader chunkLoader;
@@ -103,6 +107,9 @@ private void onConstruct(WorldServer worldObjIn, IChunkLoader chunkLoaderIn, ICh
         this.denyChunkRequests = spongeConfig.getConfig().getWorld().getDenyChunkRequests();
         this.chunkUnloadDelay = spongeConfig.getConfig().getWorld().getChunkUnloadDelay() * 1000;
         this.maxChunkUnloads = spongeConfig.getConfig().getWorld().getMaxChunkUnloads();
+        if (SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useAsyncChunkLoading() && chunkLoaderIn instanceof IMixinAnvilChunkLoader) {
+            this.asyncChunkLoader = new AsyncChunkLoader((ChunkProviderServer) (Object) this, (IMixinAnvilChunkLoader) chunkLoaderIn);
+        }
     }
 
     @Override
@@ -150,6 +157,25 @@ public void queueUnload(Chunk chunkIn)
         }
     }
 
+    @Override
+    public CompletableFuture<Chunk> loadChunkAsync(int x, int z) {
+        if (this.asyncChunkLoader == null) {
+            return CompletableFuture.completedFuture(this.loadChunk(x, z));
+        }
+        return this.asyncChunkLoader.load(x, z);
+    }
+
+    @Inject(method = "loadChunkFromFile", at = @At("HEAD"), cancellable = true)
+    private void onLoadChunkFromFile(int x, int z, CallbackInfoReturnable<Chunk> cir) {
+        // Reuse the data of a pending async load instead of reading the chunk twice
+        if (this.asyncChunkLoader != null && SpongeImpl.getServer().isCallingFromMinecraftThread()) {
+            final Chunk chunk = this.asyncChunkLoader.take(x, z);
+            if (chunk != null) {
+                cir.setReturnValue(chunk);
+            }
+        }
+    }
+
     // split from loadChunk to avoid 2 lookups with our inject
     private Chunk loadChunkForce(int x, int z) {
         Chunk chunk = this.loadChunkFromFile(x, z);
@@ -310,6 +336,24 @@ public boolean tick()
             ((IMixinWorldServer) this.world).getTimingsHandler().doChunkUnload.stopTiming();
         }
 
+        if (this.asyncChunkLoader != null && this.asyncChunkLoader.hasCompleted()) {
+            // Same phase as loading the chunks through provideChunk
+            ((IMixinWorldServer) this.world).getTimingsHandler().syncChunkLoadTimer.startTiming();
+            if (CauseTracker.ENABLED) {
+                CauseTracker.getInstance().switchToPhase(GenerationPhase.State.TERRAIN_GENERATION, PhaseContext.start()
+                        .addCaptures()
+                        .addExtra(InternalNamedCauses.WorldGeneration.WORLD, this.world)
+                        .complete());
+            }
+            try {
+                this.asyncChunkLoader.processCompleted();
+            } finally {
+                if (CauseTracker.ENABLED) {
+                    CauseTracker.getInstance().completePhase(GenerationPhase.State.TERRAIN_GENERATION);
+                }
+                ((IMixinWorldServer) this.world).getTimingsHandler().syncChunkLoadTimer.stopTiming();
+            }
+        }
         this.chunkLoader.chunkTick();
         return false;
     }
@@ -30,8 +30,11 @@
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.world.storage.ChunkSaveQueue;
 
 import java.util.List;
 
@@ -54,4 +57,10 @@ public void onProcessQueueThreadSleep(long millis) {
             e.printStackTrace();
         }
     }
+
+    @Inject(method = "waitForFinish", at = @At("HEAD"))
+    private void onWaitForFinish(CallbackInfo ci) throws InterruptedException {
+        // Chunks written by the chunk save pipeline are not tracked by the IO counters
+        ChunkSaveQueue.awaitAll();
+    }
 }
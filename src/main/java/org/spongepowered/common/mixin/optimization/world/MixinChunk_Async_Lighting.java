@@ -40,28 +40,27 @@
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
-import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
+import org.spongepowered.common.world.AsyncLightingEngine;
+import org.spongepowered.common.world.LightUpdateQueue;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Mixin(value = Chunk.class, priority = 1002)
 public abstract class MixinChunk_Async_Lighting implements IMixinChunk {
 
     // Keeps track of block positions in this chunk currently queued for sky light update
-    private CopyOnWriteArrayList<Short> queuedSkyLightingUpdates = new CopyOnWriteArrayList<>();
+    private final LightUpdateQueue queuedSkyLightingUpdates = new LightUpdateQueue();
     // Keeps track of block positions in this chunk currently queued for block light update
-    private CopyOnWriteArrayList<Short> queuedBlockLightingUpdates = new CopyOnWriteArrayList<>();
+    private final LightUpdateQueue queuedBlockLightingUpdates = new LightUpdateQueue();
     private AtomicInteger pendingLightUpdates = new AtomicInteger();
     private long lightUpdateTime;
-    private ExecutorService lightExecutorService;
+    private AsyncLightingEngine lightingEngine;
     private static final List<Chunk> EMPTY_LIST = new ArrayList<>();
     private static final BlockPos DUMMY_POS = new BlockPos(0, 0, 0);
 
@@ -95,7 +94,7 @@ public abstract class MixinChunk_Async_Lighting implements IMixinChunk {
     @Inject(method = "<init>", at = @At("RETURN"))
     public void onConstruct(World worldIn, int x, int z, CallbackInfo ci) {
         if (!worldIn.isRemote) {
-            this.lightExecutorService = ((IMixinWorldServer) worldIn).getLightingExecutor();
+            this.lightingEngine = ((IMixinWorldServer) worldIn).getLightingEngine();
         }
     }
 
@@ -121,7 +120,7 @@ private void onTickHead(boolean skipRecheckGaps, CallbackInfo ci)
             final List<Chunk> neighbors = this.getSurroundingChunks();
             if (this.isGapLightingUpdated && this.world.provider.hasSkyLight() && !skipRecheckGaps && !neighbors.isEmpty())
             {
-                this.lightExecutorService.execute(() -> {
+                this.lightingEngine.schedule(this.x, this.z, () -> {
                     this.recheckGapsAsync(neighbors);
                 });
                 this.isGapLightingUpdated = false;
@@ -131,7 +130,7 @@ private void onTickHead(boolean skipRecheckGaps, CallbackInfo ci)
     
             if (!this.isLightPopulated && this.isTerrainPopulated && !neighbors.isEmpty())
             {
-                this.lightExecutorService.execute(() -> {
+                this.lightingEngine.schedule(this.x, this.z, () -> {
                     this.checkLightAsync(neighbors);
                 });
                 // set to true to avoid requeuing the same task when not finished
@@ -254,7 +253,7 @@ private boolean onCheckLightWorld(World world, BlockPos pos) {
     @Inject(method = "checkLight", at = @At("HEAD"), cancellable = true)
     private void checkLightHead(CallbackInfo ci) {
         if (!this.world.isRemote) {
-            if (this.world.getMinecraftServer().isServerStopped() || this.lightExecutorService.isShutdown()) {
+            if (this.world.getMinecraftServer().isServerStopped() || this.lightingEngine.isShutdown()) {
                 return;
             }
 
@@ -267,13 +266,10 @@ private void checkLightHead(CallbackInfo ci) {
                 return;
             }
 
-            if (SpongeImpl.getServer().isCallingFromMinecraftThread()) {
-                this.lightExecutorService.execute(() -> {
-                    this.checkLightAsync(neighborChunks);
-                });
-            } else {
+            // Always scheduled, light checks requested by a lighting job may touch chunks owned by a concurrent job
+            this.lightingEngine.schedule(this.x, this.z, () -> {
                 this.checkLightAsync(neighborChunks);
-            }
+            });
             ci.cancel();
         }
     }
@@ -482,7 +478,7 @@ private List<Chunk> getSurroundingChunks() {
     @Inject(method = "relightBlock", at = @At("HEAD"), cancellable = true)
     private void onRelightBlock(int x, int y, int z, CallbackInfo ci) {
         if (!this.world.isRemote) {
-            this.lightExecutorService.execute(() -> {
+            this.lightingEngine.schedule(this.x, this.z, () -> {
                 this.relightBlockAsync(x, y, z);
             });
             ci.cancel();
@@ -682,13 +678,13 @@ private boolean checkWorldLight(BlockPos pos, List<Chunk> neighbors) {
     }
 
     /**
-     * Gets the list of block positions currently queued for lighting updates.
+     * Gets the block positions currently queued for lighting updates.
      * 
      * @param type The light type
-     * @return The list of queued block positions, empty if none
+     * @return The queued block positions
      */
     @Override
-    public CopyOnWriteArrayList<Short> getQueuedLightingUpdates(EnumSkyBlock type) {
+    public LightUpdateQueue getQueuedLightingUpdates(EnumSkyBlock type) {
         if (type == EnumSkyBlock.SKY) {
             return this.queuedSkyLightingUpdates;
         }
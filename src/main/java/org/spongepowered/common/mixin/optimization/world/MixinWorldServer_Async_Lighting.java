@@ -24,7 +24,6 @@
  */
 package org.spongepowered.common.mixin.optimization.world;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
@@ -40,10 +39,11 @@
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.mixin.core.world.MixinWorld;
+import org.spongepowered.common.world.AsyncLightingEngine;
+import org.spongepowered.common.world.LightUpdateQueue;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javax.annotation.Nullable;
 
@@ -55,8 +55,11 @@ public abstract class MixinWorldServer_Async_Lighting extends MixinWorld impleme
     private static final short XZ_MASK = 0xF;
     private static final short Y_SHORT_MASK = 0xFF;
 
-    private ExecutorService lightExecutorService = 
-                Executors.newFixedThreadPool(SpongeImpl.getGlobalConfig().getConfig().getOptimizations().getAsyncLightingCategory().getNumThreads(), new ThreadFactoryBuilder().setNameFormat("Sponge - Async Light Thread").build());
+    // Each lighting thread propagates light with its own list, the one of the world would be shared between them
+    private static final ThreadLocal<int[]> LIGHT_UPDATE_BLOCK_LIST = ThreadLocal.withInitial(() -> new int[32768]);
+
+    private final AsyncLightingEngine lightingEngine =
+            new AsyncLightingEngine(SpongeImpl.getGlobalConfig().getConfig().getOptimizations().getAsyncLightingCategory().getNumThreads());
 
     @Override
     public boolean checkLightFor(EnumSkyBlock lightType, BlockPos pos) {
@@ -65,36 +68,40 @@ public boolean checkLightFor(EnumSkyBlock lightType, BlockPos pos) {
 
     @Override
     public boolean checkLightAsync(EnumSkyBlock lightType, BlockPos pos, net.minecraft.world.chunk.Chunk currentChunk, List<Chunk> neighbors) {
+        return this.checkLightAsync(lightType, pos, this.getLightArea(currentChunk, neighbors));
+    }
+
+    private boolean checkLightAsync(EnumSkyBlock lightType, BlockPos pos, Chunk[] area) {
         // Sponge - This check is not needed as neighbors are checked in updateLightAsync
         if (false && !this.isAreaLoaded(pos, 17, false)) {
             return false;
         } else {
-            final IMixinChunk spongeChunk = (IMixinChunk) currentChunk;
+            final int[] lightUpdateBlockList = LIGHT_UPDATE_BLOCK_LIST.get(); // Sponge - use the list of this thread
             int i = 0;
             int j = 0;
             //this.theProfiler.startSection("getBrightness"); // Sponge - don't use profiler off of main thread
-            int k = this.getLightForAsync(lightType, pos, currentChunk, neighbors); // Sponge - use thread safe method
-            int l = this.getRawBlockLightAsync(lightType, pos, currentChunk, neighbors); // Sponge - use thread safe method
+            int k = this.getLightForAsync(lightType, pos, area); // Sponge - use thread safe method
+            int l = this.getRawBlockLightAsync(lightType, pos, area); // Sponge - use thread safe method
             int i1 = pos.getX();
             int j1 = pos.getY();
             int k1 = pos.getZ();
 
             if (l > k) {
-                this.lightUpdateBlockList[j++] = 133152;
+                lightUpdateBlockList[j++] = 133152;
             } else if (l < k) {
-                this.lightUpdateBlockList[j++] = 133152 | k << 18;
+                lightUpdateBlockList[j++] = 133152 | k << 18;
 
                 while (i < j) {
-                    int l1 = this.lightUpdateBlockList[i++];
+                    int l1 = lightUpdateBlockList[i++];
                     int i2 = (l1 & 63) - 32 + i1;
                     int j2 = (l1 >> 6 & 63) - 32 + j1;
                     int k2 = (l1 >> 12 & 63) - 32 + k1;
                     int l2 = l1 >> 18 & 15;
                     BlockPos blockpos = new BlockPos(i2, j2, k2);
-                    int i3 = this.getLightForAsync(lightType, blockpos, currentChunk, neighbors); // Sponge - use thread safe method
+                    int i3 = this.getLightForAsync(lightType, blockpos, area); // Sponge - use thread safe method
 
                     if (i3 == l2) {
-                        this.setLightForAsync(lightType, blockpos, 0, currentChunk, neighbors); // Sponge - use thread safe method
+                        this.setLightForAsync(lightType, blockpos, 0, area); // Sponge - use thread safe method
 
                         if (l2 > 0) {
                             int j3 = MathHelper.abs(i2 - i1);
@@ -110,16 +117,16 @@ public boolean checkLightAsync(EnumSkyBlock lightType, BlockPos pos, net.minecra
                                     int k4 = k2 + enumfacing.getFrontOffsetZ();
                                     blockpos$pooledmutableblockpos.setPos(i4, j4, k4);
                                     // Sponge start - get chunk safely
-                                    final Chunk pooledChunk = this.getLightChunk(blockpos$pooledmutableblockpos, currentChunk, neighbors);
+                                    final Chunk pooledChunk = this.getLightChunk(blockpos$pooledmutableblockpos, area);
                                     if (pooledChunk == null) {
                                         continue;
                                     }
                                     int l4 = Math.max(1, pooledChunk.getBlockState(blockpos$pooledmutableblockpos).getLightOpacity());
-                                    i3 = this.getLightForAsync(lightType, blockpos$pooledmutableblockpos, currentChunk, neighbors);
+                                    i3 = this.getLightForAsync(lightType, blockpos$pooledmutableblockpos, area);
                                     // Sponge end
 
-                                    if (i3 == l2 - l4 && j < this.lightUpdateBlockList.length) {
-                                        this.lightUpdateBlockList[j++] = i4 - i1 + 32 | j4 - j1 + 32 << 6 | k4 - k1 + 32 << 12 | l2 - l4 << 18;
+                                    if (i3 == l2 - l4 && j < lightUpdateBlockList.length) {
+                                        lightUpdateBlockList[j++] = i4 - i1 + 32 | j4 - j1 + 32 << 6 | k4 - k1 + 32 << 12 | l2 - l4 << 18;
                                     }
                                 }
 
@@ -136,47 +143,47 @@ public boolean checkLightAsync(EnumSkyBlock lightType, BlockPos pos, net.minecra
             //this.theProfiler.startSection("checkedPosition < toCheckCount"); // Sponge - don't use profiler off of main thread
 
             while (i < j) {
-                int i5 = this.lightUpdateBlockList[i++];
+                int i5 = lightUpdateBlockList[i++];
                 int j5 = (i5 & 63) - 32 + i1;
                 int k5 = (i5 >> 6 & 63) - 32 + j1;
                 int l5 = (i5 >> 12 & 63) - 32 + k1;
                 BlockPos blockpos1 = new BlockPos(j5, k5, l5);
-                int i6 = this.getLightForAsync(lightType, blockpos1, currentChunk, neighbors); // Sponge - use thread safe method
-                int j6 = this.getRawBlockLightAsync(lightType, blockpos1, currentChunk, neighbors); // Sponge - use thread safe method
+                int i6 = this.getLightForAsync(lightType, blockpos1, area); // Sponge - use thread safe method
+                int j6 = this.getRawBlockLightAsync(lightType, blockpos1, area); // Sponge - use thread safe method
 
                 if (j6 != i6) {
-                    this.setLightForAsync(lightType, blockpos1, j6, currentChunk, neighbors); // Sponge - use thread safe method
+                    this.setLightForAsync(lightType, blockpos1, j6, area); // Sponge - use thread safe method
 
                     if (j6 > i6) {
                         int k6 = Math.abs(j5 - i1);
                         int l6 = Math.abs(k5 - j1);
                         int i7 = Math.abs(l5 - k1);
-                        boolean flag = j < this.lightUpdateBlockList.length - 6;
+                        boolean flag = j < lightUpdateBlockList.length - 6;
 
                         if (k6 + l6 + i7 < 17 && flag) {
                             // Sponge start - use thread safe method getLightForAsync
-                            if (this.getLightForAsync(lightType, blockpos1.west(), currentChunk, neighbors) < j6) {
-                                this.lightUpdateBlockList[j++] = j5 - 1 - i1 + 32 + (k5 - j1 + 32 << 6) + (l5 - k1 + 32 << 12);
+                            if (this.getLightForAsync(lightType, blockpos1.west(), area) < j6) {
+                                lightUpdateBlockList[j++] = j5 - 1 - i1 + 32 + (k5 - j1 + 32 << 6) + (l5 - k1 + 32 << 12);
                             }
 
-                            if (this.getLightForAsync(lightType, blockpos1.east(), currentChunk, neighbors) < j6) {
-                                this.lightUpdateBlockList[j++] = j5 + 1 - i1 + 32 + (k5 - j1 + 32 << 6) + (l5 - k1 + 32 << 12);
+                            if (this.getLightForAsync(lightType, blockpos1.east(), area) < j6) {
+                                lightUpdateBlockList[j++] = j5 + 1 - i1 + 32 + (k5 - j1 + 32 << 6) + (l5 - k1 + 32 << 12);
                             }
 
-                            if (this.getLightForAsync(lightType, blockpos1.down(), currentChunk, neighbors) < j6) {
-                                this.lightUpdateBlockList[j++] = j5 - i1 + 32 + (k5 - 1 - j1 + 32 << 6) + (l5 - k1 + 32 << 12);
+                            if (this.getLightForAsync(lightType, blockpos1.down(), area) < j6) {
+                                lightUpdateBlockList[j++] = j5 - i1 + 32 + (k5 - 1 - j1 + 32 << 6) + (l5 - k1 + 32 << 12);
                             }
 
-                            if (this.getLightForAsync(lightType, blockpos1.up(), currentChunk, neighbors) < j6) {
-                                this.lightUpdateBlockList[j++] = j5 - i1 + 32 + (k5 + 1 - j1 + 32 << 6) + (l5 - k1 + 32 << 12);
+                            if (this.getLightForAsync(lightType, blockpos1.up(), area) < j6) {
+                                lightUpdateBlockList[j++] = j5 - i1 + 32 + (k5 + 1 - j1 + 32 << 6) + (l5 - k1 + 32 << 12);
                             }
 
-                            if (this.getLightForAsync(lightType, blockpos1.north(), currentChunk, neighbors) < j6) {
-                                this.lightUpdateBlockList[j++] = j5 - i1 + 32 + (k5 - j1 + 32 << 6) + (l5 - 1 - k1 + 32 << 12);
+                            if (this.getLightForAsync(lightType, blockpos1.north(), area) < j6) {
+                                lightUpdateBlockList[j++] = j5 - i1 + 32 + (k5 - j1 + 32 << 6) + (l5 - 1 - k1 + 32 << 12);
                             }
 
-                            if (this.getLightForAsync(lightType, blockpos1.south(), currentChunk, neighbors) < j6) {
-                                this.lightUpdateBlockList[j++] = j5 - i1 + 32 + (k5 - j1 + 32 << 6) + (l5 + 1 - k1 + 32 << 12);
+                            if (this.getLightForAsync(lightType, blockpos1.south(), area) < j6) {
+                                lightUpdateBlockList[j++] = j5 - i1 + 32 + (k5 - j1 + 32 << 6) + (l5 + 1 - k1 + 32 << 12);
                             }
                             // Sponge end
                         }
@@ -184,15 +191,6 @@ public boolean checkLightAsync(EnumSkyBlock lightType, BlockPos pos, net.minecra
                 }
             }
 
-            // Sponge start - Asynchronous light updates
-            spongeChunk.getQueuedLightingUpdates(lightType).remove((Short) this.blockPosToShort(pos));
-            spongeChunk.getPendingLightUpdates().decrementAndGet();
-            for (net.minecraft.world.chunk.Chunk neighborChunk : neighbors) {
-                final IMixinChunk neighbor = (IMixinChunk) neighborChunk;
-                neighbor.getPendingLightUpdates().decrementAndGet();
-            }
-
-            // Sponge end
             //this.theProfiler.endSection(); // Sponge - don't use profiler off of main thread
             return true;
         }
@@ -200,7 +198,7 @@ public boolean checkLightAsync(EnumSkyBlock lightType, BlockPos pos, net.minecra
 
     @Override
     public boolean updateLightAsync(EnumSkyBlock lightType, BlockPos pos, @Nullable Chunk currentChunk) {
-        if (this.getMinecraftServer().isServerStopped() || this.lightExecutorService.isShutdown()) {
+        if (this.getMinecraftServer().isServerStopped() || this.lightingEngine.isShutdown()) {
             return false;
         }
 
@@ -214,15 +212,30 @@ public boolean updateLightAsync(EnumSkyBlock lightType, BlockPos pos, @Nullable
         }
 
         final short shortPos = this.blockPosToShort(pos);
-        if (spongeChunk.getQueuedLightingUpdates(lightType).contains(shortPos)) {
+        final LightUpdateQueue queue = spongeChunk.getQueuedLightingUpdates(lightType);
+        if (!queue.add(shortPos)) {
             return false;
         }
 
         final Chunk chunk = currentChunk;
-        spongeChunk.getQueuedLightingUpdates(lightType).add(shortPos);
-        spongeChunk.getPendingLightUpdates().incrementAndGet();
-        spongeChunk.setLightUpdateTime(chunk.getWorld().getTotalWorldTime());
+        final long time = chunk.getWorld().getTotalWorldTime();
+        spongeChunk.setLightUpdateTime(time);
+        // Positions queued while a drain is scheduled are picked up by that drain. Updates requested by lighting
+        // jobs are queued as well, propagating them right away could reach chunks owned by a concurrent job.
+        if (queue.markScheduled()) {
+            final List<Chunk> neighbors = this.getLightNeighbors(spongeChunk);
+            this.markPendingLightUpdate(spongeChunk, neighbors, time);
+            if (!this.lightingEngine.schedule(chunk.x, chunk.z, () -> this.drainLightUpdates(lightType, chunk, queue, neighbors))) {
+                queue.abortDrain();
+                this.completePendingLightUpdate(spongeChunk, neighbors);
+                return false;
+            }
+        }
 
+        return true;
+    }
+
+    private List<Chunk> getLightNeighbors(IMixinChunk spongeChunk) {
         List<Chunk> neighbors = spongeChunk.getNeighbors();
         // add diagonal chunks
         Chunk southEastChunk = ((IMixinChunk) spongeChunk.getNeighborChunk(0)).getNeighborChunk(2);
@@ -241,52 +254,103 @@ public boolean updateLightAsync(EnumSkyBlock lightType, BlockPos pos, @Nullable
         if (northWestChunk != null) {
             neighbors.add(northWestChunk);
         }
+        return neighbors;
+    }
 
+    // Pending light updates keep the chunk and its neighbors from unloading
+    private void markPendingLightUpdate(IMixinChunk spongeChunk, List<Chunk> neighbors, long time) {
+        spongeChunk.getPendingLightUpdates().incrementAndGet();
+        spongeChunk.setLightUpdateTime(time);
         for (net.minecraft.world.chunk.Chunk neighborChunk : neighbors) {
             final IMixinChunk neighbor = (IMixinChunk) neighborChunk;
             neighbor.getPendingLightUpdates().incrementAndGet();
-            neighbor.setLightUpdateTime(chunk.getWorld().getTotalWorldTime());
+            neighbor.setLightUpdateTime(time);
         }
+    }
 
-        //System.out.println("size = " + ((ThreadPoolExecutor) this.lightExecutorService).getQueue().size());
-        if (SpongeImpl.getServer().isCallingFromMinecraftThread()) {
-            this.lightExecutorService.execute(() -> {
-                this.checkLightAsync(lightType, pos, chunk, neighbors);
-            });
-        } else {
-            this.checkLightAsync(lightType, pos, chunk, neighbors);
+    private void completePendingLightUpdate(IMixinChunk spongeChunk, List<Chunk> neighbors) {
+        spongeChunk.getPendingLightUpdates().decrementAndGet();
+        for (net.minecraft.world.chunk.Chunk neighborChunk : neighbors) {
+            final IMixinChunk neighbor = (IMixinChunk) neighborChunk;
+            neighbor.getPendingLightUpdates().decrementAndGet();
         }
+    }
 
-        return true;
+    /**
+     * Checks the light of every position queued in the chunk, including the
+     * ones queued while the drain runs. Only a single drain per chunk and
+     * light type is scheduled at a time.
+     */
+    private void drainLightUpdates(EnumSkyBlock lightType, Chunk chunk, LightUpdateQueue queue, List<Chunk> neighbors) {
+        final int baseX = chunk.x << 4;
+        final int baseZ = chunk.z << 4;
+        final Chunk[] area = this.getLightArea(chunk, neighbors);
+        boolean completed = false;
+        try {
+            do {
+                final int updates = queue.drain(shortPos -> {
+                    final BlockPos pos = new BlockPos(baseX + (shortPos & XZ_MASK), shortPos >> NUM_XZ_BITS & Y_SHORT_MASK,
+                            baseZ + (shortPos >> (NUM_XZ_BITS + NUM_SHORT_Y_BITS) & XZ_MASK));
+                    this.checkLightAsync(lightType, pos, area);
+                });
+                this.lightingEngine.addUpdates(updates);
+            } while (queue.completeDrain());
+            completed = true;
+        } finally {
+            if (!completed) {
+                // Allow the remaining positions to be scheduled again
+                queue.abortDrain();
+            }
+            this.completePendingLightUpdate((IMixinChunk) chunk, neighbors);
+        }
     }
 
     @Override
     public ExecutorService getLightingExecutor() {
-        return this.lightExecutorService;
+        return this.lightingEngine.getExecutor();
     }
 
-    // Thread safe methods to retrieve a chunk during async light updates
-    // Each method avoids calling getLoadedChunk and instead accesses the passed neighbor chunk list to avoid concurrency issues
-    public Chunk getLightChunk(BlockPos pos, Chunk currentChunk, List<Chunk> neighbors) {
-        if (currentChunk.isAtLocation(pos.getX() >> 4, pos.getZ() >> 4)) {
-            if (currentChunk.unloadQueued) {
-                return null;
-            }
-            return currentChunk;
-        }
+    @Override
+    public AsyncLightingEngine getLightingEngine() {
+        return this.lightingEngine;
+    }
+
+    /**
+     * Gets the 3x3 area of chunks around the chunk, indexed by their offset
+     * on the x axis times 3 plus their offset on the z axis. Chunks of the
+     * area which aren't loaded are null.
+     */
+    private Chunk[] getLightArea(Chunk currentChunk, List<Chunk> neighbors) {
+        final Chunk[] area = new Chunk[9];
+        area[4] = currentChunk;
         for (net.minecraft.world.chunk.Chunk neighbor : neighbors) {
-            if (neighbor.isAtLocation(pos.getX() >> 4, pos.getZ() >> 4)) {
-                if (neighbor.unloadQueued) {
-                    return null;
-                }
-                return neighbor;
+            final int x = neighbor.x - currentChunk.x + 1;
+            final int z = neighbor.z - currentChunk.z + 1;
+            if (x >= 0 && x < 3 && z >= 0 && z < 3) {
+                area[x * 3 + z] = neighbor;
             }
         }
+        return area;
+    }
 
-        return null;
+    // Thread safe methods to retrieve a chunk during async light updates
+    // Each method avoids calling getLoadedChunk and instead accesses the passed chunk area to avoid concurrency issues
+    @Nullable
+    private Chunk getLightChunk(BlockPos pos, Chunk[] area) {
+        final Chunk currentChunk = area[4];
+        final int x = (pos.getX() >> 4) - currentChunk.x + 1;
+        final int z = (pos.getZ() >> 4) - currentChunk.z + 1;
+        if (x < 0 || x >= 3 || z < 0 || z >= 3) {
+            return null;
+        }
+        final Chunk chunk = area[x * 3 + z];
+        if (chunk == null || chunk.unloadQueued) {
+            return null;
+        }
+        return chunk;
     }
 
-    private int getLightForAsync(EnumSkyBlock lightType, BlockPos pos, Chunk currentChunk, List<Chunk> neighbors) {
+    private int getLightForAsync(EnumSkyBlock lightType, BlockPos pos, Chunk[] area) {
         if (pos.getY() < 0) {
             pos = new BlockPos(pos.getX(), 0, pos.getZ());
         }
@@ -294,7 +358,7 @@ private int getLightForAsync(EnumSkyBlock lightType, BlockPos pos, Chunk current
             return lightType.defaultLightValue;
         }
 
-        final Chunk chunk = this.getLightChunk(pos, currentChunk, neighbors);
+        final Chunk chunk = this.getLightChunk(pos, area);
         if (chunk == null || chunk.unloadQueued) {
             return lightType.defaultLightValue;
         }
@@ -302,8 +366,8 @@ private int getLightForAsync(EnumSkyBlock lightType, BlockPos pos, Chunk current
         return chunk.getLightFor(lightType, pos);
     }
 
-    private int getRawBlockLightAsync(EnumSkyBlock lightType, BlockPos pos, Chunk currentChunk, List<Chunk> neighbors) {
-        final Chunk chunk = getLightChunk(pos, currentChunk, neighbors);
+    private int getRawBlockLightAsync(EnumSkyBlock lightType, BlockPos pos, Chunk[] area) {
+        final Chunk chunk = this.getLightChunk(pos, area);
         if (chunk == null || chunk.unloadQueued) {
             return lightType.defaultLightValue;
         }
@@ -330,7 +394,7 @@ private int getRawBlockLightAsync(EnumSkyBlock lightType, BlockPos pos, Chunk cu
             } else {
                 for (EnumFacing enumfacing : EnumFacing.values()) {
                     BlockPos blockpos = pos.offset(enumfacing);
-                    int k = this.getLightForAsync(lightType, blockpos, currentChunk, neighbors) - j;
+                    int k = this.getLightForAsync(lightType, blockpos, area) - j;
 
                     if (k > i) {
                         i = k;
@@ -346,9 +410,9 @@ private int getRawBlockLightAsync(EnumSkyBlock lightType, BlockPos pos, Chunk cu
         }
     }
 
-    public void setLightForAsync(EnumSkyBlock type, BlockPos pos, int lightValue, Chunk currentChunk, List<Chunk> neighbors) {
+    private void setLightForAsync(EnumSkyBlock type, BlockPos pos, int lightValue, Chunk[] area) {
         if (((IMixinBlockPos) pos).isValidPosition()) {
-            final Chunk chunk = this.getLightChunk(pos, currentChunk, neighbors);
+            final Chunk chunk = this.getLightChunk(pos, area);
             if (chunk != null && !chunk.unloadQueued) {
                 chunk.setLightFor(type, pos, lightValue);
                 this.notifyLightSet(pos);
@@ -26,8 +26,11 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import co.aikar.timings.Timing;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EntityLivingBase;
@@ -51,6 +54,7 @@
 import net.minecraft.entity.projectile.EntityFireball;
 import net.minecraft.entity.projectile.EntityThrowable;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
@@ -72,6 +76,8 @@
 import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.mixin.plugin.entityactivation.interfaces.IModData_Activation;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class EntityActivationRange {
@@ -85,13 +91,10 @@ public class EntityActivationRange {
             .build();
 
     static AxisAlignedBB maxBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB miscBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB creatureBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB monsterBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB aquaticBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB ambientBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
     static AxisAlignedBB tileEntityBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
     static Map<Byte, Integer> maxActivationRanges = Maps.newHashMap();
+    // The players close enough to each chunk to activate entities in it, reused between ticks
+    private static final Long2ObjectMap<List<EntityPlayer>> nearbyPlayers = new Long2ObjectOpenHashMap<>();
 
     /**
      * Initializes an entities type on construction to specify what group this
@@ -214,15 +217,20 @@ public static void growBb(AxisAlignedBB target, AxisAlignedBB source, int x, int
      * Find what entities are in range of the players in the world and set
      * active if in range.
      *
+     * <p>The chunks within the maximum activation range of any player are
+     * collected first, together with the players close to them. Each entity
+     * in those chunks is then checked once against its nearby players.</p>
+     *
      * @param world The world to perform activation checks in
      */
     public static void activateEntities(World world) {
-        if (((IMixinWorld) world).isFake()) {
+        if (((IMixinWorld) world).isFake() || world.playerEntities.isEmpty()) {
             return;
         }
 
-        for (EntityPlayer player : world.playerEntities) {
-
+        final Timing timing = ((IMixinWorldServer) world).getTimingsHandler().entityActivationCheck;
+        timing.startTiming();
+        try {
             int maxRange = 0;
             for (Integer range : maxActivationRanges.values()) {
                 if (range > maxRange) {
@@ -231,97 +239,84 @@ public static void activateEntities(World world) {
             }
 
             maxRange = Math.min((SpongeImpl.getServer().getPlayerList().getViewDistance() << 4) - 8, maxRange);
-            ((IModData_Activation) player).setActivatedTick(SpongeImpl.getServer().getTickCounter());
-            growBb(maxBB, player.getEntityBoundingBox(), maxRange, 256, maxRange);
-
-            int i = MathHelper.floor(maxBB.minX / 16.0D);
-            int j = MathHelper.floor(maxBB.maxX / 16.0D);
-            int k = MathHelper.floor(maxBB.minZ / 16.0D);
-            int l = MathHelper.floor(maxBB.maxZ / 16.0D);
-
-            for (int i1 = i; i1 <= j; ++i1) {
-                for (int j1 = k; j1 <= l; ++j1) {
-                    WorldServer worldserver = (WorldServer) world;
-                    Chunk chunk = ((IMixinChunkProviderServer) worldserver.getChunkProvider()).getLoadedChunkWithoutMarkingActive(i1, j1);
-                    if (chunk != null) {
-                        activateChunkEntities(player, chunk);
+            final long currentTick = SpongeImpl.getServer().getTickCounter();
+
+            for (EntityPlayer player : world.playerEntities) {
+                ((IModData_Activation) player).setActivatedTick(currentTick);
+                growBb(maxBB, player.getEntityBoundingBox(), maxRange, 256, maxRange);
+
+                int i = MathHelper.floor(maxBB.minX / 16.0D);
+                int j = MathHelper.floor(maxBB.maxX / 16.0D);
+                int k = MathHelper.floor(maxBB.minZ / 16.0D);
+                int l = MathHelper.floor(maxBB.maxZ / 16.0D);
+
+                for (int i1 = i; i1 <= j; ++i1) {
+                    for (int j1 = k; j1 <= l; ++j1) {
+                        final long key = ChunkPos.asLong(i1, j1);
+                        List<EntityPlayer> players = nearbyPlayers.get(key);
+                        if (players == null) {
+                            players = new ArrayList<>(4);
+                            nearbyPlayers.put(key, players);
+                        }
+                        players.add(player);
                     }
                 }
             }
+
+            final IMixinChunkProviderServer chunkProvider = (IMixinChunkProviderServer) ((WorldServer) world).getChunkProvider();
+            for (Long2ObjectMap.Entry<List<EntityPlayer>> entry : nearbyPlayers.long2ObjectEntrySet()) {
+                final long key = entry.getLongKey();
+                final Chunk chunk = chunkProvider.getLoadedChunkWithoutMarkingActive((int) key, (int) (key >> 32));
+                if (chunk != null) {
+                    activateChunkEntities(entry.getValue(), chunk, currentTick);
+                }
+            }
+        } finally {
+            nearbyPlayers.clear();
+            timing.stopTiming();
         }
     }
 
     /**
      * Checks for the activation state of all entities in this chunk.
      *
+     * @param players The players close to the chunk
      * @param chunk Chunk to check for activation
+     * @param currentTick The current tick
      */
-    private static void activateChunkEntities(EntityPlayer player, Chunk chunk) {
+    private static void activateChunkEntities(List<EntityPlayer> players, Chunk chunk, long currentTick) {
         for (int i = 0; i < chunk.getEntityLists().length; ++i) {
 
             for (Object o : chunk.getEntityLists()[i]) {
                 Entity entity = (Entity) o;
-                EntityType type = ((org.spongepowered.api.entity.Entity) entity).getType();
-                long currentTick = SpongeImpl.getServer().getTickCounter();
-                if (type == EntityTypes.UNKNOWN) {
-                    ((IModData_Activation) entity).setActivatedTick(currentTick);
+                IModData_Activation spongeEntity = (IModData_Activation) entity;
+                if (currentTick <= spongeEntity.getActivatedTick()) {
                     continue;
                 }
 
-                if (currentTick > ((IModData_Activation) entity).getActivatedTick()) {
-                    if (((IModData_Activation) entity).getDefaultActivationState()) {
-                        ((IModData_Activation) entity).setActivatedTick(currentTick);
-                        continue;
-                    }
+                EntityType type = ((org.spongepowered.api.entity.Entity) entity).getType();
+                if (type == EntityTypes.UNKNOWN || spongeEntity.getDefaultActivationState()) {
+                    spongeEntity.setActivatedTick(currentTick);
+                    continue;
+                }
 
-                    IModData_Activation spongeEntity = (IModData_Activation) entity;
-                    // check if activation cache needs to be updated
-                    if (spongeEntity.requiresActivationCacheRefresh()) {
-                        EntityActivationRange.initializeEntityActivationState(entity);
-                        spongeEntity.requiresActivationCacheRefresh(false);
-                    }
-                    // check for entity type overrides
-                    byte activationType = ((IModData_Activation) entity).getActivationType();
-                    int bbActivationRange = ((IModData_Activation) entity).getActivationRange();
-
-                    if (activationType == 5) {
-                        growBb(miscBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    } else if (activationType == 4) {
-                        growBb(ambientBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    } else if (activationType == 3) {
-                        growBb(aquaticBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    } else if (activationType == 2) {
-                        growBb(creatureBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    } else {
-                        growBb(monsterBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    }
+                // check if activation cache needs to be updated
+                if (spongeEntity.requiresActivationCacheRefresh()) {
+                    EntityActivationRange.initializeEntityActivationState(entity);
+                    spongeEntity.requiresActivationCacheRefresh(false);
+                }
 
-                    switch (((IModData_Activation) entity).getActivationType()) {
-                        case 1:
-                            if (monsterBB.intersects(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
-                            break;
-                        case 2:
-                            if (creatureBB.intersects(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
-                            break;
-                        case 3:
-                            if (aquaticBB.intersects(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
-                            break;
-                        case 4:
-                            if (ambientBB.intersects(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
-                            break;
-                        case 5:
-                        default:
-                            if (miscBB.intersects(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
+                // check for entity type overrides
+                final int range = spongeEntity.getActivationRange();
+                final AxisAlignedBB entityBB = entity.getEntityBoundingBox();
+                for (int j = 0; j < players.size(); j++) {
+                    // Same as intersecting with the player box grown by the activation range
+                    final AxisAlignedBB playerBB = players.get(j).getEntityBoundingBox();
+                    if (entityBB.maxX > playerBB.minX - range && entityBB.minX < playerBB.maxX + range
+                            && entityBB.maxY > playerBB.minY - 256 && entityBB.minY < playerBB.maxY + 256
+                            && entityBB.maxZ > playerBB.minZ - range && entityBB.minZ < playerBB.maxZ + range) {
+                        spongeEntity.setActivatedTick(currentTick);
+                        break;
                     }
                 }
             }
@@ -24,8 +24,6 @@
  */
 package org.spongepowered.common.mixin.tracking.world;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
-import it.unimi.dsi.fastutil.shorts.Short2ObjectArrayMap;
 import net.minecraft.block.Block;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -57,8 +55,8 @@
 import org.spongepowered.common.profile.SpongeProfileManager;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.SpongeUsernameCache;
+import org.spongepowered.common.world.BlockTrackerTable;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -87,8 +85,7 @@ public abstract class MixinChunk_Tracker implements Chunk, IMixinChunk {
     @Shadow @Final private int[] heightMap;
     @Shadow private boolean dirty;
 
-    public Map<Integer, PlayerTracker> trackedIntBlockPositions = new Int2ObjectArrayMap<>();
-    public Map<Short, PlayerTracker> trackedShortBlockPositions = new Short2ObjectArrayMap<>();
+    private BlockTrackerTable trackedBlockPositions = new BlockTrackerTable();
 
     @Final // need this constructor to never be overwritten by anything.
     @Inject(method = "<init>(Lnet/minecraft/world/World;II)V", at = @At("RETURN"), remap = false)
@@ -123,120 +120,93 @@ public void addTrackedBlockPosition(Block block, BlockPos pos, User user, Player
         final int indexForUniqueId = worldInfo.getIndexForUniqueId(user.getUniqueId());
         if (pos.getY() <= 255) {
             short blockPos = blockPosToShort(pos);
-            final PlayerTracker playerTracker = this.trackedShortBlockPositions.get(blockPos);
-            if (playerTracker != null) {
+            final long entry = this.trackedBlockPositions.get(blockPos);
+            if (entry != BlockTrackerTable.ABSENT) {
                 if (trackerType == PlayerTracker.Type.OWNER) {
-                    playerTracker.ownerIndex = indexForUniqueId;
-                    playerTracker.notifierIndex = indexForUniqueId;
+                    this.trackedBlockPositions.put(blockPos, BlockTrackerTable.pack(indexForUniqueId, indexForUniqueId));
                 } else {
-                    playerTracker.notifierIndex = indexForUniqueId;
+                    this.trackedBlockPositions.put(blockPos, BlockTrackerTable.pack(BlockTrackerTable.getOwnerIndex(entry), indexForUniqueId));
                 }
             } else {
-                this.trackedShortBlockPositions.put(blockPos, new PlayerTracker(indexForUniqueId, trackerType));
+                this.trackedBlockPositions.put(blockPos, newEntry(indexForUniqueId, trackerType));
             }
         } else {
             int blockPos = blockPosToInt(pos);
-            final PlayerTracker playerTracker = this.trackedIntBlockPositions.get(blockPos);
-            if (playerTracker != null) {
+            final long entry = this.trackedBlockPositions.get(blockPos);
+            if (entry != BlockTrackerTable.ABSENT) {
                 if (trackerType == PlayerTracker.Type.OWNER) {
-                    playerTracker.ownerIndex = indexForUniqueId;
+                    this.trackedBlockPositions.put(blockPos, BlockTrackerTable.pack(indexForUniqueId, BlockTrackerTable.getNotifierIndex(entry)));
                 } else {
-                    playerTracker.notifierIndex = indexForUniqueId;
+                    this.trackedBlockPositions.put(blockPos, BlockTrackerTable.pack(BlockTrackerTable.getOwnerIndex(entry), indexForUniqueId));
                 }
             } else {
-                this.trackedIntBlockPositions.put(blockPos, new PlayerTracker(indexForUniqueId, trackerType));
+                this.trackedBlockPositions.put(blockPos, newEntry(indexForUniqueId, trackerType));
             }
         }
     }
 
-    @Override
-    public Map<Integer, PlayerTracker> getTrackedIntPlayerPositions() {
-        return this.trackedIntBlockPositions;
+    private static long newEntry(int index, PlayerTracker.Type trackerType) {
+        return trackerType == PlayerTracker.Type.OWNER ? BlockTrackerTable.pack(index, -1) : BlockTrackerTable.pack(-1, index);
     }
 
     @Override
-    public Map<Short, PlayerTracker> getTrackedShortPlayerPositions() {
-        return this.trackedShortBlockPositions;
+    public BlockTrackerTable getTrackedPlayerPositions() {
+        return this.trackedBlockPositions;
     }
 
     @Override
     public Optional<User> getBlockOwner(BlockPos pos) {
-        final int intKey = blockPosToInt(pos);
-        final PlayerTracker intTracker = this.trackedIntBlockPositions.get(intKey);
-        if (intTracker != null) {
-            final int notifierIndex = intTracker.ownerIndex;
-            return getValidatedUser(intKey, notifierIndex);
-        } else {
-            final short shortKey = blockPosToShort(pos);
-            if (this.trackedShortBlockPositions.get(shortKey) != null) {
-                PlayerTracker tracker = this.trackedShortBlockPositions.get(shortKey);
-                final int notifierIndex = tracker.ownerIndex;
-                return getValidatedUser(shortKey, notifierIndex);
-            }
+        final long entry = getTrackedEntry(pos);
+        if (entry == BlockTrackerTable.ABSENT) {
+            return Optional.empty();
         }
-
-        return Optional.empty();
+        return getValidatedUser(pos, BlockTrackerTable.getOwnerIndex(entry));
     }
 
     @Override
     public Optional<UUID> getBlockOwnerUUID(BlockPos pos) {
-        final int key = blockPosToInt(pos);
-        final PlayerTracker intTracker = this.trackedIntBlockPositions.get(key);
-        if (intTracker != null) {
-            final int ownerIndex = intTracker.ownerIndex;
-            return getValidatedUUID(key, ownerIndex);
-        } else {
-            final short shortKey = blockPosToShort(pos);
-            final PlayerTracker shortTracker = this.trackedShortBlockPositions.get(shortKey);
-            if (shortTracker != null) {
-                final int ownerIndex = shortTracker.ownerIndex;
-                return getValidatedUUID(shortKey, ownerIndex);
-            }
+        final long entry = getTrackedEntry(pos);
+        if (entry == BlockTrackerTable.ABSENT) {
+            return Optional.empty();
         }
-
-        return Optional.empty();
+        return getValidatedUUID(pos, BlockTrackerTable.getOwnerIndex(entry));
     }
 
     @Override
     public Optional<User> getBlockNotifier(BlockPos pos) {
-        final int intKey = blockPosToInt(pos);
-        final PlayerTracker intTracker = this.trackedIntBlockPositions.get(intKey);
-        if (intTracker != null) {
-            final int notifierIndex = intTracker.notifierIndex;
-            return getValidatedUser(intKey, notifierIndex);
-        } else {
-            final short shortKey = blockPosToShort(pos);
-            if (this.trackedShortBlockPositions.get(shortKey) != null) {
-                PlayerTracker tracker = this.trackedShortBlockPositions.get(shortKey);
-                final int notifierIndex = tracker.notifierIndex;
-                return getValidatedUser(shortKey, notifierIndex);
-            }
+        final long entry = getTrackedEntry(pos);
+        if (entry == BlockTrackerTable.ABSENT) {
+            return Optional.empty();
         }
-
-        return Optional.empty();
+        return getValidatedUser(pos, BlockTrackerTable.getNotifierIndex(entry));
     }
 
     @Override
     public Optional<UUID> getBlockNotifierUUID(BlockPos pos) {
-        final int key = blockPosToInt(pos);
-        final PlayerTracker intTracker = this.trackedIntBlockPositions.get(key);
-        if (intTracker != null) {
-            final int ownerIndex = intTracker.notifierIndex;
-            return getValidatedUUID(key, ownerIndex);
-        } else {
-            final short shortKey = blockPosToShort(pos);
-            final PlayerTracker shortTracker = this.trackedShortBlockPositions.get(shortKey);
-            if (shortTracker != null) {
-                final int ownerIndex = shortTracker.notifierIndex;
-                return getValidatedUUID(shortKey, ownerIndex);
-            }
+        final long entry = getTrackedEntry(pos);
+        if (entry == BlockTrackerTable.ABSENT) {
+            return Optional.empty();
         }
+        return getValidatedUUID(pos, BlockTrackerTable.getNotifierIndex(entry));
+    }
 
-        return Optional.empty();
+    private long getTrackedEntry(BlockPos pos) {
+        if (pos.getY() <= 255) {
+            return this.trackedBlockPositions.get(blockPosToShort(pos));
+        }
+        return this.trackedBlockPositions.get(blockPosToInt(pos));
     }
 
-    private Optional<User> getValidatedUser(int key, int ownerIndex) {
-        Optional<UUID> uuid = getValidatedUUID(key, ownerIndex);
+    private void removeTrackedEntry(BlockPos pos) {
+        if (pos.getY() <= 255) {
+            this.trackedBlockPositions.remove(blockPosToShort(pos));
+        } else {
+            this.trackedBlockPositions.remove(blockPosToInt(pos));
+        }
+    }
+
+    private Optional<User> getValidatedUser(BlockPos pos, int ownerIndex) {
+        Optional<UUID> uuid = getValidatedUUID(pos, ownerIndex);
         if (uuid.isPresent()) {
             UUID userUniqueId = uuid.get();
             // get player if online
@@ -250,19 +220,17 @@ private Optional<User> getValidatedUser(int key, int ownerIndex) {
         return Optional.empty();
     }
 
-    private Optional<UUID> getValidatedUUID(int key, int ownerIndex) {
-        UUID uuid = (((IMixinWorldInfo) this.world.getWorldInfo()).getUniqueIdForIndex(ownerIndex)).orElse(null);
-        if (uuid != null) {
-            UUID userUniqueId = uuid;
-            // Verify id is valid and not invalid
-            if (SpongeImpl.getGlobalConfig().getConfig().getWorld().getInvalidLookupUuids().contains(userUniqueId)) {
-                this.trackedIntBlockPositions.remove(key);
-                return Optional.empty();
-            }
-            // player is not online, get or create user from storage
-            return Optional.of(userUniqueId);
+    private Optional<UUID> getValidatedUUID(BlockPos pos, int ownerIndex) {
+        if (ownerIndex < 0) {
+            return Optional.empty();
         }
-        return Optional.empty();
+        final Optional<UUID> uuid = ((IMixinWorldInfo) this.world.getWorldInfo()).getUniqueIdForIndex(ownerIndex);
+        // Verify id is valid and not invalid
+        if (uuid.isPresent() && SpongeImpl.getGlobalConfig().getConfig().getWorld().getInvalidLookupUuids().contains(uuid.get())) {
+            removeTrackedEntry(pos);
+            return Optional.empty();
+        }
+        return uuid;
     }
 
     private Optional<User> getUserFromId(UUID uuid) {
@@ -286,61 +254,40 @@ private Optional<User> getUserFromId(UUID uuid) {
     // Special setter used by API
     @Override
     public void setBlockNotifier(BlockPos pos, @Nullable UUID uuid) {
+        final int index = uuid == null ? -1 : ((IMixinWorldInfo) this.world.getWorldInfo()).getIndexForUniqueId(uuid);
         if (pos.getY() <= 255) {
             short blockPos = blockPosToShort(pos);
-            if (this.trackedShortBlockPositions.get(blockPos) != null) {
-                this.trackedShortBlockPositions.get(blockPos).notifierIndex = uuid == null ? -1 :
-                                                                              ((IMixinWorldInfo) this.world.getWorldInfo()).getIndexForUniqueId(uuid);
-            } else {
-                this.trackedShortBlockPositions.put(blockPos,
-                        new PlayerTracker(uuid == null ? -1 : ((IMixinWorldInfo) this.world.getWorldInfo()).getIndexForUniqueId(uuid),
-                                PlayerTracker.Type.NOTIFIER));
-            }
+            final long entry = this.trackedBlockPositions.get(blockPos);
+            final int ownerIndex = entry == BlockTrackerTable.ABSENT ? -1 : BlockTrackerTable.getOwnerIndex(entry);
+            this.trackedBlockPositions.put(blockPos, BlockTrackerTable.pack(ownerIndex, index));
         } else {
             int blockPos = blockPosToInt(pos);
-            if (this.trackedIntBlockPositions.get(blockPos) != null) {
-                this.trackedIntBlockPositions.get(blockPos).notifierIndex = uuid == null ? -1 :
-                                                                            ((IMixinWorldInfo) this.world.getWorldInfo()).getIndexForUniqueId(uuid);
-            } else {
-                this.trackedIntBlockPositions.put(blockPos,
-                        new PlayerTracker(uuid == null ? -1 : ((IMixinWorldInfo) this.world.getWorldInfo()).getIndexForUniqueId(uuid),
-                                PlayerTracker.Type.NOTIFIER));
-            }
+            final long entry = this.trackedBlockPositions.get(blockPos);
+            final int ownerIndex = entry == BlockTrackerTable.ABSENT ? -1 : BlockTrackerTable.getOwnerIndex(entry);
+            this.trackedBlockPositions.put(blockPos, BlockTrackerTable.pack(ownerIndex, index));
         }
     }
 
     // Special setter used by API
     @Override
     public void setBlockCreator(BlockPos pos, @Nullable UUID uuid) {
+        final int index = uuid == null ? -1 : ((IMixinWorldInfo) this.world.getWorldInfo()).getIndexForUniqueId(uuid);
         if (pos.getY() <= 255) {
             short blockPos = blockPosToShort(pos);
-            if (this.trackedShortBlockPositions.get(blockPos) != null) {
-                this.trackedShortBlockPositions.get(blockPos).ownerIndex = uuid == null ? -1 : ((IMixinWorldInfo) this.world.getWorldInfo())
-                        .getIndexForUniqueId(uuid);
-            } else {
-                this.trackedShortBlockPositions.put(blockPos, new PlayerTracker(uuid == null ? -1 : ((IMixinWorldInfo) this.world.getWorldInfo())
-                        .getIndexForUniqueId(uuid), PlayerTracker.Type.OWNER));
-            }
+            final long entry = this.trackedBlockPositions.get(blockPos);
+            final int notifierIndex = entry == BlockTrackerTable.ABSENT ? -1 : BlockTrackerTable.getNotifierIndex(entry);
+            this.trackedBlockPositions.put(blockPos, BlockTrackerTable.pack(index, notifierIndex));
         } else {
             int blockPos = blockPosToInt(pos);
-            if (this.trackedIntBlockPositions.get(blockPos) != null) {
-                this.trackedIntBlockPositions.get(blockPos).ownerIndex = uuid == null ? -1 : ((IMixinWorldInfo) this.world.getWorldInfo())
-                        .getIndexForUniqueId(uuid);
-            } else {
-                this.trackedIntBlockPositions.put(blockPos, new PlayerTracker(uuid == null ? -1 : ((IMixinWorldInfo) this.world.getWorldInfo())
-                        .getIndexForUniqueId(uuid), PlayerTracker.Type.OWNER));
-            }
+            final long entry = this.trackedBlockPositions.get(blockPos);
+            final int notifierIndex = entry == BlockTrackerTable.ABSENT ? -1 : BlockTrackerTable.getNotifierIndex(entry);
+            this.trackedBlockPositions.put(blockPos, BlockTrackerTable.pack(index, notifierIndex));
         }
     }
 
     @Override
-    public void setTrackedIntPlayerPositions(Map<Integer, PlayerTracker> trackedPositions) {
-        this.trackedIntBlockPositions = trackedPositions;
-    }
-
-    @Override
-    public void setTrackedShortPlayerPositions(Map<Short, PlayerTracker> trackedPositions) {
-        this.trackedShortBlockPositions = trackedPositions;
+    public void setTrackedPlayerPositions(BlockTrackerTable trackedPositions) {
+        this.trackedBlockPositions = trackedPositions;
     }
 
     /**
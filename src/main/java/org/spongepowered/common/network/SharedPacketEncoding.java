@@ -0,0 +1,81 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketBuffer;
+
+import java.io.IOException;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the encoded data of a packet which is sent to many connections, so
+ * that the packet is only encoded by the first connection and every other
+ * connection copies the encoded bytes.
+ *
+ * <p>The packet must not be modified after it was sent.</p>
+ */
+public final class SharedPacketEncoding {
+
+    @Nullable private volatile ByteBuf encoded;
+    private boolean encoding;
+
+    /**
+     * Writes the encoded data of the packet to the buffer, encoding the
+     * packet first if this is the first time it is written.
+     *
+     * @param packet The packet which owns this encoding
+     * @param buf The buffer to write to
+     * @return False if the packet is currently being encoded by this call and
+     *     has to write its data itself
+     * @throws IOException If the packet fails to encode
+     */
+    public boolean write(Packet<?> packet, PacketBuffer buf) throws IOException {
+        ByteBuf encoded = this.encoded;
+        if (encoded == null) {
+            synchronized (this) {
+                if (this.encoding) {
+                    return false;
+                }
+                encoded = this.encoded;
+                if (encoded == null) {
+                    this.encoding = true;
+                    try {
+                        final PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+                        packet.writePacketData(buffer);
+                        this.encoded = encoded = buffer;
+                    } finally {
+                        this.encoding = false;
+                    }
+                }
+            }
+        }
+        buf.writeBytes(encoded, encoded.readerIndex(), encoded.readableBytes());
+        return true;
+    }
+}
@@ -50,6 +50,9 @@
 
 public final class SpongeProfileManager implements GameProfileManager {
 
+    private static final String LOOKUP_LANE = "sponge-profile-lookup";
+    // Lookups are rate limited by Mojang, more threads would mostly wait
+    private static final int LOOKUP_THREADS = 4;
     private static final int LOOKUP_INTERVAL = SpongeImpl.getGlobalConfig().getConfig().getWorld().getGameProfileQueryTaskInterval();
     private final GameProfileCache defaultCache = (GameProfileCache) SpongeImpl.getServer().getPlayerProfileCache();
     private GameProfileCache cache = this.defaultCache;
@@ -132,7 +135,7 @@ public GameProfileCache getDefaultCache() {
     }
 
     private <T> CompletableFuture<T> submitTask(Callable<T> callable) {
-        return SpongeImpl.getScheduler().submitAsyncTask(callable);
+        return SpongeImpl.getScheduler().submitAsyncTask(LOOKUP_LANE, LOOKUP_THREADS, callable);
     }
 
 }
@@ -70,7 +70,8 @@ public void registerAdditionalCatalog(EventContextKey extraCatalog) {
         checkArgument(!key.contains("minecraft:"), "Cannot register spoofed event context key!");
         checkArgument(!this.catalogTypeMap.containsKey(key), "Cannot register an already registered EventContextKey: %s", key);
         this.catalogTypeMap.put(key, extraCatalog);
-
+        // Assign the index up front, instead of on the first use by the cause stack
+        SpongeEventContextKey.getIndex(extraCatalog);
     }
 
     @Override
@@ -26,28 +26,51 @@
 
 import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.category.SchedulerCategory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import javax.annotation.Nullable;
+
 public class AsyncScheduler extends SchedulerBase {
 
+    // The amount of cancelled tasks in the queue above which they are purged
+    // once they make up half of the queue
+    private static final int PURGE_THRESHOLD = 64;
+
     // Adjustable timeout for pending Tasks
     private long minimumTimeout = Long.MAX_VALUE;
     private long lastProcessingTimestamp;
     // Locking mechanism
     private final Lock lock = new ReentrantLock();
     private final Condition condition = this.lock.newCondition();
-    // The dynamic thread pooling executor of asynchronous tasks.
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    // The bounded executor of asynchronous tasks, limiting each plugin.
+    private final AsyncTaskExecutor executor;
+    // The tasks ordered by their next execution, if the task queue is enabled.
+    // Cancelled tasks stay in it until they are polled. Only accessed while
+    // holding the lock.
+    @Nullable private final PriorityQueue<ScheduledTask> queue;
+    // The amount of cancelled tasks which are still in the queue, only a hint
+    // when to purge them as cancellations may race with polling the queue
+    private int cancelledTasks;
 
     AsyncScheduler() {
         super(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS);
+        final SchedulerCategory config = SpongeImpl.getGlobalConfig().getConfig().getScheduler();
+        this.executor = new AsyncTaskExecutor(config.getAsyncMaxThreads(), config.getAsyncPluginThreadLimit());
+        if (config.useAsyncTaskQueue()) {
+            // Compare the difference, the nano time may overflow
+            this.queue = new PriorityQueue<>(64, (a, b) -> Long.compare(a.queuedTimestamp - b.queuedTimestamp, 0));
+        } else {
+            this.queue = null;
+        }
 
         Thread thread = new Thread(AsyncScheduler.this::mainLoop);
         thread.setName("Sponge Async Scheduler Thread");
@@ -55,7 +78,7 @@ public class AsyncScheduler extends SchedulerBase {
         thread.start();
     }
 
-    ExecutorService getExecutor() {
+    AsyncTaskExecutor getExecutor() {
         return this.executor;
     }
 
@@ -70,6 +93,12 @@ private void mainLoop() {
     private void recalibrateMinimumTimeout() {
         this.lock.lock();
         try {
+            if (this.queue != null) {
+                // Only the head of the queue can be due first
+                final ScheduledTask next = this.peekQueue();
+                this.minimumTimeout = next == null ? Long.MAX_VALUE : Math.max(0, next.queuedTimestamp - System.nanoTime());
+                return;
+            }
             Set<Task> tasks = this.getScheduledTasks();
             this.minimumTimeout = Long.MAX_VALUE;
             long now = System.nanoTime();
@@ -118,6 +147,61 @@ protected void preTick() {
         }
     }
 
+    @Override
+    protected void processTasks() {
+        if (this.queue == null) {
+            super.processTasks();
+            return;
+        }
+        final long now = System.nanoTime();
+        List<ScheduledTask> pending = null;
+        ScheduledTask task;
+        while ((task = this.peekQueue()) != null && task.queuedTimestamp - now <= 0) {
+            this.queue.poll();
+            this.processTask(task);
+            // Started one time tasks were removed, everything else is either
+            // repeating or could not be started yet because its previous
+            // execution is still switching to running
+            if (this.isScheduled(task)) {
+                if (pending == null) {
+                    pending = new ArrayList<>();
+                }
+                pending.add(task);
+            }
+        }
+        if (pending != null) {
+            for (ScheduledTask pendingTask : pending) {
+                final long next = pendingTask.nextExecutionTimestamp();
+                // A task which is still switching stays due, check it again
+                // after a tick instead of spinning until it started
+                pendingTask.queuedTimestamp = next - now > 0 ? next : now + SpongeScheduler.TICK_DURATION_NS;
+                this.queue.add(pendingTask);
+            }
+        }
+    }
+
+    private void enqueue(ScheduledTask task) {
+        task.queuedTimestamp = task.nextExecutionTimestamp();
+        this.queue.add(task);
+    }
+
+    /**
+     * Gets the head of the queue, after dropping the cancelled tasks in front
+     * of it.
+     *
+     * @return The first task which isn't cancelled, or null
+     */
+    @Nullable
+    private ScheduledTask peekQueue() {
+        ScheduledTask task;
+        while ((task = this.queue.peek()) != null && task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            this.queue.poll();
+            this.removeTask(task);
+            this.cancelledTasks = Math.max(0, this.cancelledTasks - 1);
+        }
+        return task;
+    }
+
     @Override
     protected void postTick() {
         this.lastProcessingTimestamp = System.nanoTime();
@@ -130,7 +214,7 @@ protected void finallyPostTick() {
 
     @Override
     protected void executeTaskRunnable(ScheduledTask task, Runnable runnable) {
-        this.executor.submit(runnable);
+        this.executor.execute(task.getOwner(), runnable);
     }
 
     @Override
@@ -138,10 +222,31 @@ protected void addTask(ScheduledTask task) {
         this.lock.lock();
         try {
             super.addTask(task);
+            if (this.queue != null) {
+                this.enqueue(task);
+            }
             this.condition.signalAll();
         } finally {
             this.lock.unlock();
         }
     }
 
+    @Override
+    protected void cancelTask(ScheduledTask task) {
+        this.lock.lock();
+        try {
+            if (this.queue != null && this.isScheduled(task)) {
+                // The task is dropped once it reaches the head of the queue,
+                // unless the cancelled tasks make up most of the queue
+                if (++this.cancelledTasks > PURGE_THRESHOLD && this.cancelledTasks > this.queue.size() / 2) {
+                    this.queue.removeIf(queued -> queued.getState() == ScheduledTask.ScheduledTaskState.CANCELED);
+                    this.cancelledTasks = 0;
+                }
+            }
+            super.cancelTask(task);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
 }
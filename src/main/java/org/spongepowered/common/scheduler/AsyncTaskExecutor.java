@@ -0,0 +1,388 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.scheduler;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+/**
+ * The executor of asynchronous tasks. Tasks run on a bounded pool of
+ * threads, and every plugin may only occupy a limited amount of those
+ * threads at once. Tasks of a plugin above its limit wait in a queue of that
+ * plugin, so a plugin flooding the executor only delays its own tasks.
+ *
+ * <p>Tasks which are not owned by a plugin run in internal lanes, one per
+ * subsystem. Every internal lane has threads of its own instead of sharing
+ * the pool of the plugins, so for example slow profile lookups or plugins at
+ * their thread limit never hold back chunk reads, and the main thread can
+ * wait for internal tasks without depending on plugin tasks.</p>
+ */
+public final class AsyncTaskExecutor extends AbstractExecutorService {
+
+    // The lane for internal tasks which don't specify a lane of their own
+    private static final String INTERNAL_ID = "sponge-internal";
+
+    private final ThreadPoolExecutor pool;
+    private final int pluginThreadLimit;
+    private final ConcurrentMap<String, PluginQueue> queues = new ConcurrentHashMap<>();
+
+    AsyncTaskExecutor(int maxThreads, int pluginThreadLimit) {
+        checkArgument(maxThreads > 0, "maxThreads must be positive");
+        checkArgument(pluginThreadLimit >= 0, "pluginThreadLimit cannot be negative");
+        this.pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("Sponge - Async Task Thread #%d").setDaemon(true).build());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.pluginThreadLimit = pluginThreadLimit == 0 ? maxThreads : Math.min(pluginThreadLimit, maxThreads);
+    }
+
+    /**
+     * Executes the runnable on behalf of the given plugin.
+     *
+     * @param owner The owning plugin, or null for internal tasks
+     * @param runnable The runnable to execute
+     */
+    void execute(@Nullable PluginContainer owner, Runnable runnable) {
+        checkNotNull(runnable, "runnable");
+        if (owner == null) {
+            executeInternal(INTERNAL_ID, runnable);
+        } else {
+            getQueue(owner.getId(), this.pluginThreadLimit, false).submit(runnable);
+        }
+    }
+
+    /**
+     * Executes the internal runnable in the given lane. The lane runs on
+     * threads of its own, at most as many as the pool of the plugins has.
+     *
+     * @param lane The id of the lane, prefixed by sponge-
+     * @param runnable The runnable to execute
+     */
+    public void executeInternal(String lane, Runnable runnable) {
+        checkNotNull(lane, "lane");
+        checkNotNull(runnable, "runnable");
+        getQueue(lane, this.pool.getMaximumPoolSize(), true).submit(runnable);
+    }
+
+    /**
+     * Executes the internal runnable in the given lane, which may run at most
+     * the given amount of tasks at once. The limit is applied when the lane
+     * is used for the first time, and is kept below the size of the pool of
+     * the plugins as long as that pool has more than one thread.
+     *
+     * @param lane The id of the lane, prefixed by sponge-
+     * @param threadLimit The maximum amount of threads of the lane
+     * @param runnable The runnable to execute
+     */
+    public void executeInternal(String lane, int threadLimit, Runnable runnable) {
+        checkNotNull(lane, "lane");
+        checkArgument(threadLimit > 0, "threadLimit must be positive");
+        checkNotNull(runnable, "runnable");
+        final int limit = Math.min(threadLimit, Math.max(1, this.pool.getMaximumPoolSize() - 1));
+        getQueue(lane, limit, true).submit(runnable);
+    }
+
+    private PluginQueue getQueue(String id, int limit, boolean internal) {
+        final PluginQueue queue = this.queues.get(id);
+        if (queue != null) {
+            return queue;
+        }
+        return this.queues.computeIfAbsent(id, key -> new PluginQueue(key, limit, internal ? createLanePool(key, limit) : this.pool));
+    }
+
+    private ThreadPoolExecutor createLanePool(String lane, int threads) {
+        final ThreadPoolExecutor lanePool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("Sponge - Async " + lane + " Thread #%d").setDaemon(true).build());
+        lanePool.allowCoreThreadTimeOut(true);
+        if (this.pool.isShutdown()) {
+            lanePool.shutdown();
+        }
+        return lanePool;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        execute(null, command);
+    }
+
+    /**
+     * Gets the queues of all plugins which submitted tasks so far.
+     *
+     * @return The plugin queues
+     */
+    public Collection<PluginQueue> getPluginQueues() {
+        return ImmutableList.copyOf(this.queues.values());
+    }
+
+    public int getActiveThreads() {
+        return this.pool.getActiveCount();
+    }
+
+    public int getPoolSize() {
+        return this.pool.getPoolSize();
+    }
+
+    public int getMaxThreads() {
+        return this.pool.getMaximumPoolSize();
+    }
+
+    private List<ThreadPoolExecutor> getPools() {
+        final List<ThreadPoolExecutor> pools = new ArrayList<>();
+        pools.add(this.pool);
+        for (PluginQueue queue : this.queues.values()) {
+            if (queue.executor != this.pool) {
+                pools.add(queue.executor);
+            }
+        }
+        return pools;
+    }
+
+    @Override
+    public void shutdown() {
+        // Shut down the pool of the plugins first, lanes created afterwards start shut down
+        this.pool.shutdown();
+        for (ThreadPoolExecutor executor : getPools()) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        this.pool.shutdown();
+        final List<Runnable> runnables = new ArrayList<>();
+        for (ThreadPoolExecutor executor : getPools()) {
+            runnables.addAll(executor.shutdownNow());
+        }
+        return runnables;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.pool.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        for (ThreadPoolExecutor executor : getPools()) {
+            if (!executor.isTerminated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ThreadPoolExecutor executor : getPools()) {
+            if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The tasks of a single plugin or internal lane. At most the thread limit
+     * of them are handed to the pool at once, the rest waits here in order.
+     * Plugins share the pool of the executor, internal lanes have their own.
+     */
+    public final class PluginQueue {
+
+        private final String id;
+        private final int limit;
+        private final ThreadPoolExecutor executor;
+        private final Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final LatencySamples latencies = new LatencySamples(256);
+
+        PluginQueue(String id, int limit, ThreadPoolExecutor executor) {
+            this.id = id;
+            this.limit = limit;
+            this.executor = executor;
+        }
+
+        void submit(Runnable runnable) {
+            this.queue.add(new QueuedTask(runnable, System.nanoTime()));
+            this.queued.incrementAndGet();
+            drain();
+        }
+
+        private void drain() {
+            while (!this.queue.isEmpty()) {
+                final int running = this.active.get();
+                if (running >= this.limit) {
+                    // A finishing task will drain the queue
+                    return;
+                }
+                if (!this.active.compareAndSet(running, running + 1)) {
+                    continue;
+                }
+                final QueuedTask task = this.queue.poll();
+                if (task == null) {
+                    // Another thread took the task, give back the slot and
+                    // check again in case a task was added in the meantime
+                    this.active.decrementAndGet();
+                    continue;
+                }
+                this.queued.decrementAndGet();
+                boolean handed = false;
+                try {
+                    this.executor.execute(() -> run(task));
+                    handed = true;
+                } finally {
+                    // The pool rejects tasks once it is shut down
+                    if (!handed) {
+                        this.active.decrementAndGet();
+                    }
+                }
+            }
+        }
+
+        private void run(QueuedTask task) {
+            try {
+                task.runnable.run();
+            } finally {
+                this.latencies.add(System.nanoTime() - task.submitted);
+                this.active.decrementAndGet();
+                try {
+                    drain();
+                } catch (RejectedExecutionException e) {
+                    // Shut down while this task was running, the remaining
+                    // queued tasks are dropped like the ones of the pool
+                }
+            }
+        }
+
+        /**
+         * Gets the id of the plugin owning this queue, or the id of the
+         * internal lane.
+         *
+         * @return The plugin or lane id
+         */
+        public String getId() {
+            return this.id;
+        }
+
+        /**
+         * Gets the amount of tasks waiting for a free slot of this plugin.
+         *
+         * @return The queue depth
+         */
+        public int getQueuedTasks() {
+            return this.queued.get();
+        }
+
+        /**
+         * Gets the amount of tasks of this plugin which are currently handed
+         * to the pool.
+         *
+         * @return The active tasks
+         */
+        public int getActiveTasks() {
+            return this.active.get();
+        }
+
+        /**
+         * Gets the given percentile of the time between the recently
+         * completed tasks being submitted to this queue and their completion.
+         *
+         * @param percentile The percentile, between 0 and 1
+         * @return The latency in nanoseconds
+         */
+        public long getLatency(double percentile) {
+            return this.latencies.getPercentile(percentile);
+        }
+
+    }
+
+    private static final class QueuedTask {
+
+        final Runnable runnable;
+        final long submitted;
+
+        QueuedTask(Runnable runnable, long submitted) {
+            this.runnable = runnable;
+            this.submitted = submitted;
+        }
+    }
+
+    /**
+     * A ring buffer of the most recent latency samples.
+     */
+    static final class LatencySamples {
+
+        private final long[] samples;
+        private int index;
+        private int size;
+
+        LatencySamples(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void add(long sample) {
+            this.samples[this.index] = sample;
+            this.index = (this.index + 1) % this.samples.length;
+            if (this.size < this.samples.length) {
+                this.size++;
+            }
+        }
+
+        long getPercentile(double percentile) {
+            checkArgument(percentile >= 0 && percentile <= 1, "percentile must be between 0 and 1");
+            final long[] sorted;
+            synchronized (this) {
+                if (this.size == 0) {
+                    return 0;
+                }
+                sorted = Arrays.copyOf(this.samples, this.size);
+            }
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))];
+        }
+    }
+
+}
@@ -31,6 +31,7 @@
 
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.common.SpongeImpl;
 
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -45,6 +46,7 @@ public class ScheduledTask implements Task {
     final long period; //nanoseconds or ticks
     final boolean delayIsTicks;
     final boolean intervalIsTicks;
+    final boolean deferrable;
     private final PluginContainer owner;
     private final Consumer<Task> consumer;
     private long timestamp;
@@ -54,6 +56,15 @@ public class ScheduledTask implements Task {
     private final TaskSynchronicity syncType;
     private final String stringRepresentation;
     private Timing taskTimer;
+    // The execution timestamp this task is ordered by while it is queued,
+    // see AsyncScheduler
+    long queuedTimestamp;
+    // The tick this task was first deferred at while it is deferred, or -1,
+    // see SyncScheduler
+    long deferredSince = -1;
+    // Whether this task was submitted to the scheduler, tasks which never
+    // were don't have to be removed from it when they are cancelled
+    volatile boolean submitted;
 
     // Internal Task state. Not for user-service use.
     public enum ScheduledTaskState {
@@ -83,12 +94,18 @@ public enum ScheduledTaskState {
 
     ScheduledTask(TaskSynchronicity syncType, Consumer<Task> task, String taskName, long delay, boolean delayIsTicks, long interval,
             boolean intervalIsTicks, PluginContainer pluginContainer) {
+        this(syncType, task, taskName, delay, delayIsTicks, interval, intervalIsTicks, false, pluginContainer);
+    }
+
+    ScheduledTask(TaskSynchronicity syncType, Consumer<Task> task, String taskName, long delay, boolean delayIsTicks, long interval,
+            boolean intervalIsTicks, boolean deferrable, PluginContainer pluginContainer) {
         // All tasks begin waiting.
         this.setState(ScheduledTaskState.WAITING);
         this.offset = delay;
         this.delayIsTicks = delayIsTicks;
         this.period = interval;
         this.intervalIsTicks = intervalIsTicks;
+        this.deferrable = deferrable;
         this.owner = pluginContainer;
         this.consumer = task;
         this.id = UUID.randomUUID();
@@ -102,6 +119,7 @@ public enum ScheduledTaskState {
                 .add("owner", this.owner)
                 .add("id", this.id)
                 .add("isAsync", this.isAsynchronous())
+                .add("deferrable", this.deferrable)
                 .toString();
     }
 
@@ -133,6 +151,9 @@ public boolean cancel() {
             success = true;
         }
         this.setState(ScheduledTask.ScheduledTaskState.CANCELED);
+        if (this.submitted) {
+            SpongeImpl.getScheduler().cancel(this);
+        }
         return success;
     }
 
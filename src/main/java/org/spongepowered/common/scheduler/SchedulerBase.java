@@ -34,6 +34,7 @@
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.event.tracking.CauseTracker;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -89,6 +90,20 @@ protected void removeTask(ScheduledTask task) {
         this.taskMap.remove(task.getUniqueId());
     }
 
+    /**
+     * Removes a cancelled task right away, instead of on the next tick in
+     * which it would have been processed.
+     *
+     * @param task The cancelled task
+     */
+    protected void cancelTask(ScheduledTask task) {
+        this.removeTask(task);
+    }
+
+    protected boolean isScheduled(ScheduledTask task) {
+        return this.taskMap.containsKey(task.getUniqueId());
+    }
+
     protected Optional<Task> getTask(UUID id) {
         return Optional.<Task>ofNullable(this.taskMap.get(id));
     }
@@ -106,7 +121,7 @@ protected final void runTick() {
         this.preTick();
         TimingsManager.PLUGIN_SCHEDULER_HANDLER.startTimingIfSync();
         try {
-            this.taskMap.values().forEach(this::processTask);
+            this.processTasks();
             this.postTick();
         } finally {
             this.finallyPostTick();
@@ -114,6 +129,17 @@ protected final void runTick() {
         TimingsManager.PLUGIN_SCHEDULER_HANDLER.stopTimingIfSync();
     }
 
+    /**
+     * Processes the tasks which may be due, by default every task in the map.
+     */
+    protected void processTasks() {
+        this.taskMap.values().forEach(this::processTask);
+    }
+
+    protected Collection<ScheduledTask> getTasks() {
+        return this.taskMap.values();
+    }
+
     /**
      * Fired when the scheduler begins to tick, before any tasks are processed.
      */
@@ -145,6 +171,24 @@ protected void processTask(ScheduledTask task) {
             this.removeTask(task);
             return;
         }
+        if (this.isDue(task)) {
+            task.setState(ScheduledTask.ScheduledTaskState.SWITCHING);
+            task.setTimestamp(this.getTimestamp(task));
+            startTask(task);
+            // If task is one time shot, remove it from the map.
+            if (task.period == 0L) {
+                this.removeTask(task);
+            }
+        }
+    }
+
+    /**
+     * Gets whether the task should be started now.
+     *
+     * @param task The task
+     * @return True if the task is due
+     */
+    protected boolean isDue(ScheduledTask task) {
         long threshold = Long.MAX_VALUE;
         // Figure out if we start a delayed Task after threshold ticks or, start
         // it after the interval (period) of the repeating task parameter.
@@ -160,15 +204,7 @@ protected void processTask(ScheduledTask task) {
         // Repeating tasks get a reset-timestamp each time they are set RUNNING
         // If the task has a period of 0 (zero) this task will not repeat, and
         // is removed after we start it.
-        if (threshold <= (now - task.getTimestamp())) {
-            task.setState(ScheduledTask.ScheduledTaskState.SWITCHING);
-            task.setTimestamp(this.getTimestamp(task));
-            startTask(task);
-            // If task is one time shot, remove it from the map.
-            if (task.period == 0L) {
-                this.removeTask(task);
-            }
-        }
+        return threshold <= (now - task.getTimestamp());
     }
 
     /**
@@ -172,9 +172,14 @@ String getNameFor(PluginContainer plugin, ScheduledTask.TaskSynchronicity syncTy
     }
 
     void submit(ScheduledTask task) {
+        task.submitted = true;
         getDelegate(task).addTask(task);
     }
 
+    void cancel(ScheduledTask task) {
+        getDelegate(task).cancelTask(task);
+    }
+
     /**
      * Ticks the synchronous scheduler.
      */
@@ -185,4 +190,42 @@ public void tickSyncScheduler() {
     public <T> CompletableFuture<T> submitAsyncTask(Callable<T> callable) {
         return Functional.asyncFailableFuture(callable, this.asyncScheduler.getExecutor());
     }
+
+    /**
+     * Submits an internal task to its own lane of the async executor, which
+     * has threads of its own and is not limited by the plugin thread limit.
+     *
+     * @param lane The id of the lane
+     * @param callable The task
+     * @param <T> The result type
+     * @return The future of the result
+     */
+    public <T> CompletableFuture<T> submitAsyncTask(String lane, Callable<T> callable) {
+        final AsyncTaskExecutor executor = this.asyncScheduler.getExecutor();
+        return Functional.asyncFailableFuture(callable, runnable -> executor.executeInternal(lane, runnable));
+    }
+
+    /**
+     * Submits an internal task to its own lane of the async executor, which
+     * runs at most the given amount of tasks at once.
+     *
+     * @param lane The id of the lane
+     * @param threadLimit The maximum amount of threads of the lane
+     * @param callable The task
+     * @param <T> The result type
+     * @return The future of the result
+     */
+    public <T> CompletableFuture<T> submitAsyncTask(String lane, int threadLimit, Callable<T> callable) {
+        final AsyncTaskExecutor executor = this.asyncScheduler.getExecutor();
+        return Functional.asyncFailableFuture(callable, runnable -> executor.executeInternal(lane, threadLimit, runnable));
+    }
+
+    /**
+     * Gets the executor running the asynchronous tasks, for its metrics.
+     *
+     * @return The async task executor
+     */
+    public AsyncTaskExecutor getAsyncExecutor() {
+        return this.asyncScheduler.getExecutor();
+    }
 }
@@ -44,6 +44,7 @@ public class SpongeTaskBuilder implements Task.Builder {
     private long interval; //nanoseconds or ticks
     private boolean delayIsTicks;
     private boolean intervalIsTicks;
+    private boolean deferrable;
 
     public SpongeTaskBuilder(SpongeScheduler scheduler) {
         this.scheduler = scheduler;
@@ -94,6 +95,18 @@ public Task.Builder intervalTicks(long interval) {
         return this;
     }
 
+    /**
+     * Marks the task as deferrable. If the sync scheduler has a tick budget
+     * configured, deferrable tasks which are due after the budget is used up
+     * are postponed to a later tick. Has no effect on async tasks.
+     *
+     * @return This builder, for chaining
+     */
+    public SpongeTaskBuilder deferrable() {
+        this.deferrable = true;
+        return this;
+    }
+
     @Override
     public Task.Builder name(String name) {
         checkArgument(checkNotNull(name, "name").length() > 0, "Name cannot be empty");
@@ -120,7 +133,8 @@ public Task submit(Object plugin) {
             interval = intervalIsTicks ? interval * SpongeScheduler.TICK_DURATION_NS : interval;
             delayIsTicks = intervalIsTicks = false;
         }
-        ScheduledTask task = new ScheduledTask(this.syncType, this.consumer, name, delay, delayIsTicks, interval, intervalIsTicks, pluginContainer);
+        ScheduledTask task = new ScheduledTask(this.syncType, this.consumer, name, delay, delayIsTicks, interval, intervalIsTicks,
+                this.deferrable, pluginContainer);
         this.scheduler.submit(task);
         return task;
     }
@@ -132,6 +146,7 @@ public Task.Builder from(Task value) {
         this.interval = value.getInterval();
         this.delay = value.getDelay();
         this.delayIsTicks = false;
+        this.deferrable = value instanceof ScheduledTask && ((ScheduledTask) value).deferrable;
         this.name = value.getName();
         return this;
     }
@@ -143,6 +158,7 @@ public Task.Builder reset() {
         this.interval = 0;
         this.delay = 0;
         this.delayIsTicks = false;
+        this.deferrable = false;
         this.name = null;
         return this;
     }
@@ -24,17 +24,36 @@
  */
 package org.spongepowered.common.scheduler;
 
+import co.aikar.timings.TimingHistory;
+import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.event.tracking.CauseTracker;
 import org.spongepowered.common.event.tracking.PhaseContext;
 import org.spongepowered.common.event.tracking.phase.plugin.PluginPhase;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class SyncScheduler extends SchedulerBase {
 
+    private static final Comparator<ScheduledTask> DEFERRED_ORDER = (a, b) -> {
+        // Tasks which are not deferred yet sort last
+        final long first = a.deferredSince == -1 ? Long.MAX_VALUE : a.deferredSince;
+        final long second = b.deferredSince == -1 ? Long.MAX_VALUE : b.deferredSince;
+        return Long.compare(first, second);
+    };
+
     // The number of ticks elapsed since this scheduler began.
     private volatile long counter = 0L;
+    // The time tasks may take per tick before deferrable tasks are postponed
+    private final long tickBudget;
+    // The deferrable tasks which are due in the current tick, reused
+    private final List<ScheduledTask> deferrableTasks = new ArrayList<>();
 
     SyncScheduler() {
         super(ScheduledTask.TaskSynchronicity.SYNCHRONOUS);
+        this.tickBudget = TimeUnit.MILLISECONDS.toNanos(SpongeImpl.getGlobalConfig().getConfig().getScheduler().getSyncTickBudget());
     }
 
     /**
@@ -45,6 +64,45 @@ void tick() {
         this.runTick();
     }
 
+    @Override
+    protected void processTasks() {
+        if (this.tickBudget <= 0) {
+            super.processTasks();
+            return;
+        }
+        final long start = System.nanoTime();
+        for (ScheduledTask task : this.getTasks()) {
+            if (task.deferrable && task.getState() != ScheduledTask.ScheduledTaskState.CANCELED && this.isDue(task)) {
+                this.deferrableTasks.add(task);
+            } else {
+                this.processTask(task);
+            }
+        }
+        if (this.deferrableTasks.isEmpty()) {
+            return;
+        }
+        // The tasks which were postponed the longest go first
+        this.deferrableTasks.sort(DEFERRED_ORDER);
+        try {
+            for (ScheduledTask task : this.deferrableTasks) {
+                if (System.nanoTime() - start < this.tickBudget) {
+                    if (task.deferredSince != -1) {
+                        TimingHistory.maxDeferredTaskDelay = Math.max(TimingHistory.maxDeferredTaskDelay, this.counter - task.deferredSince);
+                        task.deferredSince = -1;
+                    }
+                    this.processTask(task);
+                } else {
+                    if (task.deferredSince == -1) {
+                        task.deferredSince = this.counter;
+                    }
+                    TimingHistory.deferredTasks++;
+                }
+            }
+        } finally {
+            this.deferrableTasks.clear();
+        }
+    }
+
     @Override
     protected long getTimestamp(ScheduledTask task) {
         if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
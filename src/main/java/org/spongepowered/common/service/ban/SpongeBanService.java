@@ -27,6 +27,7 @@
 import net.minecraft.server.management.UserListBans;
 import net.minecraft.server.management.UserListEntry;
 import net.minecraft.server.management.UserListIPBans;
+import net.minecraft.server.management.UserListIPBansEntry;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.event.SpongeEventFactory;
@@ -92,6 +93,10 @@ public Optional<Ban.Profile> getBanFor(GameProfile profile) {
     public Optional<Ban.Ip> getBanFor(InetAddress address) {
         UserListIPBans bans = this.getIPBanList();
 
+        if (bans instanceof SpongeIPBanList) {
+            // Also finds the range bans which contain the address
+            return Optional.ofNullable((Ban.Ip) ((SpongeIPBanList) bans).getBanFor(address));
+        }
         bans.removeExpired();
         return Optional.ofNullable((Ban.Ip) bans.getValues().get(bans.getObjectKey(bans.addressToString(new InetSocketAddress(address, 0)))));
     }
@@ -108,6 +113,9 @@ public boolean isBanned(GameProfile profile) {
     public boolean isBanned(InetAddress address) {
         UserListIPBans bans = this.getIPBanList();
 
+        if (bans instanceof SpongeIPBanList) {
+            return ((SpongeIPBanList) bans).getBanFor(address) != null;
+        }
         bans.removeExpired();
         return bans.getValues().containsKey(bans.getObjectKey(bans.addressToString(new InetSocketAddress(address, 0))));
     }
@@ -126,7 +134,9 @@ public boolean pardon(InetAddress address) {
 
         banList.removeExpired();
         InetSocketAddress inetSocketAddress = new InetSocketAddress(address, 0);
-        boolean hadBan = this.isBanned(address);
+        // Only the ban of the exact address is lifted, range bans which contain it stay in place
+        String key = banList.getObjectKey(banList.addressToString(inetSocketAddress));
+        boolean hadBan = banList.getValues().containsKey(key);
         UserListUtils.removeEntry(banList, banList.addressToString(inetSocketAddress));
         return hadBan;
     }
@@ -136,6 +146,15 @@ public boolean removeBan(Ban ban) {
         if (ban.getType().equals(BanTypes.PROFILE)) {
             return this.pardon(((Ban.Profile) ban).getProfile());
         } else if (ban.getType().equals(BanTypes.IP)) {
+            if (ban instanceof UserListIPBansEntry) {
+                // Range bans are stored under their CIDR notation instead of the address
+                UserListIPBans banList = this.getIPBanList();
+                Object value = ((UserListIPBansEntry) ban).getValue();
+                banList.removeExpired();
+                boolean hadBan = banList.getValues().containsKey(banList.getObjectKey(value));
+                UserListUtils.removeEntry(banList, value);
+                return hadBan;
+            }
             return this.pardon(((Ban.Ip) ban).getAddress());
         }
         throw new IllegalArgumentException(String.format("Ban %s had unrecognized BanType %s!", ban, ban.getType()));
@@ -26,11 +26,14 @@
 
 import static org.spongepowered.common.util.NetworkUtil.LOCAL_ADDRESS;
 
+import com.google.common.collect.ForwardingMap;
 import net.minecraft.server.management.UserListIPBans;
 import net.minecraft.server.management.UserListIPBansEntry;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.service.ban.BanService;
 import org.spongepowered.api.util.ban.Ban;
+import org.spongepowered.common.interfaces.IMixinIPBanEntry;
+import org.spongepowered.common.util.IpPrefixTrie;
 import org.spongepowered.common.util.NetworkUtil;
 
 import java.io.File;
@@ -39,17 +42,38 @@
 import java.net.SocketAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
 /**
  * Redirects all calls to the {@link BanService}.
+ *
+ * <p>The entries are indexed by their address prefix, a lookup of an address
+ * finds single address and range bans without scanning the entries. Expired
+ * entries are removed in the order they expire.</p>
+ *
+ * <p>Logins look up bans off the main thread, so the entries are concurrent
+ * and the index and expirations are only used while holding the lock of
+ * this list.</p>
  */
 public class SpongeIPBanList extends UserListIPBans {
 
+    private final IpPrefixTrie<UserListIPBansEntry> index = new IpPrefixTrie<>();
+    private final PriorityQueue<UserListIPBansEntry> expirations = new PriorityQueue<>(
+            Comparator.comparing(UserListIPBansEntry::getBanEndDate));
+
     public SpongeIPBanList(File bansFile) {
         super(bansFile);
+        this.values = new IndexedEntries();
     }
 
     private static BanService getService() {
@@ -100,7 +124,14 @@ public void removeEntry(String entry) {
     public String[] getKeys() {
         List<String> ips = new ArrayList<>();
         for (Ban.Ip ban : getService().getIpBans()) {
-            ips.add(this.addressToString(new InetSocketAddress(ban.getAddress(), 0)));
+            // Bans of other ban services don't have to be vanilla entries, they always ban a single address
+            if (ban instanceof IMixinIPBanEntry && ban instanceof UserListIPBansEntry
+                    && ((IMixinIPBanEntry) ban).getPrefixLength() < ban.getAddress().getAddress().length * 8) {
+                // Range bans are keyed by their CIDR notation, the address alone would ban a single address
+                ips.add(((UserListIPBansEntry) ban).getValue());
+            } else {
+                ips.add(this.addressToString(new InetSocketAddress(ban.getAddress(), 0)));
+            }
         }
         return ips.toArray(new String[ips.size()]);
     }
@@ -115,6 +146,33 @@ public boolean isEmpty() {
         return getService().getIpBans().isEmpty();
     }
 
+    /**
+     * Gets the ban of the longest address prefix which contains the address.
+     *
+     * @param address The address
+     * @return The ban, or null if the address isn't banned
+     */
+    @Nullable
+    synchronized UserListIPBansEntry getBanFor(InetAddress address) {
+        removeExpired();
+        return this.index.get(address);
+    }
+
+    @Override
+    public synchronized void removeExpired() {
+        final Date now = new Date();
+        UserListIPBansEntry entry;
+        while ((entry = this.expirations.peek()) != null && entry.getBanEndDate().before(now)) {
+            final String key = getObjectKey(entry.getValue());
+            if (this.values.get(key) == entry) {
+                // Removing the entry also removes it from the expirations
+                this.values.remove(key);
+            } else {
+                this.expirations.poll();
+            }
+        }
+    }
+
     /**
      * @author Minecrell - August 22nd, 2016
      * @reason Use InetSocketAddress#getHostString() where possible (instead of
@@ -125,4 +183,81 @@ public String addressToString(SocketAddress address) {
         return NetworkUtil.getHostString(address);
     }
 
+    /**
+     * The entries of the list, which keep the index and expirations up to
+     * date. The views are read only as their changes couldn't be tracked.
+     */
+    private final class IndexedEntries extends ForwardingMap<String, UserListIPBansEntry> {
+
+        private final Map<String, UserListIPBansEntry> entries = new ConcurrentHashMap<>();
+
+        @Override
+        protected Map<String, UserListIPBansEntry> delegate() {
+            return this.entries;
+        }
+
+        @Override
+        public UserListIPBansEntry put(String key, UserListIPBansEntry value) {
+            synchronized (SpongeIPBanList.this) {
+                final UserListIPBansEntry previous = this.entries.put(key, value);
+                if (previous != null) {
+                    unindex(previous);
+                }
+                final IMixinIPBanEntry entry = (IMixinIPBanEntry) value;
+                SpongeIPBanList.this.index.add(((Ban.Ip) value).getAddress(), entry.getPrefixLength(), value);
+                if (value.getBanEndDate() != null) {
+                    SpongeIPBanList.this.expirations.add(value);
+                }
+                return previous;
+            }
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ? extends UserListIPBansEntry> map) {
+            standardPutAll(map);
+        }
+
+        @Override
+        public UserListIPBansEntry remove(Object key) {
+            synchronized (SpongeIPBanList.this) {
+                final UserListIPBansEntry previous = this.entries.remove(key);
+                if (previous != null) {
+                    unindex(previous);
+                }
+                return previous;
+            }
+        }
+
+        @Override
+        public void clear() {
+            synchronized (SpongeIPBanList.this) {
+                this.entries.clear();
+                SpongeIPBanList.this.index.clear();
+                SpongeIPBanList.this.expirations.clear();
+            }
+        }
+
+        private void unindex(UserListIPBansEntry entry) {
+            SpongeIPBanList.this.index.remove(((Ban.Ip) entry).getAddress(), ((IMixinIPBanEntry) entry).getPrefixLength(), entry);
+            if (entry.getBanEndDate() != null) {
+                // Entries don't override equals, only this entry is removed
+                SpongeIPBanList.this.expirations.remove(entry);
+            }
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.unmodifiableSet(this.entries.keySet());
+        }
+
+        @Override
+        public Collection<UserListIPBansEntry> values() {
+            return Collections.unmodifiableCollection(this.entries.values());
+        }
+
+        @Override
+        public Set<Entry<String, UserListIPBansEntry>> entrySet() {
+            return Collections.unmodifiableSet(this.entries.entrySet());
+        }
+    }
 }
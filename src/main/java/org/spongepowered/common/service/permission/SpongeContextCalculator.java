@@ -28,50 +28,51 @@
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
 import org.spongepowered.api.command.CommandSource;
 import org.spongepowered.api.command.source.RemoteSource;
+import org.spongepowered.api.network.RemoteConnection;
 import org.spongepowered.api.service.context.ContextCalculator;
 import org.spongepowered.api.service.context.Context;
 import org.spongepowered.api.service.permission.Subject;
 import org.spongepowered.api.world.Locatable;
 import org.spongepowered.api.world.World;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.util.IpSetTrie;
 
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
 
-import static com.google.common.base.Preconditions.checkNotNull;
+import javax.annotation.Nullable;
 
 /**
  * A context calculator handling world contexts.
  */
 public class SpongeContextCalculator implements ContextCalculator<Subject> {
-    private final LoadingCache<RemoteSource, Set<Context>> remoteIpCache = buildAddressCache(Context.REMOTE_IP_KEY,
-                                                                                             input -> input.getConnection().getAddress().getAddress());
 
-    private final LoadingCache<RemoteSource, Set<Context>> localIpCache = buildAddressCache(Context.LOCAL_IP_KEY,
-                                                                                            input -> input.getConnection().getVirtualHost().getAddress());
-
-    private LoadingCache<RemoteSource, Set<Context>> buildAddressCache(final String contextKey, final Function<RemoteSource, InetAddress> function) {
-        return CacheBuilder.newBuilder()
+    /**
+     * The contexts of the connection of a remote source never change, they
+     * are computed once for every source and reused by every permission check.
+     */
+    private final LoadingCache<RemoteSource, ConnectionContexts> connectionCache = CacheBuilder.newBuilder()
             .weakKeys()
-            .build(new CacheLoader<RemoteSource, Set<Context>>() {
+            .build(new CacheLoader<RemoteSource, ConnectionContexts>() {
                 @Override
-                public Set<Context> load(RemoteSource key) throws Exception {
-                    ImmutableSet.Builder<Context> builder = ImmutableSet.builder();
-                    final InetAddress addr = checkNotNull(function.apply(key), "addr");
-                    builder.add(new Context(contextKey, addr.getHostAddress()));
-                    for (String set : Maps.filterValues(SpongeImpl.getGlobalConfig().getConfig().getIpSets(), input -> {
-                        return input.apply(addr);
-                    }).keySet()) {
-                        builder.add(new Context(contextKey, set));
-                    }
-                    return builder.build();
+                public ConnectionContexts load(RemoteSource key) throws Exception {
+                    return new ConnectionContexts(key.getConnection(), SpongeImpl.getGlobalConfig().getConfig().getIpSetTrie());
                 }
             });
+
+    private Set<Context> getConnectionContexts(RemoteSource source) {
+        ConnectionContexts contexts = this.connectionCache.getUnchecked(source);
+        final IpSetTrie ipSets = SpongeImpl.getGlobalConfig().getConfig().getIpSetTrie();
+        if (contexts.ipSets != ipSets) {
+            // The ip sets were reloaded
+            contexts = new ConnectionContexts(source.getConnection(), ipSets);
+            this.connectionCache.put(source, contexts);
+        }
+        return contexts.contexts;
     }
 
     @Override
@@ -85,11 +86,7 @@ public void accumulateContexts(Subject subject, Set<Context> accumulator) {
                 accumulator.add((currentExt.getDimension().getContext()));
             }
             if (source instanceof RemoteSource) {
-                RemoteSource rem = (RemoteSource) source;
-                accumulator.addAll(this.remoteIpCache.getUnchecked(rem));
-                accumulator.addAll(this.localIpCache.getUnchecked(rem));
-                accumulator.add(new Context(Context.LOCAL_PORT_KEY, String.valueOf(rem.getConnection().getVirtualHost().getPort())));
-                accumulator.add(new Context(Context.LOCAL_HOST_KEY, rem.getConnection().getVirtualHost().getHostName()));
+                accumulator.addAll(getConnectionContexts((RemoteSource) source));
             }
         }
 
@@ -109,18 +106,42 @@ public boolean matches(Context context, Subject subject) {
                 }
             }
             if (source instanceof RemoteSource) {
-                RemoteSource remote = (RemoteSource) source;
-                if (context.getType().equals(Context.LOCAL_HOST_KEY)) {
-                    return context.getValue().equals(remote.getConnection().getVirtualHost().getHostName());
-                } else if (context.getType().equals(Context.LOCAL_PORT_KEY)) {
-                    return context.getValue().equals(String.valueOf(remote.getConnection().getVirtualHost().getPort()));
-                } else if (context.getType().equals(Context.LOCAL_IP_KEY)) {
-                    return this.localIpCache.getUnchecked(remote).contains(context);
-                } else if (context.getType().equals(Context.REMOTE_IP_KEY)) {
-                    return this.remoteIpCache.getUnchecked(remote).contains(context);
+                final String type = context.getType();
+                if (type.equals(Context.LOCAL_HOST_KEY) || type.equals(Context.LOCAL_PORT_KEY)
+                        || type.equals(Context.LOCAL_IP_KEY) || type.equals(Context.REMOTE_IP_KEY)) {
+                    return getConnectionContexts((RemoteSource) source).contains(context);
                 }
             }
         }
         return false;
     }
+
+    private static final class ConnectionContexts {
+
+        final IpSetTrie ipSets;
+        final Set<Context> contexts;
+
+        ConnectionContexts(RemoteConnection connection, IpSetTrie ipSets) {
+            this.ipSets = ipSets;
+            final ImmutableSet.Builder<Context> builder = ImmutableSet.builder();
+            addAddress(builder, Context.REMOTE_IP_KEY, connection.getAddress().getAddress());
+            final InetSocketAddress virtualHost = connection.getVirtualHost();
+            addAddress(builder, Context.LOCAL_IP_KEY, virtualHost.getAddress());
+            builder.add(new Context(Context.LOCAL_PORT_KEY, String.valueOf(virtualHost.getPort())));
+            // The host string never triggers a reverse lookup
+            builder.add(new Context(Context.LOCAL_HOST_KEY, virtualHost.getHostString()));
+            this.contexts = builder.build();
+        }
+
+        private void addAddress(ImmutableSet.Builder<Context> builder, String contextKey, @Nullable InetAddress address) {
+            // Unresolved addresses, e.g. of singleplayer connections, don't have ip contexts
+            if (address == null) {
+                return;
+            }
+            builder.add(new Context(contextKey, address.getHostAddress()));
+            for (String set : this.ipSets.getMatchingSets(address)) {
+                builder.add(new Context(contextKey, set));
+            }
+        }
+    }
 }
@@ -51,6 +51,8 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -73,6 +75,10 @@ public class SpongePermissionService implements PermissionService {
     private final ConcurrentMap<String, SpongeSubjectCollection> subjects = new ConcurrentHashMap<>();
     private final SpongeSubjectCollection defaultCollection;
     private final SpongeSubject defaultData;
+    private final AtomicInteger permissionVersion = new AtomicInteger();
+    private volatile boolean usersInherited;
+    private final LongAdder permissionCacheHits = new LongAdder();
+    private final LongAdder permissionCacheMisses = new LongAdder();
 
     public SpongePermissionService(Game game) {
         this.game = game;
@@ -217,4 +223,55 @@ public Collection<PermissionDescription> getDescriptions() {
     public SpongeSubjectCollection getDefaultCollection() {
         return this.defaultCollection;
     }
+
+    /**
+     * Gets the version of the permissions of all subjects, it changes
+     * whenever the permissions or parents of any subject change.
+     *
+     * @return The version
+     */
+    public int getPermissionVersion() {
+        return this.permissionVersion.get();
+    }
+
+    /**
+     * Discards the resolved permissions cached by all subjects.
+     */
+    public void invalidateResolvedPermissions() {
+        this.permissionVersion.incrementAndGet();
+    }
+
+    /**
+     * Gets whether any subject has a user as its parent. Until then changes
+     * of user data only discard the permissions cached by the user itself.
+     *
+     * @return Whether users are inherited
+     */
+    public boolean areUsersInherited() {
+        return this.usersInherited;
+    }
+
+    /**
+     * Marks users as inherited by other subjects, once a user was added as a
+     * parent.
+     */
+    public void setUsersInherited() {
+        this.usersInherited = true;
+    }
+
+    public void countPermissionLookup(boolean cached) {
+        if (cached) {
+            this.permissionCacheHits.increment();
+        } else {
+            this.permissionCacheMisses.increment();
+        }
+    }
+
+    public long getPermissionCacheHits() {
+        return this.permissionCacheHits.sum();
+    }
+
+    public long getPermissionCacheMisses() {
+        return this.permissionCacheMisses.sum();
+    }
 }
@@ -77,6 +77,12 @@ public void setParent(SubjectReference parent) {
                     SpongePermissionService.getOps().removeEntry(player);
                 }
             }
+
+            @Override
+            protected boolean isShared() {
+                // Users are usually only inherited by the subjects wrapping them, which track their data themselves
+                return users.getService().areUsersInherited();
+            }
         };
         this.collection = users;
     }
@@ -112,6 +118,12 @@ int getOpLevel() {
         }
     }
 
+    @Override
+    protected long getPermissionState() {
+        // The parent of the user depends on the ops list
+        return Sponge.isServerAvailable() ? getOpLevel() : 0;
+    }
+
     @Override
     public SubjectCollection getContainingCollection() {
         return this.collection;
@@ -128,8 +140,8 @@ public PermissionService getService() {
     }
 
     @Override
-    public Tristate getPermissionValue(Set<Context> contexts, String permission) {
-        Tristate ret = super.getPermissionValue(contexts, permission);
+    protected Tristate resolvePermissionValue(Set<Context> contexts, String permission) {
+        Tristate ret = super.resolvePermissionValue(contexts, permission);
         if (ret == Tristate.UNDEFINED) {
             ret = getDataPermissionValue(this.collection.getDefaults().getSubjectData(), permission);
         }
@@ -30,14 +30,19 @@
 import org.spongepowered.api.service.permission.PermissionService;
 import org.spongepowered.api.service.permission.SubjectReference;
 import org.spongepowered.api.util.Tristate;
+import org.spongepowered.common.service.permission.SpongePermissionService;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GlobalMemorySubjectData extends MemorySubjectData {
 
+    private final PermissionService service;
+    private final AtomicInteger version = new AtomicInteger();
+
     /**
      * Creates a new subject data instance, using the provided service to request instances of permission subjects.
      *
@@ -45,9 +50,9 @@ public class GlobalMemorySubjectData extends MemorySubjectData {
      */
     public GlobalMemorySubjectData(PermissionService service) {
         super(service);
+        this.service = service;
     }
 
-
     @Override
     public Map<Set<Context>, List<SubjectReference>> getAllParents() {
         return ImmutableMap.of(GLOBAL_CONTEXT, getParents(GLOBAL_CONTEXT));
@@ -58,7 +63,7 @@ public CompletableFuture<Boolean> setPermission(Set<Context> contexts, String pe
         if (!contexts.isEmpty()) {
             return CompletableFuture.completedFuture(false);
         }
-        return super.setPermission(contexts, permission, value);
+        return invalidateResolvedPermissions(super.setPermission(contexts, permission, value));
     }
 
     @Override
@@ -66,7 +71,12 @@ public CompletableFuture<Boolean> clearPermissions(Set<Context> contexts) {
         if (!contexts.isEmpty()) {
             return CompletableFuture.completedFuture(false);
         }
-        return super.clearPermissions(contexts);
+        return invalidateResolvedPermissions(super.clearPermissions(contexts));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> clearPermissions() {
+        return invalidateResolvedPermissions(super.clearPermissions());
     }
 
     @Override
@@ -74,7 +84,11 @@ public CompletableFuture<Boolean> addParent(Set<Context> contexts, SubjectRefere
         if (!contexts.isEmpty()) {
             return CompletableFuture.completedFuture(false);
         }
-        return super.addParent(contexts, parent);
+        if (this.service instanceof SpongePermissionService && PermissionService.SUBJECTS_USER.equals(parent.getCollectionIdentifier())) {
+            // Changes of user data can affect other subjects from now on
+            ((SpongePermissionService) this.service).setUsersInherited();
+        }
+        return invalidateResolvedPermissions(super.addParent(contexts, parent));
     }
 
     @Override
@@ -82,7 +96,7 @@ public CompletableFuture<Boolean> removeParent(Set<Context> contexts, SubjectRef
         if (!contexts.isEmpty()) {
             return CompletableFuture.completedFuture(false);
         }
-        return super.removeParent(contexts, parent);
+        return invalidateResolvedPermissions(super.removeParent(contexts, parent));
     }
 
     @Override
@@ -90,6 +104,48 @@ public CompletableFuture<Boolean> clearParents(Set<Context> contexts) {
         if (!contexts.isEmpty()) {
             return CompletableFuture.completedFuture(false);
         }
-        return super.clearParents(contexts);
+        return invalidateResolvedPermissions(super.clearParents(contexts));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> clearParents() {
+        return invalidateResolvedPermissions(super.clearParents());
+    }
+
+    /**
+     * Gets the version of this data, it changes whenever the permissions or
+     * parents of this data change.
+     *
+     * @return The version
+     */
+    public int getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * Gets whether this data belongs to a subject which can be inherited by
+     * other subjects. Changes of data which isn't shared only discard the
+     * permissions cached by its own subject.
+     *
+     * @return Whether this data is shared
+     */
+    protected boolean isShared() {
+        return true;
+    }
+
+    /**
+     * Discards the permissions cached by the subjects of the service, must be
+     * called after the permissions or parents of this data changed.
+     */
+    protected void invalidateResolvedPermissions() {
+        this.version.incrementAndGet();
+        if (isShared() && this.service instanceof SpongePermissionService) {
+            ((SpongePermissionService) this.service).invalidateResolvedPermissions();
+        }
+    }
+
+    private CompletableFuture<Boolean> invalidateResolvedPermissions(CompletableFuture<Boolean> result) {
+        invalidateResolvedPermissions();
+        return result;
     }
 }
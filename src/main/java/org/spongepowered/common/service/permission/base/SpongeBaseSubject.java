@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.service.permission.base;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.spongepowered.api.service.context.Context;
 import org.spongepowered.api.service.permission.MemorySubjectData;
 import org.spongepowered.api.service.permission.PermissionService;
@@ -31,13 +33,25 @@
 import org.spongepowered.api.service.permission.SubjectData;
 import org.spongepowered.api.service.permission.SubjectReference;
 import org.spongepowered.api.util.Tristate;
+import org.spongepowered.common.service.permission.SpongePermissionService;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 public abstract class SpongeBaseSubject implements Subject {
 
+    /**
+     * The maximum amount of resolved permission values that are cached per
+     * subject, permission checks with generated nodes would grow the cache
+     * without limit otherwise.
+     */
+    private static final int MAX_RESOLVED_PERMISSIONS = 2048;
+
+    @Nullable private volatile ResolvedPermissions resolvedPermissions;
+
     public abstract PermissionService getService();
 
     @Override
@@ -58,11 +72,84 @@ public boolean hasPermission(Set<Context> contexts, String permission) {
         return getPermissionValue(contexts, permission) == Tristate.TRUE;
     }
 
+    /**
+     * Gets the value of the permission, the values resolved through the
+     * parents and defaults are cached until the permissions or parents of any
+     * subject of the service change. The contexts are not part of the cache
+     * as subjects of the sponge permission service only have global data. At
+     * most {@link #MAX_RESOLVED_PERMISSIONS} values are kept, the least
+     * recently used ones are resolved again.
+     */
     @Override
     public Tristate getPermissionValue(Set<Context> contexts, String permission) {
+        final PermissionService service = getService();
+        final MemorySubjectData data = getTransientSubjectData();
+        if (!(service instanceof SpongePermissionService) || !(data instanceof GlobalMemorySubjectData)) {
+            // Changes of the data aren't tracked, resolve it every time
+            return resolvePermissionValue(contexts, permission);
+        }
+        final SpongePermissionService spongeService = (SpongePermissionService) service;
+        // Read the versions before resolving, a change while resolving invalidates the new value
+        final int version = spongeService.getPermissionVersion();
+        final int dataVersion = ((GlobalMemorySubjectData) data).getVersion();
+        final long state = getPermissionState();
+        ResolvedPermissions resolved = this.resolvedPermissions;
+        if (resolved == null || resolved.version != version || resolved.dataVersion != dataVersion || resolved.state != state) {
+            resolved = new ResolvedPermissions(version, dataVersion, state);
+            this.resolvedPermissions = resolved;
+        }
+        Tristate value = resolved.values.getIfPresent(permission);
+        if (value != null) {
+            spongeService.countPermissionLookup(true);
+            return value;
+        }
+        spongeService.countPermissionLookup(false);
+        value = resolvePermissionValue(contexts, permission);
+        resolved.values.put(permission, value);
+        return value;
+    }
+
+    /**
+     * Resolves the value of the permission through the data, parents and
+     * defaults of this subject.
+     *
+     * @param contexts The contexts
+     * @param permission The permission
+     * @return The value
+     */
+    protected Tristate resolvePermissionValue(Set<Context> contexts, String permission) {
         return getDataPermissionValue(getTransientSubjectData(), permission);
     }
 
+    /**
+     * Gets the state of permission sources outside of the permission service
+     * that affect the resolved permissions of this subject. Cached values are
+     * discarded when it changes.
+     *
+     * @return The state
+     */
+    protected long getPermissionState() {
+        return 0;
+    }
+
+    /**
+     * Gets the state of a parent subject whose changes aren't tracked by the
+     * version of the service, made up of its own state and the version of
+     * its data.
+     *
+     * @param subject The parent subject
+     * @return The state
+     */
+    protected static long getPermissionState(Subject subject) {
+        if (!(subject instanceof SpongeBaseSubject)) {
+            return 0;
+        }
+        final SpongeBaseSubject parent = (SpongeBaseSubject) subject;
+        final MemorySubjectData data = parent.getTransientSubjectData();
+        final int dataVersion = data instanceof GlobalMemorySubjectData ? ((GlobalMemorySubjectData) data).getVersion() : 0;
+        return parent.getPermissionState() << 32 | dataVersion & 0xFFFFFFFFL;
+    }
+
     protected Tristate getDataPermissionValue(MemorySubjectData subject, String permission) {
         Tristate res = subject.getNodeTree(SubjectData.GLOBAL_CONTEXT).get(permission);
 
@@ -112,4 +199,20 @@ public Optional<String> getOption(Set<Context> contexts, String key) {
     public Set<Context> getActiveContexts() {
         return SubjectData.GLOBAL_CONTEXT;
     }
+
+    private static final class ResolvedPermissions {
+
+        final int version;
+        final int dataVersion;
+        final long state;
+        final Cache<String, Tristate> values = CacheBuilder.newBuilder()
+                .maximumSize(MAX_RESOLVED_PERMISSIONS)
+                .build();
+
+        ResolvedPermissions(int version, int dataVersion, long state) {
+            this.version = version;
+            this.dataVersion = dataVersion;
+            this.state = state;
+        }
+    }
 }
@@ -24,6 +24,7 @@
  */
 package org.spongepowered.common.text.chat;
 
+import net.minecraft.network.play.server.SPacketChat;
 import net.minecraft.util.text.ITextComponent;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.CommandSource;
@@ -35,17 +36,50 @@
 import org.spongepowered.api.event.message.MessageEvent.MessageFormatter;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.channel.MessageChannel;
+import org.spongepowered.api.text.chat.ChatType;
 import org.spongepowered.api.text.chat.ChatTypes;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.network.play.server.IMixinSharedPacket;
 import org.spongepowered.common.text.SpongeTexts;
 
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 public final class ChatUtil {
 
+    /**
+     * The packet of the last message sent to a player. A channel passes the
+     * same text instance to all of its members unless it changes the message
+     * per member, so a broadcast converts and encodes the text only once.
+     */
+    @Nullable private static volatile CachedChatPacket lastChatPacket;
+
     private ChatUtil() {
     }
 
+    /**
+     * Gets the packet which sends the message to a player.
+     *
+     * @param type The chat type
+     * @param message The message
+     * @return The packet
+     */
+    public static SPacketChat getChatPacket(ChatType type, Text message) {
+        final CachedChatPacket cached = lastChatPacket;
+        if (cached != null && cached.message == message && cached.type == type) {
+            ((IMixinSharedPacket) cached.packet).shareEncoding();
+            return cached.packet;
+        }
+        ITextComponent component = SpongeTexts.toComponent(message);
+        if (type == ChatTypes.ACTION_BAR) {
+            component = SpongeTexts.fixActionBarFormatting(component);
+        }
+        final SPacketChat packet = new SPacketChat(component, (net.minecraft.util.text.ChatType) (Object) type);
+        lastChatPacket = new CachedChatPacket(type, message, packet);
+        return packet;
+    }
+
     public static void sendMessage(ITextComponent component, MessageChannel channel, CommandSource source, boolean isChat) {
         Text raw = SpongeTexts.toText(component);
         MessageFormatter formatter = new MessageEvent.MessageFormatter(raw);
@@ -62,4 +96,16 @@ public static void sendMessage(ITextComponent component, MessageChannel channel,
         }
     }
 
+    private static final class CachedChatPacket {
+
+        final ChatType type;
+        final Text message;
+        final SPacketChat packet;
+
+        CachedChatPacket(ChatType type, Text message, SPacketChat packet) {
+            this.type = type;
+            this.message = message;
+            this.packet = packet;
+        }
+    }
 }
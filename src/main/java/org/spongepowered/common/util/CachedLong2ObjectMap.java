@@ -27,29 +27,73 @@
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.spongepowered.common.interfaces.IMixinCachable;
 
-import javax.annotation.Nullable;
+import java.util.Arrays;
 
+/**
+ * A map keyed by packed chunk coordinates, as created by
+ * {@link net.minecraft.util.math.ChunkPos#asLong(int, int)}, which caches
+ * recently retrieved values in a small direct mapped table.
+ *
+ * <p>The slot of a key is taken from the lowest bits of its x and z
+ * coordinates, so an area of {@link #CACHE_WIDTH} by {@link #CACHE_WIDTH}
+ * adjacent chunks never competes for the same slot and lookups which
+ * alternate between neighboring chunks don't need to hash.</p>
+ */
 public class CachedLong2ObjectMap<V extends IMixinCachable> extends Long2ObjectOpenHashMap<V> {
 
     private static final long serialVersionUID = 190617916448550012L;
-    @Nullable private V lastRetrievedValue = null;
 
+    private static final int CACHE_BITS = 3;
+    static final int CACHE_WIDTH = 1 << CACHE_BITS;
+    private static final int CACHE_MASK = CACHE_WIDTH - 1;
+
+    private final IMixinCachable[] cache = new IMixinCachable[CACHE_WIDTH * CACHE_WIDTH];
+
+    private static int getSlot(long key) {
+        return ((int) key & CACHE_MASK) | ((int) (key >>> 32) & CACHE_MASK) << CACHE_BITS;
+    }
+
+    @SuppressWarnings("unchecked")
     @Override
     public V get(long key) {
-        if (this.lastRetrievedValue != null && key == this.lastRetrievedValue.getCacheKey()) {
-            return this.lastRetrievedValue;
+        final int slot = getSlot(key);
+        final IMixinCachable cached = this.cache[slot];
+        if (cached != null && cached.getCacheKey() == key && cached.isCacheValid()) {
+            return (V) cached;
+        }
+        final V value = super.get(key);
+        if (value != null) {
+            this.cache[slot] = value;
         }
-        return this.lastRetrievedValue = super.get(key);
+        return value;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        final int slot = getSlot(key);
+        final IMixinCachable cached = this.cache[slot];
+        if (cached != null && cached.getCacheKey() == key) {
+            this.cache[slot] = null;
+        }
+        return super.put(key, value);
     }
 
     @Override
     public V remove(long key) {
-        if (this.lastRetrievedValue != null && key == this.lastRetrievedValue.getCacheKey()) {
-            this.lastRetrievedValue = null;
+        final int slot = getSlot(key);
+        final IMixinCachable cached = this.cache[slot];
+        if (cached != null && cached.getCacheKey() == key) {
+            this.cache[slot] = null;
         }
         return super.remove(key);
     }
 
+    @Override
+    public void clear() {
+        Arrays.fill(this.cache, null);
+        super.clear();
+    }
+
     @Override
     public boolean containsKey(long key) {
         return this.get(key) != null;
@@ -0,0 +1,196 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A binary trie which maps address prefixes to values, single addresses are
+ * prefixes of the full address length. Looking up an address walks at most
+ * one node per address bit and finds the value of the longest prefix which
+ * contains it.
+ *
+ * <p>A prefix can hold multiple values, which are returned in the order
+ * they were added.</p>
+ *
+ * @param <V> The type of the values
+ */
+public final class IpPrefixTrie<V> {
+
+    private final Node<V> ipv4Root = new Node<>();
+    private final Node<V> ipv6Root = new Node<>();
+    private int size;
+
+    /**
+     * Adds a value for all addresses which start with the prefix.
+     *
+     * @param address The address of the prefix
+     * @param prefixLength The length of the prefix in bits
+     * @param value The value
+     */
+    public void add(InetAddress address, int prefixLength, V value) {
+        checkNotNull(value, "value");
+        final byte[] bytes = checkNotNull(address, "address").getAddress();
+        checkArgument(prefixLength >= 0 && prefixLength <= bytes.length << 3, "Invalid prefix length %s for %s", prefixLength, address);
+        Node<V> node = getRoot(bytes);
+        for (int bit = 0; bit < prefixLength; bit++) {
+            Node<V> child = node.getChild(isSet(bytes, bit));
+            if (child == null) {
+                child = new Node<>();
+                node.setChild(isSet(bytes, bit), child);
+            }
+            node = child;
+        }
+        if (node.values == null) {
+            node.values = new ArrayList<>(1);
+        }
+        node.values.add(value);
+        this.size++;
+    }
+
+    /**
+     * Removes a value of the prefix.
+     *
+     * @param address The address of the prefix
+     * @param prefixLength The length of the prefix in bits
+     * @param value The value
+     * @return Whether the value was removed
+     */
+    public boolean remove(InetAddress address, int prefixLength, V value) {
+        final byte[] bytes = checkNotNull(address, "address").getAddress();
+        if (prefixLength < 0 || prefixLength > bytes.length << 3) {
+            return false;
+        }
+        // Remember the path to prune the nodes that became empty
+        @SuppressWarnings("unchecked")
+        final Node<V>[] path = new Node[prefixLength + 1];
+        Node<V> node = getRoot(bytes);
+        path[0] = node;
+        for (int bit = 0; bit < prefixLength; bit++) {
+            node = node.getChild(isSet(bytes, bit));
+            if (node == null) {
+                return false;
+            }
+            path[bit + 1] = node;
+        }
+        if (node.values == null || !node.values.remove(value)) {
+            return false;
+        }
+        this.size--;
+        if (node.values.isEmpty()) {
+            node.values = null;
+        }
+        for (int bit = prefixLength - 1; bit >= 0 && path[bit + 1].isEmpty(); bit--) {
+            path[bit].setChild(isSet(bytes, bit), null);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the value of the longest prefix which contains the address.
+     *
+     * @param address The address
+     * @return The value, or null if no prefix contains the address
+     */
+    @Nullable
+    public V get(InetAddress address) {
+        final byte[] bytes = checkNotNull(address, "address").getAddress();
+        final int bits = bytes.length << 3;
+        Node<V> node = getRoot(bytes);
+        V value = null;
+        for (int bit = 0; node != null; bit++) {
+            if (node.values != null) {
+                value = node.values.get(0);
+            }
+            node = bit == bits ? null : node.getChild(isSet(bytes, bit));
+        }
+        return value;
+    }
+
+    /**
+     * Gets whether any prefix contains the address.
+     *
+     * @param address The address
+     * @return Whether the address is contained
+     */
+    public boolean contains(InetAddress address) {
+        return get(address) != null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void clear() {
+        this.ipv4Root.clear();
+        this.ipv6Root.clear();
+        this.size = 0;
+    }
+
+    private Node<V> getRoot(byte[] address) {
+        return address.length == 4 ? this.ipv4Root : this.ipv6Root;
+    }
+
+    private static boolean isSet(byte[] address, int bit) {
+        return (address[bit >> 3] & (0x80 >> (bit & 7))) != 0;
+    }
+
+    private static final class Node<V> {
+
+        @Nullable Node<V> zero;
+        @Nullable Node<V> one;
+        @Nullable List<V> values;
+
+        @Nullable
+        Node<V> getChild(boolean one) {
+            return one ? this.one : this.zero;
+        }
+
+        void setChild(boolean one, @Nullable Node<V> child) {
+            if (one) {
+                this.one = child;
+            } else {
+                this.zero = child;
+            }
+        }
+
+        boolean isEmpty() {
+            return this.zero == null && this.one == null && this.values == null;
+        }
+
+        void clear() {
+            this.zero = null;
+            this.one = null;
+            this.values = null;
+        }
+    }
+}
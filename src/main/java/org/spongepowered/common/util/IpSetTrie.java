@@ -0,0 +1,135 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A binary prefix trie of the addresses of named {@link IpSet} lists, which
+ * finds all lists containing an address in a single walk over its bits.
+ *
+ * <p>An address is part of a list if it is contained by every ip set of the
+ * list, an empty list contains every address.</p>
+ */
+public final class IpSetTrie {
+
+    private static final int[] NO_LISTS = new int[0];
+
+    private final String[] names;
+    private final int[] required;
+    private final Node ipv4Root = new Node();
+    private final Node ipv6Root = new Node();
+
+    private IpSetTrie(int size) {
+        this.names = new String[size];
+        this.required = new int[size];
+    }
+
+    public static IpSetTrie compile(Map<String, ? extends Collection<IpSet>> ipSets) {
+        final IpSetTrie trie = new IpSetTrie(checkNotNull(ipSets, "ipSets").size());
+        int index = 0;
+        for (Map.Entry<String, ? extends Collection<IpSet>> entry : ipSets.entrySet()) {
+            trie.names[index] = entry.getKey();
+            for (IpSet ipSet : entry.getValue()) {
+                if (trie.insert(ipSet, index)) {
+                    trie.required[index]++;
+                }
+            }
+            index++;
+        }
+        return trie;
+    }
+
+    private boolean insert(IpSet ipSet, int index) {
+        final byte[] address = ipSet.getAddress().getAddress();
+        Node node = address.length == 4 ? this.ipv4Root : this.ipv6Root;
+        for (int bit = 0; bit < ipSet.getPrefixLength(); bit++) {
+            if (isSet(address, bit)) {
+                if (node.one == null) {
+                    node.one = new Node();
+                }
+                node = node.one;
+            } else {
+                if (node.zero == null) {
+                    node.zero = new Node();
+                }
+                node = node.zero;
+            }
+        }
+        // The ip sets of a list are inserted one after another, the same prefix twice only counts once
+        if (node.lists.length > 0 && node.lists[node.lists.length - 1] == index) {
+            return false;
+        }
+        node.lists = Arrays.copyOf(node.lists, node.lists.length + 1);
+        node.lists[node.lists.length - 1] = index;
+        return true;
+    }
+
+    /**
+     * Gets the names of all ip set lists which contain the address.
+     *
+     * @param address The address
+     * @return The names of the lists
+     */
+    public List<String> getMatchingSets(InetAddress address) {
+        final byte[] bytes = checkNotNull(address, "address").getAddress();
+        final int[] matched = new int[this.names.length];
+        Node node = bytes.length == 4 ? this.ipv4Root : bytes.length == 16 ? this.ipv6Root : null;
+        final int bits = bytes.length << 3;
+        for (int bit = 0; node != null; bit++) {
+            for (int index : node.lists) {
+                matched[index]++;
+            }
+            node = bit == bits ? null : isSet(bytes, bit) ? node.one : node.zero;
+        }
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < this.names.length; i++) {
+            if (matched[i] == this.required[i]) {
+                names.add(this.names[i]);
+            }
+        }
+        return ImmutableList.copyOf(names);
+    }
+
+    private static boolean isSet(byte[] address, int bit) {
+        return (address[bit >> 3] & (0x80 >> (bit & 7))) != 0;
+    }
+
+    private static final class Node {
+
+        int[] lists = NO_LISTS;
+        Node zero;
+        Node one;
+    }
+}
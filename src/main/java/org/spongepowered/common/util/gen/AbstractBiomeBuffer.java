@@ -63,6 +63,17 @@ protected int getIndex(int x, int z) {
         return (z - this.start.getZ()) * this.xLine + (x - this.start.getX());
     }
 
+    /**
+     * Gets the object holding the biomes of this buffer. Buffers with the
+     * same storage read and write the same biomes, even if they are
+     * different objects.
+     *
+     * @return The storage of this buffer
+     */
+    public Object getStorage() {
+        return this;
+    }
+
     @Override
     public Vector3i getBiomeMin() {
         return this.start;
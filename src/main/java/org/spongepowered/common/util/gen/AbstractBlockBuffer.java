@@ -64,6 +64,17 @@ protected int getIndex(int x, int y, int z) {
     
     public abstract BlockPalette getPalette();
 
+    /**
+     * Gets the object holding the blocks of this buffer. Buffers with the
+     * same storage read and write the same blocks, even if they are
+     * different objects.
+     *
+     * @return The storage of this buffer
+     */
+    public Object getStorage() {
+        return this;
+    }
+
     @Override
     public Vector3i getBlockMax() {
         return this.end;
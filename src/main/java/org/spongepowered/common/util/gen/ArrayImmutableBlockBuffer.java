@@ -80,6 +80,11 @@ public BlockState getBlock(int x, int y, int z) {
         return this.palette.get(this.data.get(getIndex(x, y, z))).orElse(AIR);
     }
 
+    @Override
+    public Object getStorage() {
+        return this.data.getStorage();
+    }
+
     @Override
     public ImmutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
         checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
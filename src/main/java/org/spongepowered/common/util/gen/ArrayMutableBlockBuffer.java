@@ -24,8 +24,9 @@
  */
 package org.spongepowered.common.util.gen;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.flowpowered.math.vector.Vector3i;
-import net.minecraft.util.math.MathHelper;
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.util.DiscreteTransform3;
@@ -106,6 +107,48 @@ public BlockPalette getPalette() {
     @Override
     public boolean setBlock(int x, int y, int z, BlockState block) {
         checkRange(x, y, z);
+        this.data.set(getIndex(x, y, z), assignId(block));
+        return true;
+    }
+
+    /**
+     * Sets all blocks of a cuboid section in one pass. The blocks are in
+     * z, y, x order, x changing the fastest. Palette ids are only looked up
+     * again when the block changes from the previous one.
+     *
+     * @param xMin The lowest x coordinate of the section
+     * @param yMin The lowest y coordinate of the section
+     * @param zMin The lowest z coordinate of the section
+     * @param xMax The highest x coordinate of the section
+     * @param yMax The highest y coordinate of the section
+     * @param zMax The highest z coordinate of the section
+     * @param blocks The blocks of the section
+     */
+    public void setBlocks(int xMin, int yMin, int zMin, int xMax, int yMax, int zMax, BlockState[] blocks) {
+        checkRange(xMin, yMin, zMin);
+        checkRange(xMax, yMax, zMax);
+        checkArgument(blocks.length == (xMax - xMin + 1) * (yMax - yMin + 1) * (zMax - zMin + 1), "Wrong number of blocks for the section");
+        BlockState last = null;
+        BlockPalette lastPalette = null;
+        int id = 0;
+        int i = 0;
+        for (int z = zMin; z <= zMax; z++) {
+            for (int y = yMin; y <= yMax; y++) {
+                for (int x = xMin; x <= xMax; x++) {
+                    final BlockState block = blocks[i++];
+                    // Growing the data can switch to the global palette, which renumbers the ids
+                    if (block != last || lastPalette != this.palette) {
+                        id = assignId(block);
+                        last = block;
+                        lastPalette = this.palette;
+                    }
+                    this.data.set(getIndex(x, y, z), id);
+                }
+            }
+        }
+    }
+
+    private int assignId(BlockState block) {
         int id = this.palette.getOrAssign(block);
         if (id > this.data.getMax()) {
 
@@ -132,8 +175,23 @@ public boolean setBlock(int x, int y, int z, BlockState block) {
             }
             this.data = newdata;
         }
+        return id;
+    }
+
+    /**
+     * Sets the block at the given position by its id in the palette of this
+     * buffer, without looking the block up in the palette.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param z The z coordinate
+     * @param id The palette id, which must not be higher than the highest id
+     *     of the palette when the buffer was created
+     */
+    public void setBlockId(int x, int y, int z, int id) {
+        checkRange(x, y, z);
+        checkArgument(id >= 0 && id <= this.data.getMax(), "Palette id %s is out of range", id);
         this.data.set(getIndex(x, y, z), id);
-        return true;
     }
 
     @Override
@@ -142,6 +200,11 @@ public BlockState getBlock(int x, int y, int z) {
         return this.palette.get(this.data.get(getIndex(x, y, z))).orElse(AIR);
     }
 
+    @Override
+    public Object getStorage() {
+        return this.data.getStorage();
+    }
+
     @Override
     public MutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
         checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
@@ -208,6 +271,12 @@ interface BackingData {
          * Gets the maximum id supported by this BackingData
          */
         int getMax();
+
+        /**
+         * Gets the array holding the ids, which may be shared with other
+         * BackingData
+         */
+        Object getStorage();
     }
 
     static class CharBackingData implements BackingData {
@@ -237,6 +306,11 @@ public BackingData copyOf() {
         public int getMax() {
             return Character.MAX_VALUE;
         }
+
+        @Override
+        public Object getStorage() {
+            return this.data;
+        }
     }
 
     static class PackedBackingData implements BackingData {
@@ -266,7 +340,8 @@ public PackedBackingData(int size, int highestValue) {
             this.bits = bits;
 
             this.maxValue = (1 << bits) - 1;
-            this.longArray = new long[MathHelper.roundUp(size * bits, Long.SIZE) / Long.SIZE];
+            // Large volumes need more than 2^31 bits
+            this.longArray = new long[(int) (((long) size * bits + Long.SIZE - 1) / Long.SIZE)];
         }
 
         private PackedBackingData(int size, int bits, long[] array) {
@@ -278,9 +353,9 @@ private PackedBackingData(int size, int bits, long[] array) {
 
         @Override
         public void set(int index, int value) {
-            int bitIndex = index * this.bits;
-            int longIndex = bitIndex / Long.SIZE;
-            int bitOffset = bitIndex % Long.SIZE;
+            long bitIndex = (long) index * this.bits;
+            int longIndex = (int) (bitIndex / Long.SIZE);
+            int bitOffset = (int) (bitIndex % Long.SIZE);
 
             this.longArray[longIndex] = this.longArray[longIndex] & ~(this.maxValue << bitOffset) | (long) value << bitOffset;
 
@@ -295,10 +370,10 @@ public void set(int index, int value) {
 
         @Override
         public int get(int index) {
-            int bitIndex = index * this.bits;
-            int longIndex = bitIndex / Long.SIZE;
-            int rightLongIndex = (bitIndex + this.bits - 1) / 64;
-            int bitOffset = bitIndex % 64;
+            long bitIndex = (long) index * this.bits;
+            int longIndex = (int) (bitIndex / Long.SIZE);
+            int rightLongIndex = (int) ((bitIndex + this.bits - 1) / 64);
+            int bitOffset = (int) (bitIndex % 64);
 
             if (bitOffset + this.bits > Long.SIZE) {
                 // The entry is split between two longs
@@ -317,5 +392,10 @@ public PackedBackingData copyOf() {
         public int getMax() {
             return (int) this.maxValue;
         }
+
+        @Override
+        public Object getStorage() {
+            return this.longArray;
+        }
     }
 }
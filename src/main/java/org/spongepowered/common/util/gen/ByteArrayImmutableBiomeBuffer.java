@@ -62,6 +62,11 @@ public BiomeType getBiome(int x, int y, int z) {
         return biomeType == null ? BiomeTypes.OCEAN : biomeType;
     }
 
+    @Override
+    public Object getStorage() {
+        return this.biomes;
+    }
+
     @Override
     public ImmutableBiomeVolume getBiomeView(Vector3i newMin, Vector3i newMax) {
         checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
@@ -86,6 +86,11 @@ public BiomeType getBiome(int x, int y, int z) {
         return biomeType == null ? BiomeTypes.OCEAN : biomeType;
     }
 
+    @Override
+    public Object getStorage() {
+        return this.biomes;
+    }
+
     /**
      * Gets the internal byte array, and prevents further of it through this
      * object uses until {@link #reuse(Vector3i)} is called.
@@ -82,6 +82,11 @@ public boolean setBlock(int x, int y, int z, BlockState block) {
         return true;
     }
 
+    @Override
+    public Object getStorage() {
+        return this.chunkPrimer;
+    }
+
     @Override
     public MutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
         checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
@@ -68,6 +68,11 @@ public BiomeType getBiome(int x, int y, int z) {
         return this.biomes[getIndex(x, z)];
     }
 
+    @Override
+    public Object getStorage() {
+        return this.biomes;
+    }
+
     /**
      * Gets the native biome for the position, resolving virtual biomes to
      * persisted types if needed.
@@ -0,0 +1,208 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import org.spongepowered.common.SpongeImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the async lighting jobs of a world on a fork join pool.
+ *
+ * <p>Each job belongs to a chunk and may read and write the light of that
+ * chunk and its 8 surrounding chunks. Jobs are collected into batches and
+ * every batch is split into 9 phases by the chunk coordinates modulo 3,
+ * the chunks within a phase are at least 3 chunks apart so their areas
+ * never overlap. The chunks of a phase are processed in parallel, the
+ * phases one after another. Jobs of the same chunk always run in order
+ * on the same thread.</p>
+ */
+public final class AsyncLightingEngine {
+
+    private static final int PHASES = 9;
+
+    private final ForkJoinPool pool;
+    private final ConcurrentLinkedQueue<Job> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder completedJobs = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchTime = new LongAdder();
+
+    public AsyncLightingEngine(int threads) {
+        final AtomicInteger threadId = new AtomicInteger();
+        this.pool = new ForkJoinPool(Math.max(1, threads), pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Sponge - Async Light Thread #" + threadId.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Schedules a lighting job which only touches the given chunk and its
+     * neighbors.
+     *
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @param job The job
+     * @return False if the engine has been shut down
+     */
+    public boolean schedule(int chunkX, int chunkZ, Runnable job) {
+        if (this.pool.isShutdown()) {
+            return false;
+        }
+        this.queue.add(new Job(chunkX, chunkZ, job));
+        if (this.running.compareAndSet(false, true)) {
+            this.pool.execute(this::run);
+        }
+        return true;
+    }
+
+    /**
+     * Counts light updates which were propagated by a job, used for the
+     * throughput statistics.
+     *
+     * @param count The amount of updates
+     */
+    public void addUpdates(int count) {
+        this.updates.add(count);
+    }
+
+    private void run() {
+        do {
+            while (!this.queue.isEmpty()) {
+                this.runBatch();
+            }
+            this.running.set(false);
+            // A job may have been scheduled after the queue was found empty
+        } while (!this.queue.isEmpty() && this.running.compareAndSet(false, true));
+    }
+
+    private void runBatch() {
+        final long start = System.nanoTime();
+        final Long2ObjectMap<ChunkJobs> chunks = new Long2ObjectOpenHashMap<>();
+        final List<List<ChunkJobs>> phases = new ArrayList<>(PHASES);
+        for (int i = 0; i < PHASES; i++) {
+            phases.add(new ArrayList<>());
+        }
+        Job job;
+        while ((job = this.queue.poll()) != null) {
+            final long key = ChunkPos.asLong(job.chunkX, job.chunkZ);
+            ChunkJobs chunkJobs = chunks.get(key);
+            if (chunkJobs == null) {
+                chunkJobs = new ChunkJobs();
+                chunks.put(key, chunkJobs);
+                phases.get(Math.floorMod(job.chunkX, 3) * 3 + Math.floorMod(job.chunkZ, 3)).add(chunkJobs);
+            }
+            chunkJobs.jobs.add(job.runnable);
+        }
+        for (List<ChunkJobs> phase : phases) {
+            if (!phase.isEmpty()) {
+                ForkJoinTask.invokeAll(phase);
+            }
+        }
+        this.batches.increment();
+        this.batchTime.add(System.nanoTime() - start);
+    }
+
+    public ExecutorService getExecutor() {
+        return this.pool;
+    }
+
+    public boolean isShutdown() {
+        return this.pool.isShutdown();
+    }
+
+    public int getQueuedJobs() {
+        return this.queue.size();
+    }
+
+    public long getCompletedJobs() {
+        return this.completedJobs.sum();
+    }
+
+    public long getCompletedUpdates() {
+        return this.updates.sum();
+    }
+
+    public long getCompletedBatches() {
+        return this.batches.sum();
+    }
+
+    /**
+     * Gets the total time spent processing batches.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getBatchTime() {
+        return this.batchTime.sum();
+    }
+
+    private static final class Job {
+
+        final int chunkX;
+        final int chunkZ;
+        final Runnable runnable;
+
+        Job(int chunkX, int chunkZ, Runnable runnable) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.runnable = runnable;
+        }
+    }
+
+    private final class ChunkJobs extends RecursiveAction {
+
+        private static final long serialVersionUID = 2361845329875128704L;
+
+        final List<Runnable> jobs = new ArrayList<>();
+
+        @Override
+        protected void compute() {
+            for (Runnable job : this.jobs) {
+                try {
+                    job.run();
+                } catch (Throwable t) {
+                    SpongeImpl.getLogger().error("Exception while processing an async lighting job", t);
+                }
+            }
+            AsyncLightingEngine.this.completedJobs.add(this.jobs.size());
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongOpenHashMap;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Stores the owner and notifier indices of the tracked block positions of a
+ * chunk without boxing.
+ *
+ * <p>Both indices of a position are packed into a single long, the owner in
+ * the upper and the notifier in the lower 32 bits. Positions up to a height
+ * of 255 use the short key of the chunk tracker and are split by their
+ * chunk section. A section starts out as an open addressed map and is
+ * switched to a flat array once it tracks enough blocks for the array to be
+ * the smaller of the two. Positions above are kept in a single int keyed
+ * map.</p>
+ */
+public final class BlockTrackerTable {
+
+    /**
+     * The value returned for positions which aren't tracked. No valid entry
+     * can be equal to it since indices are never below -1.
+     */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int SECTIONS = 16;
+    private static final int SECTION_VOLUME = 4096;
+    // An open addressed map holds a short and a long per slot at a load
+    // factor of 0.75, past this size it outgrows a flat long[4096]
+    static final int DENSE_THRESHOLD = 2048;
+
+    private final Section[] sections = new Section[SECTIONS];
+    @Nullable private Int2LongOpenHashMap intPositions;
+    private int size;
+
+    public static long pack(int ownerIndex, int notifierIndex) {
+        return (long) ownerIndex << 32 | notifierIndex & 0xFFFFFFFFL;
+    }
+
+    public static int getOwnerIndex(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    public static int getNotifierIndex(long entry) {
+        return (int) entry;
+    }
+
+    private static int sectionOf(short pos) {
+        // The y coordinate occupies bits 4 to 11 of the short key
+        return (pos >> 8) & 0xF;
+    }
+
+    public long get(short pos) {
+        final Section section = this.sections[sectionOf(pos)];
+        return section == null ? ABSENT : section.get(pos);
+    }
+
+    public long get(int pos) {
+        return this.intPositions == null ? ABSENT : this.intPositions.get(pos);
+    }
+
+    public void put(short pos, long entry) {
+        final int index = sectionOf(pos);
+        Section section = this.sections[index];
+        if (section == null) {
+            section = this.sections[index] = new Section(index);
+        }
+        if (section.put(pos, entry)) {
+            this.size++;
+        }
+    }
+
+    public void put(int pos, long entry) {
+        if (this.intPositions == null) {
+            this.intPositions = new Int2LongOpenHashMap();
+            this.intPositions.defaultReturnValue(ABSENT);
+        }
+        if (this.intPositions.put(pos, entry) == ABSENT) {
+            this.size++;
+        }
+    }
+
+    public void remove(short pos) {
+        final Section section = this.sections[sectionOf(pos)];
+        if (section != null && section.remove(pos)) {
+            this.size--;
+        }
+    }
+
+    public void remove(int pos) {
+        if (this.intPositions != null && this.intPositions.remove(pos) != ABSENT) {
+            this.size--;
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void forEachShort(ShortEntryConsumer consumer) {
+        for (Section section : this.sections) {
+            if (section != null) {
+                section.forEach(consumer);
+            }
+        }
+    }
+
+    public void forEachInt(IntEntryConsumer consumer) {
+        if (this.intPositions != null) {
+            for (Int2LongMap.Entry entry : this.intPositions.int2LongEntrySet()) {
+                consumer.accept(entry.getIntKey(), entry.getLongValue());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ShortEntryConsumer {
+
+        void accept(short pos, long entry);
+    }
+
+    @FunctionalInterface
+    public interface IntEntryConsumer {
+
+        void accept(int pos, long entry);
+    }
+
+    private static final class Section {
+
+        private final int y;
+        @Nullable private Short2LongOpenHashMap sparse = new Short2LongOpenHashMap();
+        @Nullable private long[] dense;
+        private int size;
+
+        Section(int y) {
+            this.y = y;
+            this.sparse.defaultReturnValue(ABSENT);
+        }
+
+        private static int indexOf(short pos) {
+            // x and the lower y bits stay in place, z moves down over the section bits
+            return pos & 0xFF | (pos >> 4) & 0xF00;
+        }
+
+        private short posOf(int index) {
+            return (short) (index & 0xFF | this.y << 8 | (index & 0xF00) << 4);
+        }
+
+        long get(short pos) {
+            return this.dense != null ? this.dense[indexOf(pos)] : this.sparse.get(pos);
+        }
+
+        boolean put(short pos, long entry) {
+            final boolean added;
+            if (this.dense != null) {
+                final int index = indexOf(pos);
+                added = this.dense[index] == ABSENT;
+                this.dense[index] = entry;
+            } else {
+                added = this.sparse.put(pos, entry) == ABSENT;
+            }
+            if (added && ++this.size > DENSE_THRESHOLD && this.dense == null) {
+                this.toDense();
+            }
+            return added;
+        }
+
+        boolean remove(short pos) {
+            final boolean removed;
+            if (this.dense != null) {
+                final int index = indexOf(pos);
+                removed = this.dense[index] != ABSENT;
+                this.dense[index] = ABSENT;
+            } else {
+                removed = this.sparse.remove(pos) != ABSENT;
+            }
+            if (removed) {
+                this.size--;
+            }
+            return removed;
+        }
+
+        private void toDense() {
+            final long[] dense = new long[SECTION_VOLUME];
+            Arrays.fill(dense, ABSENT);
+            for (Short2LongMap.Entry entry : this.sparse.short2LongEntrySet()) {
+                dense[indexOf(entry.getShortKey())] = entry.getLongValue();
+            }
+            this.dense = dense;
+            this.sparse = null;
+        }
+
+        void forEach(ShortEntryConsumer consumer) {
+            if (this.dense != null) {
+                for (int index = 0; index < SECTION_VOLUME; index++) {
+                    if (this.dense[index] != ABSENT) {
+                        consumer.accept(this.posOf(index), this.dense[index]);
+                    }
+                }
+            } else {
+                for (Short2LongMap.Entry entry : this.sparse.short2LongEntrySet()) {
+                    consumer.accept(entry.getShortKey(), entry.getLongValue());
+                }
+            }
+        }
+    }
+}
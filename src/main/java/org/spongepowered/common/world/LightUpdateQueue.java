@@ -0,0 +1,248 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * A lock free set of the block positions within a chunk which are queued
+ * for a light update. Positions are the 16 bit values produced by packing
+ * the local x, y and z coordinates, so each position maps to one bit and
+ * adding, removing and deduplicating never allocates.
+ *
+ * <p>The set also tracks whether a drain of it has been scheduled, this
+ * allows a burst of block changes to be handed to the lighting executor
+ * as a single batch.</p>
+ *
+ * <p>The bits are only kept while positions are queued, a completed drain
+ * which leaves the set empty releases them. Positions which are queued
+ * while the bits are released are moved to the new bits, either by the
+ * drain or by the thread which queued them.</p>
+ */
+public final class LightUpdateQueue {
+
+    private static final int POSITIONS = 1 << 16;
+    private static final int WORDS = POSITIONS >>> 6;
+
+    // Only allocated while positions are queued, most chunks rarely need it
+    @Nullable private volatile AtomicLongArray bits;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private AtomicLongArray getBits() {
+        AtomicLongArray bits = this.bits;
+        if (bits == null) {
+            synchronized (this) {
+                bits = this.bits;
+                if (bits == null) {
+                    this.bits = bits = new AtomicLongArray(WORDS);
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Queues the position.
+     *
+     * @param pos The packed position
+     * @return True if the position wasn't queued yet
+     */
+    public boolean add(short pos) {
+        final AtomicLongArray bits = this.getBits();
+        final int index = pos & 0xFFFF;
+        final int word = index >>> 6;
+        final long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        this.size.incrementAndGet();
+        if (this.bits != bits) {
+            // The bits were released concurrently, take back the position
+            // unless the releasing drain already moved it to the new bits
+            do {
+                current = bits.get(word);
+                if ((current & mask) == 0) {
+                    return true;
+                }
+            } while (!bits.compareAndSet(word, current, current & ~mask));
+            this.size.decrementAndGet();
+            return this.add(pos);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the position from the queue.
+     *
+     * @param pos The packed position
+     * @return True if the position was queued
+     */
+    public boolean remove(short pos) {
+        final AtomicLongArray bits = this.bits;
+        if (bits == null) {
+            return false;
+        }
+        final int index = pos & 0xFFFF;
+        final int word = index >>> 6;
+        final long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) == 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current & ~mask));
+        this.size.decrementAndGet();
+        return true;
+    }
+
+    public boolean contains(short pos) {
+        final AtomicLongArray bits = this.bits;
+        if (bits == null) {
+            return false;
+        }
+        final int index = pos & 0xFFFF;
+        return (bits.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    public int size() {
+        return this.size.get();
+    }
+
+    public boolean isEmpty() {
+        return this.size.get() == 0;
+    }
+
+    /**
+     * Removes every queued position and passes it to the consumer. Positions
+     * which are queued while the drain runs may or may not be included.
+     *
+     * @param consumer The consumer of the packed positions, as unsigned values
+     * @return The number of drained positions
+     */
+    public int drain(IntConsumer consumer) {
+        final AtomicLongArray bits = this.bits;
+        if (bits == null || this.size.get() == 0) {
+            return 0;
+        }
+        int drained = 0;
+        for (int word = 0; word < WORDS; word++) {
+            if (bits.get(word) == 0) {
+                continue;
+            }
+            long taken = bits.getAndSet(word, 0);
+            final int count = Long.bitCount(taken);
+            this.size.addAndGet(-count);
+            drained += count;
+            while (taken != 0) {
+                final int bit = Long.numberOfTrailingZeros(taken);
+                taken &= taken - 1;
+                consumer.accept(word << 6 | bit);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Marks a drain of this queue as scheduled.
+     *
+     * @return True if no drain was scheduled yet, and the caller should
+     *     schedule one
+     */
+    public boolean markScheduled() {
+        return this.scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the scheduled drain as completed. Positions may have been queued
+     * after the last drain but before this call, in which case the drain
+     * is marked as scheduled again.
+     *
+     * @return True if the caller should drain the queue again
+     */
+    public boolean completeDrain() {
+        if (this.isEmpty()) {
+            this.release();
+        }
+        this.scheduled.set(false);
+        return !this.isEmpty() && this.markScheduled();
+    }
+
+    /**
+     * Releases the bits of the empty queue. Positions which were queued
+     * concurrently are moved to newly allocated bits, their threads may not
+     * have counted them yet so the size isn't changed for them. Only called
+     * by the single scheduled drain.
+     */
+    private void release() {
+        final AtomicLongArray bits = this.bits;
+        if (bits == null) {
+            return;
+        }
+        this.bits = null;
+        for (int word = 0; word < WORDS; word++) {
+            if (bits.get(word) == 0) {
+                continue;
+            }
+            long taken = bits.getAndSet(word, 0);
+            while (taken != 0) {
+                final int bit = Long.numberOfTrailingZeros(taken);
+                taken &= taken - 1;
+                this.move(word, 1L << bit);
+            }
+        }
+    }
+
+    private void move(int word, long mask) {
+        final AtomicLongArray bits = this.getBits();
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                // Queued again in the meantime, both were counted
+                this.size.decrementAndGet();
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * Marks the scheduled drain as aborted, without checking for positions
+     * which are still queued. The next queued position schedules a new drain.
+     */
+    public void abortDrain() {
+        this.scheduled.set(false);
+    }
+}
@@ -77,6 +77,7 @@
 import org.spongepowered.common.interfaces.world.IMixinWorldSettings;
 import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.util.SpongeHooks;
+import org.spongepowered.common.world.storage.RegionFileIndex;
 
 import java.io.DataInputStream;
 import java.io.IOException;
@@ -1028,6 +1029,9 @@ public static Optional<WorldProperties> renameWorld(WorldProperties worldPropert
             Files.move(oldWorldFolder, newWorldFolder);
         } catch (IOException e) {
             return Optional.empty();
+        } finally {
+            RegionFileIndex.invalidateDirectory(oldWorldFolder.toFile());
+            RegionFileIndex.invalidateDirectory(newWorldFolder.toFile());
         }
 
         unregisterWorldProperties(worldProperties, false);
@@ -1088,6 +1092,7 @@ public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) th
 
             // Copy the world folder
             Files.walkFileTree(oldWorldFolder, visitor);
+            RegionFileIndex.invalidateDirectory(newWorldFolder.toFile());
 
             final WorldInfo info = new WorldInfo(this.oldInfo);
             info.setWorldName(this.newName);
@@ -1123,6 +1128,8 @@ public Boolean call() throws Exception {
                 return true;
             } catch (IOException e) {
                 return false;
+            } finally {
+                RegionFileIndex.invalidateDirectory(worldFolder.toFile());
             }
         }
 
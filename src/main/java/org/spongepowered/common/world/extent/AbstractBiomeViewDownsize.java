@@ -51,6 +51,10 @@ public AbstractBiomeViewDownsize(V volume, Vector3i min, Vector3i max) {
         this.size = max.sub(min).add(Vector3i.ONE);
     }
 
+    public V getBacking() {
+        return this.volume;
+    }
+
     @Override
     public Vector3i getBiomeMin() {
         return this.min;
@@ -54,6 +54,10 @@ public AbstractBiomeViewTransform(V volume, DiscreteTransform3 transform) {
         this.size = this.max.sub(this.min).add(Vector3i.ONE);
     }
 
+    public V getBacking() {
+        return this.volume;
+    }
+
     @Override
     public Vector3i getBiomeMin() {
         return this.min;
@@ -49,6 +49,10 @@ public AbstractBlockViewDownsize(V volume, Vector3i min, Vector3i max) {
         this.size = max.sub(min).add(Vector3i.ONE);
     }
 
+    public V getBacking() {
+        return this.volume;
+    }
+
     @Override
     public Vector3i getBlockMin() {
         return this.min;
@@ -56,6 +56,10 @@ public AbstractBlockViewTransform(V volume, DiscreteTransform3 transform) {
         this.size = this.max.sub(this.min).add(Vector3i.ONE);
     }
 
+    public V getBacking() {
+        return this.volume;
+    }
+
     @Override
     public Vector3i getBlockMin() {
         return this.min;
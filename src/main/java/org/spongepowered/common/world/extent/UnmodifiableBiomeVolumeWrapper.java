@@ -42,6 +42,10 @@ public UnmodifiableBiomeVolumeWrapper(MutableBiomeVolume volume) {
         this.volume = volume;
     }
 
+    public MutableBiomeVolume getBacking() {
+        return this.volume;
+    }
+
     @Override
     public Vector3i getBiomeMin() {
         return this.volume.getBiomeMin();
@@ -43,6 +43,10 @@ public UnmodifiableBlockVolumeWrapper(MutableBlockVolume volume) {
         this.volume = volume;
     }
 
+    public MutableBlockVolume getBacking() {
+        return this.volume;
+    }
+
     @Override
     public Vector3i getBlockMin() {
         return this.volume.getBlockMin();
@@ -29,6 +29,7 @@
 import com.flowpowered.math.vector.Vector3i;
 import org.spongepowered.api.world.biome.BiomeType;
 import org.spongepowered.api.world.extent.BiomeVolume;
+import org.spongepowered.api.world.extent.ImmutableBiomeVolume;
 import org.spongepowered.api.world.extent.MutableBiomeVolume;
 import org.spongepowered.api.world.extent.UnmodifiableBiomeVolume;
 import org.spongepowered.api.world.extent.worker.BiomeVolumeWorker;
@@ -36,15 +37,24 @@
 import org.spongepowered.api.world.extent.worker.procedure.BiomeVolumeMerger;
 import org.spongepowered.api.world.extent.worker.procedure.BiomeVolumeReducer;
 import org.spongepowered.api.world.extent.worker.procedure.BiomeVolumeVisitor;
+import org.spongepowered.common.util.gen.AbstractBiomeBuffer;
+import org.spongepowered.common.world.extent.AbstractBiomeViewDownsize;
+import org.spongepowered.common.world.extent.AbstractBiomeViewTransform;
+import org.spongepowered.common.world.extent.UnmodifiableBiomeVolumeWrapper;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiFunction;
 
+import javax.annotation.Nullable;
+
 /**
  *
  */
 public class SpongeBiomeVolumeWorker<V extends BiomeVolume> implements BiomeVolumeWorker<V> {
 
     protected final V volume;
+    protected boolean parallel;
 
     public SpongeBiomeVolumeWorker(V volume) {
         this.volume = volume;
@@ -55,6 +65,45 @@ public V getVolume() {
         return this.volume;
     }
 
+    /**
+     * Allows this worker to run in parallel, see
+     * {@link SpongeBlockVolumeWorker#parallel()}. Applies if the volumes
+     * being read are biome buffers.
+     *
+     * @return This worker, for chaining
+     */
+    public SpongeBiomeVolumeWorker<V> parallel() {
+        this.parallel = true;
+        return this;
+    }
+
+    protected boolean canRunParallel(BiomeVolume source, @Nullable BiomeVolume destination) {
+        return this.parallel && source instanceof AbstractBiomeBuffer && (destination == null || getStorage(source) != getStorage(destination));
+    }
+
+    /**
+     * Gets the storage the biomes of a volume are kept in, looking through
+     * views to the volume they show. Volumes that are not biome buffers are
+     * their own storage.
+     *
+     * @param volume The volume
+     * @return The storage of the volume
+     */
+    public static Object getStorage(BiomeVolume volume) {
+        while (true) {
+            if (volume instanceof AbstractBiomeViewDownsize) {
+                volume = ((AbstractBiomeViewDownsize<?>) volume).getBacking();
+            } else if (volume instanceof AbstractBiomeViewTransform) {
+                volume = ((AbstractBiomeViewTransform<?>) volume).getBacking();
+            } else if (volume instanceof UnmodifiableBiomeVolumeWrapper) {
+                volume = ((UnmodifiableBiomeVolumeWrapper) volume).getBacking();
+            } else {
+                break;
+            }
+        }
+        return volume instanceof AbstractBiomeBuffer ? ((AbstractBiomeBuffer) volume).getStorage() : volume;
+    }
+
     @Override
     public void map(BiomeVolumeMapper mapper, MutableBiomeVolume destination) {
         final Vector3i offset = align(destination);
@@ -68,6 +117,23 @@ public void map(BiomeVolumeMapper mapper, MutableBiomeVolume destination) {
         final int xMax = unmodifiableArea.getBiomeMax().getX();
         final int yMax = unmodifiableArea.getBiomeMax().getY();
         final int zMax = unmodifiableArea.getBiomeMax().getZ();
+        if (this.canRunParallel(this.volume, destination)) {
+            VolumeSections.<BiomeType[]>run(xMin, zMin, xMax, zMax, xOffset, zOffset, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                final BiomeType[] biomes = new BiomeType[(sectionXMax - sectionXMin + 1) * (yMax - yMin + 1) * (sectionZMax - sectionZMin + 1)];
+                int i = 0;
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            biomes[i++] = mapper.map(unmodifiableArea, x, y, z);
+                        }
+                    }
+                }
+                return biomes;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, biomes) ->
+                    setBiomes(destination, sectionXMin + xOffset, yMin + yOffset, sectionZMin + zOffset,
+                            sectionXMax + xOffset, yMax + yOffset, sectionZMax + zOffset, biomes));
+            return;
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -96,6 +162,25 @@ public void merge(BiomeVolume second, BiomeVolumeMerger merger, MutableBiomeVolu
         final int yMax = firstUnmodifiableArea.getBiomeMax().getY();
         final int zMax = firstUnmodifiableArea.getBiomeMax().getZ();
         final UnmodifiableBiomeVolume secondUnmodifiableArea = second.getUnmodifiableBiomeView();
+        if (this.canRunParallel(this.volume, destination) && this.canRunParallel(second, destination)) {
+            VolumeSections.<BiomeType[]>run(xMin, zMin, xMax, zMax, xOffsetDestination, zOffsetDestination,
+                    (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                final BiomeType[] biomes = new BiomeType[(sectionXMax - sectionXMin + 1) * (yMax - yMin + 1) * (sectionZMax - sectionZMin + 1)];
+                int i = 0;
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            biomes[i++] = merger.merge(firstUnmodifiableArea, x, y, z, secondUnmodifiableArea, x + xOffsetSecond,
+                                    y + yOffsetSecond, z + zOffsetSecond);
+                        }
+                    }
+                }
+                return biomes;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, biomes) ->
+                    setBiomes(destination, sectionXMin + xOffsetDestination, yMin + yOffsetDestination, sectionZMin + zOffsetDestination,
+                            sectionXMax + xOffsetDestination, yMax + yOffsetDestination, sectionZMax + zOffsetDestination, biomes));
+            return;
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -115,6 +200,20 @@ public void iterate(BiomeVolumeVisitor<V> visitor) {
         final int xMax = this.volume.getBiomeMax().getX();
         final int yMax = this.volume.getBiomeMax().getY();
         final int zMax = this.volume.getBiomeMax().getZ();
+        // Visitors get the volume itself, so only immutable buffers can be visited in parallel
+        if (this.volume instanceof ImmutableBiomeVolume && this.canRunParallel(this.volume, null)) {
+            VolumeSections.<Void>run(xMin, zMin, xMax, zMax, 0, 0, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            visitor.visit(this.volume, x, y, z);
+                        }
+                    }
+                }
+                return null;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, result) -> {});
+            return;
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -133,6 +232,25 @@ public <T> T reduce(BiomeVolumeReducer<T> reducer, BiFunction<T, T, T> merge, T
         final int xMax = unmodifiableArea.getBiomeMax().getX();
         final int yMax = unmodifiableArea.getBiomeMax().getY();
         final int zMax = unmodifiableArea.getBiomeMax().getZ();
+        if (this.canRunParallel(this.volume, null)) {
+            final List<T> reductions = new ArrayList<>();
+            VolumeSections.<T>run(xMin, zMin, xMax, zMax, 0, 0, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                T reduction = identity;
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            reduction = reducer.reduce(unmodifiableArea, x, y, z, reduction);
+                        }
+                    }
+                }
+                return reduction;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, reduction) -> reductions.add(reduction));
+            T reduction = identity;
+            for (T sectionReduction : reductions) {
+                reduction = merge.apply(reduction, sectionReduction);
+            }
+            return reduction;
+        }
         T reduction = identity;
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
@@ -144,6 +262,17 @@ public <T> T reduce(BiomeVolumeReducer<T> reducer, BiFunction<T, T, T> merge, T
         return reduction;
     }
 
+    static void setBiomes(MutableBiomeVolume destination, int xMin, int yMin, int zMin, int xMax, int yMax, int zMax, BiomeType[] biomes) {
+        int i = 0;
+        for (int z = zMin; z <= zMax; z++) {
+            for (int y = yMin; y <= yMax; y++) {
+                for (int x = xMin; x <= xMax; x++) {
+                    destination.setBiome(x, y, z, biomes[i++]);
+                }
+            }
+        }
+    }
+
     private Vector3i align(BiomeVolume other) {
         final Vector3i thisSize = this.volume.getBiomeSize();
         final Vector3i otherSize = other.getBiomeSize();
@@ -31,6 +31,7 @@
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.event.CauseStackManager;
 import org.spongepowered.api.world.extent.BlockVolume;
+import org.spongepowered.api.world.extent.ImmutableBlockVolume;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
 import org.spongepowered.api.world.extent.worker.BlockVolumeWorker;
@@ -41,15 +42,26 @@
 import org.spongepowered.common.event.tracking.CauseTracker;
 import org.spongepowered.common.event.tracking.PhaseContext;
 import org.spongepowered.common.event.tracking.phase.plugin.PluginPhase;
+import org.spongepowered.common.util.gen.AbstractBlockBuffer;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+import org.spongepowered.common.world.extent.AbstractBlockViewDownsize;
+import org.spongepowered.common.world.extent.AbstractBlockViewTransform;
+import org.spongepowered.common.world.extent.MutableBlockViewDownsize;
+import org.spongepowered.common.world.extent.UnmodifiableBlockVolumeWrapper;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiFunction;
 
+import javax.annotation.Nullable;
+
 /**
  *
  */
 public class SpongeBlockVolumeWorker<V extends BlockVolume> implements BlockVolumeWorker<V> {
 
     protected final V volume;
+    protected boolean parallel;
 
     public SpongeBlockVolumeWorker(V volume) {
         this.volume = volume;
@@ -60,6 +72,50 @@ public V getVolume() {
         return this.volume;
     }
 
+    /**
+     * Allows this worker to run in parallel. This is only done if the
+     * volumes being read are block buffers, and none of them shares its
+     * storage with the destination. A fill is only done in parallel if the
+     * filled volume is a block buffer. The procedures are then called from
+     * multiple threads, they must be thread safe and may not access a world.
+     * Results are set on the destination on the calling thread, one chunk
+     * column after another, and a column at a time if the destination is
+     * an array buffer.
+     *
+     * @return This worker, for chaining
+     */
+    public SpongeBlockVolumeWorker<V> parallel() {
+        this.parallel = true;
+        return this;
+    }
+
+    protected boolean canRunParallel(BlockVolume source, @Nullable BlockVolume destination) {
+        return this.parallel && source instanceof AbstractBlockBuffer && (destination == null || getStorage(source) != getStorage(destination));
+    }
+
+    /**
+     * Gets the storage the blocks of a volume are kept in, looking through
+     * views to the volume they show. Volumes that are not block buffers are
+     * their own storage.
+     *
+     * @param volume The volume
+     * @return The storage of the volume
+     */
+    public static Object getStorage(BlockVolume volume) {
+        while (true) {
+            if (volume instanceof AbstractBlockViewDownsize) {
+                volume = ((AbstractBlockViewDownsize<?>) volume).getBacking();
+            } else if (volume instanceof AbstractBlockViewTransform) {
+                volume = ((AbstractBlockViewTransform<?>) volume).getBacking();
+            } else if (volume instanceof UnmodifiableBlockVolumeWrapper) {
+                volume = ((UnmodifiableBlockVolumeWrapper) volume).getBacking();
+            } else {
+                break;
+            }
+        }
+        return volume instanceof AbstractBlockBuffer ? ((AbstractBlockBuffer) volume).getStorage() : volume;
+    }
+
     @Override
     public void map(BlockVolumeMapper mapper, MutableBlockVolume destination) {
         final Vector3i offset = align(destination);
@@ -80,12 +136,29 @@ public void map(BlockVolumeMapper mapper, MutableBlockVolume destination) {
                 .addCaptures()
                 .complete());
         }
-        for (int z = zMin; z <= zMax; z++) {
-            for (int y = yMin; y <= yMax; y++) {
-                for (int x = xMin; x <= xMax; x++) {
-                    final BlockState block = mapper.map(unmodifiableVolume, x, y, z);
+        if (this.canRunParallel(this.volume, destination)) {
+            VolumeSections.<BlockState[]>run(xMin, zMin, xMax, zMax, xOffset, zOffset, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                final BlockState[] blocks = new BlockState[(sectionXMax - sectionXMin + 1) * (yMax - yMin + 1) * (sectionZMax - sectionZMin + 1)];
+                int i = 0;
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            blocks[i++] = mapper.map(unmodifiableVolume, x, y, z);
+                        }
+                    }
+                }
+                return blocks;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, blocks) ->
+                    setBlocks(destination, sectionXMin + xOffset, yMin + yOffset, sectionZMin + zOffset,
+                            sectionXMax + xOffset, yMax + yOffset, sectionZMax + zOffset, blocks));
+        } else {
+            for (int z = zMin; z <= zMax; z++) {
+                for (int y = yMin; y <= yMax; y++) {
+                    for (int x = xMin; x <= xMax; x++) {
+                        final BlockState block = mapper.map(unmodifiableVolume, x, y, z);
 
-                    destination.setBlock(x + xOffset, y + yOffset, z + zOffset, block);
+                        destination.setBlock(x + xOffset, y + yOffset, z + zOffset, block);
+                    }
                 }
             }
         }
@@ -117,12 +190,31 @@ public void merge(BlockVolume second, BlockVolumeMerger merger, MutableBlockVolu
                     .source(this)
                     .complete());
         }
-        for (int z = zMin; z <= zMax; z++) {
-            for (int y = yMin; y <= yMax; y++) {
-                for (int x = xMin; x <= xMax; x++) {
-                    final BlockState block = merger.merge(firstUnmodifiableVolume, x, y, z,
-                        secondUnmodifiableVolume, x + xOffsetSecond, y + yOffsetSecond, z + zOffsetSecond);
-                    destination.setBlock(x + xOffsetDestination, y + yOffsetDestination, z + zOffsetDestination, block);
+        if (this.canRunParallel(this.volume, destination) && this.canRunParallel(second, destination)) {
+            VolumeSections.<BlockState[]>run(xMin, zMin, xMax, zMax, xOffsetDestination, zOffsetDestination,
+                    (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                final BlockState[] blocks = new BlockState[(sectionXMax - sectionXMin + 1) * (yMax - yMin + 1) * (sectionZMax - sectionZMin + 1)];
+                int i = 0;
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            blocks[i++] = merger.merge(firstUnmodifiableVolume, x, y, z,
+                                secondUnmodifiableVolume, x + xOffsetSecond, y + yOffsetSecond, z + zOffsetSecond);
+                        }
+                    }
+                }
+                return blocks;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, blocks) ->
+                    setBlocks(destination, sectionXMin + xOffsetDestination, yMin + yOffsetDestination, sectionZMin + zOffsetDestination,
+                            sectionXMax + xOffsetDestination, yMax + yOffsetDestination, sectionZMax + zOffsetDestination, blocks));
+        } else {
+            for (int z = zMin; z <= zMax; z++) {
+                for (int y = yMin; y <= yMax; y++) {
+                    for (int x = xMin; x <= xMax; x++) {
+                        final BlockState block = merger.merge(firstUnmodifiableVolume, x, y, z,
+                            secondUnmodifiableVolume, x + xOffsetSecond, y + yOffsetSecond, z + zOffsetSecond);
+                        destination.setBlock(x + xOffsetDestination, y + yOffsetDestination, z + zOffsetDestination, block);
+                    }
                 }
             }
         }
@@ -146,10 +238,24 @@ public void iterate(BlockVolumeVisitor<V> visitor) {
                         .addCaptures()
                         .complete());
             }
-            for (int z = zMin; z <= zMax; z++) {
-                for (int y = yMin; y <= yMax; y++) {
-                    for (int x = xMin; x <= xMax; x++) {
-                        visitor.visit(this.volume, x, y, z);
+            // Visitors get the volume itself, so only immutable buffers can be visited in parallel
+            if (this.volume instanceof ImmutableBlockVolume && this.canRunParallel(this.volume, null)) {
+                VolumeSections.<Void>run(xMin, zMin, xMax, zMax, 0, 0, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                    for (int z = sectionZMin; z <= sectionZMax; z++) {
+                        for (int y = yMin; y <= yMax; y++) {
+                            for (int x = sectionXMin; x <= sectionXMax; x++) {
+                                visitor.visit(this.volume, x, y, z);
+                            }
+                        }
+                    }
+                    return null;
+                }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, result) -> {});
+            } else {
+                for (int z = zMin; z <= zMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = xMin; x <= xMax; x++) {
+                            visitor.visit(this.volume, x, y, z);
+                        }
                     }
                 }
             }
@@ -168,6 +274,25 @@ public <T> T reduce(BlockVolumeReducer<T> reducer, BiFunction<T, T, T> merge, T
         final int xMax = unmodifiableVolume.getBlockMax().getX();
         final int yMax = unmodifiableVolume.getBlockMax().getY();
         final int zMax = unmodifiableVolume.getBlockMax().getZ();
+        if (this.canRunParallel(this.volume, null)) {
+            final List<T> reductions = new ArrayList<>();
+            VolumeSections.<T>run(xMin, zMin, xMax, zMax, 0, 0, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                T reduction = identity;
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            reduction = reducer.reduce(unmodifiableVolume, x, y, z, reduction);
+                        }
+                    }
+                }
+                return reduction;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, reduction) -> reductions.add(reduction));
+            T reduction = identity;
+            for (T sectionReduction : reductions) {
+                reduction = merge.apply(reduction, sectionReduction);
+            }
+            return reduction;
+        }
         T reduction = identity;
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
@@ -179,6 +304,32 @@ public <T> T reduce(BlockVolumeReducer<T> reducer, BiFunction<T, T, T> merge, T
         return reduction;
     }
 
+    /**
+     * Sets the computed blocks of a section, in the order they were computed
+     * in. Array buffers, also behind views using their coordinates, get the
+     * whole section in one pass. Any other destination goes through
+     * {@link MutableBlockVolume#setBlock} for every block, so a world
+     * destination handles each change as usual.
+     */
+    static void setBlocks(MutableBlockVolume destination, int xMin, int yMin, int zMin, int xMax, int yMax, int zMax, BlockState[] blocks) {
+        MutableBlockVolume target = destination;
+        while (target instanceof MutableBlockViewDownsize && target.containsBlock(xMin, yMin, zMin) && target.containsBlock(xMax, yMax, zMax)) {
+            target = ((MutableBlockViewDownsize) target).getBacking();
+        }
+        if (target instanceof ArrayMutableBlockBuffer) {
+            ((ArrayMutableBlockBuffer) target).setBlocks(xMin, yMin, zMin, xMax, yMax, zMax, blocks);
+            return;
+        }
+        int i = 0;
+        for (int z = zMin; z <= zMax; z++) {
+            for (int y = yMin; y <= yMax; y++) {
+                for (int x = xMin; x <= xMax; x++) {
+                    destination.setBlock(x, y, z, blocks[i++]);
+                }
+            }
+        }
+    }
+
     private Vector3i align(BlockVolume other) {
         final Vector3i thisSize = this.volume.getBlockSize();
         final Vector3i otherSize = other.getBlockSize();
@@ -46,6 +46,22 @@ public void fill(BiomeVolumeFiller filler) {
         final int xMax = this.volume.getBiomeMax().getX();
         final int yMax = this.volume.getBiomeMax().getY();
         final int zMax = this.volume.getBiomeMax().getZ();
+        if (this.canRunParallel(this.volume, null)) {
+            VolumeSections.<BiomeType[]>run(xMin, zMin, xMax, zMax, 0, 0, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                final BiomeType[] biomes = new BiomeType[(sectionXMax - sectionXMin + 1) * (yMax - yMin + 1) * (sectionZMax - sectionZMin + 1)];
+                int i = 0;
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            biomes[i++] = filler.produce(x, y, z);
+                        }
+                    }
+                }
+                return biomes;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, biomes) ->
+                    setBiomes(this.volume, sectionXMin, yMin, sectionZMin, sectionXMax, yMax, sectionZMax, biomes));
+            return;
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -47,6 +47,22 @@ public void fill(BlockVolumeFiller filler) {
         final int xMax = this.volume.getBlockMax().getX();
         final int yMax = this.volume.getBlockMax().getY();
         final int zMax = this.volume.getBlockMax().getZ();
+        if (this.canRunParallel(this.volume, null)) {
+            VolumeSections.<BlockState[]>run(xMin, zMin, xMax, zMax, 0, 0, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                final BlockState[] blocks = new BlockState[(sectionXMax - sectionXMin + 1) * (yMax - yMin + 1) * (sectionZMax - sectionZMin + 1)];
+                int i = 0;
+                for (int z = sectionZMin; z <= sectionZMax; z++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        for (int x = sectionXMin; x <= sectionXMax; x++) {
+                            blocks[i++] = filler.produce(x, y, z);
+                        }
+                    }
+                }
+                return blocks;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, blocks) ->
+                    setBlocks(this.volume, sectionXMin, yMin, sectionZMin, sectionXMax, yMax, sectionZMax, blocks));
+            return;
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.extent.worker;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits the work of a volume worker into sections of at most one chunk
+ * column. The sections are computed in parallel on a pool of their own, so
+ * plugin procedures never hold up other users of the common pool, and
+ * committed in order on the calling thread.
+ */
+final class VolumeSections {
+
+    private static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    // The amount of sections computed ahead of the commits, bounds the memory used by the results
+    private static final int WINDOW = Math.max(4, PARALLELISM * 4);
+    private static final ForkJoinPool POOL;
+
+    static {
+        final AtomicInteger threadId = new AtomicInteger();
+        POOL = new ForkJoinPool(PARALLELISM, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Sponge - Volume Worker Thread #" + threadId.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+
+    interface Task<T> {
+
+        T compute(int xMin, int zMin, int xMax, int zMax);
+    }
+
+    interface Commit<T> {
+
+        void commit(int xMin, int zMin, int xMax, int zMax, T result);
+    }
+
+    /**
+     * Runs the task for every section of the area.
+     *
+     * @param xMin The minimum x coordinate
+     * @param zMin The minimum z coordinate
+     * @param xMax The maximum x coordinate
+     * @param zMax The maximum z coordinate
+     * @param xOffset The offset on the x axis of the coordinates the sections
+     *     are aligned to, usually the offset to the destination
+     * @param zOffset The offset on the z axis of the coordinates the sections
+     *     are aligned to, usually the offset to the destination
+     * @param task The task computing a section
+     * @param commit The commit of a computed section, on the calling thread
+     * @param <T> The type of the result of a section
+     */
+    static <T> void run(int xMin, int zMin, int xMax, int zMax, int xOffset, int zOffset, Task<T> task, Commit<T> commit) {
+        final Deque<Section<T>> pending = new ArrayDeque<>(WINDOW);
+        try {
+            for (int z = zMin; z <= zMax; z = ((z + zOffset) >> 4 << 4) + 16 - zOffset) {
+                final int sectionZMax = Math.min(zMax, ((z + zOffset) >> 4 << 4) + 15 - zOffset);
+                for (int x = xMin; x <= xMax; x = ((x + xOffset) >> 4 << 4) + 16 - xOffset) {
+                    final int sectionXMax = Math.min(xMax, ((x + xOffset) >> 4 << 4) + 15 - xOffset);
+                    if (pending.size() >= WINDOW) {
+                        pending.poll().commit(commit);
+                    }
+                    pending.add(new Section<>(x, z, sectionXMax, sectionZMax, task));
+                }
+            }
+            while (!pending.isEmpty()) {
+                pending.poll().commit(commit);
+            }
+        } finally {
+            // Only left over if a section failed
+            for (Section<T> section : pending) {
+                section.future.cancel(false);
+            }
+        }
+    }
+
+    private static final class Section<T> {
+
+        final int xMin;
+        final int zMin;
+        final int xMax;
+        final int zMax;
+        final ForkJoinTask<T> future;
+
+        Section(int xMin, int zMin, int xMax, int zMax, Task<T> task) {
+            this.xMin = xMin;
+            this.zMin = zMin;
+            this.xMax = xMax;
+            this.zMax = zMax;
+            this.future = POOL.submit(() -> task.compute(xMin, zMin, xMax, zMax));
+        }
+
+        void commit(Commit<T> commit) {
+            commit.commit(this.xMin, this.zMin, this.xMax, this.zMax, this.future.join());
+        }
+    }
+}
@@ -30,6 +30,9 @@
 import com.flowpowered.math.GenericMath;
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.slf4j.Logger;
 import org.spongepowered.api.Sponge;
@@ -44,23 +47,42 @@
 import org.spongepowered.api.world.WorldBorder;
 import org.spongepowered.api.world.storage.WorldProperties;
 import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
+import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import javax.annotation.Nullable;
 
+/**
+ * Generates the chunks around a center in a square spiral, a few of them
+ * every few ticks. Generating and populating the chunks happens on the main
+ * thread, the chunks are saved and unloaded again as soon as the remaining
+ * positions don't need them anymore.
+ *
+ * <p>Chunks are not generated in parallel. Generators share state like
+ * their random and structure generators between chunks, and populating a
+ * chunk changes the chunks next to it, so generating even non adjacent
+ * regions off the main thread needs thread safe generators first. Until
+ * then the throughput of the running tasks is shown by {@code /sponge tps}
+ * and {@link #getChunksPerSecond()}.</p>
+ */
 public class SpongeChunkPreGenerateTask implements ChunkPreGenerate, Consumer<Task> {
 
     private static final int DEFAULT_TICK_INTERVAL = 4;
     private static final float DEFAULT_TICK_PERCENT = 0.8f;
 
+    private static final Set<SpongeChunkPreGenerateTask> activeTasks = ConcurrentHashMap.newKeySet();
+
     private static final Vector3i[] OFFSETS = {
             Vector3i.UNIT_Z.negate().mul(2),
             Vector3i.UNIT_X.mul(2),
@@ -81,6 +103,10 @@ public class SpongeChunkPreGenerateTask implements ChunkPreGenerate, Consumer<Ta
     private final Task spongeTask;
     private final int tickInterval;
     private final Object plugin;
+    private final IMixinChunkProviderServer chunkProvider;
+    private final Vector3i centerPosition;
+    // Chunks loaded by the pre-generation, which are unloaded again once they are populated
+    private final Set<Vector3i> loadedChunks = new HashSet<>();
 
     // If null, no listeners have been assigned, so they don't need to be registered or unregistered.
     @Nullable private final EventListener<ChunkPreGenerationEvent> eventListener;
@@ -108,6 +134,7 @@ private SpongeChunkPreGenerateTask(Object plugin,
 
         this.plugin = plugin;
         this.world = world;
+        this.chunkProvider = (IMixinChunkProviderServer) ((WorldServer) world).getChunkProvider();
 
         // In order to be able to check whether a chunk exists, we could use standard Sponge API methods. However,
         // because they set up an async method which we need to get sync anyway, we just bypass it.
@@ -130,6 +157,7 @@ private SpongeChunkPreGenerateTask(Object plugin,
         final Optional<Vector3i> currentPosition = SpongeChunkLayout.instance.toChunk(center.toInt());
         if (currentPosition.isPresent()) {
             this.currentPosition = currentPosition.get();
+            this.centerPosition = this.currentPosition;
         } else {
             throw new IllegalArgumentException("Center is not a valid chunk coordinate");
         }
@@ -145,6 +173,7 @@ private SpongeChunkPreGenerateTask(Object plugin,
                 .intervalTicks(tickInterval)
                 .execute(this)
                 .submit(plugin);
+        activeTasks.add(this);
 
         if (!eventListeners.isEmpty()) {
             this.eventListener = new SpongeChunkPreGenerateListener(this.spongeTask.getUniqueId(), eventListeners);
@@ -154,6 +183,22 @@ private SpongeChunkPreGenerateTask(Object plugin,
         }
     }
 
+    /**
+     * Gets the pre-generation tasks of a world which are still running.
+     *
+     * @param world The world
+     * @return The running tasks
+     */
+    public static List<SpongeChunkPreGenerateTask> getActiveTasks(World world) {
+        final List<SpongeChunkPreGenerateTask> tasks = new ArrayList<>();
+        for (SpongeChunkPreGenerateTask task : activeTasks) {
+            if (task.world == world && !task.isCancelled()) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
     Task getSpongeTask() {
         return this.spongeTask;
     }
@@ -206,6 +251,8 @@ public void cancel() {
             }
             this.spongeTask.cancel();
             this.isCancelled = true;
+            activeTasks.remove(this);
+            unloadPopulatedChunks(true);
         }
     }
 
@@ -248,10 +295,10 @@ public void accept(Task task) {
             if (!areAllChunksLoaded(position, pos1, pos2, pos3)) {
 
                 // At least one chunk isn't generated, so to populate, we need to load them all.
-                this.world.loadChunk(position, true);
-                this.world.loadChunk(pos1, true);
-                this.world.loadChunk(pos2, true);
-                this.world.loadChunk(pos3, true);
+                loadChunk(position);
+                loadChunk(pos1);
+                loadChunk(pos2);
+                loadChunk(pos3);
 
                 count += this.currentGenCount;
             } else {
@@ -264,6 +311,8 @@ public void accept(Task task) {
         this.chunksGenerated += count;
         this.chunksSkipped += skipped;
 
+        unloadPopulatedChunks(!hasNextChunkPosition());
+
         final long deltaTime = System.currentTimeMillis() - stepStartTime;
         this.generationEndTime = System.currentTimeMillis();
 
@@ -289,11 +338,63 @@ public void accept(Task task) {
             ));
 
             this.isCancelled = true;
+            activeTasks.remove(this);
             unregisterListener();
             task.cancel();
         }
     }
 
+    private void loadChunk(Vector3i position) {
+        if (this.chunkProvider.getLoadedChunkWithoutMarkingActive(position.getX(), position.getZ()) == null) {
+            this.loadedChunks.add(position);
+        }
+        this.world.loadChunk(position, true);
+    }
+
+    /**
+     * Queues the chunks loaded by the pre-generation for unloading once they
+     * are populated and the remaining positions don't need them anymore to
+     * populate their own chunks, instead of keeping every generated chunk
+     * loaded. The chunk provider saves them with the same checks as any
+     * other queued chunk, like waiting for their pending lighting updates.
+     *
+     * @param all Whether the pre-generation ended, all its chunks are queued
+     */
+    private void unloadPopulatedChunks(boolean all) {
+        final WorldServer worldServer = (WorldServer) this.world;
+        final PlayerChunkMap playerChunkMap = worldServer.getPlayerChunkMap();
+        // The next positions are at least at the distance of the previous
+        // layer, and populate chunks one closer to the center
+        final int keptDistance = this.currentLayer - 2;
+        this.loadedChunks.removeIf(position -> {
+            final Chunk chunk = this.chunkProvider.getLoadedChunkWithoutMarkingActive(position.getX(), position.getZ());
+            // The chunk was unloaded or is used by something else by now
+            if (chunk == null || playerChunkMap.contains(position.getX(), position.getZ())) {
+                return true;
+            }
+            if (!all && (!chunk.isTerrainPopulated() || getDistance(position) >= keptDistance)) {
+                return false;
+            }
+            worldServer.getChunkProvider().queueUnload(chunk);
+            return true;
+        });
+    }
+
+    private int getDistance(Vector3i position) {
+        return Math.max(Math.abs(position.getX() - this.centerPosition.getX()), Math.abs(position.getZ() - this.centerPosition.getZ()));
+    }
+
+    /**
+     * Gets the average amount of chunks generated per second since the
+     * pre-generation started.
+     *
+     * @return The chunks per second
+     */
+    public double getChunksPerSecond() {
+        final long millis = getTotalTime().toMillis();
+        return millis <= 0 ? 0 : this.chunksGenerated * 1000.0 / millis;
+    }
+
     private boolean areAllChunksLoaded(Vector3i chunk1, Vector3i chunk2, Vector3i chunk3, Vector3i chunk4) {
         return this.doesChunkExistCheck.test(chunk1) && this.doesChunkExistCheck.test(chunk2) &&
                 this.doesChunkExistCheck.test(chunk3) && this.doesChunkExistCheck.test(chunk4);
@@ -313,7 +414,9 @@ private void cancelTask(Task task) {
         }
 
         this.isCancelled = true;
+        activeTasks.remove(this);
         unregisterListener();
+        unloadPopulatedChunks(true);
     }
 
     private boolean hasNextChunkPosition() {
@@ -387,15 +490,17 @@ public ChunkPreGenerate.Builder logger(@Nullable Logger logger) {
                 this.addListener(event -> {
                     if (event instanceof ChunkPreGenerationEvent.Post) {
                         ChunkPreGenerationEvent.Post post = (ChunkPreGenerationEvent.Post) event;
-                        logger.info("Generated {} chunks in {}, {}% complete", post.getChunksGeneratedThisStep(),
+                        logger.info("Generated {} chunks in {}, {}% complete ({} chunks/s)", post.getChunksGeneratedThisStep(),
                             DurationFormatUtils.formatDuration(post.getTimeTakenForStep().toMillis(), TIME_FORMAT, false),
                             GenericMath.floor(
                                 100 * (post.getChunkPreGenerate().getTotalGeneratedChunks() + post.getChunkPreGenerate().getTotalSkippedChunks())
-                                    / post.getChunkPreGenerate().getTargetTotalChunks())
+                                    / post.getChunkPreGenerate().getTargetTotalChunks()),
+                            getChunksPerSecond(post.getChunkPreGenerate())
                         );
                     } else if (event instanceof ChunkPreGenerationEvent.Complete) {
-                        logger.info("Done! Generated a total of {} chunks in {}", event.getChunkPreGenerate().getTargetTotalChunks(),
-                            DurationFormatUtils.formatDuration(event.getChunkPreGenerate().getTotalTime().toMillis(), TIME_FORMAT, false));
+                        logger.info("Done! Generated a total of {} chunks in {} ({} chunks/s)", event.getChunkPreGenerate().getTargetTotalChunks(),
+                            DurationFormatUtils.formatDuration(event.getChunkPreGenerate().getTotalTime().toMillis(), TIME_FORMAT, false),
+                            getChunksPerSecond(event.getChunkPreGenerate()));
                     }
                 });
             }
@@ -403,6 +508,13 @@ public ChunkPreGenerate.Builder logger(@Nullable Logger logger) {
             return this;
         }
 
+        private static String getChunksPerSecond(ChunkPreGenerate chunkPreGenerate) {
+            if (!(chunkPreGenerate instanceof SpongeChunkPreGenerateTask)) {
+                return "?";
+            }
+            return String.format("%.1f", ((SpongeChunkPreGenerateTask) chunkPreGenerate).getChunksPerSecond());
+        }
+
         @Override
         public ChunkPreGenerate.Builder tickInterval(int tickInterval) {
             checkArgument(tickInterval > 0, "tickInterval must be greater than zero");
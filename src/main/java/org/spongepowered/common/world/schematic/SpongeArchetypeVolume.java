@@ -40,6 +40,7 @@
 import org.spongepowered.api.world.extent.worker.MutableBlockVolumeWorker;
 import org.spongepowered.api.world.schematic.BlockPalette;
 import org.spongepowered.common.util.gen.AbstractBlockBuffer;
+import org.spongepowered.common.world.extent.worker.SpongeBlockVolumeWorker;
 import org.spongepowered.common.world.extent.worker.SpongeMutableBlockVolumeWorker;
 
 import java.util.Map;
@@ -61,6 +62,11 @@ public BlockPalette getPalette() {
         return ((AbstractBlockBuffer) this.backing).getPalette();
     }
 
+    @Override
+    public Object getStorage() {
+        return SpongeBlockVolumeWorker.getStorage(this.backing);
+    }
+
     @Override
     public Optional<TileEntityArchetype> getTileEntityArchetype(int x, int y, int z) {
         return Optional.ofNullable(this.tiles.get(getBlockMin().add(x, y, z)));
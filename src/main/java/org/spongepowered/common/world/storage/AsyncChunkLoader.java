@@ -0,0 +1,222 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.ChunkProviderServer;
+import org.spongepowered.api.util.Functional;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+/**
+ * Loads the chunks of a world without blocking the main thread.
+ *
+ * <p>Reading the region file, decompressing and decoding the terrain of a
+ * chunk happens on the async scheduler. The chunk is registered by the
+ * regular {@link ChunkProviderServer#loadChunk(int, int)} when the chunk
+ * provider ticks, which takes the read terrain instead of reading the chunk
+ * again and loads its entities and tile entities. Concurrent requests for
+ * the same chunk share one future, and chunks which don't exist are
+ * remembered for a while. All methods must be called from the main
+ * thread.</p>
+ */
+public final class AsyncChunkLoader {
+
+    private static final String CHUNK_IO_LANE = "sponge-chunk-io";
+
+    /**
+     * The number of ticks a chunk which doesn't exist isn't read again, the
+     * player chunk map requests missing chunks every tick until they are
+     * generated.
+     */
+    static final long MISSING_CHUNK_TICKS = 100;
+
+    private final ChunkProviderServer chunkProvider;
+    private final WorldServer world;
+    private final IMixinAnvilChunkLoader chunkLoader;
+    private final Executor executor;
+    private final Long2ObjectMap<PendingChunk> pending = new Long2ObjectOpenHashMap<>();
+    private final ConcurrentLinkedQueue<PendingChunk> completed = new ConcurrentLinkedQueue<>();
+    // The chunks which don't exist, mapped to the tick until which this is trusted
+    private final Long2LongMap missing = new Long2LongOpenHashMap();
+    private long nextMissingPurge;
+
+    public AsyncChunkLoader(ChunkProviderServer chunkProvider, IMixinAnvilChunkLoader chunkLoader) {
+        this(chunkProvider, chunkProvider.world, chunkLoader,
+                runnable -> SpongeImpl.getScheduler().getAsyncExecutor().executeInternal(CHUNK_IO_LANE, runnable));
+    }
+
+    AsyncChunkLoader(ChunkProviderServer chunkProvider, WorldServer world, IMixinAnvilChunkLoader chunkLoader, Executor executor) {
+        this.chunkProvider = chunkProvider;
+        this.world = world;
+        this.chunkLoader = chunkLoader;
+        this.executor = executor;
+        this.missing.defaultReturnValue(Long.MIN_VALUE);
+    }
+
+    /**
+     * Loads a chunk from its region file. The future completes on the main
+     * thread with the loaded chunk, or null if the chunk doesn't exist yet.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The future of the chunk
+     */
+    public CompletableFuture<Chunk> load(int x, int z) {
+        final long key = ChunkPos.asLong(x, z);
+        final Chunk loaded = this.chunkProvider.getLoadedChunk(x, z);
+        if (loaded != null) {
+            if (!this.missing.isEmpty()) {
+                this.missing.remove(key);
+            }
+            return CompletableFuture.completedFuture(loaded);
+        }
+        if (!this.missing.isEmpty() && this.missing.get(key) >= this.world.getTotalWorldTime()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        PendingChunk pendingChunk = this.pending.get(key);
+        if (pendingChunk == null) {
+            final PendingChunk newPendingChunk = new PendingChunk(x, z);
+            newPendingChunk.data = Functional.asyncFailableFuture(() -> this.chunkLoader.readChunkAsync(this.world, x, z), this.executor);
+            newPendingChunk.data.whenComplete((data, throwable) -> this.completed.add(newPendingChunk));
+            this.pending.put(key, newPendingChunk);
+            pendingChunk = newPendingChunk;
+        }
+        return pendingChunk.future;
+    }
+
+    /**
+     * Gets whether any chunks were read since the last time they were
+     * processed.
+     *
+     * @return Whether there are reads to process
+     */
+    public boolean hasCompleted() {
+        return !this.completed.isEmpty();
+    }
+
+    /**
+     * Finishes loading the chunks which were read by now. The caller is
+     * responsible for the phase and timings of the chunk loads.
+     */
+    public void processCompleted() {
+        final long now = this.world.getTotalWorldTime();
+        PendingChunk pendingChunk;
+        while ((pendingChunk = this.completed.poll()) != null) {
+            final long key = ChunkPos.asLong(pendingChunk.x, pendingChunk.z);
+            if (this.pending.get(key) != pendingChunk) {
+                // The chunk was taken by a synchronous load
+                pendingChunk.future.complete(this.chunkProvider.getLoadedChunk(pendingChunk.x, pendingChunk.z));
+                continue;
+            }
+            Chunk chunk = this.chunkProvider.getLoadedChunk(pendingChunk.x, pendingChunk.z);
+            if (chunk == null) {
+                if (pendingChunk.data.isCompletedExceptionally() || pendingChunk.data.join() != null) {
+                    // Takes the read data through loadChunkFromFile, a failed
+                    // read is repeated there and reports the error
+                    chunk = this.chunkProvider.loadChunk(pendingChunk.x, pendingChunk.z);
+                    // Nothing needs the chunk anymore if the players left while it was read
+                    if (chunk != null && !this.world.getPlayerChunkMap().contains(pendingChunk.x, pendingChunk.z)) {
+                        this.chunkProvider.queueUnload(chunk);
+                    }
+                } else {
+                    this.missing.put(key, now + MISSING_CHUNK_TICKS);
+                }
+            }
+            this.pending.remove(key);
+            pendingChunk.future.complete(chunk);
+        }
+        if (now >= this.nextMissingPurge && !this.missing.isEmpty()) {
+            this.nextMissingPurge = now + MISSING_CHUNK_TICKS;
+            final Iterator<Long2LongMap.Entry> it = this.missing.long2LongEntrySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().getLongValue() < now) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the chunk of a pending load for a synchronous load of the same
+     * chunk. The returned chunk still has to be registered by the caller.
+     * The main thread never waits for a read, if the chunk wasn't read yet
+     * the synchronous load reads it itself and the pending load completes
+     * with the chunk loaded by then.
+     *
+     * @param x The x coordinate of the chunk
+     * @param z The z coordinate of the chunk
+     * @return The chunk, or null if the synchronous load has to read it itself
+     */
+    @Nullable
+    public Chunk take(int x, int z) {
+        final PendingChunk pendingChunk = this.pending.remove(ChunkPos.asLong(x, z));
+        if (pendingChunk == null || !pendingChunk.data.isDone() || pendingChunk.data.isCompletedExceptionally()) {
+            return null;
+        }
+        final AsyncChunkData data = pendingChunk.data.join();
+        return data == null || data.chunk == null ? null : this.finish(data);
+    }
+
+    @Nullable
+    private Chunk finish(AsyncChunkData data) {
+        final Chunk chunk = data.chunk;
+        try {
+            this.chunkLoader.loadChunkEntities(this.world, data.level, chunk);
+            chunk.setLastSaveTime(this.world.getTotalWorldTime());
+            this.chunkProvider.chunkGenerator.recreateStructures(chunk, chunk.x, chunk.z);
+            return chunk;
+        } catch (Exception e) {
+            SpongeImpl.getLogger().error("Couldn't load chunk", e);
+            return null;
+        }
+    }
+
+    private static final class PendingChunk {
+
+        final int x;
+        final int z;
+        final CompletableFuture<Chunk> future = new CompletableFuture<>();
+        CompletableFuture<AsyncChunkData> data;
+
+        PendingChunk(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.ChunkPos;
+import org.spongepowered.common.SpongeImpl;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes the pending chunks of a chunk loader on the shared pool of chunk
+ * writer threads.
+ *
+ * <p>Chunks are sharded by their region file. Every region is written by at
+ * most one thread at a time and in the order the chunks were queued, while
+ * different regions are written in parallel. A chunk which is saved again
+ * before it was written is only written once, with its latest data.</p>
+ *
+ * <p>The region file of a region is pinned while it is written, so the
+ * region file cache doesn't close it when another thread opens too many
+ * region files.</p>
+ */
+public final class ChunkSaveQueue {
+
+    private static final int WRITE_ATTEMPTS = 5;
+
+    private static final Set<ChunkSaveQueue> activeQueues = ConcurrentHashMap.newKeySet();
+    @Nullable private static ExecutorService writers;
+
+    private final File regionDir;
+    private final Map<ChunkPos, NBTTagCompound> pending;
+    private final BiConsumer<ChunkPos, NBTTagCompound> writer;
+    private final Map<Long, RegionQueue> regions = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    private int depth;
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder writeTime = new LongAdder();
+    private final LongAdder latency = new LongAdder();
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates a new save queue.
+     *
+     * @param saveLocation The directory of the chunk loader, containing the
+     *     region directory
+     * @param pending The chunks waiting to be saved, shared with the chunk
+     *     loader so pending chunks can still be read
+     * @param writer The function writing a chunk to its region file
+     */
+    public ChunkSaveQueue(File saveLocation, Map<ChunkPos, NBTTagCompound> pending, BiConsumer<ChunkPos, NBTTagCompound> writer) {
+        this.regionDir = new File(saveLocation, "region");
+        this.pending = pending;
+        this.writer = writer;
+    }
+
+    private static synchronized ExecutorService getWriters() {
+        if (writers == null) {
+            final int threads = SpongeImpl.getGlobalConfig().getConfig().getOptimizations().getChunkSaveCategory().getWriterThreads();
+            writers = Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactoryBuilder()
+                    .setNameFormat("Sponge - Chunk Writer #%d")
+                    .setDaemon(true)
+                    .build());
+        }
+        return writers;
+    }
+
+    /**
+     * Waits until every chunk which was queued for saving in any world has
+     * been written.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    public static void awaitAll() throws InterruptedException {
+        for (ChunkSaveQueue queue : activeQueues) {
+            queue.await();
+        }
+    }
+
+    /**
+     * Queues a chunk for saving. If the chunk is already waiting to be
+     * written, only its data is replaced.
+     *
+     * @param pos The chunk position
+     * @param compound The chunk data
+     */
+    public void add(ChunkPos pos, NBTTagCompound compound) {
+        if (this.pending.put(pos, compound) != null) {
+            this.coalesced.increment();
+            return;
+        }
+        synchronized (this.lock) {
+            if (this.depth++ == 0) {
+                activeQueues.add(this);
+            }
+        }
+        final RegionQueue region = this.regions.computeIfAbsent(ChunkPos.asLong(pos.x >> 5, pos.z >> 5),
+                key -> new RegionQueue(new File(this.regionDir, "r." + (pos.x >> 5) + "." + (pos.z >> 5) + ".mca")));
+        region.add(new QueuedWrite(pos, System.nanoTime()));
+    }
+
+    /**
+     * Waits until every chunk which was queued for saving has been written.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        synchronized (this.lock) {
+            while (this.depth > 0) {
+                this.lock.wait();
+            }
+        }
+    }
+
+    private void write(RegionQueue region, QueuedWrite write) {
+        final NBTTagCompound compound = this.pending.get(write.pos);
+        if (compound != null) {
+            final long start = System.nanoTime();
+            Exception lastException = null;
+            for (int attempt = 0; attempt < WRITE_ATTEMPTS; attempt++) {
+                try {
+                    this.writer.accept(write.pos, compound);
+                    lastException = null;
+                    break;
+                } catch (Exception e) {
+                    lastException = e;
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (lastException != null) {
+                SpongeImpl.getLogger().error("Failed to save chunk at " + write.pos, lastException);
+            }
+            final long end = System.nanoTime();
+            this.writes.increment();
+            this.writeTime.add(end - start);
+            this.latency.add(end - write.queued);
+            this.maxLatency.accumulate(end - write.queued);
+            // The chunk was saved again while it was written, write the newer data as well
+            if (!this.pending.remove(write.pos, compound)) {
+                region.add(write);
+                return;
+            }
+        }
+        synchronized (this.lock) {
+            if (--this.depth == 0) {
+                activeQueues.remove(this);
+                this.lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of chunks waiting to be written.
+     *
+     * @return The queue depth
+     */
+    public int getDepth() {
+        synchronized (this.lock) {
+            return this.depth;
+        }
+    }
+
+    public long getWrites() {
+        return this.writes.sum();
+    }
+
+    /**
+     * Gets the amount of saves which were merged into a write that was
+     * already queued.
+     *
+     * @return The amount of coalesced saves
+     */
+    public long getCoalescedSaves() {
+        return this.coalesced.sum();
+    }
+
+    /**
+     * Gets the total time spent writing chunks.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getWriteTime() {
+        return this.writeTime.sum();
+    }
+
+    /**
+     * Gets the total time between queuing and writing chunks.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getLatency() {
+        return this.latency.sum();
+    }
+
+    /**
+     * Gets the longest time between queuing and writing a chunk.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getMaxLatency() {
+        return this.maxLatency.get();
+    }
+
+    private static final class QueuedWrite {
+
+        final ChunkPos pos;
+        final long queued;
+
+        QueuedWrite(ChunkPos pos, long queued) {
+            this.pos = pos;
+            this.queued = queued;
+        }
+    }
+
+    private final class RegionQueue implements Runnable {
+
+        private final File file;
+        private final ConcurrentLinkedQueue<QueuedWrite> writes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        RegionQueue(File file) {
+            this.file = file;
+        }
+
+        void add(QueuedWrite write) {
+            this.writes.add(write);
+            if (this.scheduled.compareAndSet(false, true)) {
+                getWriters().execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            WorldStorageUtil.pinRegionFile(this.file);
+            try {
+                do {
+                    QueuedWrite write;
+                    while ((write = this.writes.poll()) != null) {
+                        ChunkSaveQueue.this.write(this, write);
+                    }
+                    this.scheduled.set(false);
+                    // A chunk may have been queued after the queue was found empty
+                } while (!this.writes.isEmpty() && this.scheduled.compareAndSet(false, true));
+            } finally {
+                WorldStorageUtil.unpinRegionFile(this.file);
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the location tables of region files in memory, so queries about
+ * which chunks were saved don't have to touch the disk.
+ *
+ * <p>The header of a region file is read once, the first time it is queried,
+ * and kept up to date by the region file whenever it writes a chunk. The
+ * least recently used headers are dropped once too many are cached, and the
+ * headers of a world are dropped when its files are changed as a whole.</p>
+ *
+ * <p>The headers are kept in access order, guarded by the map. A header is
+ * read outside of that lock while holding the lock of the header itself, so
+ * reading one region file doesn't block the lookups of other regions.</p>
+ */
+public final class RegionFileIndex {
+
+    private static final int CHUNKS_PER_REGION = 1024;
+    private static final int HEADER_SIZE = CHUNKS_PER_REGION * 4;
+    // Same as the limit of open region files of the region file cache, 2 MB worth of headers
+    static final int MAX_CACHED_HEADERS = 256;
+
+    private static final Map<File, Header> headers = new LinkedHashMap<File, Header>(MAX_CACHED_HEADERS * 2, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, Header> eldest) {
+            return size() > MAX_CACHED_HEADERS;
+        }
+    };
+
+    private RegionFileIndex() {
+    }
+
+    /**
+     * Gets the region file containing a chunk, the same file the region file
+     * cache would open.
+     *
+     * @param worldDir The directory of the world
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @return The region file
+     */
+    public static File getRegionFile(File worldDir, int chunkX, int chunkZ) {
+        return new File(new File(worldDir, "region"), "r." + (chunkX >> 5) + "." + (chunkZ >> 5) + ".mca");
+    }
+
+    /**
+     * Gets the header of a region file, reading it from disk if it isn't
+     * cached yet.
+     *
+     * @param regionFile The region file
+     * @return The header
+     */
+    public static Header getHeader(File regionFile) {
+        Header header;
+        synchronized (headers) {
+            header = headers.get(regionFile);
+            if (header == null) {
+                header = new Header(regionFile);
+                headers.put(regionFile, header);
+            }
+        }
+        header.load();
+        return header;
+    }
+
+    public static Header getHeader(File worldDir, int chunkX, int chunkZ) {
+        return getHeader(getRegionFile(worldDir, chunkX, chunkZ));
+    }
+
+    /**
+     * Gets whether the header of a region file is already in memory.
+     *
+     * @param regionFile The region file
+     * @return True if the header is cached
+     */
+    public static boolean isCached(File regionFile) {
+        synchronized (headers) {
+            return headers.containsKey(regionFile);
+        }
+    }
+
+    /**
+     * Drops the cached header of a region file, it is read again from disk
+     * the next time it is queried.
+     *
+     * @param regionFile The region file
+     */
+    public static void invalidate(File regionFile) {
+        synchronized (headers) {
+            headers.remove(regionFile);
+        }
+    }
+
+    /**
+     * Drops the cached headers of every region file within a directory, for
+     * example after a world was deleted, copied or renamed.
+     *
+     * @param directory The directory, usually the directory of a world
+     */
+    public static void invalidateDirectory(File directory) {
+        final Path path = directory.getAbsoluteFile().toPath().normalize();
+        synchronized (headers) {
+            headers.keySet().removeIf(file -> file.getAbsoluteFile().toPath().normalize().startsWith(path));
+        }
+    }
+
+    public static boolean chunkExists(File worldDir, int chunkX, int chunkZ) {
+        return getHeader(worldDir, chunkX, chunkZ).exists(chunkX & 31, chunkZ & 31);
+    }
+
+    /**
+     * Updates the location of a chunk after it was written to a region file.
+     *
+     * @param regionFile The region file
+     * @param x The x coordinate of the chunk within the region
+     * @param z The z coordinate of the chunk within the region
+     * @param offset The new location of the chunk
+     */
+    public static void updateOffset(File regionFile, int x, int z, int offset) {
+        // Headers which aren't cached are read up to date later
+        final Header header = getCachedHeader(regionFile);
+        if (header != null) {
+            header.setOffset(x, z, offset);
+        }
+    }
+
+    /**
+     * Updates the timestamp of a chunk after it was written to a region file.
+     *
+     * @param regionFile The region file
+     * @param x The x coordinate of the chunk within the region
+     * @param z The z coordinate of the chunk within the region
+     * @param timestamp The new timestamp in seconds
+     */
+    public static void updateTimestamp(File regionFile, int x, int z, int timestamp) {
+        final Header header = getCachedHeader(regionFile);
+        if (header != null) {
+            header.setTimestamp(x, z, timestamp);
+        }
+    }
+
+    @Nullable
+    private static Header getCachedHeader(File regionFile) {
+        synchronized (headers) {
+            return headers.get(regionFile);
+        }
+    }
+
+    /**
+     * The location table of a region file.
+     *
+     * <p>The location of a chunk holds the sector it starts at in the upper
+     * 24 bits and the amount of sectors it occupies in the lower 8 bits. A
+     * location of 0 means the chunk doesn't exist.</p>
+     */
+    public static final class Header {
+
+        // Null while the region file doesn't exist
+        @Nullable private int[] offsets;
+        @Nullable private int[] timestamps;
+        // The region file to read the header from, null once it was read
+        @Nullable private File regionFile;
+
+        Header(File regionFile) {
+            this.regionFile = regionFile;
+        }
+
+        /**
+         * Reads the header from the region file, the first time it is called.
+         * Other threads using the header wait until it was read.
+         */
+        synchronized void load() {
+            final File regionFile = this.regionFile;
+            if (regionFile == null) {
+                return;
+            }
+            this.regionFile = null;
+            if (!regionFile.isFile()) {
+                return;
+            }
+            final byte[] bytes = new byte[HEADER_SIZE * 2];
+            try (RandomAccessFile file = new RandomAccessFile(regionFile, "r")) {
+                // Region files which are too small are padded by the region file, the missing entries are empty
+                file.readFully(bytes, 0, (int) Math.min(bytes.length, file.length()));
+            } catch (IOException e) {
+                return;
+            }
+            this.offsets = new int[CHUNKS_PER_REGION];
+            this.timestamps = new int[CHUNKS_PER_REGION];
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.asIntBuffer().get(this.offsets);
+            buffer.position(HEADER_SIZE);
+            buffer.slice().asIntBuffer().get(this.timestamps);
+        }
+
+        public synchronized boolean exists(int x, int z) {
+            return this.offsets != null && this.offsets[x + z * 32] != 0;
+        }
+
+        /**
+         * Gets the location of a chunk within the region.
+         *
+         * @param x The x coordinate of the chunk within the region
+         * @param z The z coordinate of the chunk within the region
+         * @return The location, or 0 if the chunk doesn't exist
+         */
+        public synchronized int getOffset(int x, int z) {
+            return this.offsets == null ? 0 : this.offsets[x + z * 32];
+        }
+
+        /**
+         * Gets the first sector of a chunk within the region file.
+         *
+         * @param x The x coordinate of the chunk within the region
+         * @param z The z coordinate of the chunk within the region
+         * @return The sector, or 0 if the chunk doesn't exist
+         */
+        public int getSectorOffset(int x, int z) {
+            return this.getOffset(x, z) >>> 8;
+        }
+
+        /**
+         * Gets the amount of 4 KiB sectors a chunk occupies.
+         *
+         * @param x The x coordinate of the chunk within the region
+         * @param z The z coordinate of the chunk within the region
+         * @return The amount of sectors, or 0 if the chunk doesn't exist
+         */
+        public int getSectorCount(int x, int z) {
+            return this.getOffset(x, z) & 0xFF;
+        }
+
+        /**
+         * Gets when a chunk was last written.
+         *
+         * @param x The x coordinate of the chunk within the region
+         * @param z The z coordinate of the chunk within the region
+         * @return The timestamp in seconds, or 0 if the chunk doesn't exist
+         */
+        public synchronized int getTimestamp(int x, int z) {
+            return this.timestamps == null ? 0 : this.timestamps[x + z * 32];
+        }
+
+        /**
+         * Gets the indices of the existing chunks, ordered by their location
+         * in the region file. The index of a chunk is {@code x + z * 32}.
+         *
+         * @return The indices in on disk order
+         */
+        public synchronized int[] getChunksInFileOrder() {
+            if (this.offsets == null) {
+                return new int[0];
+            }
+            int count = 0;
+            final long[] sorted = new long[CHUNKS_PER_REGION];
+            for (int i = 0; i < CHUNKS_PER_REGION; i++) {
+                if (this.offsets[i] != 0) {
+                    sorted[count++] = (long) (this.offsets[i] >>> 8) << 10 | i;
+                }
+            }
+            Arrays.sort(sorted, 0, count);
+            final int[] indices = new int[count];
+            for (int i = 0; i < count; i++) {
+                indices[i] = (int) (sorted[i] & (CHUNKS_PER_REGION - 1));
+            }
+            return indices;
+        }
+
+        synchronized void setOffset(int x, int z, int offset) {
+            // The region file already contains the change if the header wasn't read yet
+            load();
+            if (this.offsets == null) {
+                this.offsets = new int[CHUNKS_PER_REGION];
+                this.timestamps = new int[CHUNKS_PER_REGION];
+            }
+            this.offsets[x + z * 32] = offset;
+        }
+
+        synchronized void setTimestamp(int x, int z, int timestamp) {
+            load();
+            if (this.timestamps == null) {
+                this.offsets = new int[CHUNKS_PER_REGION];
+                this.timestamps = new int[CHUNKS_PER_REGION];
+            }
+            this.timestamps[x + z * 32] = timestamp;
+        }
+    }
+}
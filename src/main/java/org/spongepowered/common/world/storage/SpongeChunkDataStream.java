@@ -24,126 +24,136 @@
  */
 package org.spongepowered.common.world.storage;
 
-import com.google.common.collect.Sets;
 import net.minecraft.world.chunk.storage.RegionFile;
 import org.spongepowered.api.data.DataContainer;
 import org.spongepowered.api.world.storage.ChunkDataStream;
+import org.spongepowered.common.SpongeImpl;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.annotation.Nullable;
 
 public class SpongeChunkDataStream implements ChunkDataStream {
 
+    // The amount of chunks which are read and parsed ahead on the async scheduler
+    private static final int READ_AHEAD = 8;
+
     private static class RegionFileItr {
 
-        private final RegionFile file;
+        private final Path path;
+        // The chunks of the region, in the order they are stored in the file
+        private final int[] chunks;
         public int index;
+        @Nullable private RegionFile file;
 
-        public RegionFileItr(RegionFile regionFile) {
-            this.file = regionFile;
+        public RegionFileItr(Path path) {
+            this.path = path;
+            this.chunks = RegionFileIndex.getHeader(path.toFile()).getChunksInFileOrder();
         }
 
-        public int getNext() {
-            int index = this.index;
-            int[] offsets = this.file.offsets;
-            while (index != -1 && index < offsets.length && offsets[index] == 0) {
-                index++;
-            }
-            if (index >= offsets.length) {
-                return -1;
-            }
-            return index;
+        public boolean hasNext() {
+            return this.index < this.chunks.length;
         }
 
-        public DataInputStream getStreamAt(int index) {
-            int x = index & 31;
-            int z = index >>> 5;
-            return this.file.getChunkDataInputStream(x, z);
+        public int remaining() {
+            return this.chunks.length - this.index;
+        }
+
+        public CompletableFuture<DataContainer> readNext() {
+            final int chunk = this.chunks[this.index++];
+            if (this.file == null) {
+                this.file = WorldStorageUtil.getRegionFile(this.path);
+            }
+            final RegionFile file = this.file;
+            return SpongeImpl.getScheduler().submitAsyncTask(() -> WorldStorageUtil.readDataFromRegion(
+                    file.getChunkDataInputStream(chunk & 31, chunk >>> 5)));
         }
 
     }
 
-    private final Set<Path> openedFiles = Sets.newHashSet();
-    private RegionFileItr regionFileItr;
     private final Path worldDir;
+    @Nullable private List<Path> regionFiles;
+    private int regionFileIndex;
+    @Nullable private RegionFileItr regionFileItr;
+    private final Deque<CompletableFuture<DataContainer>> readAhead = new ArrayDeque<>();
 
     public SpongeChunkDataStream(Path worldDir) {
         this.worldDir = worldDir;
     }
 
-    private boolean itrAvailable() {
-        if (this.regionFileItr != null) {
-            return true;
+    private List<Path> getRegionFiles() {
+        if (this.regionFiles == null) {
+            this.regionFiles = new ArrayList<>();
+            WorldStorageUtil.listRegionFiles(this.worldDir).forEach(this.regionFiles::add);
         }
-        Iterable<Path> files = WorldStorageUtil.listRegionFiles(this.worldDir);
-        for (Path file : files) {
-            if (!this.openedFiles.contains(file)) {
-                this.regionFileItr = new RegionFileItr(WorldStorageUtil.getRegionFile(file));
-                this.openedFiles.add(file);
-                return true;
-            }
-        }
-        return false;
+        return this.regionFiles;
     }
 
-    private int getNextIndex() {
-        int next;
-        while (itrAvailable()) {
-            if ((next = this.regionFileItr.getNext()) == -1) {
+    private boolean itrAvailable() {
+        while (this.regionFileItr == null || !this.regionFileItr.hasNext()) {
+            final List<Path> files = this.getRegionFiles();
+            if (this.regionFileIndex >= files.size()) {
                 this.regionFileItr = null;
-            } else {
-                return next;
+                return false;
             }
+            this.regionFileItr = new RegionFileItr(files.get(this.regionFileIndex++));
+        }
+        return true;
+    }
+
+    private void fillReadAhead() {
+        while (this.readAhead.size() < READ_AHEAD && itrAvailable()) {
+            this.readAhead.add(this.regionFileItr.readNext());
         }
-        return -1;
     }
 
     @Override
     public DataContainer next() {
-        int next = getNextIndex();
-        if (next == -1) {
+        fillReadAhead();
+        final CompletableFuture<DataContainer> next = this.readAhead.poll();
+        if (next == null) {
             throw new NoSuchElementException();
         }
-        this.regionFileItr.index = next + 1;
-        DataInputStream stream = this.regionFileItr.getStreamAt(next);
         try {
-            return WorldStorageUtil.readDataFromRegion(stream);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            return next.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause() instanceof IOException ? e.getCause() : e);
         }
     }
 
     @Override
     public boolean hasNext() {
-        return getNextIndex() != -1;
+        return !this.readAhead.isEmpty() || itrAvailable();
     }
 
     @Override
     public int available() {
-        // Advance to the end of the stream, counting along the way. Store
-        // previous state and reset to it afterwards.
-        RegionFileItr currentItr = this.regionFileItr;
-        Set<Path> currentOpenedFiles = Sets.newHashSet(this.openedFiles);
-        int count = 0;
-        int index = getNextIndex();
-        while (index != -1) {
-            count++;
-            this.regionFileItr.index = index + 1;
-            index = getNextIndex();
+        // Count from the cached region headers, without opening the region files
+        int count = this.readAhead.size();
+        if (this.regionFileItr != null) {
+            count += this.regionFileItr.remaining();
+        }
+        final List<Path> files = this.getRegionFiles();
+        for (int i = this.regionFileIndex; i < files.size(); i++) {
+            count += RegionFileIndex.getHeader(files.get(i).toFile()).getChunksInFileOrder().length;
         }
-        this.regionFileItr = currentItr;
-        this.openedFiles.clear();
-        this.openedFiles.addAll(currentOpenedFiles);
         return count;
     }
 
     @Override
     public void reset() {
+        this.readAhead.clear();
         this.regionFileItr = null;
-        this.openedFiles.clear();
+        this.regionFiles = null;
+        this.regionFileIndex = 0;
     }
 
 }
@@ -45,18 +45,28 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class WorldStorageUtil {
 
+    private static final Map<File, Integer> pinnedRegionFiles = new ConcurrentHashMap<>();
+
     public static CompletableFuture<Boolean> doesChunkExist(WorldServer world, IChunkLoader chunkLoader, Vector3i chunkCoords) {
         int x = chunkCoords.getX();
         int z = chunkCoords.getZ();
         if (!(chunkLoader instanceof IMixinAnvilChunkLoader) || !SpongeChunkLayout.instance.isValidChunk(x, chunkCoords.getY(), z)) {
             return CompletableFuture.completedFuture(false);
         }
-        return SpongeImpl.getScheduler().submitAsyncTask(() -> ((IMixinAnvilChunkLoader) chunkLoader).chunkExists(world, x, z));
+        final IMixinAnvilChunkLoader anvilChunkLoader = (IMixinAnvilChunkLoader) chunkLoader;
+        // Cached region headers answer without touching the disk
+        if (RegionFileIndex.isCached(RegionFileIndex.getRegionFile(anvilChunkLoader.getWorldDir().toFile(), x, z))) {
+            return CompletableFuture.completedFuture(anvilChunkLoader.chunkExists(world, x, z));
+        }
+        return SpongeImpl.getScheduler().submitAsyncTask(() -> anvilChunkLoader.chunkExists(world, x, z));
     }
 
     public static CompletableFuture<Optional<DataContainer>> getChunkData(WorldServer world, IChunkLoader chunkLoader, Vector3i chunkCoords) {
@@ -103,16 +113,57 @@ public static Iterable<Path> listRegionFiles(Path worldDir) {
     // file name instead of x,z
     public static RegionFile getRegionFile(Path regionFilePath) {
         File file = regionFilePath.toFile();
-        RegionFile regionFile = RegionFileCache.REGIONS_BY_FILE.get(file);
-        if (regionFile != null) {
+        // Region files are opened by the chunk IO threads at the same time
+        synchronized (RegionFileCache.class) {
+            RegionFile regionFile = RegionFileCache.REGIONS_BY_FILE.get(file);
+            if (regionFile != null) {
+                return regionFile;
+            }
+            if (RegionFileCache.REGIONS_BY_FILE.size() >= 256) {
+                clearUnpinnedRegionFiles();
+            }
+            regionFile = new RegionFile(file);
+            RegionFileCache.REGIONS_BY_FILE.put(file, regionFile);
             return regionFile;
         }
-        if (RegionFileCache.REGIONS_BY_FILE.size() >= 256) {
-            RegionFileCache.clearRegionFileReferences();
+    }
+
+    /**
+     * Pins a region file, it isn't closed by the region file cache until
+     * it is unpinned again. Pins are counted, every pin needs an unpin.
+     *
+     * @param file The region file
+     */
+    public static void pinRegionFile(File file) {
+        pinnedRegionFiles.merge(file, 1, Integer::sum);
+    }
+
+    /**
+     * Removes a pin from a region file.
+     *
+     * @param file The region file
+     */
+    public static void unpinRegionFile(File file) {
+        pinnedRegionFiles.computeIfPresent(file, (key, pins) -> pins == 1 ? null : pins - 1);
+    }
+
+    // Similar to RegionFileCache#clearRegionFileReferences except this keeps
+    // the region files chunk writers are still writing to. Must be called
+    // while holding the lock of RegionFileCache.
+    public static void clearUnpinnedRegionFiles() {
+        final Iterator<Map.Entry<File, RegionFile>> iterator = RegionFileCache.REGIONS_BY_FILE.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<File, RegionFile> entry = iterator.next();
+            if (pinnedRegionFiles.containsKey(entry.getKey())) {
+                continue;
+            }
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                SpongeImpl.getLogger().error("Failed to close region file " + entry.getKey(), e);
+            }
+            iterator.remove();
         }
-        regionFile = new RegionFile(file);
-        RegionFileCache.REGIONS_BY_FILE.put(file, regionFile);
-        return regionFile;
     }
 
 }
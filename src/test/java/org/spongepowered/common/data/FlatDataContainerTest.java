@@ -0,0 +1,155 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+
+import java.util.Optional;
+
+public class FlatDataContainerTest {
+
+    private static void fill(DataContainer container) {
+        container.set(DataQuery.of("Name"), "test");
+        container.set(DataQuery.of("Pos", "X"), 1);
+        container.set(DataQuery.of("Pos", "Y"), 2.5D);
+        container.set(DataQuery.of("Pos", "Deep", "Z"), 3L);
+        container.set(DataQuery.of("Bytes"), new byte[] {1, 2, 3});
+        container.set(DataQuery.of("List"), ImmutableList.of("a", "b"));
+        container.set(DataQuery.of("Map"), ImmutableMap.of("key", "value"));
+    }
+
+    @Test
+    public void testSameValuesAsMemoryContainer() {
+        final DataContainer memory = new MemoryDataContainer();
+        final DataContainer flat = new FlatDataContainer();
+        fill(memory);
+        fill(flat);
+
+        assertEquals(memory.getKeys(true), flat.getKeys(true));
+        assertEquals(memory.getKeys(false), flat.getKeys(false));
+        for (DataQuery query : memory.getKeys(true)) {
+            final Object expected = memory.get(query).get();
+            final Object actual = flat.get(query).get();
+            if (expected instanceof byte[]) {
+                assertArrayEquals((byte[]) expected, (byte[]) actual);
+            } else if (expected instanceof DataView) {
+                assertEquals(((DataView) expected).getValues(true), ((DataView) actual).getValues(true));
+            } else {
+                assertEquals(expected, actual);
+            }
+        }
+        assertEquals(Optional.of(3L), flat.getLong(DataQuery.of("Pos", "Deep", "Z")));
+        assertEquals(Optional.of("value"), flat.getString(DataQuery.of("Map", "key")));
+    }
+
+    @Test
+    public void testViews() {
+        final DataContainer container = new FlatDataContainer();
+        fill(container);
+
+        final DataView pos = container.getView(DataQuery.of("Pos")).get();
+        assertEquals(DataQuery.of("Pos"), pos.getCurrentPath());
+        assertEquals("Pos", pos.getName());
+        assertEquals(container, pos.getContainer());
+        assertEquals(Optional.of(1), pos.getInt(DataQuery.of("X")));
+
+        // Views write through to the container
+        pos.set(DataQuery.of("Deep", "W"), 4);
+        assertEquals(Optional.of(4), container.getInt(DataQuery.of("Pos", "Deep", "W")));
+
+        pos.remove(DataQuery.of("Deep"));
+        assertFalse(container.contains(DataQuery.of("Pos", "Deep", "Z")));
+        assertFalse(container.contains(DataQuery.of("Pos", "Deep")));
+        assertTrue(container.contains(DataQuery.of("Pos", "X")));
+    }
+
+    @Test
+    public void testReplace() {
+        final DataContainer container = new FlatDataContainer();
+        fill(container);
+
+        container.set(DataQuery.of("Pos"), 5);
+        assertEquals(Optional.of(5), container.getInt(DataQuery.of("Pos")));
+        assertFalse(container.contains(DataQuery.of("Pos", "X")));
+        assertFalse(container.getKeys(true).contains(DataQuery.of("Pos", "Deep", "Z")));
+
+        container.set(DataQuery.of("Pos", "X"), 6);
+        assertEquals(Optional.of(6), container.getInt(DataQuery.of("Pos", "X")));
+
+        container.createView(DataQuery.of("Pos"));
+        assertTrue(container.getView(DataQuery.of("Pos")).get().isEmpty());
+    }
+
+    @Test
+    public void testCopy() {
+        final DataContainer container = new FlatDataContainer();
+        fill(container);
+        final DataContainer copy = container.copy();
+        assertEquals(container.getKeys(true), copy.getKeys(true));
+
+        copy.set(DataQuery.of("Pos", "X"), 7);
+        assertEquals(Optional.of(1), container.getInt(DataQuery.of("Pos", "X")));
+
+        final byte[] bytes = (byte[]) container.get(DataQuery.of("Bytes")).get();
+        assertNotSame(bytes, container.get(DataQuery.of("Bytes")).get());
+    }
+
+    @Test
+    public void testEqualToMemoryContainer() {
+        final DataContainer memory = new MemoryDataContainer();
+        final DataContainer flat = new FlatDataContainer();
+        for (DataContainer container : ImmutableList.of(memory, flat)) {
+            container.set(DataQuery.of("Name"), "test");
+            container.set(DataQuery.of("Pos", "X"), 1);
+            container.set(DataQuery.of("Pos", "Deep", "Z"), 3L);
+            container.set(DataQuery.of("List"), ImmutableList.of("a", "b"));
+        }
+
+        assertEquals(memory, flat);
+        assertEquals(flat, memory);
+        assertEquals(memory.hashCode(), flat.hashCode());
+        final DataView memoryPos = memory.getView(DataQuery.of("Pos")).get();
+        final DataView flatPos = flat.getView(DataQuery.of("Pos")).get();
+        assertEquals(memoryPos, flatPos);
+        assertEquals(flatPos, memoryPos);
+        assertEquals(memoryPos.hashCode(), flatPos.hashCode());
+
+        flat.set(DataQuery.of("Pos", "Deep", "Z"), 4L);
+        assertNotEquals(memory, flat);
+        assertNotEquals(flat, memory);
+    }
+}
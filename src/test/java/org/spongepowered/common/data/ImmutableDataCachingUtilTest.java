@@ -0,0 +1,75 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spongepowered.api.data.key.Keys;
+import org.spongepowered.api.data.manipulator.ImmutableDataManipulator;
+import org.spongepowered.api.data.value.immutable.ImmutableValue;
+import org.spongepowered.common.data.manipulator.immutable.block.ImmutableSpongeAttachedData;
+import org.spongepowered.common.data.manipulator.immutable.block.ImmutableSpongeSnowedData;
+import org.spongepowered.common.data.value.immutable.ImmutableSpongeValue;
+import org.spongepowered.lwts.runner.LaunchWrapperTestRunner;
+
+@RunWith(LaunchWrapperTestRunner.class)
+public class ImmutableDataCachingUtilTest {
+
+    @Test
+    public void testEqualManipulatorArgumentsAreInterned() {
+        final ImmutableSpongeSnowedData first = ImmutableDataCachingUtil.getManipulator(ImmutableSpongeSnowedData.class, true);
+        final ImmutableSpongeSnowedData second = ImmutableDataCachingUtil.getManipulator(ImmutableSpongeSnowedData.class, true);
+        assertSame(first, second);
+
+        final ImmutableSpongeSnowedData other = ImmutableDataCachingUtil.getManipulator(ImmutableSpongeSnowedData.class, false);
+        assertNotSame(first, other);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    public void testManipulatorClassesAreKeptApart() {
+        // The caches are shared, equal arguments of different classes may not collide
+        final ImmutableDataManipulator<?, ?> snowed = ImmutableDataCachingUtil.getManipulator(ImmutableSpongeSnowedData.class, true);
+        final ImmutableDataManipulator<?, ?> attached = ImmutableDataCachingUtil.getManipulator(ImmutableSpongeAttachedData.class, true);
+        assertNotSame(snowed, attached);
+        assertSame(ImmutableSpongeAttachedData.class, attached.getClass());
+    }
+
+    @Test
+    public void testEqualValueArgumentsAreInterned() {
+        final ImmutableValue<Boolean> first = ImmutableSpongeValue.cachedOf(Keys.SNOWED, false, true);
+        final ImmutableValue<Boolean> second = ImmutableSpongeValue.cachedOf(Keys.SNOWED, false, true);
+        assertSame(first, second);
+
+        assertNotSame(first, ImmutableSpongeValue.cachedOf(Keys.SNOWED, false, false));
+        assertNotSame(first, ImmutableSpongeValue.cachedOf(Keys.SNOWED, true, true));
+        assertNotSame(first, ImmutableSpongeValue.cachedOf(Keys.ATTACHED, false, true));
+    }
+
+}
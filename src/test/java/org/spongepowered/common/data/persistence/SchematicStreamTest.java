@@ -0,0 +1,217 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.Lists;
+import net.minecraft.nbt.CompressedStreamTools;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.world.extent.BlockVolume;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.schematic.Schematic;
+import org.spongepowered.common.data.util.DataQueries;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+import org.spongepowered.common.world.schematic.BimapPalette;
+import org.spongepowered.common.world.schematic.SpongeSchematic;
+import org.spongepowered.lwts.runner.LaunchWrapperTestRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+@RunWith(LaunchWrapperTestRunner.class)
+public class SchematicStreamTest {
+
+    private static BlockState[] createStates() {
+        return new BlockState[] {
+                BlockTypes.STONE.getDefaultState(),
+                BlockTypes.DIRT.getDefaultState(),
+                BlockTypes.GRASS.getDefaultState(),
+                BlockTypes.SAND.getDefaultState(),
+                BlockTypes.GRAVEL.getDefaultState(),
+                BlockTypes.GLASS.getDefaultState(),
+                BlockTypes.BEDROCK.getDefaultState(),
+                BlockTypes.COBBLESTONE.getDefaultState(),
+        };
+    }
+
+    private static Schematic createSchematic(int width, int height, int length) {
+        final BlockState[] states = createStates();
+        final ArrayMutableBlockBuffer buffer = new ArrayMutableBlockBuffer(new BimapPalette(), new Vector3i(-5, 10, 3),
+                new Vector3i(width, height, length));
+        final Random random = new Random(1);
+        for (int y = 0; y < height; y++) {
+            for (int z = 0; z < length; z++) {
+                for (int x = 0; x < width; x++) {
+                    buffer.setBlock(x - 5, y + 10, z + 3, states[random.nextInt(states.length)]);
+                }
+            }
+        }
+        final DataContainer metadata = DataContainer.createNew();
+        metadata.set(DataQuery.of("Name"), "test");
+        return new SpongeSchematic(buffer, new HashMap<>(), metadata);
+    }
+
+    private static void assertBlocksEqual(BlockVolume expected, BlockVolume actual) {
+        assertEquals(expected.getBlockMin(), actual.getBlockMin());
+        assertEquals(expected.getBlockSize(), actual.getBlockSize());
+        assertBlocksContained(expected, actual);
+    }
+
+    private static void assertBlocksContained(BlockVolume expected, BlockVolume region) {
+        final Vector3i min = region.getBlockMin();
+        final Vector3i max = region.getBlockMax();
+        for (int y = min.getY(); y <= max.getY(); y++) {
+            for (int z = min.getZ(); z <= max.getZ(); z++) {
+                for (int x = min.getX(); x <= max.getX(); x++) {
+                    assertEquals(expected.getBlock(x, y, z), region.getBlock(x, y, z));
+                }
+            }
+        }
+    }
+
+    private static byte[] writeCompressed(DataView view) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(new GZIPOutputStream(output))) {
+            NbtStreamWriter.write(view, data);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] writeStreamed(Schematic schematic) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SchematicTranslator.get().write(schematic, output);
+        return output.toByteArray();
+    }
+
+    @Test
+    public void testTranslatorOutputIsStreamed() throws IOException {
+        final Schematic schematic = createSchematic(37, 7, 41);
+        final DataContainer data = SchematicTranslator.get().translate(schematic);
+
+        // The reader can only decode the blocks while reading if the palette comes first
+        final List<DataQuery> keys = new ArrayList<>(data.getKeys(false));
+        assertTrue(keys.indexOf(DataQueries.Schematic.PALETTE) < keys.indexOf(DataQueries.Schematic.BLOCK_DATA));
+        assertTrue(keys.indexOf(DataQueries.Schematic.PALETTE_MAX) < keys.indexOf(DataQueries.Schematic.BLOCK_DATA));
+
+        final Schematic read = SchematicTranslator.get().read(new ByteArrayInputStream(writeCompressed(data)));
+        assertBlocksEqual(schematic, read);
+        assertEquals("test", read.getMetadata().getString(DataQuery.of("Name")).get());
+    }
+
+    @Test
+    public void testStreamedOutputTranslates() throws IOException {
+        final Schematic schematic = createSchematic(37, 7, 41);
+        final byte[] streamed = writeStreamed(schematic);
+
+        final DataView data = NbtTranslator.getInstance().translateLazily(CompressedStreamTools.readCompressed(new ByteArrayInputStream(streamed)));
+        final Schematic read = SchematicTranslator.get().translate(data);
+        assertBlocksEqual(schematic, read);
+        assertEquals("test", read.getMetadata().getString(DataQuery.of("Name")).get());
+    }
+
+    @Test
+    public void testVarIntEdges() throws IOException {
+        final BlockState[] states = createStates();
+        // The largest and smallest ids of one, two, three and four byte varints
+        final int[] ids = {0, 1, 127, 128, 16383, 16384, 2097151, 2097152};
+        final BimapPalette palette = new BimapPalette();
+        for (int i = 0; i < ids.length; i++) {
+            palette.assign(states[i], ids[i]);
+        }
+        final ArrayMutableBlockBuffer buffer = new ArrayMutableBlockBuffer(palette, Vector3i.ZERO, new Vector3i(ids.length, 2, 1));
+        for (int i = 0; i < ids.length; i++) {
+            buffer.setBlock(i, 0, 0, states[i]);
+            buffer.setBlock(i, 1, 0, states[ids.length - 1 - i]);
+        }
+        final Schematic schematic = new SpongeSchematic(buffer, new HashMap<>());
+
+        final DataContainer data = SchematicTranslator.get().translate(schematic);
+        assertEquals(2 * (1 + 1 + 1 + 2 + 2 + 3 + 3 + 4), ((byte[]) data.get(DataQueries.Schematic.BLOCK_DATA).get()).length);
+        assertBlocksEqual(schematic, SchematicTranslator.get().translate(data));
+        assertBlocksEqual(schematic, SchematicTranslator.get().read(new ByteArrayInputStream(writeCompressed(data))));
+        assertBlocksEqual(schematic, SchematicTranslator.get().read(new ByteArrayInputStream(writeStreamed(schematic))));
+    }
+
+    @Test
+    public void testRegions() throws IOException {
+        final Schematic schematic = createSchematic(13, 7, 11);
+        final List<MutableBlockVolume> regions = Lists.newArrayList();
+        try (SchematicStreamReader reader = new SchematicStreamReader(new ByteArrayInputStream(writeStreamed(schematic)))) {
+            reader.readRegions(3, regions::add);
+        }
+
+        assertEquals(3, regions.size());
+        final int[] heights = {3, 3, 1};
+        int y = schematic.getBlockMin().getY();
+        for (int i = 0; i < regions.size(); i++) {
+            final MutableBlockVolume region = regions.get(i);
+            assertEquals(new Vector3i(schematic.getBlockMin().getX(), y, schematic.getBlockMin().getZ()), region.getBlockMin());
+            assertEquals(new Vector3i(13, heights[i], 11), region.getBlockSize());
+            assertBlocksContained(schematic, region);
+            y += heights[i];
+        }
+    }
+
+    @Test
+    public void testBlockDataBeforePalette() throws IOException {
+        final Schematic schematic = createSchematic(13, 7, 11);
+        final DataContainer translated = SchematicTranslator.get().translate(schematic);
+
+        // The order the translator used to write, the reader has to buffer the block data
+        final DataContainer data = DataContainer.createNew();
+        data.set(DataQueries.Schematic.BLOCK_DATA, translated.get(DataQueries.Schematic.BLOCK_DATA).get());
+        for (DataQuery key : translated.getKeys(false)) {
+            if (!key.equals(DataQueries.Schematic.BLOCK_DATA)) {
+                data.set(key, translated.get(key).get());
+            }
+        }
+
+        final List<MutableBlockVolume> regions = Lists.newArrayList();
+        try (SchematicStreamReader reader = new SchematicStreamReader(new ByteArrayInputStream(writeCompressed(data)))) {
+            reader.readRegions(4, regions::add);
+        }
+        assertEquals(2, regions.size());
+        for (MutableBlockVolume region : regions) {
+            assertBlocksContained(schematic, region);
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.translator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagByte;
+import net.minecraft.nbt.NBTTagByteArray;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagDouble;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
+import org.junit.Test;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.common.data.MemoryDataContainer;
+import org.spongepowered.common.data.persistence.NbtDataView;
+import org.spongepowered.common.data.persistence.NbtStreamWriter;
+import org.spongepowered.common.data.persistence.NbtTranslator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class NbtDataViewTest {
+
+    private static NBTTagCompound createCompound() {
+        final NBTTagCompound compound = new NBTTagCompound();
+        compound.setInteger("id", 5);
+        compound.setTag("flag" + NbtTranslator.BOOLEAN_IDENTIFER, new NBTTagByte((byte) 1));
+        compound.setTag("name", new NBTTagString("Sponge"));
+        final NBTTagList list = new NBTTagList();
+        for (int i = 0; i < 3; i++) {
+            final NBTTagCompound element = new NBTTagCompound();
+            element.setTag("value", new NBTTagDouble(i));
+            list.appendTag(element);
+        }
+        compound.setTag("list", list);
+        final NBTTagCompound nested = new NBTTagCompound();
+        nested.setInteger("x", 10);
+        compound.setTag("nested", nested);
+        return compound;
+    }
+
+    @Test
+    public void testLazyMatchesTranslated() {
+        final NBTTagCompound compound = createCompound();
+        final DataContainer lazy = NbtTranslator.getInstance().translateLazily(compound);
+        final DataContainer translated = NbtTranslator.getInstance().translateFrom(compound);
+
+        assertTrue(lazy.contains(DataQuery.of("flag")));
+        assertFalse(lazy.contains(DataQuery.of("flag" + NbtTranslator.BOOLEAN_IDENTIFER)));
+        assertEquals(true, lazy.getBoolean(DataQuery.of("flag")).get());
+        assertEquals(10, (int) lazy.getInt(DataQuery.of("nested", "x")).get());
+        assertEquals(translated.getKeys(true), lazy.getKeys(true));
+        assertTrue(translated.equals(lazy));
+        assertTrue(lazy.equals(translated));
+        assertSame(compound, NbtDataView.getUnmodifiedCompound(lazy));
+    }
+
+    @Test
+    public void testModification() {
+        final NBTTagCompound compound = createCompound();
+        final NBTTagCompound original = compound.copy();
+        final DataContainer lazy = NbtTranslator.getInstance().translateLazily(compound);
+
+        lazy.set(DataQuery.of("nested", "y"), 20);
+        assertNull(NbtDataView.getUnmodifiedCompound(lazy));
+        assertEquals(original, compound);
+
+        final NBTTagCompound written = NbtTranslator.getInstance().translateData(lazy);
+        assertEquals(20, written.getCompoundTag("nested").getInteger("y"));
+        assertEquals(10, written.getCompoundTag("nested").getInteger("x"));
+        assertEquals(5, written.getInteger("id"));
+    }
+
+    @Test
+    public void testArraysAreCopied() {
+        final NBTTagCompound compound = new NBTTagCompound();
+        compound.setTag("bytes", new NBTTagByteArray(new byte[] {1, 2, 3}));
+        final DataContainer lazy = NbtTranslator.getInstance().translateLazily(compound);
+        final byte[] bytes = (byte[]) lazy.get(DataQuery.of("bytes")).get();
+        bytes[0] = 9;
+        assertArrayEquals(new byte[] {1, 2, 3}, compound.getByteArray("bytes"));
+    }
+
+    @Test
+    public void testSetSharesCompound() {
+        final NBTTagCompound compound = createCompound();
+        final DataContainer container = new MemoryDataContainer(DataView.SafetyMode.NO_DATA_CLONED);
+        container.set(DataQuery.of("UnsafeData"), NbtTranslator.getInstance().translateLazily(compound));
+        final DataView view = container.getView(DataQuery.of("UnsafeData")).get();
+        assertSame(compound, NbtDataView.getUnmodifiedCompound(view));
+        assertEquals(DataQuery.of("UnsafeData"), view.getCurrentPath());
+        assertEquals("Sponge", container.getString(DataQuery.of("UnsafeData", "name")).get());
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        final NBTTagCompound compound = createCompound();
+        for (int i = 0; i < 100; i++) {
+            compound.setInteger("value" + i, i);
+        }
+        final DataContainer lazy = NbtTranslator.getInstance().translateLazily(compound);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<DataView>> views = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                views.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        assertEquals(j, (int) lazy.getInt(DataQuery.of("value" + j)).get());
+                    }
+                    return lazy.getView(DataQuery.of("nested")).get();
+                }));
+            }
+            // Every reader gets the same nested view, none of the lazily converted values got lost
+            final DataView nested = views.get(0).get();
+            for (Future<DataView> view : views) {
+                assertSame(nested, view.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(compound.getSize(), lazy.getKeys(false).size());
+        assertSame(compound, NbtDataView.getUnmodifiedCompound(lazy));
+    }
+
+    @Test
+    public void testStreamWriter() throws IOException {
+        final NBTTagCompound compound = createCompound();
+        final DataContainer container = NbtTranslator.getInstance().translateFrom(compound);
+        container.set(DataQuery.of("extra"), false);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NbtStreamWriter.write(container, new DataOutputStream(bytes));
+        final NBTTagCompound read = CompressedStreamTools.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertNotNull(read);
+        assertEquals(NbtTranslator.getInstance().translateData(container), read);
+    }
+}
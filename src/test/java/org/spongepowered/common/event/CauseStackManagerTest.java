@@ -90,4 +90,80 @@ public void testPoppingFrameRemovesFrameContexts() throws Exception {
         Assert.assertFalse(causeStackManager.getContext(EventContextKeys.OWNER).isPresent());
     }
 
+    @Test
+    public void testPoppingFrameRestoresRemovedContexts() throws Exception {
+        final SpongeCauseStackManager causeStackManager = SpongeImpl.getCauseStackManager();
+
+        User user = Mockito.mock(User.class);
+        User user2 = Mockito.mock(User.class);
+
+        causeStackManager.addContext(EventContextKeys.OWNER, user);
+
+        // Change and then remove the context in the same frame
+        SpongeCauseStackManager.StackFrame frame = causeStackManager.pushCauseFrame();
+        causeStackManager.addContext(EventContextKeys.OWNER, user2);
+        causeStackManager.removeContext(EventContextKeys.OWNER);
+        Assert.assertFalse(causeStackManager.getContext(EventContextKeys.OWNER).isPresent());
+        Assert.assertFalse(causeStackManager.getCurrentContext().containsKey(EventContextKeys.OWNER));
+
+        // The value from before the frame is restored
+        causeStackManager.popCauseFrame(frame);
+        Assert.assertEquals(user, causeStackManager.getContext(EventContextKeys.OWNER).get());
+        Assert.assertEquals(user, causeStackManager.getCurrentContext().get(EventContextKeys.OWNER).get());
+
+        // A new frame at the same depth starts out empty
+        frame = causeStackManager.pushCauseFrame();
+        causeStackManager.pushCause(1);
+        Assert.assertEquals(1, causeStackManager.getCurrentCause().root());
+        causeStackManager.popCauseFrame(frame);
+        Assert.assertEquals(user, causeStackManager.getContext(EventContextKeys.OWNER).get());
+
+        causeStackManager.removeContext(EventContextKeys.OWNER);
+    }
+
+    @Test
+    public void testPoppingStaleFrameFails() throws Exception {
+        final SpongeCauseStackManager causeStackManager = SpongeImpl.getCauseStackManager();
+
+        SpongeCauseStackManager.StackFrame stale = causeStackManager.pushCauseFrame();
+        causeStackManager.popCauseFrame(stale);
+
+        // The next frame at the same depth must not be popped through the old one
+        SpongeCauseStackManager.StackFrame frame = causeStackManager.pushCauseFrame();
+        causeStackManager.pushCause(1);
+        Assert.assertNotSame(stale, frame);
+        try {
+            causeStackManager.popCauseFrame(stale);
+            Assert.fail("Popped a frame which was already popped");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals(1, causeStackManager.getCurrentCause().root());
+        causeStackManager.popCauseFrame(frame);
+    }
+
+    @Test
+    public void testPoppingStaleFrameFailsAfterReuse() throws Exception {
+        final SpongeCauseStackManager causeStackManager = SpongeImpl.getCauseStackManager();
+
+        SpongeCauseStackManager.StackFrame stale = causeStackManager.pushCauseFrame();
+        causeStackManager.popCauseFrame(stale);
+
+        // Popped frames are reused, but not before the spare frames
+        for (int i = 0; i < 8; i++) {
+            causeStackManager.popCauseFrame(causeStackManager.pushCauseFrame());
+        }
+        SpongeCauseStackManager.StackFrame frame = causeStackManager.pushCauseFrame();
+        causeStackManager.pushCause(1);
+        Assert.assertNotSame(stale, frame);
+        try {
+            causeStackManager.popCauseFrame(stale);
+            Assert.fail("Popped a frame which was already popped");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals(1, causeStackManager.getCurrentCause().root());
+        causeStackManager.popCauseFrame(frame);
+    }
+
 }
@@ -0,0 +1,159 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import co.aikar.timings.Timings;
+import co.aikar.timings.TimingsFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.spongepowered.api.event.EventListener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.common.InjectedTest;
+import org.spongepowered.common.event.gen.DefineableClassLoader;
+import org.spongepowered.lwts.runner.LaunchWrapperTestRunner;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(LaunchWrapperTestRunner.class)
+public class EventRegistrationTest extends InjectedTest {
+
+    private SpongeEventManager eventManager;
+    private Object plugin;
+
+    @Before
+    public void init() {
+        PluginManager manager = Mockito.mock(PluginManager.class);
+        this.eventManager = new SpongeEventManager(this.logger, manager);
+
+        try {
+            Field field = Timings.class.getDeclaredField("factory");
+            field.setAccessible(true);
+
+            Field modifiersField = Field.class.getDeclaredField("modifiers");
+            modifiersField.setAccessible(true);
+            modifiersField.setInt(field, field.getModifiers() & ~Modifier.FINAL);
+
+            field.set(null, Mockito.mock(TimingsFactory.class));
+        } catch (IllegalAccessException | NoSuchFieldException e) {
+            e.printStackTrace();
+        }
+
+        this.plugin = new Object();
+        PluginContainer container = Mockito.mock(PluginContainer.class);
+        Mockito.when(manager.fromInstance(this.plugin)).thenReturn(Optional.of(container));
+    }
+
+    @Test
+    public void testUnrelatedCacheKept() {
+        this.eventManager.registerListener(this.plugin, EventFilterTest.SubEvent.class, event -> { });
+
+        RegisteredListener.Cache subCache = this.eventManager.getHandlerCache(EventFilterTest.SubEvent.class);
+        RegisteredListener.Cache otherCache = this.eventManager.getHandlerCache(EventFilterTest.OtherSubEvent.class);
+        Assert.assertEquals(1, subCache.getListeners().size());
+        Assert.assertEquals(0, otherCache.getListeners().size());
+
+        this.eventManager.registerListener(this.plugin, EventFilterTest.SubEvent.class, event -> { });
+
+        Assert.assertSame("Unrelated handler cache was invalidated!", otherCache,
+                this.eventManager.getHandlerCache(EventFilterTest.OtherSubEvent.class));
+        Assert.assertEquals(2, this.eventManager.getHandlerCache(EventFilterTest.SubEvent.class).getListeners().size());
+
+        // A listener for the common super type affects both
+        this.eventManager.registerListener(this.plugin, EventFilterTest.TestEvent.class, event -> { });
+
+        Assert.assertEquals(3, this.eventManager.getHandlerCache(EventFilterTest.SubEvent.class).getListeners().size());
+        Assert.assertEquals(1, this.eventManager.getHandlerCache(EventFilterTest.OtherSubEvent.class).getListeners().size());
+    }
+
+    @Test
+    public void testDispatcherClassesReused() throws Exception {
+        final ClassEventDispatcherFactory factory = new ClassEventDispatcherFactory("org.spongepowered.common.event.dispatcher",
+                new DefineableClassLoader(getClass().getClassLoader()));
+        final PluginContainer container = Mockito.mock(PluginContainer.class);
+
+        // Simulates the listeners being registered and unregistered over and
+        // over again, every change bakes a new dispatcher
+        final List<RegisteredListener<?>> listeners = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            listeners.clear();
+            for (int j = 0; j <= i % 4; j++) {
+                listeners.add(new RegisteredListener<>(container, EventFilterTest.SubEvent.class, Order.DEFAULT, event -> { }, false));
+            }
+            final EventDispatcher dispatcher = factory.create(EventFilterTest.SubEvent.class, listeners);
+            Assert.assertEquals(listeners.size(), dispatcher.size());
+        }
+
+        Assert.assertEquals("Dispatcher classes weren't reused!", 4, factory.getDefinedClassCount());
+    }
+
+    @Test
+    public void testPostWhileRegistering() throws InterruptedException {
+        final AtomicInteger received = new AtomicInteger();
+        this.eventManager.registerListener(this.plugin, EventFilterTest.SubEvent.class, event -> received.incrementAndGet());
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicInteger registrations = new AtomicInteger();
+        final Thread registrar = new Thread(() -> {
+            while (running.get()) {
+                final List<EventListener<EventFilterTest.TestEvent>> listeners = new ArrayList<>();
+                for (int i = 0; i < 16; i++) {
+                    EventListener<EventFilterTest.TestEvent> listener = event -> { };
+                    listeners.add(listener);
+                    this.eventManager.registerListener(this.plugin, EventFilterTest.TestEvent.class, listener);
+                }
+                for (EventListener<EventFilterTest.TestEvent> listener : listeners) {
+                    this.eventManager.unregisterListeners(listener);
+                }
+                registrations.addAndGet(listeners.size());
+            }
+        }, "Sponge - Test Registrar");
+        registrar.start();
+
+        final int posts = 200000;
+        for (int i = 0; i < posts; i++) {
+            this.eventManager.post(new EventFilterTest.SubEvent(EventFilterTest.TEST_CAUSE));
+        }
+
+        running.set(false);
+        registrar.join();
+
+        Assert.assertEquals("Events were lost during concurrent registration!", posts, received.get());
+        Assert.assertTrue("No listeners were registered during posting!", registrations.get() > 0);
+        Assert.assertEquals(1, this.eventManager.getHandlerCache(EventFilterTest.SubEvent.class).getListeners().size());
+        Assert.assertEquals(0, this.eventManager.getHandlerCache(EventFilterTest.TestEvent.class).getListeners().size());
+    }
+
+}
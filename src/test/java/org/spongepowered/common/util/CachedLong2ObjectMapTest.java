@@ -0,0 +1,110 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.common.interfaces.IMixinCachable;
+
+import java.util.Iterator;
+
+public class CachedLong2ObjectMapTest {
+
+    private static long key(int x, int z) {
+        return x & 0xFFFFFFFFL | (z & 0xFFFFFFFFL) << 32;
+    }
+
+    @Test
+    public void testGet() {
+        final CachedLong2ObjectMap<Value> map = new CachedLong2ObjectMap<>();
+        final Value value = new Value(key(1, -1));
+        final Value neighbor = new Value(key(2, -1));
+        map.put(value.key, value);
+        map.put(neighbor.key, neighbor);
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(value, map.get(value.key));
+            assertSame(neighbor, map.get(neighbor.key));
+        }
+        // Same slot as the first value
+        assertNull(map.get(key(1 + CachedLong2ObjectMap.CACHE_WIDTH, -1)));
+        assertSame(value, map.get(value.key));
+        assertTrue(map.containsKey(value.key));
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        final CachedLong2ObjectMap<Value> map = new CachedLong2ObjectMap<>();
+        final Value value = new Value(key(0, 0));
+        map.put(value.key, value);
+        assertSame(value, map.get(value.key));
+
+        final Value replacement = new Value(key(0, 0));
+        map.put(replacement.key, replacement);
+        assertSame(replacement, map.get(value.key));
+
+        map.remove(value.key);
+        assertNull(map.get(value.key));
+        assertFalse(map.containsKey(value.key));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        final CachedLong2ObjectMap<Value> map = new CachedLong2ObjectMap<>();
+        final Value value = new Value(key(-5, 7));
+        map.put(value.key, value);
+        assertSame(value, map.get(value.key));
+
+        // The iterator can't clear the cache, invalid values are skipped
+        final Iterator<Value> iterator = map.values().iterator();
+        iterator.next().valid = false;
+        iterator.remove();
+        assertNull(map.get(value.key));
+    }
+
+    private static final class Value implements IMixinCachable {
+
+        final long key;
+        boolean valid = true;
+
+        Value(long key) {
+            this.key = key;
+        }
+
+        @Override
+        public long getCacheKey() {
+            return this.key;
+        }
+
+        @Override
+        public boolean isCacheValid() {
+            return this.valid;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+public class IpPrefixTrieTest {
+
+    @Test
+    public void testLongestPrefix() throws UnknownHostException {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+        trie.add(InetAddress.getByName("10.0.0.0"), 8, "range");
+        trie.add(InetAddress.getByName("10.42.2.5"), 32, "single");
+        assertEquals("single", trie.get(InetAddress.getByName("10.42.2.5")));
+        assertEquals("range", trie.get(InetAddress.getByName("10.42.2.6")));
+        assertNull(trie.get(InetAddress.getByName("11.0.0.0")));
+        assertFalse(trie.contains(InetAddress.getByName("::a00:0")));
+    }
+
+    @Test
+    public void testIpv6() throws UnknownHostException {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+        trie.add(InetAddress.getByName("2064:45:300::"), 40, "range");
+        assertTrue(trie.contains(InetAddress.getByName("2064:45:310::cafe")));
+        assertFalse(trie.contains(InetAddress.getByName("2064:45:410::cafe")));
+    }
+
+    @Test
+    public void testRemove() throws UnknownHostException {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+        InetAddress address = InetAddress.getByName("192.168.4.0");
+        trie.add(address, 22, "first");
+        trie.add(address, 22, "second");
+        assertEquals("first", trie.get(InetAddress.getByName("192.168.7.255")));
+        assertFalse(trie.remove(address, 23, "first"));
+        assertTrue(trie.remove(address, 22, "first"));
+        assertEquals("second", trie.get(InetAddress.getByName("192.168.7.255")));
+        assertTrue(trie.remove(address, 22, "second"));
+        assertFalse(trie.contains(InetAddress.getByName("192.168.7.255")));
+        assertEquals(0, trie.size());
+    }
+}
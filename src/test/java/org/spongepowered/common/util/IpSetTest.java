@@ -55,6 +55,13 @@ public void testNonByteAlignedSets() throws UnknownHostException {
         assertFalse(spec.apply(InetAddress.getByName("2064:45:410::cafe")));
     }
 
+    @Test
+    public void testPartialByteSets() throws UnknownHostException {
+        IpSet spec = IpSet.fromCidr("192.168.4.0/22");
+        assertTrue(spec.apply(InetAddress.getByName("192.168.7.255")));
+        assertFalse(spec.apply(InetAddress.getByName("192.168.8.0")));
+    }
+
     @Test
     public void testFullLengthSets() throws UnknownHostException {
         IpSet specv4 = IpSet.fromCidr("10.0.0.1/32");
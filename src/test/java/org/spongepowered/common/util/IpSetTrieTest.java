@@ -0,0 +1,70 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+public class IpSetTrieTest {
+
+    @Test
+    public void testMatchingSets() throws UnknownHostException {
+        IpSetTrie trie = IpSetTrie.compile(ImmutableMap.of(
+                "lan", ImmutableList.of(IpSet.fromCidr("10.0.0.0/8")),
+                "office", ImmutableList.of(IpSet.fromCidr("10.42.0.0/16")),
+                "v6", ImmutableList.of(IpSet.fromCidr("[fc00::]/8"))));
+        assertEquals(ImmutableList.of("lan", "office"), trie.getMatchingSets(InetAddress.getByName("10.42.2.5")));
+        assertEquals(ImmutableList.of("lan"), trie.getMatchingSets(InetAddress.getByName("10.43.2.5")));
+        assertEquals(ImmutableList.of("v6"), trie.getMatchingSets(InetAddress.getByName("fcc0:c0b2:2a14:7afc:5216:1854:1a2f:2c13")));
+        assertTrue(trie.getMatchingSets(InetAddress.getByName("192.168.0.1")).isEmpty());
+    }
+
+    @Test
+    public void testAllSetsOfListMustMatch() throws UnknownHostException {
+        IpSetTrie trie = IpSetTrie.compile(ImmutableMap.of(
+                "both", ImmutableList.of(IpSet.fromCidr("10.0.0.0/8"), IpSet.fromCidr("10.42.0.0/16"), IpSet.fromCidr("10.42.0.0/16")),
+                "any", ImmutableList.of()));
+        assertEquals(ImmutableList.of("both", "any"), trie.getMatchingSets(InetAddress.getByName("10.42.2.5")));
+        assertEquals(ImmutableList.of("any"), trie.getMatchingSets(InetAddress.getByName("10.43.2.5")));
+    }
+
+    @Test
+    public void testNonByteAlignedAndFullLengthSets() throws UnknownHostException {
+        IpSetTrie trie = IpSetTrie.compile(ImmutableMap.of(
+                "aligned", ImmutableList.of(IpSet.fromCidr("10.0.0.1/32")),
+                "partial", ImmutableList.of(IpSet.fromCidr("192.168.4.0/22"))));
+        assertEquals(ImmutableList.of("aligned"), trie.getMatchingSets(InetAddress.getByName("10.0.0.1")));
+        assertTrue(trie.getMatchingSets(InetAddress.getByName("10.0.0.2")).isEmpty());
+        assertEquals(ImmutableList.of("partial"), trie.getMatchingSets(InetAddress.getByName("192.168.7.255")));
+        assertTrue(trie.getMatchingSets(InetAddress.getByName("192.168.8.0")).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class AsyncLightingEngineTest {
+
+    private static final int SIZE = 32;
+
+    /**
+     * Every job claims the 3x3 chunk area around its chunk, no two jobs
+     * may ever hold overlapping areas at the same time.
+     */
+    @Test
+    public void testJobAreasDontOverlap() throws InterruptedException {
+        final AsyncLightingEngine engine = new AsyncLightingEngine(4);
+        final AtomicIntegerArray claimed = new AtomicIntegerArray((SIZE + 2) * (SIZE + 2));
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final int rounds = 4;
+        final CountDownLatch latch = new CountDownLatch(SIZE * SIZE * rounds);
+
+        for (int round = 0; round < rounds; round++) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    final int chunkX = x;
+                    final int chunkZ = z;
+                    engine.schedule(chunkX, chunkZ, () -> {
+                        for (int i = 0; i < 3; i++) {
+                            for (int j = 0; j < 3; j++) {
+                                if (claimed.getAndIncrement((chunkX + i) * (SIZE + 2) + chunkZ + j) != 0) {
+                                    overlapped.set(true);
+                                }
+                            }
+                        }
+                        Thread.yield();
+                        for (int i = 0; i < 3; i++) {
+                            for (int j = 0; j < 3; j++) {
+                                claimed.decrementAndGet((chunkX + i) * (SIZE + 2) + chunkZ + j);
+                            }
+                        }
+                        latch.countDown();
+                    });
+                }
+            }
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertFalse(overlapped.get());
+        // The counters are updated after the jobs of a chunk complete
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.getCompletedJobs() < SIZE * SIZE * rounds && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(SIZE * SIZE * rounds, engine.getCompletedJobs());
+        engine.getExecutor().shutdown();
+        assertFalse(engine.schedule(0, 0, () -> {}));
+    }
+}
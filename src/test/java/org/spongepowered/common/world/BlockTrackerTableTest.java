@@ -0,0 +1,99 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class BlockTrackerTableTest {
+
+    private static short shortPos(int x, int y, int z) {
+        return (short) (x & 0xF | (y & 0xFF) << 4 | (z & 0xF) << 12);
+    }
+
+    @Test
+    public void testPacking() {
+        final long entry = BlockTrackerTable.pack(-1, 42);
+        assertEquals(-1, BlockTrackerTable.getOwnerIndex(entry));
+        assertEquals(42, BlockTrackerTable.getNotifierIndex(entry));
+        assertTrue(BlockTrackerTable.pack(-1, -1) != BlockTrackerTable.ABSENT);
+    }
+
+    @Test
+    public void testShortAndIntPositions() {
+        final BlockTrackerTable table = new BlockTrackerTable();
+        final short pos = shortPos(15, 200, 15);
+        table.put(pos, BlockTrackerTable.pack(3, 4));
+        table.put(pos, BlockTrackerTable.pack(3, 5));
+        table.put(1 << 4, BlockTrackerTable.pack(7, -1));
+        assertEquals(2, table.size());
+        assertEquals(BlockTrackerTable.pack(3, 5), table.get(pos));
+        assertEquals(BlockTrackerTable.pack(7, -1), table.get(1 << 4));
+        assertEquals(BlockTrackerTable.ABSENT, table.get(shortPos(15, 201, 15)));
+        assertEquals(BlockTrackerTable.ABSENT, table.get((int) pos));
+
+        table.remove(pos);
+        table.remove(1 << 4);
+        assertTrue(table.isEmpty());
+        assertEquals(BlockTrackerTable.ABSENT, table.get(pos));
+    }
+
+    @Test
+    public void testDenseSection() {
+        final BlockTrackerTable table = new BlockTrackerTable();
+        final Map<Short, Long> expected = new HashMap<>();
+        // Fill all of the section 64 to 79 and a bit of another one
+        for (int y = 64; y < 80; y++) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    final short pos = shortPos(x, y, z);
+                    final long entry = BlockTrackerTable.pack(x, y * 16 + z);
+                    table.put(pos, entry);
+                    expected.put(pos, entry);
+                }
+            }
+        }
+        table.put(shortPos(3, 255, 9), BlockTrackerTable.pack(1, 1));
+        expected.put(shortPos(3, 255, 9), BlockTrackerTable.pack(1, 1));
+        assertTrue(expected.size() > BlockTrackerTable.DENSE_THRESHOLD);
+
+        table.remove(shortPos(2, 70, 11));
+        expected.remove(shortPos(2, 70, 11));
+        assertEquals(expected.size(), table.size());
+        for (Map.Entry<Short, Long> entry : expected.entrySet()) {
+            assertEquals((long) entry.getValue(), table.get(entry.getKey()));
+        }
+        assertEquals(BlockTrackerTable.ABSENT, table.get(shortPos(2, 70, 11)));
+
+        final Map<Short, Long> visited = new HashMap<>();
+        table.forEachShort((pos, entry) -> visited.put(pos, entry));
+        assertEquals(expected, visited);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class LightUpdateQueueTest {
+
+    private static final int POSITIONS = 1 << 16;
+
+    @Test
+    public void testDeduplicate() {
+        final LightUpdateQueue queue = new LightUpdateQueue();
+        assertTrue(queue.add((short) 5));
+        assertFalse(queue.add((short) 5));
+        assertTrue(queue.add((short) -1));
+        assertTrue(queue.contains((short) -1));
+        assertEquals(2, queue.size());
+
+        assertTrue(queue.remove((short) 5));
+        assertFalse(queue.remove((short) 5));
+        assertFalse(queue.contains((short) 5));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void testDrain() {
+        final LightUpdateQueue queue = new LightUpdateQueue();
+        for (int i = 0; i < POSITIONS; i += 7) {
+            queue.add((short) i);
+        }
+        final BitSet drained = new BitSet(POSITIONS);
+        final int count = queue.drain(drained::set);
+        assertEquals(drained.cardinality(), count);
+        for (int i = 0; i < POSITIONS; i++) {
+            assertEquals(i % 7 == 0, drained.get(i));
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.drain(pos -> {}));
+    }
+
+    @Test
+    public void testScheduling() {
+        final LightUpdateQueue queue = new LightUpdateQueue();
+        queue.add((short) 1);
+        assertTrue(queue.markScheduled());
+        assertFalse(queue.markScheduled());
+        queue.drain(pos -> {});
+        // Queued after the drain, but before it completed
+        queue.add((short) 2);
+        assertTrue(queue.completeDrain());
+        queue.drain(pos -> {});
+        assertFalse(queue.completeDrain());
+        assertTrue(queue.markScheduled());
+    }
+
+    @Test
+    public void testRelease() {
+        final LightUpdateQueue queue = new LightUpdateQueue();
+        queue.add((short) 3);
+        assertTrue(queue.markScheduled());
+        assertEquals(1, queue.drain(pos -> {}));
+        // The empty queue releases its bits, queueing allocates them again
+        assertFalse(queue.completeDrain());
+        assertFalse(queue.contains((short) 3));
+        assertFalse(queue.remove((short) 3));
+        assertTrue(queue.add((short) 3));
+        assertTrue(queue.contains((short) 3));
+        assertEquals(1, queue.size());
+    }
+
+    /**
+     * Queues every position of a chunk a few times over, like a large
+     * explosion would, while a drain runs concurrently and releases the bits
+     * whenever it emptied the queue.
+     */
+    @Test
+    public void testBurst() throws InterruptedException {
+        final int rounds = 16;
+        final LightUpdateQueue queue = new LightUpdateQueue();
+        final BitSet drained = new BitSet(POSITIONS);
+        final AtomicBoolean done = new AtomicBoolean();
+        final CountDownLatch finished = new CountDownLatch(1);
+        final int[] drainedCount = new int[1];
+        final Thread drainer = new Thread(() -> {
+            while (!done.get() || !queue.isEmpty()) {
+                queue.markScheduled();
+                drainedCount[0] += queue.drain(drained::set);
+                queue.completeDrain();
+            }
+            finished.countDown();
+        });
+        drainer.start();
+
+        int added = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < POSITIONS; i++) {
+                if (queue.add((short) i)) {
+                    added++;
+                }
+            }
+        }
+        done.set(true);
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+
+        // Every position which was queued has to be drained exactly once
+        assertEquals(added, drainedCount[0]);
+        assertEquals(POSITIONS, drained.cardinality());
+        // Positions which were still queued were deduplicated
+        assertTrue(added >= POSITIONS);
+        assertTrue(added <= rounds * POSITIONS);
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+    }
+}
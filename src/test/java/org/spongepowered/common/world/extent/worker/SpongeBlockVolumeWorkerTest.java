@@ -0,0 +1,125 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.extent.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.flowpowered.math.vector.Vector3i;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.worker.procedure.BlockVolumeFiller;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+import org.spongepowered.lwts.runner.LaunchWrapperTestRunner;
+
+@RunWith(LaunchWrapperTestRunner.class)
+public class SpongeBlockVolumeWorkerTest {
+
+    private static final Vector3i MIN = new Vector3i(-21, 3, 9);
+    private static final Vector3i SIZE = new Vector3i(50, 20, 37);
+
+    private static BlockVolumeFiller createFiller() {
+        final BlockState stone = BlockTypes.STONE.getDefaultState();
+        final BlockState dirt = BlockTypes.DIRT.getDefaultState();
+        final BlockState air = BlockTypes.AIR.getDefaultState();
+        return (x, y, z) -> {
+            final int hash = x * 31 + y * 17 + z * 13;
+            return (hash & 3) == 0 ? stone : (hash & 3) == 1 ? dirt : air;
+        };
+    }
+
+    private static int countStone(ArrayMutableBlockBuffer buffer, boolean parallel) {
+        final BlockState stone = BlockTypes.STONE.getDefaultState();
+        final SpongeBlockVolumeWorker<ArrayMutableBlockBuffer> worker = new SpongeBlockVolumeWorker<>(buffer);
+        if (parallel) {
+            worker.parallel();
+        }
+        return worker.reduce((volume, x, y, z, count) -> volume.getBlock(x, y, z) == stone ? count + 1 : count, Integer::sum, 0);
+    }
+
+    @Test
+    public void testParallelFillMatchesSequential() {
+        final ArrayMutableBlockBuffer sequential = new ArrayMutableBlockBuffer(MIN, SIZE);
+        new SpongeMutableBlockVolumeWorker<>(sequential).fill(createFiller());
+        final ArrayMutableBlockBuffer parallel = new ArrayMutableBlockBuffer(MIN, SIZE);
+        final SpongeMutableBlockVolumeWorker<ArrayMutableBlockBuffer> worker = new SpongeMutableBlockVolumeWorker<>(parallel);
+        worker.parallel();
+        worker.fill(createFiller());
+
+        final Vector3i max = sequential.getBlockMax();
+        for (int z = MIN.getZ(); z <= max.getZ(); z++) {
+            for (int y = MIN.getY(); y <= max.getY(); y++) {
+                for (int x = MIN.getX(); x <= max.getX(); x++) {
+                    assertEquals(sequential.getBlock(x, y, z), parallel.getBlock(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelReduceMatchesSequential() {
+        final ArrayMutableBlockBuffer buffer = new ArrayMutableBlockBuffer(MIN, SIZE);
+        new SpongeMutableBlockVolumeWorker<>(buffer).fill(createFiller());
+        final int expected = countStone(buffer, false);
+        assertEquals(expected, countStone(buffer, true));
+    }
+
+    @Test
+    public void testParallelMapIntoView() {
+        final ArrayMutableBlockBuffer source = new ArrayMutableBlockBuffer(MIN, SIZE);
+        new SpongeMutableBlockVolumeWorker<>(source).fill(createFiller());
+        final ArrayMutableBlockBuffer destination = new ArrayMutableBlockBuffer(MIN.sub(4, 2, 3), SIZE.add(8, 4, 6));
+        final MutableBlockVolume view = destination.getBlockView(MIN, source.getBlockMax());
+        final SpongeBlockVolumeWorker<ArrayMutableBlockBuffer> worker = new SpongeBlockVolumeWorker<>(source);
+        worker.parallel();
+        worker.map((volume, x, y, z) -> volume.getBlock(x, y, z), view);
+
+        final Vector3i max = source.getBlockMax();
+        for (int z = MIN.getZ(); z <= max.getZ(); z++) {
+            for (int y = MIN.getY(); y <= max.getY(); y++) {
+                for (int x = MIN.getX(); x <= max.getX(); x++) {
+                    assertEquals(source.getBlock(x, y, z), destination.getBlock(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoParallelWritesIntoSharedStorage() {
+        final ArrayMutableBlockBuffer buffer = new ArrayMutableBlockBuffer(MIN, SIZE);
+        final SpongeBlockVolumeWorker<ArrayMutableBlockBuffer> worker = new SpongeBlockVolumeWorker<>(buffer);
+        worker.parallel();
+        assertFalse(worker.canRunParallel(buffer, buffer));
+        assertFalse(worker.canRunParallel(buffer, buffer.getBlockView(MIN, MIN.add(SIZE).sub(2, 2, 2))));
+        assertFalse(worker.canRunParallel(buffer, buffer.getBlockView(MIN, buffer.getBlockMax()).getBlockView(MIN, buffer.getBlockMax())));
+        assertTrue(worker.canRunParallel(buffer, buffer.getBlockCopy(StorageType.STANDARD)));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.extent.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VolumeSectionsTest {
+
+    @Test
+    public void testSectionsCoverTheArea() {
+        final int xMin = -5;
+        final int zMin = 3;
+        final int xMax = 40;
+        final int zMax = 37;
+        final int xOffset = 2;
+        final int zOffset = -7;
+        final int[][] covered = new int[xMax - xMin + 1][zMax - zMin + 1];
+        final List<int[]> commits = new ArrayList<>();
+        final Thread caller = Thread.currentThread();
+        VolumeSections.<int[]>run(xMin, zMin, xMax, zMax, xOffset, zOffset,
+                (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> new int[] {sectionXMin, sectionZMin, sectionXMax, sectionZMax},
+                (sectionXMin, sectionZMin, sectionXMax, sectionZMax, result) -> {
+                    assertSame(caller, Thread.currentThread());
+                    assertEquals(sectionXMin, result[0]);
+                    assertEquals(sectionZMax, result[3]);
+                    commits.add(result);
+                });
+
+        int[] previous = null;
+        for (int[] section : commits) {
+            // Every section lies within a single chunk column of the destination
+            assertEquals((section[0] + xOffset) >> 4, (section[2] + xOffset) >> 4);
+            assertEquals((section[1] + zOffset) >> 4, (section[3] + zOffset) >> 4);
+            if (previous != null) {
+                // Committed in order, row by row
+                assertTrue(section[1] > previous[1] || section[1] == previous[1] && section[0] > previous[2]);
+            }
+            for (int x = section[0]; x <= section[2]; x++) {
+                for (int z = section[1]; z <= section[3]; z++) {
+                    covered[x - xMin][z - zMin]++;
+                }
+            }
+            previous = section;
+        }
+        for (int[] row : covered) {
+            for (int count : row) {
+                assertEquals(1, count);
+            }
+        }
+    }
+
+    @Test
+    public void testSectionsRunOnTheWorkerPool() {
+        final List<String> threads = new ArrayList<>();
+        VolumeSections.<String>run(0, 0, 63, 63, 0, 0,
+                (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> Thread.currentThread().getName(),
+                (sectionXMin, sectionZMin, sectionXMax, sectionZMax, result) -> threads.add(result));
+        assertEquals(16, threads.size());
+        for (String thread : threads) {
+            assertTrue(thread, thread.startsWith("Sponge - Volume Worker Thread #"));
+        }
+    }
+
+    @Test
+    public void testFailedSectionStopsTheRun() {
+        final List<Integer> committed = new ArrayList<>();
+        try {
+            VolumeSections.<Integer>run(0, 0, 63, 63, 0, 0, (sectionXMin, sectionZMin, sectionXMax, sectionZMax) -> {
+                if (sectionXMin == 32 && sectionZMin == 16) {
+                    throw new IllegalStateException("section failed");
+                }
+                return sectionXMin;
+            }, (sectionXMin, sectionZMin, sectionXMax, sectionZMax, result) -> committed.add(result));
+            fail("The failure of a section was not rethrown");
+        } catch (IllegalStateException e) {
+            // The sections before the failed one were still committed
+            assertEquals(6, committed.size());
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.ChunkProviderServer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncChunkLoaderTest {
+
+    private final Queue<Runnable> reads = new ArrayDeque<>();
+    private ChunkProviderServer chunkProvider;
+    private WorldServer world;
+    private IMixinAnvilChunkLoader chunkLoader;
+    private AsyncChunkLoader loader;
+
+    @Before
+    public void init() {
+        this.chunkProvider = Mockito.mock(ChunkProviderServer.class);
+        this.world = Mockito.mock(WorldServer.class);
+        this.chunkLoader = Mockito.mock(IMixinAnvilChunkLoader.class);
+        final PlayerChunkMap playerChunkMap = Mockito.mock(PlayerChunkMap.class);
+        Mockito.when(this.world.getPlayerChunkMap()).thenReturn(playerChunkMap);
+        Mockito.when(playerChunkMap.contains(Mockito.anyInt(), Mockito.anyInt())).thenReturn(true);
+        this.loader = new AsyncChunkLoader(this.chunkProvider, this.world, this.chunkLoader, this.reads::add);
+    }
+
+    private void runReads() {
+        Runnable read;
+        while ((read = this.reads.poll()) != null) {
+            read.run();
+        }
+    }
+
+    @Test
+    public void testRequestsShareRead() throws IOException {
+        final Chunk chunk = Mockito.mock(Chunk.class);
+        Mockito.when(this.chunkLoader.readChunkAsync(this.world, 1, 2)).thenReturn(new AsyncChunkData(chunk, new NBTTagCompound()));
+        Mockito.when(this.chunkProvider.loadChunk(1, 2)).thenReturn(chunk);
+
+        final CompletableFuture<Chunk> first = this.loader.load(1, 2);
+        final CompletableFuture<Chunk> second = this.loader.load(1, 2);
+        assertSame(first, second);
+        assertEquals(1, this.reads.size());
+
+        runReads();
+        assertFalse(first.isDone());
+        this.loader.processCompleted();
+        assertSame(chunk, first.getNow(null));
+        // The chunk is registered through the regular chunk loading
+        Mockito.verify(this.chunkProvider).loadChunk(1, 2);
+        Mockito.verify(this.chunkLoader, Mockito.times(1)).readChunkAsync(this.world, 1, 2);
+    }
+
+    @Test
+    public void testMissingChunkRemembered() throws IOException {
+        final CompletableFuture<Chunk> future = this.loader.load(3, 4);
+        runReads();
+        this.loader.processCompleted();
+        assertTrue(future.isDone());
+        assertNull(future.getNow(null));
+        Mockito.verify(this.chunkProvider, Mockito.never()).loadChunk(3, 4);
+
+        // Requested again every tick by the player chunk map
+        for (long tick = 1; tick <= AsyncChunkLoader.MISSING_CHUNK_TICKS; tick++) {
+            Mockito.when(this.world.getTotalWorldTime()).thenReturn(tick);
+            assertNull(this.loader.load(3, 4).getNow(null));
+            assertTrue(this.reads.isEmpty());
+        }
+
+        Mockito.when(this.world.getTotalWorldTime()).thenReturn(AsyncChunkLoader.MISSING_CHUNK_TICKS + 1);
+        this.loader.load(3, 4);
+        assertEquals(1, this.reads.size());
+        runReads();
+        Mockito.verify(this.chunkLoader, Mockito.times(2)).readChunkAsync(this.world, 3, 4);
+    }
+
+    @Test
+    public void testLoadedChunkNotMissing() {
+        this.loader.load(5, 6);
+        runReads();
+        this.loader.processCompleted();
+
+        // Generated in the meantime
+        final Chunk chunk = Mockito.mock(Chunk.class);
+        Mockito.when(this.chunkProvider.getLoadedChunk(5, 6)).thenReturn(chunk);
+        assertSame(chunk, this.loader.load(5, 6).getNow(null));
+    }
+
+    @Test
+    public void testTakeDoesNotWait() throws IOException {
+        final Chunk chunk = Mockito.mock(Chunk.class);
+        Mockito.when(this.chunkLoader.readChunkAsync(this.world, 7, 8)).thenReturn(new AsyncChunkData(chunk, new NBTTagCompound()));
+
+        final CompletableFuture<Chunk> future = this.loader.load(7, 8);
+        // The read didn't run yet, the synchronous load has to read the chunk itself
+        assertNull(this.loader.take(7, 8));
+
+        Mockito.when(this.chunkProvider.getLoadedChunk(7, 8)).thenReturn(chunk);
+        runReads();
+        this.loader.processCompleted();
+        assertSame(chunk, future.getNow(null));
+        Mockito.verify(this.chunkProvider, Mockito.never()).loadChunk(7, 8);
+    }
+
+    @Test
+    public void testFailedReadLoadedSynchronously() throws IOException {
+        final Chunk chunk = Mockito.mock(Chunk.class);
+        Mockito.when(this.chunkLoader.readChunkAsync(this.world, 9, 10)).thenThrow(new IOException());
+        Mockito.when(this.chunkProvider.loadChunk(9, 10)).thenReturn(chunk);
+
+        final CompletableFuture<Chunk> future = this.loader.load(9, 10);
+        runReads();
+        // The synchronous load reads the chunk again and reports the error
+        assertNull(this.loader.take(9, 10));
+        this.loader.processCompleted();
+        Mockito.verify(this.chunkProvider, Mockito.never()).loadChunk(9, 10);
+
+        final CompletableFuture<Chunk> retry = this.loader.load(9, 10);
+        runReads();
+        this.loader.processCompleted();
+        assertSame(chunk, retry.getNow(null));
+        assertTrue(future.isDone());
+    }
+}
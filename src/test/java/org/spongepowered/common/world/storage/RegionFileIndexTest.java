@@ -0,0 +1,138 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class RegionFileIndexTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadHeader() throws IOException {
+        final File worldDir = this.folder.newFolder();
+        final ByteBuffer header = ByteBuffer.allocate(8192);
+        header.putInt((1 + 31 * 32) * 4, 5 << 8 | 2);
+        header.putInt(0, 2 << 8 | 1);
+        header.putInt(4096, 1234);
+        writeRegion(RegionFileIndex.getRegionFile(worldDir, 33, -1), header.array());
+
+        assertTrue(RegionFileIndex.chunkExists(worldDir, 33, -1));
+        assertTrue(RegionFileIndex.chunkExists(worldDir, 32, -32));
+        assertFalse(RegionFileIndex.chunkExists(worldDir, 32, -1));
+        assertFalse(RegionFileIndex.chunkExists(worldDir, 0, 0));
+
+        final RegionFileIndex.Header regionHeader = RegionFileIndex.getHeader(worldDir, 33, -1);
+        assertEquals(5, regionHeader.getSectorOffset(1, 31));
+        assertEquals(2, regionHeader.getSectorCount(1, 31));
+        assertEquals(1234, regionHeader.getTimestamp(0, 0));
+        assertArrayEquals(new int[] {0, 1 + 31 * 32}, regionHeader.getChunksInFileOrder());
+    }
+
+    @Test
+    public void testUpdate() throws IOException {
+        final File worldDir = this.folder.newFolder();
+        final File regionFile = RegionFileIndex.getRegionFile(worldDir, 0, 0);
+        assertFalse(RegionFileIndex.chunkExists(worldDir, 3, 0));
+
+        // The region file is created by the first write
+        writeRegion(regionFile, new byte[8192]);
+        RegionFileIndex.updateOffset(regionFile, 3, 0, 2 << 8 | 1);
+        RegionFileIndex.updateOffset(regionFile, 4, 0, 3 << 8 | 1);
+        RegionFileIndex.updateOffset(regionFile, 3, 0, 4 << 8 | 1);
+        RegionFileIndex.updateTimestamp(regionFile, 3, 0, 42);
+
+        assertTrue(RegionFileIndex.chunkExists(worldDir, 3, 0));
+        assertEquals(42, RegionFileIndex.getHeader(regionFile).getTimestamp(3, 0));
+        assertArrayEquals(new int[] {4, 3}, RegionFileIndex.getHeader(regionFile).getChunksInFileOrder());
+    }
+
+    @Test
+    public void testInvalidate() throws IOException {
+        final File worldDir = this.folder.newFolder();
+        final File regionFile = RegionFileIndex.getRegionFile(worldDir, 0, 0);
+        assertFalse(RegionFileIndex.chunkExists(worldDir, 1, 0));
+
+        // Replaced without going through the region file, like copying a world
+        final ByteBuffer header = ByteBuffer.allocate(8192);
+        header.putInt(4, 2 << 8 | 1);
+        writeRegion(regionFile, header.array());
+        assertFalse(RegionFileIndex.chunkExists(worldDir, 1, 0));
+
+        RegionFileIndex.invalidateDirectory(worldDir);
+        assertFalse(RegionFileIndex.isCached(regionFile));
+        assertTrue(RegionFileIndex.chunkExists(worldDir, 1, 0));
+
+        writeRegion(regionFile, new byte[8192]);
+        RegionFileIndex.invalidate(regionFile);
+        assertFalse(RegionFileIndex.chunkExists(worldDir, 1, 0));
+    }
+
+    @Test
+    public void testInvalidateOtherDirectory() throws IOException {
+        final File worldDir = this.folder.newFolder();
+        final File regionFile = RegionFileIndex.getRegionFile(worldDir, 0, 0);
+        RegionFileIndex.getHeader(regionFile);
+
+        RegionFileIndex.invalidateDirectory(this.folder.newFolder());
+        assertTrue(RegionFileIndex.isCached(regionFile));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        final File worldDir = this.folder.newFolder();
+        final File used = RegionFileIndex.getRegionFile(worldDir, 0, 0);
+        final File unused = RegionFileIndex.getRegionFile(worldDir, 32, 0);
+        RegionFileIndex.getHeader(unused);
+        RegionFileIndex.getHeader(used);
+
+        for (int i = 2; i <= RegionFileIndex.MAX_CACHED_HEADERS * 2; i++) {
+            RegionFileIndex.getHeader(used);
+            RegionFileIndex.getHeader(RegionFileIndex.getRegionFile(worldDir, i * 32, 0));
+        }
+
+        assertTrue(RegionFileIndex.isCached(used));
+        assertFalse(RegionFileIndex.isCached(unused));
+    }
+
+    private static void writeRegion(File regionFile, byte[] header) throws IOException {
+        regionFile.getParentFile().mkdirs();
+        try (FileOutputStream stream = new FileOutputStream(regionFile)) {
+            stream.write(header);
+        }
+    }
+}